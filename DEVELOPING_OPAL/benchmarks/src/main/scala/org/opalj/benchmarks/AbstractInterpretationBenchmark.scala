@@ -0,0 +1,48 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package benchmarks
+
+import java.net.URL
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import org.opalj.ai.BaseAI
+import org.opalj.ai.domain.l1.DefaultDomainWithCFGAndDefUse
+import org.opalj.br.Method
+import org.opalj.br.analyses.Project
+
+/**
+ * Measures the abstract interpretation of a fixed corpus of methods – all methods with a body
+ * of a fixture – using the [[DefaultDomainWithCFGAndDefUse]].
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class AbstractInterpretationBenchmark {
+
+    @Param(Array(BenchmarkFixtures.DefaultFixture))
+    var fixture: String = uninitialized
+
+    var project: Project[URL] = uninitialized
+    var methods: Array[Method] = uninitialized
+
+    @Setup
+    def setup(): Unit = {
+        project = BenchmarkFixtures.project(fixture)
+        methods = project.allMethodsWithBody.toArray
+    }
+
+    @Benchmark
+    def abstractlyInterpretMethods(bh: Blackhole): Unit = {
+        val methods = this.methods
+        var i = 0
+        while (i < methods.length) {
+            val method = methods(i)
+            bh.consume(BaseAI(method, new DefaultDomainWithCFGAndDefUse(project, method)))
+            i += 1
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package benchmarks
+
+import java.io.File
+import java.net.URL
+
+import org.opalj.bi.TestResources.locateTestResources
+import org.opalj.br.analyses.Project
+import org.opalj.br.reader.readJREClassFiles
+import org.opalj.log.DevNullLogger
+import org.opalj.log.GlobalLogContext
+import org.opalj.log.OPALLogger
+
+/**
+ * The fixtures used by the benchmarks. All fixtures except for [[JREFixture]] are jars bundled with
+ * the tests of the Bytecode Infrastructure project; hence, the benchmarks are reproducible and can
+ * be run offline.
+ */
+object BenchmarkFixtures {
+
+    OPALLogger.updateLogger(GlobalLogContext, DevNullLogger)
+
+    /** The fixture that is used by default; OPAL's own code as of version 0.3. */
+    final val DefaultFixture = "classfiles/OPAL-SNAPSHOT-0.3.jar"
+
+    /** A small application which is used when an analysis of the entire default fixture is too costly. */
+    final val SmallFixture = "classfiles/Flashcards 0.4 - target 1.6.jar"
+
+    /**
+     * The class files of the JRE running the benchmarks; used by the benchmarks of whole-program
+     * analyses, whose results depend on the JRE version.
+     */
+    final val JREFixture = "JRE"
+
+    def fixtureFile(fixture: String): File = locateTestResources(fixture, "bi")
+
+    def project(fixture: String): Project[URL] = {
+        if (fixture == JREFixture) Project(readJREClassFiles(), Iterable.empty, true)
+        else Project(fixtureFile(fixture), DevNullLogger)
+    }
+}
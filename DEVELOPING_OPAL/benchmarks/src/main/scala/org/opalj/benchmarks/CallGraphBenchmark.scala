@@ -0,0 +1,41 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package benchmarks
+
+import java.net.URL
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+import org.openjdk.jmh.annotations.*
+
+import org.opalj.br.analyses.Project
+import org.opalj.tac.cg.RTACallGraphKey
+
+/**
+ * Measures the construction of an RTA call graph for a small application. Each invocation
+ * starts with a fresh (recreated) project; i.e., no information is shared across invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.SingleShotTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class CallGraphBenchmark {
+
+    @Param(Array(BenchmarkFixtures.SmallFixture))
+    var fixture: String = uninitialized
+
+    var baseProject: Project[URL] = uninitialized
+    var project: Project[URL] = uninitialized
+
+    @Setup(Level.Trial)
+    def setupFixture(): Unit = {
+        baseProject = BenchmarkFixtures.project(fixture)
+    }
+
+    @Setup(Level.Invocation)
+    def setupProject(): Unit = {
+        project = baseProject.recreate()
+    }
+
+    @Benchmark
+    def computeRTACallGraph(): Int = project.get(RTACallGraphKey).reachableMethods().size
+}
@@ -0,0 +1,33 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package benchmarks
+
+import java.io.File
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+import org.openjdk.jmh.annotations.*
+
+import org.opalj.br.reader.Java17Framework
+
+/**
+ * Measures the time required to parse all class files of a jar using the [[Java17Framework]].
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class ClassFileParsingBenchmark {
+
+    @Param(Array(BenchmarkFixtures.DefaultFixture))
+    var fixture: String = uninitialized
+
+    var fixtureFile: File = uninitialized
+
+    @Setup
+    def setup(): Unit = {
+        fixtureFile = BenchmarkFixtures.fixtureFile(fixture)
+    }
+
+    @Benchmark
+    def parseClassFiles(): Int = Java17Framework.ClassFiles(fixtureFile).size
+}
@@ -0,0 +1,64 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package benchmarks
+
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+import scala.util.Random
+
+import org.openjdk.jmh.annotations.*
+
+import org.opalj.br.ClassHierarchy
+import org.opalj.br.ClassType
+
+/**
+ * Measures [[ClassHierarchy.isSubtypeOf]] for a fixed set of pairs of class types of a fixture.
+ * Half of the pairs are actual subtype relations (the supertype is chosen among the subtype's
+ * supertypes) and half of the pairs are (most likely) unrelated types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class ClassHierarchyBenchmark {
+
+    @Param(Array(BenchmarkFixtures.DefaultFixture))
+    var fixture: String = uninitialized
+
+    @Param(Array("10000"))
+    var pairsCount: Int = uninitialized
+
+    var classHierarchy: ClassHierarchy = uninitialized
+    var subtypes: Array[ClassType] = uninitialized
+    var supertypes: Array[ClassType] = uninitialized
+
+    @Setup
+    def setup(): Unit = {
+        classHierarchy = BenchmarkFixtures.project(fixture).classHierarchy
+        val random = new Random(42L)
+        val types = {
+            val types = Array.newBuilder[ClassType]
+            classHierarchy.foreachKnownType(types += _)
+            types.result().sortBy(_.fqn)
+        }
+        subtypes = Array.fill(pairsCount)(types(random.nextInt(types.length)))
+        supertypes = Array.tabulate(pairsCount) { i =>
+            val allSupertypes = classHierarchy.allSupertypes(subtypes(i), reflexive = true).toArray.sortBy(_.fqn)
+            if (i % 2 == 0) allSupertypes(random.nextInt(allSupertypes.length))
+            else types(random.nextInt(types.length))
+        }
+    }
+
+    @Benchmark
+    def isSubtypeOf(): Int = {
+        val classHierarchy = this.classHierarchy
+        val subtypes = this.subtypes
+        val supertypes = this.supertypes
+        var subtypeRelations = 0
+        var i = 0
+        while (i < subtypes.length) {
+            if (classHierarchy.isSubtypeOf(subtypes(i), supertypes(i))) subtypeRelations += 1
+            i += 1
+        }
+        subtypeRelations
+    }
+}
@@ -0,0 +1,42 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package benchmarks
+
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import org.opalj.br.ClassType
+
+/**
+ * Measures the time required to look up the (interned) [[ClassType]]s of all types defined
+ * by a fixture. The names are fresh string instances to rule out identity-based shortcuts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class ClassTypeInterningBenchmark {
+
+    @Param(Array(BenchmarkFixtures.DefaultFixture))
+    var fixture: String = uninitialized
+
+    var fqns: Array[String] = uninitialized
+
+    @Setup
+    def setup(): Unit = {
+        val project = BenchmarkFixtures.project(fixture)
+        fqns = project.allClassFiles.iterator.map(cf => new String(cf.thisType.fqn)).toArray.sorted
+    }
+
+    @Benchmark
+    def lookupClassTypes(bh: Blackhole): Unit = {
+        val fqns = this.fqns
+        var i = 0
+        while (i < fqns.length) {
+            bh.consume(ClassType(fqns(i)))
+            i += 1
+        }
+    }
+}
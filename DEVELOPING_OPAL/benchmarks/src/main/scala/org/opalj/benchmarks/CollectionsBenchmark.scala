@@ -0,0 +1,129 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package benchmarks
+
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+import scala.util.Random
+
+import org.openjdk.jmh.annotations.*
+
+import org.opalj.collection.UID
+import org.opalj.collection.immutable.IntTrieSet
+import org.opalj.collection.immutable.LongLinkedTrieSet
+import org.opalj.collection.immutable.UIDSet
+
+/**
+ * Measures the core operations (adding, membership tests and iteration) of OPAL's
+ * specialized sets: [[IntTrieSet]], [[LongLinkedTrieSet]] and [[UIDSet]].
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class CollectionsBenchmark {
+
+    import CollectionsBenchmark.Element
+
+    @Param(Array("16", "256", "4096"))
+    var size: Int = uninitialized
+
+    var ints: Array[Int] = uninitialized
+    var longs: Array[Long] = uninitialized
+    var elements: Array[Element] = uninitialized
+
+    var intTrieSet: IntTrieSet = uninitialized
+    var longLinkedTrieSet: LongLinkedTrieSet = uninitialized
+    var uidSet: UIDSet[Element] = uninitialized
+    var otherUIDSet: UIDSet[Element] = uninitialized
+
+    @Setup
+    def setup(): Unit = {
+        val random = new Random(42L)
+        ints = Array.fill(size)(random.nextInt(size * 4))
+        longs = Array.fill(size)(random.nextLong())
+        elements = ints.map(new Element(_))
+
+        intTrieSet = buildIntTrieSet()
+        longLinkedTrieSet = buildLongLinkedTrieSet()
+        uidSet = buildUIDSet()
+        otherUIDSet = UIDSet(Array.fill(size)(new Element(random.nextInt(size * 4)))*)
+    }
+
+    @Benchmark
+    def buildIntTrieSet(): IntTrieSet = {
+        var set = IntTrieSet.empty
+        val ints = this.ints
+        var i = 0
+        while (i < ints.length) { set += ints(i); i += 1 }
+        set
+    }
+
+    @Benchmark
+    def containsIntTrieSet(): Int = {
+        var found = 0
+        var i = 0
+        while (i < size * 4) { if (intTrieSet.contains(i)) found += 1; i += 1 }
+        found
+    }
+
+    @Benchmark
+    def foreachIntTrieSet(): Int = {
+        var sum = 0
+        intTrieSet.foreach(sum += _)
+        sum
+    }
+
+    @Benchmark
+    def buildLongLinkedTrieSet(): LongLinkedTrieSet = {
+        var set = LongLinkedTrieSet.empty
+        val longs = this.longs
+        var i = 0
+        while (i < longs.length) { set += longs(i); i += 1 }
+        set
+    }
+
+    @Benchmark
+    def containsLongLinkedTrieSet(): Int = {
+        var found = 0
+        val longs = this.longs
+        var i = 0
+        while (i < longs.length) {
+            if (longLinkedTrieSet.contains(longs(i))) found += 1
+            if (longLinkedTrieSet.contains(~longs(i))) found += 1
+            i += 1
+        }
+        found
+    }
+
+    @Benchmark
+    def foreachLongLinkedTrieSet(): Long = {
+        var sum = 0L
+        longLinkedTrieSet.foreach(sum += _)
+        sum
+    }
+
+    @Benchmark
+    def buildUIDSet(): UIDSet[Element] = {
+        var set = UIDSet.empty[Element]
+        val elements = this.elements
+        var i = 0
+        while (i < elements.length) { set += elements(i); i += 1 }
+        set
+    }
+
+    @Benchmark
+    def containsUIDSet(): Int = {
+        var found = 0
+        var i = 0
+        while (i < size * 4) { if (uidSet.containsId(i)) found += 1; i += 1 }
+        found
+    }
+
+    @Benchmark
+    def unionUIDSet(): UIDSet[Element] = uidSet ++ otherUIDSet
+}
+
+object CollectionsBenchmark {
+
+    final class Element(val id: Int) extends UID
+}
@@ -0,0 +1,96 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package benchmarks
+
+import java.net.URL
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+import org.openjdk.jmh.annotations.*
+
+import org.opalj.br.analyses.Project
+import org.opalj.br.analyses.SomeProject
+import org.opalj.fpcf.FPCFAnalysesManagerKey
+import org.opalj.fpcf.PropertyStoreKey
+import org.opalj.ide.integration.EagerIDEAnalysisProxyScheduler
+import org.opalj.ide.integration.LazyIDEAnalysisProxyScheduler
+import org.opalj.tac.cg.RTACallGraphKey
+import org.opalj.tac.fpcf.analyses.fieldaccess.EagerFieldAccessInformationAnalysis
+import org.opalj.tac.fpcf.analyses.fieldassignability.LazyL2FieldAssignabilityAnalysis
+import org.opalj.tac.fpcf.analyses.ide.instances.lcp_on_fields.LCPOnFieldsAnalysisScheduler
+import org.opalj.tac.fpcf.analyses.ide.instances.lcp_on_fields.LinearConstantPropagationAnalysisSchedulerExtended
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.LinearConstantPropagationAnalysisScheduler
+
+/**
+ * Measures the IDE solver using the linear constant propagation and the linear constant
+ * propagation on fields for all methods with a body of a fixture; the solver processes its work
+ * lists using `parallelismLevel` threads (see
+ * [[org.opalj.ide.integration.IDEAnalysisScheduler.solverParallelismLevel]]). Each invocation
+ * starts with a fresh (recreated) project for which the RTA call graph is computed beforehand;
+ * i.e., only the IDE analyses are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.SingleShotTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class IDEAnalysisBenchmark {
+
+    @Param(Array(BenchmarkFixtures.SmallFixture, BenchmarkFixtures.JREFixture))
+    var fixture: String = uninitialized
+
+    @Param(Array("1", "4"))
+    var parallelismLevel: Int = uninitialized
+
+    var baseProject: Project[URL] = uninitialized
+    var project: Project[URL] = uninitialized
+
+    @Setup(Level.Trial)
+    def setupFixture(): Unit = {
+        baseProject = BenchmarkFixtures.project(fixture)
+    }
+
+    @Setup(Level.Invocation)
+    def setupProject(): Unit = {
+        project = baseProject.recreate()
+        project.get(RTACallGraphKey)
+    }
+
+    @TearDown(Level.Invocation)
+    def tearDownProject(): Unit = {
+        project.get(PropertyStoreKey).shutdown()
+    }
+
+    @Benchmark
+    def linearConstantPropagation(): Int = {
+        val level = parallelismLevel
+        val lcpAnalysisScheduler = new LinearConstantPropagationAnalysisScheduler() {
+            override def solverParallelismLevel(project: SomeProject): Int = level
+        }
+
+        val (ps, _) = project.get(FPCFAnalysesManagerKey).runAll(
+            lcpAnalysisScheduler,
+            new EagerIDEAnalysisProxyScheduler(lcpAnalysisScheduler)
+        )
+        ps.entities(lcpAnalysisScheduler.propertyMetaInformation.key).size
+    }
+
+    @Benchmark
+    def lcpOnFields(): Int = {
+        val level = parallelismLevel
+        val lcpAnalysisScheduler = new LinearConstantPropagationAnalysisSchedulerExtended() {
+            override def solverParallelismLevel(project: SomeProject): Int = level
+        }
+        val lcpOnFieldsAnalysisScheduler = new LCPOnFieldsAnalysisScheduler() {
+            override def solverParallelismLevel(project: SomeProject): Int = level
+        }
+
+        val (ps, _) = project.get(FPCFAnalysesManagerKey).runAll(
+            lcpAnalysisScheduler,
+            lcpOnFieldsAnalysisScheduler,
+            new LazyIDEAnalysisProxyScheduler(lcpAnalysisScheduler),
+            new EagerIDEAnalysisProxyScheduler(lcpOnFieldsAnalysisScheduler),
+            LazyL2FieldAssignabilityAnalysis,
+            EagerFieldAccessInformationAnalysis
+        )
+        ps.entities(lcpOnFieldsAnalysisScheduler.propertyMetaInformation.key).size
+    }
+}
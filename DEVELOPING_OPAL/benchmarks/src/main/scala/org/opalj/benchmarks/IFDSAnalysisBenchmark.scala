@@ -0,0 +1,153 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package benchmarks
+
+import java.net.URL
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+import com.typesafe.config.Config
+import com.typesafe.config.ConfigFactory
+import com.typesafe.config.ConfigValueFactory
+import org.openjdk.jmh.annotations.*
+
+import org.opalj.br.ClassType
+import org.opalj.br.Method
+import org.opalj.br.analyses.DeclaredMethodsKey
+import org.opalj.br.analyses.Project
+import org.opalj.br.analyses.ProjectInformationKeys
+import org.opalj.br.analyses.SomeProject
+import org.opalj.br.fpcf.properties.cg.Callers
+import org.opalj.fpcf.FPCFAnalysis
+import org.opalj.fpcf.FPCFAnalysesManagerKey
+import org.opalj.fpcf.PropertyBounds
+import org.opalj.fpcf.PropertyStore
+import org.opalj.fpcf.PropertyStoreKey
+import org.opalj.ifds.IFDSAnalysis
+import org.opalj.ifds.IFDSAnalysisScheduler
+import org.opalj.ifds.IFDSFact
+import org.opalj.ifds.IFDSPropertyMetaInformation
+import org.opalj.tac.cg.RTACallGraphKey
+import org.opalj.tac.cg.TypeIteratorKey
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaICFG
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaStatement
+import org.opalj.tac.fpcf.analyses.ifds.taint.AbstractJavaForwardTaintProblem
+import org.opalj.tac.fpcf.analyses.ifds.taint.FlowFact
+import org.opalj.tac.fpcf.analyses.ifds.taint.TaintFact
+import org.opalj.tac.fpcf.analyses.ifds.taint.Variable
+import org.opalj.tac.fpcf.properties.TACAI
+import org.opalj.tac.fpcf.properties.Taint
+
+/**
+ * Measures the IFDS solver using a forward taint analysis which tracks the String parameters of
+ * all methods that are callable from outside the analyzed library to calls of `Class.forName`.
+ * The fixture is analyzed as a library. Each invocation starts with a fresh (recreated) project
+ * for which the RTA call graph is computed beforehand; i.e., only the IFDS analysis is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.SingleShotTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class IFDSAnalysisBenchmark {
+
+    @Param(Array(BenchmarkFixtures.DefaultFixture, BenchmarkFixtures.JREFixture))
+    var fixture: String = uninitialized
+
+    var baseProject: Project[URL] = uninitialized
+    var project: Project[URL] = uninitialized
+
+    @Setup(Level.Trial)
+    def setupFixture(): Unit = {
+        baseProject = Project.recreate(BenchmarkFixtures.project(fixture), IFDSAnalysisBenchmark.LibraryConfig)
+    }
+
+    @Setup(Level.Invocation)
+    def setupProject(): Unit = {
+        project = baseProject.recreate()
+        project.get(RTACallGraphKey)
+    }
+
+    @TearDown(Level.Invocation)
+    def tearDownProject(): Unit = {
+        project.get(PropertyStoreKey).shutdown()
+    }
+
+    @Benchmark
+    def forwardTaintAnalysis(): Int = {
+        val (ps, _) = project.get(FPCFAnalysesManagerKey).runAll(ClassForNameTaintAnalysisScheduler)
+        ps.entities(Taint.key).size
+    }
+}
+
+object IFDSAnalysisBenchmark {
+
+    /** Analyzes the fixture as a library; i.e., all methods callable by a client are entry points. */
+    final val LibraryConfig: Config = ConfigFactory.empty()
+        .withValue(
+            "org.opalj.br.analyses.cg.InitialEntryPointsKey.analysis",
+            ConfigValueFactory.fromAnyRef("org.opalj.br.analyses.cg.LibraryEntryPointsFinder")
+        )
+        .withValue(
+            "org.opalj.br.analyses.cg.InitialInstantiatedTypesKey.analysis",
+            ConfigValueFactory.fromAnyRef("org.opalj.br.analyses.cg.LibraryInstantiatedTypesFinder")
+        )
+}
+
+/**
+ * The taint problem of the [[IFDSAnalysisBenchmark]]: the String parameters of all methods that
+ * are callable from outside the library are tainted; a flow is reported if a tainted value is
+ * passed to `Class.forName`. There is no sanitizing.
+ */
+class ClassForNameTaintProblem(project: SomeProject) extends AbstractJavaForwardTaintProblem(project) {
+
+    override val entryPoints: Seq[(Method, IFDSFact[TaintFact, Method, JavaStatement])] = for {
+        m <- icfg.methodsCallableFromOutside.toSeq
+        if !m.definedMethod.isNative
+        index <- m.descriptor.parameterTypes.zipWithIndex.collect {
+            case (pType, index) if pType == ClassType.String => index
+        }
+    } yield (m.definedMethod, new IFDSFact(Variable(-2 - index)))
+
+    override protected def sanitizesReturnValue(callee: Method): Boolean = false
+
+    override protected def sanitizesParameter(call: JavaStatement, in: TaintFact): Boolean = false
+
+    override protected def createTaints(callee: Method, call: JavaStatement): Set[TaintFact] = Set.empty
+
+    override protected def createFlowFact(callee: Method, call: JavaStatement, in: TaintFact): Option[FlowFact] = {
+        val declaredCallee = declaredMethods(callee)
+        if (declaredCallee.declaringClassType == ClassType.Class && declaredCallee.name == "forName" &&
+            in == Variable(-2)
+        ) Some(FlowFact(Seq(call.method)))
+        else None
+    }
+
+    override def createFlowFactAtExit(callee: Method, in: TaintFact, unbCallChain: Seq[Method]): Option[TaintFact] =
+        None
+}
+
+/**
+ * Schedules the taint analysis of the [[IFDSAnalysisBenchmark]] and computes its results for all
+ * entry points of the [[ClassForNameTaintProblem]].
+ */
+object ClassForNameTaintAnalysisScheduler
+    extends IFDSAnalysisScheduler[TaintFact, Method, JavaStatement, JavaICFG] {
+
+    override def init(p: SomeProject, ps: PropertyStore): IFDSAnalysis[TaintFact, Method, JavaStatement, JavaICFG] =
+        new IFDSAnalysis(p, new ClassForNameTaintProblem(p), Taint)
+
+    override def property: IFDSPropertyMetaInformation[JavaStatement, TaintFact] = Taint
+
+    override def requiredProjectInformation: ProjectInformationKeys =
+        Seq(DeclaredMethodsKey, TypeIteratorKey, PropertyStoreKey, RTACallGraphKey)
+
+    override def uses: Set[PropertyBounds] = PropertyBounds.finalPs(TACAI, Callers)
+
+    override def uses(p: SomeProject, ps: PropertyStore): Set[PropertyBounds] = {
+        p.get(TypeIteratorKey).usedPropertyKinds
+    }
+
+    override def afterPhaseScheduling(ps: PropertyStore, analysis: FPCFAnalysis): Unit = {
+        val ifdsAnalysis = analysis.asInstanceOf[IFDSAnalysis[TaintFact, Method, JavaStatement, JavaICFG]]
+        ifdsAnalysis.ifdsProblem.entryPoints.foreach(ps.force(_, Taint.key))
+    }
+}
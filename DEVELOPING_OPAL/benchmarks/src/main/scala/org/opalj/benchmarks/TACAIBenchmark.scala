@@ -0,0 +1,66 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package benchmarks
+
+import java.net.URL
+import java.util.concurrent.TimeUnit
+import scala.compiletime.uninitialized
+
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import org.opalj.ai.AIResult
+import org.opalj.ai.BaseAI
+import org.opalj.ai.Domain
+import org.opalj.ai.domain.RecordDefUse
+import org.opalj.ai.domain.l1.DefaultDomainWithCFGAndDefUse
+import org.opalj.br.Method
+import org.opalj.br.analyses.Project
+import org.opalj.tac.TACAI
+
+/**
+ * Measures the construction of the three-address code ([[TACAI]]) of all methods with a body
+ * of a fixture. The transformation is measured on its own (using precomputed results of the
+ * abstract interpretation) as well as including the abstract interpretation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class TACAIBenchmark {
+
+    @Param(Array(BenchmarkFixtures.DefaultFixture))
+    var fixture: String = uninitialized
+
+    var project: Project[URL] = uninitialized
+    var methods: Array[Method] = uninitialized
+    var aiResults: Array[AIResult { val domain: Domain & RecordDefUse }] = uninitialized
+
+    @Setup
+    def setup(): Unit = {
+        project = BenchmarkFixtures.project(fixture)
+        methods = project.allMethodsWithBody.toArray
+        aiResults = methods.map { method =>
+            BaseAI(method, new DefaultDomainWithCFGAndDefUse(project, method))
+        }
+    }
+
+    @Benchmark
+    def transformToTACAI(bh: Blackhole): Unit = {
+        val methods = this.methods
+        var i = 0
+        while (i < methods.length) {
+            bh.consume(TACAI(project, methods(i), aiResults(i)))
+            i += 1
+        }
+    }
+
+    @Benchmark
+    def abstractlyInterpretAndTransformToTACAI(bh: Blackhole): Unit = {
+        val methods = this.methods
+        var i = 0
+        while (i < methods.length) {
+            bh.consume(TACAI(project, methods(i))())
+            i += 1
+        }
+    }
+}
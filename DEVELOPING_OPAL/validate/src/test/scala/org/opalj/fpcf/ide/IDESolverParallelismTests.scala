@@ -0,0 +1,111 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package fpcf
+package ide
+
+import org.opalj.br.Method
+import org.opalj.br.analyses.SomeProject
+import org.opalj.ide.integration.EagerIDEAnalysisProxyScheduler
+import org.opalj.ide.integration.LazyIDEAnalysisProxyScheduler
+import org.opalj.tac.fpcf.analyses.fieldaccess.EagerFieldAccessInformationAnalysis
+import org.opalj.tac.fpcf.analyses.fieldassignability.LazyL2FieldAssignabilityAnalysis
+import org.opalj.tac.fpcf.analyses.ide.instances.lcp_on_fields.LCPOnFieldsAnalysisScheduler
+import org.opalj.tac.fpcf.analyses.ide.instances.lcp_on_fields.LinearConstantPropagationAnalysisSchedulerExtended
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.LinearConstantPropagationAnalysisScheduler
+
+/**
+ * Tests that the IDE solver computes the same results independent of the number of threads it uses to process its
+ * work lists.
+ */
+class IDESolverParallelismTests extends IDEPropertiesTest {
+    override def fixtureProjectPackage: List[String] = {
+        List(
+            "org/opalj/fpcf/fixtures/linear_constant_propagation/lcp",
+            "org/opalj/fpcf/fixtures/linear_constant_propagation/lcp_on_fields"
+        )
+    }
+
+    final val ParallelismLevel = 4
+
+    /**
+     * The (final) properties of the given kinds of all methods with annotations
+     */
+    def results(testContext: TestContext, keys: PropertyKey[? <: Property]*): Map[(Method, String), Property] = {
+        (for {
+            (method, _, _) <- methodsWithAnnotations(testContext.project)
+            eps <- testContext.propertyStore.properties(method)
+            if keys.contains(eps.pk)
+        } yield {
+            assert(eps.isFinal, s"the result for $method is not final: $eps")
+            ((method, PropertyKey.name(eps.pk)), eps.toFinalEP.p)
+        }).toMap
+    }
+
+    def linearConstantPropagationResults(parallelismLevel: Int): Map[(Method, String), Property] = {
+        val linearConstantPropagationAnalysisScheduler = new LinearConstantPropagationAnalysisScheduler() {
+            override def solverParallelismLevel(project: SomeProject): Int = parallelismLevel
+        }
+
+        val testContext = executeAnalyses(Set(
+            linearConstantPropagationAnalysisScheduler,
+            new EagerIDEAnalysisProxyScheduler(
+                linearConstantPropagationAnalysisScheduler,
+                { (project: SomeProject) => methodsWithAnnotations(project).map(_._1) }
+            )
+        ))
+        testContext.propertyStore.shutdown()
+
+        results(testContext, linearConstantPropagationAnalysisScheduler.propertyMetaInformation.key)
+    }
+
+    def lcpOnFieldsResults(parallelismLevel: Int): Map[(Method, String), Property] = {
+        val linearConstantPropagationAnalysisSchedulerExtended =
+            new LinearConstantPropagationAnalysisSchedulerExtended() {
+                override def solverParallelismLevel(project: SomeProject): Int = parallelismLevel
+            }
+        val lcpOnFieldsAnalysisScheduler = new LCPOnFieldsAnalysisScheduler() {
+            override def solverParallelismLevel(project: SomeProject): Int = parallelismLevel
+        }
+
+        val testContext = executeAnalyses(Set(
+            linearConstantPropagationAnalysisSchedulerExtended,
+            lcpOnFieldsAnalysisScheduler,
+            new LazyIDEAnalysisProxyScheduler(linearConstantPropagationAnalysisSchedulerExtended),
+            new LazyIDEAnalysisProxyScheduler(lcpOnFieldsAnalysisScheduler) {
+                override def afterPhaseScheduling(propertyStore: PropertyStore, analysis: FPCFAnalysis): Unit = {
+                    val entryPoints = methodsWithAnnotations(analysis.project.asInstanceOf[SomeProject])
+                    entryPoints.foreach { case (method, _, _) =>
+                        propertyStore.force(method, lcpOnFieldsAnalysisScheduler.propertyMetaInformation.key)
+                        propertyStore.force(
+                            method,
+                            linearConstantPropagationAnalysisSchedulerExtended.propertyMetaInformation.key
+                        )
+                    }
+                }
+            },
+            LazyL2FieldAssignabilityAnalysis,
+            EagerFieldAccessInformationAnalysis
+        ))
+        testContext.propertyStore.shutdown()
+
+        results(
+            testContext,
+            lcpOnFieldsAnalysisScheduler.propertyMetaInformation.key,
+            linearConstantPropagationAnalysisSchedulerExtended.propertyMetaInformation.key
+        )
+    }
+
+    describe("Execute the IDE solver with one and with multiple threads") {
+        it("should compute the same results for the LinearConstantPropagationAnalysis") {
+            val sequentialResults = linearConstantPropagationResults(1)
+            sequentialResults should not be empty
+            linearConstantPropagationResults(ParallelismLevel) should be(sequentialResults)
+        }
+
+        it("should compute the same results for the LCPOnFieldsAnalysis") {
+            val sequentialResults = lcpOnFieldsResults(1)
+            sequentialResults should not be empty
+            lcpOnFieldsResults(ParallelismLevel) should be(sequentialResults)
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package fpcf
+package ide
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.ConcurrentHashMap
+import scala.jdk.CollectionConverters.*
+
+import org.opalj.br.Method
+import org.opalj.br.analyses.SomeProject
+import org.opalj.ide.integration.EagerIDEAnalysisProxyScheduler
+import org.opalj.ide.problem.FlowFunction
+import org.opalj.ide.solver.IDESummaryStore
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.LinearConstantPropagationAnalysisScheduler
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.LinearConstantPropagationSummaryCodec
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.LinearConstantPropagationFact
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.LinearConstantPropagationProblem
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.LinearConstantPropagationValue
+import org.opalj.tac.fpcf.analyses.ide.problem.JavaIDEProblem
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaICFG
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaStatement
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaSummaryScope
+
+/**
+ * Tests that the IDE solver uses the end summaries persisted by an [[IDESummaryStore]] in an earlier run instead of
+ * analyzing the respective callees again.
+ */
+class IDESummaryStoreTests extends IDEPropertiesTest {
+    override def fixtureProjectPackage: List[String] = {
+        List("org/opalj/fpcf/fixtures/linear_constant_propagation/lcp")
+    }
+
+    final val Fingerprint = Array[Byte](42)
+
+    /**
+     * A method of the fixture project that is only analyzed when it is called (it has no annotations)
+     */
+    final val Callee = "linearCalculation2"
+
+    /**
+     * The results of a run of the linear constant propagation and the names of the methods whose statements were
+     * analyzed in the run
+     *
+     * @param summaries The file to read persisted summaries from and to write the recorded summaries to.
+     * @param persistable Whether the methods of the fixture project are treated as persistable (see
+     *                    [[org.opalj.ide.solver.IDESummaryCodec.isPersistable]]).
+     */
+    def run(summaries: Path, persistable: Boolean): (Map[Method, Property], Set[String]) = {
+        val analyzedMethods = ConcurrentHashMap.newKeySet[String]()
+        var store: IDESummaryStore[
+            LinearConstantPropagationFact,
+            LinearConstantPropagationValue,
+            JavaStatement,
+            Method
+        ] = null
+
+        val linearConstantPropagationAnalysisScheduler = new LinearConstantPropagationAnalysisScheduler() {
+            override def createProblem(project: SomeProject, icfg: JavaICFG): JavaIDEProblem[
+                LinearConstantPropagationFact,
+                LinearConstantPropagationValue
+            ] = {
+                new LinearConstantPropagationProblem {
+                    override def getNormalFlowFunction(
+                        source:     JavaStatement,
+                        sourceFact: LinearConstantPropagationFact,
+                        target:     JavaStatement
+                    )(implicit propertyStore: PropertyStore): FlowFunction[LinearConstantPropagationFact] = {
+                        analyzedMethods.add(source.method.name)
+                        super.getNormalFlowFunction(source, sourceFact, target)
+                    }
+                }
+            }
+
+            override def summaryStore(project: SomeProject): Option[IDESummaryStore[
+                LinearConstantPropagationFact,
+                LinearConstantPropagationValue,
+                JavaStatement,
+                Method
+            ]] = {
+                // the methods of the fixture project are no library methods
+                val scope = new JavaSummaryScope(project)
+                store = new IDESummaryStore(new LinearConstantPropagationSummaryCodec(scope) {
+                    override def callableKey(callable: Method): Option[String] = Some(scope.methodHash(callable))
+                    override def isPersistable(callable: Method): Boolean = persistable
+                })
+                store.read(summaries, Fingerprint)(using project.logContext)
+                Some(store)
+            }
+        }
+
+        val testContext = executeAnalyses(Set(
+            linearConstantPropagationAnalysisScheduler,
+            new EagerIDEAnalysisProxyScheduler(
+                linearConstantPropagationAnalysisScheduler,
+                { (project: SomeProject) => methodsWithAnnotations(project).map(_._1) }
+            )
+        ))
+        testContext.propertyStore.shutdown()
+        store.write(summaries, Fingerprint)(using testContext.project.logContext)
+
+        val results = (for {
+            (method, _, _) <- methodsWithAnnotations(testContext.project)
+            eps <- testContext.propertyStore.properties(method)
+            if eps.pk == linearConstantPropagationAnalysisScheduler.propertyMetaInformation.key
+        } yield {
+            assert(eps.isFinal, s"the result for $method is not final: $eps")
+            (method, eps.toFinalEP.p)
+        }).toMap
+        (results, analyzedMethods.asScala.toSet)
+    }
+
+    def withSummariesFile(f: Path => Unit): Unit = {
+        val file = Files.createTempFile("IDESummaryStoreTests", ".summaries")
+        Files.delete(file)
+        try f(file) finally Files.deleteIfExists(file)
+    }
+
+    describe("Execute the LinearConstantPropagationAnalysis with persisted summaries") {
+        it("should use the persisted summaries instead of analyzing the callees") {
+            withSummariesFile { file =>
+                val (results, analyzedMethods) = run(file, persistable = true)
+                analyzedMethods should contain(Callee)
+                Files.exists(file) should be(true)
+
+                val (resultsWithSummaries, analyzedMethodsWithSummaries) = run(file, persistable = true)
+                analyzedMethodsWithSummaries should not contain Callee
+                resultsWithSummaries should be(results)
+            }
+        }
+
+        it("should not use the persisted summaries of callees that are not persistable in the current run") {
+            withSummariesFile { file =>
+                run(file, persistable = true)
+
+                val (_, analyzedMethods) = run(file, persistable = false)
+                analyzedMethods should contain(Callee)
+            }
+        }
+    }
+}
@@ -139,6 +139,11 @@ object DomainRegistry {
 
     final val configStrategySelectionKey = "org.opalj.ai.common.DomainRegistry.defaultStrategy"
 
+    /**
+     * Selects the domains using the configured strategy; in case of the `adaptive` strategy the
+     * best domains are selected, which are then used for all methods for which they are
+     * affordable (see `org.opalj.ai.fpcf.properties.AdaptiveAIExecutor`).
+     */
     def selectConfigured(
         config:       Config,
         requirements: Iterable[Class[? <: AnyRef]]
@@ -146,6 +151,7 @@ object DomainRegistry {
         config.getString(configStrategySelectionKey) match {
             case "cheapest" => selectCheapest(requirements)
             case "best"     => selectBest(requirements)
+            case "adaptive" => selectBest(requirements)
             case s          => throw new UnsupportedOperationException(s"unknown strategy: $s")
         }
     }
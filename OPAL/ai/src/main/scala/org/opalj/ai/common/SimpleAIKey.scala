@@ -8,6 +8,7 @@ import scala.collection.concurrent.TrieMap
 import org.opalj.ai.domain.RecordDefUse
 import org.opalj.ai.domain.l1.DefaultDomainWithCFGAndDefUse
 import org.opalj.br.Method
+import org.opalj.br.analyses.IncrementalProjectInformationKey
 import org.opalj.br.analyses.ProjectInformationKey
 import org.opalj.br.analyses.SomeProject
 import org.opalj.log.LogContext
@@ -37,7 +38,7 @@ import org.opalj.log.OPALLogger
  * @author Michael Eichberg
  */
 object SimpleAIKey
-    extends ProjectInformationKey[
+    extends IncrementalProjectInformationKey[
         Method => AIResult { val domain: Domain & RecordDefUse },
         /*DomainFactory*/ Method => Domain & RecordDefUse
     ] {
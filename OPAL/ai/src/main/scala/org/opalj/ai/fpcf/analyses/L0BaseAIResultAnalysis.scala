@@ -33,7 +33,7 @@ class L0BaseAIResultAnalysis private[analyses] (val project: SomeProject) extend
 
     def performAI(entity: Entity): ProperPropertyComputationResult = {
         entity match {
-            case m: Method => Result(m, AnAIResult(L0BaseAIResultAnalysis.performAI(m)))
+            case m: Method => Result(m, L0BaseAIResultAnalysis.performBaseAI(m))
             case e         => throw new IllegalArgumentException(s"$e is not a method")
         }
     }
@@ -56,8 +56,22 @@ object L0BaseAIResultAnalysis {
         aiFactory:  ProjectSpecificAIExecutor,
         logContext: LogContext
     ): AIResult = {
+        performBaseAI(m).theAIResult
+    }
+
+    /**
+     * Performs the abstract interpretation of the given method (see [[performAI]]) and records
+     * the domain that was used.
+     */
+    def performBaseAI(
+        m: Method
+    )(
+        implicit
+        aiFactory:  ProjectSpecificAIExecutor,
+        logContext: LogContext
+    ): AnAIResult = {
         try {
-            aiFactory(m)
+            aiFactory.baseAIResult(m)
         } catch {
             case t: Throwable =>
                 error(
@@ -67,7 +81,7 @@ object L0BaseAIResultAnalysis {
                     t
                 )
                 val reason = Some("replaced due to invalid bytecode\n" + t.getMessage)
-                performAI(m.invalidBytecode(reason))
+                performBaseAI(m.invalidBytecode(reason))
         }
     }
 }
@@ -6,8 +6,10 @@ package properties
 
 import org.opalj.ai.common.DomainRegistry
 import org.opalj.br.Method
+import org.opalj.br.analyses.IncrementalProjectInformationKey
 import org.opalj.br.analyses.ProjectInformationKey
 import org.opalj.br.analyses.SomeProject
+import org.opalj.fpcf.Entity
 import org.opalj.log.LogContext
 import org.opalj.log.OPALLogger
 
@@ -22,6 +24,12 @@ class ProjectSpecificAIExecutor(
 ) extends (Method => AIResult) {
 
     def apply(m: Method): AIResult = { BaseAI(m, domainFactory(project, m)) }
+
+    /**
+     * Performs the abstract interpretation of the given method and records the domain that
+     * was used.
+     */
+    def baseAIResult(m: Method): AnAIResult = AnAIResult(apply(m))(domainClass)
 }
 
 /**
@@ -35,10 +43,13 @@ class ProjectSpecificAIExecutor(
  * This key's project specific initialization data are `java.lang.Class` objects which
  * have to be implemented by the finally chosen domain.
  *
+ * If the configured strategy is `adaptive`, the domain is chosen per method; see
+ * [[AdaptiveAIExecutor]].
+ *
  * @author Michael Eichberg
  */
 object AIDomainFactoryKey
-    extends ProjectInformationKey[ProjectSpecificAIExecutor, Set[Class[? <: AnyRef]]] {
+    extends IncrementalProjectInformationKey[ProjectSpecificAIExecutor, Set[Class[? <: AnyRef]]] {
 
     /**
      * This key has no special prerequisites.
@@ -47,6 +58,21 @@ object AIDomainFactoryKey
      */
     override def requirements(project: SomeProject): Seq[ProjectInformationKey[Nothing, Nothing]] = Nil
 
+    /**
+     * The required (partial) domains do not refer to the project; hence, they are also used for
+     * the updated project.
+     */
+    override def prepareUpdate(
+        oldProject:     SomeProject,
+        newProject:     SomeProject,
+        changedMethods: Set[Method]
+    ): Option[Iterator[Entity]] = {
+        oldProject.getProjectInformationKeyInitializationData(this).foreach { requirements =>
+            newProject.updateProjectInformationKeyInitializationData(this)(_ => requirements)
+        }
+        Some(Iterator.empty)
+    }
+
     /**
      * Returns an object which performs and caches the result of the abstract interpretation of a
      * method when required.
@@ -94,6 +120,9 @@ object AIDomainFactoryKey
         )
 
         val domainFactory = DomainRegistry.domainMetaInformation(domainClass).factory
-        new ProjectSpecificAIExecutor(project, domainClass, domainFactory)
+        if (project.config.getString(DomainRegistry.configStrategySelectionKey) == "adaptive")
+            AdaptiveAIExecutor(project, domainClass, domainFactoryRequirements)
+        else
+            new ProjectSpecificAIExecutor(project, domainClass, domainFactory)
     }
 }
@@ -0,0 +1,169 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package ai
+package fpcf
+package properties
+
+import java.util.Arrays
+
+import org.opalj.ai.common.DomainRegistry
+import org.opalj.br.Code
+import org.opalj.br.Method
+import org.opalj.br.analyses.SomeProject
+import org.opalj.log.LogContext
+import org.opalj.log.OPALLogger
+import org.opalj.util.Milliseconds
+
+/**
+ * Selects the domain that is used to perform the abstract interpretation per method.
+ *
+ * The domains are tried from the most precise to the cheapest one. Methods whose estimated
+ * cost (see [[AdaptiveAIExecutor.estimatedCost]]) exceeds `maxCost` are directly analyzed using
+ * the cheapest domain. The abstract interpretation using any but the cheapest domain is
+ * bounded (see [[BoundedInterruptableAI]]); if it is aborted, the method is analyzed again
+ * using the next cheaper domain. The cheapest domain is always used without a bound, so that
+ * a complete result is computed.
+ *
+ * The domain that was finally used is recorded by the [[AnAIResult]].
+ *
+ * @param domainClasses The registered classes of the domains that satisfy the requirements
+ *          ordered by their precision, i.e., the most precise domain first.
+ */
+class AdaptiveAIExecutor(
+    p:                       SomeProject,
+    val domainClasses:       IndexedSeq[Class[? <: Domain]],
+    val maxCost:             Double,
+    val maxEvaluationFactor: Double,
+    val maxEvaluationTime:   Milliseconds
+) extends ProjectSpecificAIExecutor(
+        p,
+        domainClasses.head,
+        DomainRegistry.domainMetaInformation(domainClasses.head).factory
+    ) {
+
+    private val domainFactories = domainClasses.map(DomainRegistry.domainMetaInformation(_).factory)
+
+    private implicit val logContext: LogContext = project.logContext
+
+    override def apply(m: Method): AIResult = baseAIResult(m).theAIResult
+
+    override def baseAIResult(m: Method): AnAIResult = {
+        val code = m.body.get
+        val cheapestDomainIndex = domainClasses.size - 1
+        var domainIndex =
+            if (AdaptiveAIExecutor.estimatedCost(code) > maxCost) cheapestDomainIndex
+            else 0
+        var result: AnAIResult = null
+        while (result eq null) {
+            val domain = domainFactories(domainIndex)(project, m)
+            if (domainIndex == cheapestDomainIndex) {
+                result = AnAIResult(BaseAI(m, domain))(domainClasses(domainIndex))
+            } else {
+                val ai = new BoundedInterruptableAI[Domain](
+                    code,
+                    maxEvaluationFactor,
+                    maxEvaluationTime,
+                    () => Thread.currentThread().isInterrupted
+                )
+                val aiResult = ai(m, domain)
+                if (aiResult.wasAborted) {
+                    OPALLogger.debug(
+                        "abstract interpretation",
+                        s"the abstract interpretation of ${m.toJava} using " +
+                            s"${domainClasses(domainIndex).getSimpleName} was aborted; " +
+                            s"using ${domainClasses(domainIndex + 1).getSimpleName}"
+                    )
+                    domainIndex += 1
+                } else {
+                    result = AnAIResult(aiResult)(domainClasses(domainIndex))
+                }
+            }
+        }
+        result
+    }
+}
+
+object AdaptiveAIExecutor {
+
+    final val ConfigKeyPrefix = "org.opalj.ai.fpcf.AdaptiveAIExecutor."
+    final val MaxCostConfigKey = ConfigKeyPrefix + "maxCost"
+    final val MaxEvaluationFactorConfigKey = ConfigKeyPrefix + "maxEvaluationFactor"
+    final val MaxEvaluationTimeConfigKey = ConfigKeyPrefix + "maxEvaluationTimeInMs"
+
+    /**
+     * Creates an executor which uses the given domain and – if necessary – the less precise
+     * domains which satisfy the given requirements.
+     */
+    def apply(
+        project:      SomeProject,
+        domainClass:  Class[? <: Domain],
+        requirements: Iterable[Class[? <: AnyRef]]
+    ): AdaptiveAIExecutor = {
+        val candidates = DomainRegistry.selectCandidates(requirements)
+        val lessPreciseDomains = DomainRegistry.allLessPreciseDomains(domainClass).filter(candidates.contains)
+        // a domain is more precise than all domains in its set of less precise domains;
+        // hence, the sizes of the sets induce a total order that is compatible with the partial order
+        val domainClasses = domainClass +: lessPreciseDomains.toIndexedSeq.sortBy { d =>
+            -DomainRegistry.allLessPreciseDomains(d).size
+        }
+        val config = project.config
+        OPALLogger.info(
+            "analysis configuration",
+            s"the domain used for performing abstract interpretations is selected per method from: " +
+                domainClasses.map(_.getSimpleName).mkString(", ")
+        )(using project.logContext)
+        new AdaptiveAIExecutor(
+            project,
+            domainClasses,
+            config.getDouble(MaxCostConfigKey),
+            config.getDouble(MaxEvaluationFactorConfigKey),
+            new Milliseconds(config.getLong(MaxEvaluationTimeConfigKey))
+        )
+    }
+
+    /**
+     * Estimates the cost of the abstract interpretation of the given code based on the number
+     * of instructions, the maximum nesting depth of loops (identified using backward jumps)
+     * and the number of exception handlers.
+     */
+    def estimatedCost(code: Code): Double = {
+        // each loop is represented by the interval [start, end] of the backward jump
+        var loopStarts = new Array[Int](8)
+        var loopEnds = new Array[Int](8)
+        var loopsCount = 0
+        code.iterate { (pc, instruction) =>
+            if (instruction.isSimpleBranchInstruction) {
+                val branchoffset = instruction.asSimpleBranchInstruction.branchoffset
+                if (branchoffset < 0) {
+                    if (loopsCount == loopStarts.length) {
+                        loopStarts = Arrays.copyOf(loopStarts, loopsCount * 2)
+                        loopEnds = Arrays.copyOf(loopEnds, loopsCount * 2)
+                    }
+                    loopStarts(loopsCount) = pc + branchoffset
+                    loopEnds(loopsCount) = pc
+                    loopsCount += 1
+                }
+            }
+        }
+        Arrays.sort(loopStarts, 0, loopsCount)
+        Arrays.sort(loopEnds, 0, loopsCount)
+        var maxLoopDepth = 0
+        var loopDepth = 0
+        var s = 0
+        var e = 0
+        while (s < loopsCount) {
+            if (loopStarts(s) <= loopEnds(e)) {
+                loopDepth += 1
+                maxLoopDepth = Math.max(maxLoopDepth, loopDepth)
+                s += 1
+            } else {
+                loopDepth -= 1
+                e += 1
+            }
+        }
+
+        code.instructions.length.toDouble *
+            (1 + maxLoopDepth) *
+            Math.log(code.exceptionHandlers.size + 2 * Math.E)
+    }
+}
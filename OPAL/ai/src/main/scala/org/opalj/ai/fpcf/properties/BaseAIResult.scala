@@ -46,7 +46,13 @@ case object NoAIResult extends BaseAIResult {
     def aiResult: Option[AIResult] = None
 }
 
-case class AnAIResult(theAIResult: AIResult) extends BaseAIResult {
+/**
+ * @param domainClass The (registered) class of the domain that was used to compute the result;
+ *        see [[org.opalj.ai.common.DomainRegistry]]. Given that the domains are selected per
+ *        method (see [[AdaptiveAIExecutor]]), different methods may be analyzed using
+ *        different domains.
+ */
+case class AnAIResult(theAIResult: AIResult)(val domainClass: Class[? <: Domain]) extends BaseAIResult {
     def aiResult: Option[AIResult] = Some(theAIResult)
 }
 
@@ -69,7 +75,7 @@ object BaseAIResult extends BaseAIResultPropertyMetaInformation {
                     case PropertyIsNotComputedByAnyAnalysis =>
                         // we may still have requirements on the domain that we are going to use...
                         val p = ps.context(classOf[Project])
-                        AnAIResult(p.get(AIDomainFactoryKey)(m))
+                        p.get(AIDomainFactoryKey).baseAIResult(m)
                 }
             }: BaseAIResult
     )
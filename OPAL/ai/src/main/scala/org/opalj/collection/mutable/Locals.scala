@@ -76,7 +76,8 @@ sealed trait Locals[T >: Null <: AnyRef] {
 
     /**
      * Creates a new Locals object where the value stored at the given index is
-     * set to the given one.
+     * set to the given one. If the given value is (reference) equal to the current
+     * value, `this` is returned.
      */
     /* ABSTRACT */
     def updated(index: Int, value: T): Locals[T]
@@ -425,6 +426,9 @@ private[mutable] final class Locals1[T >: Null <: AnyRef](
     }
 
     override def updated(index: Int, newValue: T): Locals1[T] = {
+        if (apply(index) eq newValue)
+            return this;
+
         // if (index != 0) throw new IndexOutOfBoundsException("invalid index("+index+")")
         new Locals1(newValue)
     }
@@ -523,6 +527,9 @@ private[mutable] final class Locals2[T >: Null <: AnyRef](
     }
 
     override def updated(index: Int, newValue: T): Locals2[T] = {
+        if (apply(index) eq newValue)
+            return this;
+
         (index: @scala.annotation.switch) match {
             case 0 => new Locals2(newValue, v1)
             case 1 => new Locals2(v0, newValue)
@@ -644,6 +651,9 @@ private[mutable] final class Locals3[T >: Null <: AnyRef](
     }
 
     override def updated(index: Int, newValue: T): Locals3[T] = {
+        if (apply(index) eq newValue)
+            return this;
+
         (index: @scala.annotation.switch) match {
             case 0 => new Locals3(newValue, v1, v2)
             case 1 => new Locals3(v0, newValue, v2)
@@ -803,6 +813,9 @@ private[mutable] final class Locals4[T >: Null <: AnyRef](
     }
 
     override def updated(index: Int, newValue: T): Locals4[T] = {
+        if (apply(index) eq newValue)
+            return this;
+
         (index: @scala.annotation.switch) match {
             case 0 => new Locals4(newValue, v1, v2, v3)
             case 1 => new Locals4(v0, newValue, v2, v3)
@@ -954,6 +967,9 @@ private[mutable] final class Locals5[T >: Null <: AnyRef](
     }
 
     override def updated(index: Int, newValue: T): Locals[T] = {
+        if (apply(index) eq newValue)
+            return this;
+
         if (index < 2)
             new Locals5(vs1.updated(index, newValue), vs2)
         else
@@ -1070,6 +1086,9 @@ private[mutable] final class Locals6[T >: Null <: AnyRef](
     }
 
     override def updated(index: Int, newValue: T): Locals6[T] = {
+        if (apply(index) eq newValue)
+            return this;
+
         if (index < 3)
             new Locals6(vs1.updated(index, newValue), vs2)
         else
@@ -1184,6 +1203,9 @@ private[mutable] final class Locals7[T >: Null <: AnyRef](
     }
 
     override def updated(index: Int, newValue: T): Locals7[T] = {
+        if (apply(index) eq newValue)
+            return this;
+
         if (index < 3)
             new Locals7(vs1.updated(index, newValue), vs2)
         else
@@ -1314,6 +1336,9 @@ private[mutable] final class Locals8[T >: Null <: AnyRef](
     }
 
     override def updated(index: Int, newValue: T): Locals8[T] = {
+        if (apply(index) eq newValue)
+            return this;
+
         (index: @scala.annotation.switch) match {
             case 0 | 1     => new Locals8(vs1.updated(index, newValue), vs2, vs3)
             case 2 | 3 | 4 => new Locals8(vs1, vs2.updated(index - 2, newValue), vs3)
@@ -1473,6 +1498,9 @@ private[mutable] final class Locals9[T >: Null <: AnyRef](
     }
 
     override def updated(index: Int, newValue: T): Locals9[T] = {
+        if (apply(index) eq newValue)
+            return this;
+
         (index: @scala.annotation.switch) match {
             case 0 | 1 | 2 => new Locals9(vs1.updated(index, newValue), vs2, vs3)
             case 3 | 4 | 5 => new Locals9(vs1, vs2.updated(index - 3, newValue), vs3)
@@ -1633,6 +1661,9 @@ private[mutable] final class Locals10[T >: Null <: AnyRef](
     }
 
     override def updated(index: Int, newValue: T): Locals10[T] = {
+        if (apply(index) eq newValue)
+            return this;
+
         (index: @scala.annotation.switch) match {
             case 0 | 1 | 2 | 3 => new Locals10(vs1.updated(index, newValue), vs2, vs3)
             case 4 | 5 | 6     => new Locals10(vs1, vs2.updated(index - 4, newValue), vs3)
@@ -1791,6 +1822,9 @@ private[mutable] final class Locals11[T >: Null <: AnyRef](
     }
 
     override def updated(index: Int, newValue: T): Locals11[T] = {
+        if (apply(index) eq newValue)
+            return this;
+
         (index: @scala.annotation.switch) match {
             case 0 | 1 | 2 | 3  => new Locals11(vs1.updated(index, newValue), vs2, vs3)
             case 4 | 5 | 6      => new Locals11(vs1, vs2.updated(index - 4, newValue), vs3)
@@ -1913,102 +1947,126 @@ private[mutable] final class Locals11[T >: Null <: AnyRef](
     }
 }
 
+/**
+ * The values stored at the indexes 11 and higher are stored in chunks of
+ * [[Locals12_N.ChunkSize]] values. Updates only copy the affected chunk; all other
+ * chunks are shared with the original locals.
+ */
 private[mutable] final class Locals12_N[T >: Null <: AnyRef: ClassTag](
     final val vs11:   Locals11[T],
-    final val vs12_N: Array[T]
+    final val vs12_N: Array[Array[T]],
+    final val size:   Int
 ) extends LocalsX[T] {
 
-    def this(size: Int) =
-        this(
-            new Locals11[T],
-            new Array[T](size - 11)
-        )
+    import Locals12_N.ChunkMask
+    import Locals12_N.ChunkShift
 
-    final def size: Int = vs12_N.length + 11
+    def this(size: Int) =
+        this(new Locals11[T], Locals12_N.newChunks[T](size - 11), size)
 
     override def apply(index: Int): T =
-        if (index < 11)
+        if (index < 11) {
             vs11(index)
-        else
-            vs12_N(index - 11)
+        } else {
+            val tailIndex = index - 11
+            vs12_N(tailIndex >>> ChunkShift)(tailIndex & ChunkMask)
+        }
 
-    override def indexOf(other: T): Option[Int] =
+    override def indexOf(other: T): Option[Int] = {
         vs11.indexOf(other).orElse {
-            vs12_N.indexOf(other) match {
-                case -1 => None
-                case x  => Some(11 + x)
+            var index = 11
+            while (index < size && (apply(index) ne other)) {
+                index += 1
             }
+            if (index < size) Some(index) else None
         }
+    }
 
     override def set(index: Int, newValue: T): Unit = {
         if (index < 11) {
             vs11.set(index, newValue)
         } else {
-            vs12_N(index - 11) = newValue
+            val tailIndex = index - 11
+            vs12_N(tailIndex >>> ChunkShift)(tailIndex & ChunkMask) = newValue
         }
     }
 
     override def update(f: (T) => T): Unit = {
         vs11.update(f)
-        new mutable.ArraySeq.ofRef(vs12_N).mapInPlace(f)
+        vs12_N foreach { chunk => new mutable.ArraySeq.ofRef(chunk).mapInPlace(f) }
+    }
+
+    /**
+     * Creates a new locals object where the values of the tail – starting with the given
+     * index (which has to be at least 11) – are updated. Only the affected chunks are copied.
+     */
+    private def updatedTail(
+        newVs11:     Locals11[T],
+        index:       Int,
+        valuesCount: Int,
+        value1:      T,
+        value2:      T,
+        value3:      T
+    ): Locals12_N[T] = {
+        val thisVs12_N = vs12_N
+        val newVs12_N = thisVs12_N.clone()
+        var i = 0
+        while (i < valuesCount) {
+            val tailIndex = index - 11 + i
+            val chunkIndex = tailIndex >>> ChunkShift
+            if (newVs12_N(chunkIndex) eq thisVs12_N(chunkIndex)) {
+                newVs12_N(chunkIndex) = thisVs12_N(chunkIndex).clone()
+            }
+            newVs12_N(chunkIndex)(tailIndex & ChunkMask) = (i: @scala.annotation.switch) match {
+                case 0 => value1
+                case 1 => value2
+                case _ => value3
+            }
+            i += 1
+        }
+        new Locals12_N(newVs11, newVs12_N, size)
     }
 
     override def updated(index: Int, newValue: T): Locals12_N[T] = {
+        if (apply(index) eq newValue)
+            return this;
+
         if (index < 11) {
-            new Locals12_N(vs11.updated(index, newValue), vs12_N)
+            new Locals12_N(vs11.updated(index, newValue), vs12_N, size)
         } else {
-            val newVs12_N = vs12_N.clone()
-            newVs12_N(index - 11) = newValue
-            new Locals12_N(vs11, newVs12_N)
+            updatedTail(vs11, index, 1, newValue, null, null)
         }
     }
 
     override def updated(index: Int, value1: T, value2: T): Locals12_N[T] = {
         if (index < 10) {
-            new Locals12_N(vs11.updated(index, value1, value2), vs12_N)
+            new Locals12_N(vs11.updated(index, value1, value2), vs12_N, size)
         } else if (index == 10) {
-            val newVs11 = vs11.updated(10, value1)
-            val newVs12_N = vs12_N.clone()
-            newVs12_N(0) = value2
-            new Locals12_N(newVs11, newVs12_N)
+            updatedTail(vs11.updated(10, value1), 11, 1, value2, null, null)
         } else {
-            val newVs12_N = vs12_N.clone()
-            newVs12_N(index - 11) = value1
-            newVs12_N(index - 11 + 1) = value2
-            new Locals12_N(vs11, newVs12_N)
+            updatedTail(vs11, index, 2, value1, value2, null)
         }
     }
 
     override def updated(index: Int, value1: T, value2: T, value3: T): Locals12_N[T] = {
         if (index < 9) {
-            new Locals12_N(vs11.updated(index, value1, value2, value3), vs12_N)
+            new Locals12_N(vs11.updated(index, value1, value2, value3), vs12_N, size)
         } else if (index == 9) {
-            val newVs11 = vs11.updated(9, value1, value2)
-            val newVs12_N = vs12_N.clone()
-            newVs12_N(0) = value3
-            new Locals12_N(newVs11, newVs12_N)
+            updatedTail(vs11.updated(9, value1, value2), 11, 1, value3, null, null)
         } else if (index == 10) {
-            val newVs11 = vs11.updated(10, value1)
-            val newVs12_N = vs12_N.clone()
-            newVs12_N(0) = value2
-            newVs12_N(1) = value3
-            new Locals12_N(newVs11, newVs12_N)
+            updatedTail(vs11.updated(10, value1), 11, 2, value2, value3, null)
         } else {
-            val newVs12_N = vs12_N.clone()
-            newVs12_N(index - 11) = value1
-            newVs12_N(index - 11 + 1) = value2
-            newVs12_N(index - 11 + 2) = value3
-            new Locals12_N(vs11, newVs12_N)
+            updatedTail(vs11, index, 3, value1, value2, value3)
         }
     }
 
     override def foreach(f: T => Unit): Unit = {
         vs11.foreach(f)
-        vs12_N.foreach(f)
+        vs12_N foreach { chunk => chunk.foreach(f) }
     }
 
     override final def foreachReverse(f: T => Unit): Unit = {
-        vs12_N.reverseIterator.foreach { f }
+        vs12_N.reverseIterator foreach { chunk => chunk.reverseIterator.foreach(f) }
         vs11.foreachReverse(f)
     }
 
@@ -2034,72 +2092,129 @@ private[mutable] final class Locals12_N[T >: Null <: AnyRef: ClassTag](
             if (thisVs12_N eq thatVs12_N)
                 thisVs12_N
             else {
-                val newVs12_N = new Array[T](vs12_N.length)
-                var useThisArray = true
-                var useThatArray = true
-                var i = vs12_N.length - 1
-                while (i >= 0) {
-                    val thisAtI = thisVs12_N(i)
-                    val thatAtI = thatVs12_N(i)
-                    if (thisAtI eq thatAtI)
-                        newVs12_N(i) = thisAtI
-                    else {
-                        val newV = onDiff(thisAtI, thatAtI)
-                        if (newV ne thisAtI) useThisArray = false
-                        if (newV ne thatAtI) useThatArray = false
-                        newVs12_N(i) = newV
-                    }
-                    i -= 1
-                }
-
-                if (useThisArray) {
-                    if (!useThatArray) useThat = false
-                    thisVs12_N
-                } else if (useThatArray) {
-                    useThis = false
-                    thatVs12_N
-                } else {
-                    useThis = false
-                    useThat = false
-                    newVs12_N
+                val newVs12_N = new Array[Array[T]](thisVs12_N.length)
+                var c = thisVs12_N.length - 1
+                while (c >= 0) {
+                    val thisChunk = thisVs12_N(c)
+                    val thatChunk = thatVs12_N(c)
+                    newVs12_N(c) =
+                        if (thisChunk eq thatChunk)
+                            thisChunk
+                        else {
+                            val newChunk = new Array[T](thisChunk.length)
+                            var useThisChunk = true
+                            var useThatChunk = true
+                            var i = thisChunk.length - 1
+                            while (i >= 0) {
+                                val thisAtI = thisChunk(i)
+                                val thatAtI = thatChunk(i)
+                                if (thisAtI eq thatAtI)
+                                    newChunk(i) = thisAtI
+                                else {
+                                    val newV = onDiff(thisAtI, thatAtI)
+                                    if (newV ne thisAtI) useThisChunk = false
+                                    if (newV ne thatAtI) useThatChunk = false
+                                    newChunk(i) = newV
+                                }
+                                i -= 1
+                            }
+                            if (useThisChunk) {
+                                if (!useThatChunk) useThat = false
+                                thisChunk
+                            } else if (useThatChunk) {
+                                useThis = false
+                                thatChunk
+                            } else {
+                                useThis = false
+                                useThat = false
+                                newChunk
+                            }
+                        }
+                    c -= 1
                 }
+                newVs12_N
             }
         if (useThis)
             this
         else if (useThat)
             that
         else
-            new Locals12_N(newVs11, newVs12_N)
+            new Locals12_N(newVs11, newVs12_N, size)
     }
 
     override def map[X >: Null <: AnyRef: ClassTag](f: T => X): Locals12_N[X] = {
-        new Locals12_N[X](vs11.map(f), vs12_N.map(f))
+        val newVs12_N = Locals12_N.newChunks[X](size - 11)
+        var index = 11
+        while (index < size) {
+            val tailIndex = index - 11
+            newVs12_N(tailIndex >>> ChunkShift)(tailIndex & ChunkMask) = f(apply(index))
+            index += 1
+        }
+        new Locals12_N[X](vs11.map(f), newVs12_N, size)
     }
 
     override def mapKV[X >: Null <: AnyRef: ClassTag](
         startIndex: Int,
         f:          (Int, T) => X
     ): Locals12_N[X] = {
-        def fs(ti: (T, Int)): X = { val (t, i) = ti; f(startIndex + 11 + i, t) }
-
-        new Locals12_N[X](vs11.mapKV(startIndex, f), vs12_N.zipWithIndex.map(fs))
+        val newVs12_N = Locals12_N.newChunks[X](size - 11)
+        var index = 11
+        while (index < size) {
+            val tailIndex = index - 11
+            newVs12_N(tailIndex >>> ChunkShift)(tailIndex & ChunkMask) = f(startIndex + index, apply(index))
+            index += 1
+        }
+        new Locals12_N[X](vs11.mapKV(startIndex, f), newVs12_N, size)
     }
 
     override def mapConserve(f: T => T): Locals12_N[T] = {
         val thisVs11 = vs11
         val newVs11 = thisVs11.mapConserve(f)
         val thisVs12_N = vs12_N
-        var vs12_Nupdated = false
-        var newVs12_N = thisVs12_N map { v =>
-            val newV = f(v); if (newV ne v) vs12_Nupdated = true; newV
+        var newVs12_N = thisVs12_N
+        var c = 0
+        while (c < thisVs12_N.length) {
+            val chunk = thisVs12_N(c)
+            var newChunk = chunk
+            var i = 0
+            while (i < chunk.length) {
+                val v = chunk(i)
+                val newV = f(v)
+                if (newV ne v) {
+                    if (newChunk eq chunk) newChunk = chunk.clone()
+                    newChunk(i) = newV
+                }
+                i += 1
+            }
+            if (newChunk ne chunk) {
+                if (newVs12_N eq thisVs12_N) newVs12_N = thisVs12_N.clone()
+                newVs12_N(c) = newChunk
+            }
+            c += 1
         }
-        if (!vs12_Nupdated)
-            newVs12_N = thisVs12_N
 
         if ((newVs11 eq thisVs11) && (newVs12_N eq thisVs12_N))
             this
         else
-            new Locals12_N(newVs11, newVs12_N)
+            new Locals12_N(newVs11, newVs12_N, size)
+    }
+}
+
+private[mutable] object Locals12_N {
+
+    final val ChunkShift = 3
+    final val ChunkSize = 1 << ChunkShift
+    final val ChunkMask = ChunkSize - 1
+
+    /** Creates the (empty) chunks to store the given number of values. */
+    def newChunks[T >: Null <: AnyRef: ClassTag](tailSize: Int): Array[Array[T]] = {
+        val chunks = new Array[Array[T]]((tailSize + ChunkMask) >>> ChunkShift)
+        var c = 0
+        while (c < chunks.length) {
+            chunks(c) = new Array[T](Math.min(ChunkSize, tailSize - (c << ChunkShift)))
+            c += 1
+        }
+        chunks
     }
 }
 
@@ -2154,14 +2269,21 @@ object Locals {
                     new Locals4(data(7), data(8), data(9), data(10))
                 )
             case _ =>
-                new Locals12_N[T](
+                val locals = new Locals12_N[T](
                     new Locals11(
                         new Locals4(data(0), data(1), data(2), data(3)),
                         new Locals3(data(4), data(5), data(6)),
                         new Locals4(data(7), data(8), data(9), data(10))
                     ),
-                    data.drop(11).toArray
+                    Locals12_N.newChunks[T](data.size - 11),
+                    data.size
                 )
+                var i = 11
+                while (i < data.size) {
+                    locals.set(i, data(i))
+                    i += 1
+                }
+                locals
         }
     }
 
@@ -0,0 +1,79 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package ai
+package fpcf
+package properties
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.ai.domain.RecordDefUse
+import org.opalj.bi.TestResources.locateTestResources
+import org.opalj.br.ClassType
+import org.opalj.br.analyses.Project
+import org.opalj.util.Milliseconds
+
+/**
+ * Tests the per-method selection of the domain by the [[AdaptiveAIExecutor]].
+ */
+@RunWith(classOf[JUnitRunner])
+class AdaptiveAIExecutorTest extends AnyFlatSpec with Matchers {
+
+    val project = Project(locateTestResources("ai-9.jar", "bi"))
+    val classFile = project.classFile(ClassType("ai/MethodsWithLoops")).get
+    def findMethod(name: String) = classFile.methods.find(_.name == name).get
+
+    val executor = AdaptiveAIExecutor(
+        project,
+        classOf[domain.l1.DefaultDomainWithCFGAndDefUse[?]],
+        Seq(classOf[RecordDefUse])
+    )
+
+    behavior of "the AdaptiveAIExecutor"
+
+    it should "order the candidate domains by their precision" in {
+        executor.domainClasses.head should be(classOf[domain.l1.DefaultDomainWithCFGAndDefUse[?]])
+        executor.domainClasses.last should be(classOf[domain.l0.PrimitiveTACAIDomain])
+        executor.domainClasses.forall(classOf[RecordDefUse].isAssignableFrom(_)) should be(true)
+    }
+
+    it should "take the loop nesting depth into account when estimating the cost" in {
+        val code = findMethod("countTo10").body.get
+        val costWithoutLoops = code.instructions.length * Math.log(code.exceptionHandlers.size + 2 * Math.E)
+        AdaptiveAIExecutor.estimatedCost(code) should be >= (2 * costWithoutLoops)
+    }
+
+    it should "use the most precise domain for affordable methods and record it" in {
+        val result = executor.baseAIResult(findMethod("countTo10"))
+        result.domainClass should be(classOf[domain.l1.DefaultDomainWithCFGAndDefUse[?]])
+        result.theAIResult.wasAborted should be(false)
+    }
+
+    it should "use the cheapest domain for methods exceeding the cost threshold" in {
+        val cheapExecutor = new AdaptiveAIExecutor(
+            project,
+            executor.domainClasses,
+            maxCost = 0,
+            executor.maxEvaluationFactor,
+            executor.maxEvaluationTime
+        )
+        val result = cheapExecutor.baseAIResult(findMethod("countTo10"))
+        result.domainClass should be(classOf[domain.l0.PrimitiveTACAIDomain])
+        result.theAIResult.wasAborted should be(false)
+    }
+
+    it should "always compute a complete result even if the budget is tiny" in {
+        val boundedExecutor = new AdaptiveAIExecutor(
+            project,
+            executor.domainClasses,
+            executor.maxCost,
+            maxEvaluationFactor = 0.01,
+            new Milliseconds(0)
+        )
+        val result = boundedExecutor.baseAIResult(findMethod("countTo10"))
+        result.theAIResult.wasAborted should be(false)
+        executor.domainClasses should contain(result.domainClass)
+    }
+}
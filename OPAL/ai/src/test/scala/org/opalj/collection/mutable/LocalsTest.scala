@@ -66,6 +66,44 @@ class LocalsTest extends AnyFlatSpec with Matchers {
         }
     }
 
+    it should ("be able to return the values stored (updated(index,value1,value2,value3)) at an index") in {
+        for {
+            i <- 3 to 100
+            v = Locals[Integer](i)
+            j <- 0 until i - 2
+        } {
+            val newV = v.updated(j, j, -3, -4)
+            newV.apply(j) should equal(j)
+            newV.apply(j + 1) should equal(-3)
+            newV.apply(j + 2) should equal(-4)
+        }
+    }
+
+    it should ("return the same locals if an update does not change the value") in {
+        for {
+            size <- 1 to 40
+        } {
+            val v = Locals[Integer](size)
+            for { i <- 0 until size } { v.set(i, i) }
+            for { i <- 0 until size } { (v.updated(i, v(i)) eq v) should be(true) }
+        }
+    }
+
+    it should ("not change the original locals when a value is updated") in {
+        for {
+            size <- 1 to 40
+        } {
+            val data = (0 until size).map(i => Integer.valueOf(i))
+            val v = Locals[Integer](data)
+            for { i <- 0 until size } {
+                val newV = v.updated(i, -1)
+                newV(i) should equal(-1)
+                for { j <- 0 until size if j != i } { newV(j) should be(v(j)) }
+                v.toSeq should be(data)
+            }
+        }
+    }
+
     it should ("iterate over all values") in {
         for {
             i <- 1 to 100
@@ -0,0 +1,60 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package ba
+
+import java.io.File
+
+import org.junit.runner.RunWith
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.bi.TestResources.allBITestJARs
+import org.opalj.br.analyses.Project
+
+/**
+ * Tests that a project restored from a snapshot is equivalent to the original project.
+ */
+@RunWith(classOf[JUnitRunner])
+class ProjectSnapshotTest extends AnyFunSuite {
+
+    allBITestJARs().take(10) foreach { jarFile =>
+        test(s"writing and loading a snapshot of ${jarFile.getName}") {
+            val project = Project(jarFile)
+            val snapshotFile = File.createTempFile("ProjectSnapshotTest", ".snapshot")
+            snapshotFile.deleteOnExit()
+            ProjectSnapshotWriter(project, snapshotFile)
+            val loadedProject = Project.load(snapshotFile)
+
+            assert(loadedProject.projectClassFilesCount == project.projectClassFilesCount)
+            assert(loadedProject.libraryClassFilesCount == project.libraryClassFilesCount)
+            assert(loadedProject.methodsCount == project.methodsCount)
+            project.allClassFiles foreach { classFile =>
+                val loadedClassFile = loadedProject.classFile(classFile.thisType).get
+                assert(classFile.findDissimilarity(loadedClassFile).isEmpty)
+                assert(loadedProject.source(classFile.thisType) == project.source(classFile.thisType))
+            }
+
+            val classHierarchy = project.classHierarchy
+            val loadedClassHierarchy = loadedProject.classHierarchy
+            classHierarchy.foreachKnownType { classType =>
+                assert(loadedClassHierarchy.isKnown(classType))
+                assert(loadedClassHierarchy.superclassType(classType) == classHierarchy.superclassType(classType))
+                assert(loadedClassHierarchy.allSubtypes(classType, reflexive = false) ==
+                    classHierarchy.allSubtypes(classType, reflexive = false))
+            }
+
+            assert(loadedProject.instanceMethods.keySet == project.instanceMethods.keySet)
+            project.instanceMethods foreach { e =>
+                val (classType, methods) = e
+                assert(loadedProject.instanceMethods(classType).map(_.method.toJava) == methods.map(_.method.toJava))
+            }
+            assert(loadedProject.overridingMethods.size == project.overridingMethods.size)
+            project.overridingMethods foreach { e =>
+                val (method, overridingMethods) = e
+                val loadedMethod = loadedProject.classFile(method.classFile.thisType).get
+                    .findMethod(method.name, method.descriptor).get
+                assert(loadedProject.overridingMethods(loadedMethod).map(_.toJava) == overridingMethods.map(_.toJava))
+            }
+        }
+    }
+}
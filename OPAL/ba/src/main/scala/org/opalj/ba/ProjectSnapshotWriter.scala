@@ -0,0 +1,21 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package ba
+
+import java.io.File
+
+import org.opalj.bc.Assembler
+import org.opalj.br.analyses.ProjectSnapshot
+import org.opalj.br.analyses.SomeProject
+
+/**
+ * Writes a snapshot of a fully loaded [[org.opalj.br.analyses.Project]] which can later be
+ * loaded using `org.opalj.br.analyses.Project.load`; see
+ * [[org.opalj.br.analyses.ProjectSnapshot]] for details.
+ */
+object ProjectSnapshotWriter {
+
+    def apply(project: SomeProject, snapshotFile: File): Unit = {
+        ProjectSnapshot.write(project, snapshotFile, classFile => Assembler(toDA(classFile)))
+    }
+}
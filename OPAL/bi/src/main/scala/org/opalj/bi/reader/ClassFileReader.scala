@@ -16,8 +16,12 @@ import java.net.URL
 import java.nio.file.Files
 import java.nio.file.FileSystems
 import java.nio.file.Path
+import java.util.concurrent.ArrayBlockingQueue
 import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
 import java.util.jar.JarEntry
 import java.util.jar.JarInputStream
 import java.util.zip.ZipEntry
@@ -35,7 +39,9 @@ import scala.util.boundary.break
 
 import org.opalj.bytecode.BytecodeProcessingFailedException
 import org.opalj.concurrent.BoundedExecutionContext
+import org.opalj.concurrent.NumberOfThreadsForCPUBoundTasks
 import org.opalj.concurrent.NumberOfThreadsForIOBoundTasks
+import org.opalj.concurrent.OPALUnboundedThreadPool
 import org.opalj.concurrent.Tasks
 import org.opalj.concurrent.parForeachSeqElement
 import org.opalj.control.fillArrayOfInt
@@ -575,7 +581,10 @@ trait ClassFileReader extends ClassFileReaderConfiguration with Constant_PoolAbs
         }
     }
 
-    private def processJar(
+    /**
+     * Reads all class files stored in the given archive (jar, jmod, ...) file.
+     */
+    protected def processJar(
         file:             File,
         exceptionHandler: ExceptionHandler = defaultExceptionHandler
     ): List[(ClassFile, URL)] = {
@@ -758,6 +767,155 @@ trait ClassFileReader extends ClassFileReaderConfiguration with Constant_PoolAbs
         ts.join()
     }
 
+    /**
+     * Reads '''in parallel''' all class files found in the given files (see
+     * `ClassFiles(File,ExceptionHandler)` for the supported kinds of files) and pushes each
+     * class file to the given consumer; the consumer is executed concurrently by
+     * `consumersCount` threads.
+     *
+     * Unlike `ClassFiles` and `AllClassFiles`, the class files are not collected. The read
+     * class files are passed to the consumers using a queue with the given capacity. If the
+     * queue is full, reading is suspended until the consumers have caught up. Hence, the
+     * number of class files kept in memory is bounded – independent of the number of
+     * processed class files – and each class file can be garbage collected as soon as it was
+     * consumed. This method returns when all class files have been consumed.
+     *
+     * @example
+     * {{{
+     * Java17Framework.streamClassFiles(files, { case (classFile, _) =>
+     *     ... classFile ...
+     * })
+     * }}}
+     *
+     * @param classFileConsumer The function that is called for each class file.
+     *      '''This function has to be thread safe'''. It should not use the
+     *      [[org.opalj.concurrent.OPALHTBoundedExecutionContext]], which is also used to read
+     *      the class files.
+     * @param exceptionHandler The exception handler that is called when the reading or the
+     *      consumption of a class file fails. '''This function has to be thread safe'''.
+     *      If the exception handler throws an exception while handling the failure of a
+     *      consumer (or if a consumer is interrupted), streaming is aborted: the remaining
+     *      class files are neither read nor consumed and the exception is rethrown
+     *      after all consumers have terminated.
+     */
+    def streamClassFiles(
+        files:             Iterable[File],
+        classFileConsumer: ((ClassFile, URL)) => Unit,
+        consumersCount:    Int              = NumberOfThreadsForCPUBoundTasks,
+        queueCapacity:     Int              = 1024,
+        exceptionHandler:  ExceptionHandler = defaultExceptionHandler
+    ): Unit = {
+        val queue = new ArrayBlockingQueue[(ClassFile, URL)](queueCapacity)
+        // signals the end of the stream to the consumers
+        val endOfStream = (null, null).asInstanceOf[(ClassFile, URL)]
+        // the first failure that aborted the streaming
+        val failure = new AtomicReference[Throwable]()
+        def aborted: Boolean = failure.get ne null
+        def abort(t: Throwable): Unit = failure.compareAndSet(null, t)
+
+        // We never block indefinitely on the queue; otherwise, the producers would wait
+        // forever if all consumers have terminated.
+        def enqueue(cfSource: (ClassFile, URL)): Unit = {
+            try {
+                while (!aborted && !queue.offer(cfSource, 10, TimeUnit.MILLISECONDS)) {}
+            } catch {
+                case e: InterruptedException =>
+                    Thread.currentThread().interrupt()
+                    abort(e)
+            }
+        }
+
+        def produce(file: File): Unit = {
+            if (aborted) {
+                // nothing to do
+            } else if (file.isFile && file.length() > 0) {
+                val filename = file.getName
+                if (isClassFileRepository(filename, None)) {
+                    if (!filename.endsWith("-javadoc.jar") && !filename.endsWith("-sources.jar")) {
+                        try {
+                            process(new ZipFile(file)) { zf =>
+                                ClassFiles(zf, (cf: ClassFile, url: URL) => enqueue((cf, url)), exceptionHandler)
+                            }
+                        } catch {
+                            case e: InterruptedException => throw e
+                            case e: Exception            => exceptionHandler(file, e)
+                        }
+                    }
+                } else if (filename.endsWith(".class")) {
+                    processClassFile(file, exceptionHandler).foreach(enqueue)
+                }
+            } else if (file.isDirectory) {
+                val directoryFiles = file.listFiles()
+                if (directoryFiles ne null) {
+                    val (classFiles, otherFiles) = directoryFiles.toIndexedSeq.partition { f =>
+                        f.isFile && f.getName.endsWith(".class")
+                    }
+                    parForeachSeqElement(classFiles, NumberOfThreadsForIOBoundTasks, () => aborted) { classFile =>
+                        produce(classFile)
+                    }
+                    otherFiles.foreach(produce)
+                }
+            }
+        }
+
+        val consumersDone = new CountDownLatch(consumersCount)
+        var consumerIndex = 0
+        while (consumerIndex < consumersCount) {
+            OPALUnboundedThreadPool.execute { () =>
+                try {
+                    var next = queue.take()
+                    while (next ne endOfStream) {
+                        // after an abort, the queue is only drained
+                        if (!aborted) {
+                            try {
+                                classFileConsumer(next)
+                            } catch {
+                                case t: Throwable =>
+                                    try {
+                                        exceptionHandler(next._2, t)
+                                    } catch {
+                                        case ht: Throwable => abort(ht)
+                                    }
+                            }
+                        }
+                        next = queue.take()
+                    }
+                } catch {
+                    case t: Throwable => abort(t) // e.g., the consumer was interrupted
+                } finally {
+                    consumersDone.countDown()
+                }
+            }
+            consumerIndex += 1
+        }
+
+        try {
+            files.foreach(produce)
+        } finally {
+            // A consumer that has terminated abnormally no longer takes its end of stream
+            // marker; hence, we stop offering the markers once all consumers have terminated.
+            var interrupted = false
+            consumerIndex = 0
+            while (consumerIndex < consumersCount && consumersDone.getCount > 0) {
+                try {
+                    if (queue.offer(endOfStream, 10, TimeUnit.MILLISECONDS)) consumerIndex += 1
+                } catch {
+                    case e: InterruptedException => interrupted = true; abort(e)
+                }
+            }
+            while (consumersDone.getCount > 0) {
+                try {
+                    consumersDone.await()
+                } catch {
+                    case e: InterruptedException => interrupted = true; abort(e)
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt()
+        }
+        val t = failure.get
+        if (t ne null) throw t
+    }
+
     /**
      * Searches for the first class file that is accepted by the filter. If no class file
      * can be found that is accepted by the filter the set of all class names is returned.
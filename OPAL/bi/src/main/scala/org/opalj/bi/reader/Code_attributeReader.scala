@@ -5,6 +5,7 @@ package reader
 
 import scala.reflect.ClassTag
 
+import java.io.ByteArrayInputStream
 import java.io.DataInputStream
 import scala.collection.immutable.ArraySeq
 
@@ -57,6 +58,42 @@ trait Code_attributeReader extends AttributeReader {
         attributes:           Attributes
     ): Code_attribute
 
+    /**
+     * If `true`, the instructions of the code attributes of the class file with the given
+     * constant pool are not decoded when the code attribute is read; instead, the code
+     * attribute is created using `LazyCode_attribute`.
+     */
+    protected def decodeInstructionsLazily(cp: Constant_Pool): Boolean = false
+
+    /**
+     * Creates a code attribute whose instructions are decoded using `instructions` when
+     * they are required. By default, the instructions are decoded immediately.
+     */
+    def LazyCode_attribute(
+        cp:                   Constant_Pool,
+        ap_name_index:        Constant_Pool_Index,
+        ap_descriptor_index:  Constant_Pool_Index,
+        attribute_name_index: Constant_Pool_Index,
+        max_stack:            Int,
+        max_locals:           Int,
+        code_length:          Int,
+        instructions:         () => Instructions,
+        exception_handlers:   ExceptionHandlers,
+        attributes:           Attributes
+    ): Code_attribute = {
+        Code_attribute(
+            cp,
+            ap_name_index,
+            ap_descriptor_index,
+            attribute_name_index,
+            max_stack,
+            max_locals,
+            instructions(),
+            exception_handlers,
+            attributes
+        )
+    }
+
     def ExceptionTableEntry(
         constant_pool: Constant_Pool,
         start_pc:      Int,
@@ -99,25 +136,57 @@ trait Code_attributeReader extends AttributeReader {
     ) => {
         /*val attribute_length = */
         in.readInt()
-        Code_attribute(
-            cp,
-            ap_name_index,
-            ap_descriptor_index,
-            attribute_name_index,
-            in.readUnsignedShort(),
-            in.readUnsignedShort(),
-            Instructions(cp, ap_name_index, ap_descriptor_index, in),
-            fillArraySeq(in.readUnsignedShort()) { // "exception_table_length" times
-                ExceptionTableEntry(
-                    cp,
-                    in.readUnsignedShort,
-                    in.readUnsignedShort,
-                    in.readUnsignedShort,
-                    in.readUnsignedShort
-                )
-            },
-            Attributes(cp, AttributesParent.Code, ap_name_index, ap_descriptor_index, in)
-        )
+        if (decodeInstructionsLazily(cp)) {
+            val max_stack = in.readUnsignedShort()
+            val max_locals = in.readUnsignedShort()
+            // we keep the code (including the code_length) to decode it later on
+            val code_length = in.readInt()
+            val code = new Array[Byte](4 + code_length)
+            code(0) = (code_length >>> 24).toByte
+            code(1) = (code_length >>> 16).toByte
+            code(2) = (code_length >>> 8).toByte
+            code(3) = code_length.toByte
+            in.readFully(code, 4, code_length)
+            LazyCode_attribute(
+                cp,
+                ap_name_index,
+                ap_descriptor_index,
+                attribute_name_index,
+                max_stack,
+                max_locals,
+                code_length,
+                () => {
+                    val codeIn = new DataInputStream(new ByteArrayInputStream(code))
+                    Instructions(cp, ap_name_index, ap_descriptor_index, codeIn)
+                },
+                ExceptionTable(cp, in),
+                Attributes(cp, AttributesParent.Code, ap_name_index, ap_descriptor_index, in)
+            )
+        } else {
+            Code_attribute(
+                cp,
+                ap_name_index,
+                ap_descriptor_index,
+                attribute_name_index,
+                in.readUnsignedShort(),
+                in.readUnsignedShort(),
+                Instructions(cp, ap_name_index, ap_descriptor_index, in),
+                ExceptionTable(cp, in),
+                Attributes(cp, AttributesParent.Code, ap_name_index, ap_descriptor_index, in)
+            )
+        }
+    }
+
+    private def ExceptionTable(cp: Constant_Pool, in: DataInputStream): ExceptionHandlers = {
+        fillArraySeq(in.readUnsignedShort()) { // "exception_table_length" times
+            ExceptionTableEntry(
+                cp,
+                in.readUnsignedShort,
+                in.readUnsignedShort,
+                in.readUnsignedShort,
+                in.readUnsignedShort
+            )
+        }
     }
 
     registerAttributeReader(CodeAttribute.Name -> parserFactory())
@@ -0,0 +1,276 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package bi
+package reader
+
+import java.io.File
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.charset.StandardCharsets
+import java.util.zip.DataFormatException
+import java.util.zip.Inflater
+import java.util.zip.ZipEntry
+import scala.collection.immutable.ArraySeq
+
+import org.opalj.io.process
+
+/**
+ * A read-only view of a zip file (jar, jmod, ...) that is memory mapped as a whole.
+ *
+ * The entries are determined by directly parsing the zip file's central directory. The data of
+ * stored (uncompressed) entries is returned as a view of the mapped file; i.e., it is
+ * not copied. The data of deflated entries is inflated directly from the mapped file into a
+ * new array. Data which precedes the zip file's content, such as the header of jmod files, is
+ * supported.
+ *
+ * The mapping is released by [[close]]; afterward, the buffers returned by [[data]] must no
+ * longer be used. If the mapping cannot be released explicitly (the JDK does not offer a
+ * supported API for unmapping), it is retained until the mapped buffer and all views of it
+ * are garbage collected; until then, the file may not be deleted on some platforms (e.g.,
+ * Windows).
+ *
+ * All methods are thread-safe; however, [[close]] must not be called while other threads
+ * still read entries.
+ *
+ * @note Zip64 files and files larger than 2GB are not supported; [[MappedZipFile.open]]
+ *       returns `None` for such files.
+ */
+final class MappedZipFile private (
+    val file:    File,
+    buffer:      MappedByteBuffer,
+    val entries: IndexedSeq[MappedZipFile.Entry]
+) extends AutoCloseable {
+
+    import MappedZipFile.*
+
+    @volatile private var closed = false
+
+    /**
+     * Returns the (uncompressed) data of the given entry as a big endian buffer which
+     * is positioned at the beginning of the entry's data.
+     */
+    @throws[IOException]("if the entry is corrupt or uses an unsupported compression method")
+    def data(entry: Entry): ByteBuffer = {
+        if (closed) {
+            throw new IOException(s"$file: closed")
+        }
+        val header = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN)
+        val headerOffset = entry.localHeaderOffset
+        if (headerOffset + LocalHeaderSize > header.capacity ||
+            header.getInt(headerOffset) != LocalHeaderSignature
+        ) {
+            throw new IOException(s"${entry.name}: invalid local file header")
+        }
+        val dataOffset = headerOffset + LocalHeaderSize +
+            u2(header, headerOffset + 26) + u2(header, headerOffset + 28)
+
+        entry.method match {
+            case ZipEntry.STORED   => slice(dataOffset, entry.size)
+            case ZipEntry.DEFLATED => inflate(entry, slice(dataOffset, entry.compressedSize))
+            case method            =>
+                throw new IOException(s"${entry.name}: unsupported compression method $method")
+        }
+    }
+
+    /**
+     * Returns the (uncompressed) data of the given entry as an array; the data of stored entries
+     * is copied.
+     */
+    def bytes(entry: Entry): Array[Byte] = {
+        val data = this.data(entry)
+        if (data.hasArray && data.arrayOffset() == 0 && data.array().length == data.remaining()) {
+            data.array()
+        } else {
+            val bytes = new Array[Byte](data.remaining())
+            data.get(bytes)
+            bytes
+        }
+    }
+
+    private def slice(offset: Int, length: Int): ByteBuffer = {
+        if (offset < 0 || length < 0 || offset.toLong + length > buffer.capacity) {
+            throw new IOException(s"$file: entry data out of bounds")
+        }
+        val data = buffer.duplicate()
+        data.limit(offset + length)
+        data.position(offset)
+        data.slice()
+    }
+
+    private def inflate(entry: Entry, compressedData: ByteBuffer): ByteBuffer = {
+        val output = new Array[Byte](entry.size)
+        val inflater = new Inflater(true)
+        try {
+            inflater.setInput(compressedData)
+            var inflated = 0
+            while (inflated < output.length && !inflater.finished()) {
+                val count = inflater.inflate(output, inflated, output.length - inflated)
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException(s"${entry.name}: unexpected end of compressed data")
+                }
+                inflated += count
+            }
+            if (inflated != output.length) {
+                throw new IOException(s"${entry.name}: inflated $inflated of ${output.length} bytes")
+            }
+        } catch {
+            case e: DataFormatException => throw new IOException(s"${entry.name}: corrupt data", e)
+        } finally {
+            inflater.end()
+        }
+        ByteBuffer.wrap(output)
+    }
+
+    /**
+     * Releases the mapping of the file (if supported by the JDK); the buffers returned by
+     * [[data]] must no longer be used afterward.
+     */
+    override def close(): Unit = this.synchronized {
+        if (!closed) {
+            closed = true
+            unmap(buffer)
+        }
+    }
+
+    override def toString: String = s"MappedZipFile($file, entries=${entries.size})"
+}
+
+object MappedZipFile {
+
+    /**
+     * An entry of a zip file as described by the zip file's central directory.
+     *
+     * @param localHeaderOffset The (absolute) offset of the entry's local header w.r.t.
+     *        the beginning of the file.
+     */
+    final class Entry(
+        val name:              String,
+        val method:            Int,
+        val compressedSize:    Int,
+        val size:              Int,
+        val localHeaderOffset: Int
+    ) {
+
+        def isDirectory: Boolean = name.endsWith("/")
+
+        override def toString: String = s"Entry($name, method=$method, size=$size)"
+    }
+
+    private final val LocalHeaderSignature = 0x04034b50
+    private final val LocalHeaderSize = 30
+    private final val CentralDirectoryHeaderSignature = 0x02014b50
+    private final val CentralDirectoryHeaderSize = 46
+    private final val EndOfCentralDirectorySignature = 0x06054b50
+    private final val EndOfCentralDirectorySize = 22
+
+    /**
+     * Releases a mapped buffer using `sun.misc.Unsafe.invokeCleaner` (Java 9+), which is not
+     * part of the supported API; if it is not available, the mapping is released when the
+     * buffer is garbage collected.
+     */
+    private val unmap: MappedByteBuffer => Unit = {
+        try {
+            val unsafeClass = Class.forName("sun.misc.Unsafe")
+            val theUnsafe = unsafeClass.getDeclaredField("theUnsafe")
+            theUnsafe.setAccessible(true)
+            val unsafe = theUnsafe.get(null)
+            val invokeCleaner = unsafeClass.getMethod("invokeCleaner", classOf[ByteBuffer])
+            (buffer: MappedByteBuffer) => { invokeCleaner.invoke(unsafe, buffer); () }
+        } catch {
+            case _: ReflectiveOperationException | _: SecurityException => (_: MappedByteBuffer) => ()
+        }
+    }
+
+    private def u2(buffer: ByteBuffer, index: Int): Int = buffer.getShort(index) & 0xFFFF
+
+    private def u4(buffer: ByteBuffer, index: Int): Long = buffer.getInt(index) & 0xFFFFFFFFL
+
+    /**
+     * Memory maps the given file and reads its central directory.
+     *
+     * @return `None` if the file is not a (supported) zip file; e.g., if the file is a
+     *         zip64 file or larger than 2GB.
+     */
+    def open(file: File): Option[MappedZipFile] = {
+        val length = file.length()
+        if (length < EndOfCentralDirectorySize || length > Int.MaxValue) {
+            None
+        } else {
+            val buffer = process(new RandomAccessFile(file, "r")) { raf =>
+                raf.getChannel.map(FileChannel.MapMode.READ_ONLY, 0L, length)
+            }
+            readCentralDirectory(buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN)) map { entries =>
+                new MappedZipFile(file, buffer, entries)
+            }
+        }
+    }
+
+    private def readCentralDirectory(buffer: ByteBuffer): Option[IndexedSeq[Entry]] = {
+        val length = buffer.capacity
+
+        // The end of central directory record is followed by a comment of at most 64KB.
+        val minEndOffset = Math.max(0, length - EndOfCentralDirectorySize - 0xFFFF)
+        var endOffset = length - EndOfCentralDirectorySize
+        while (endOffset >= minEndOffset && buffer.getInt(endOffset) != EndOfCentralDirectorySignature) {
+            endOffset -= 1
+        }
+        if (endOffset < minEndOffset)
+            return None;
+
+        val entriesCount = u2(buffer, endOffset + 10)
+        val centralDirectorySize = u4(buffer, endOffset + 12)
+        val centralDirectoryOffset = u4(buffer, endOffset + 16)
+        if (entriesCount == 0xFFFF || centralDirectorySize == 0xFFFFFFFFL ||
+            centralDirectoryOffset == 0xFFFFFFFFL
+        ) {
+            return None; // zip64
+        }
+        // The number of bytes preceding the zip file's content (e.g., the jmod header).
+        val prefixSize = endOffset - centralDirectorySize - centralDirectoryOffset
+        if (prefixSize < 0)
+            return None;
+
+        val entries = new Array[Entry](entriesCount)
+        var offset = (prefixSize + centralDirectoryOffset).toInt
+        var i = 0
+        while (i < entriesCount) {
+            if (offset + CentralDirectoryHeaderSize > endOffset ||
+                buffer.getInt(offset) != CentralDirectoryHeaderSignature
+            ) {
+                return None;
+            }
+            val flags = u2(buffer, offset + 8)
+            val compressedSize = u4(buffer, offset + 20)
+            val size = u4(buffer, offset + 24)
+            val nameLength = u2(buffer, offset + 28)
+            val extraLength = u2(buffer, offset + 30)
+            val commentLength = u2(buffer, offset + 32)
+            val localHeaderOffset = u4(buffer, offset + 42)
+            if ((flags & 1) != 0 /* encrypted */ ||
+                compressedSize == 0xFFFFFFFFL || size == 0xFFFFFFFFL ||
+                localHeaderOffset == 0xFFFFFFFFL ||
+                size > Int.MaxValue || compressedSize > Int.MaxValue
+            ) {
+                return None;
+            }
+            val nameBytes = new Array[Byte](nameLength)
+            val nameBuffer = buffer.duplicate()
+            nameBuffer.position(offset + CentralDirectoryHeaderSize)
+            nameBuffer.get(nameBytes)
+            entries(i) = new Entry(
+                new String(nameBytes, StandardCharsets.UTF_8),
+                u2(buffer, offset + 10),
+                compressedSize.toInt,
+                size.toInt,
+                (prefixSize + localHeaderOffset).toInt
+            )
+            offset += CentralDirectoryHeaderSize + nameLength + extraLength + commentLength
+            i += 1
+        }
+        Some(ArraySeq.unsafeWrapArray(entries))
+    }
+}
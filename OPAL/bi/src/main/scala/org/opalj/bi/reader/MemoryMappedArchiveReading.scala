@@ -0,0 +1,92 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package bi
+package reader
+
+import java.io.ByteArrayInputStream
+import java.io.DataInputStream
+import java.io.File
+import java.net.URI
+import java.net.URL
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.jar.JarInputStream
+import scala.jdk.CollectionConverters.*
+import scala.util.boundary.Break
+
+import org.opalj.concurrent.NumberOfThreadsForIOBoundTasks
+import org.opalj.concurrent.parForeachSeqElement
+import org.opalj.io.ByteBufferInputStream
+
+/**
+ * Reads the class files stored in archives (jar, jmod, ...) using memory mapped files (see
+ * [[MappedZipFile]]) instead of `java.util.zip.ZipFile`. The class files of stored
+ * (i.e., uncompressed) entries are directly parsed from the mapped file; compressed class
+ * files are inflated from the mapped file into a single array which is then parsed. Nested
+ * archives are copied into an array and read using a `JarInputStream`. The mapping is
+ * released after all class files of an archive were read.
+ *
+ * Archives which cannot be mapped (e.g., zip64 files) are read using the standard reader.
+ *
+ * @example
+ * {{{
+ * val reader = new Java17FrameworkWithCaching(cache) with MemoryMappedArchiveReading
+ * }}}
+ */
+trait MemoryMappedArchiveReading extends ClassFileReader {
+
+    override protected def processJar(
+        file:             File,
+        exceptionHandler: ExceptionHandler
+    ): List[(ClassFile, URL)] = {
+        val mappedZipFile =
+            try {
+                MappedZipFile.open(file)
+            } catch {
+                case e: Exception => exceptionHandler(file, e); return Nil;
+            }
+        mappedZipFile match {
+            case Some(zipFile) =>
+                try ClassFiles(zipFile, exceptionHandler)
+                finally zipFile.close()
+            case None          => super.processJar(file, exceptionHandler)
+        }
+    }
+
+    /**
+     * Reads in parallel all class files stored in the given memory mapped archive. Nested
+     * archives are read using [[ClassFiles(in:=>java.util.jar.JarInputStream)*]].
+     */
+    def ClassFiles(
+        zipFile:          MappedZipFile,
+        exceptionHandler: ExceptionHandler
+    ): List[(ClassFile, URL)] = {
+        val jarFileURL = s"jar:${zipFile.file.toURI.toURL.toExternalForm}!/"
+        val classFiles = new ConcurrentLinkedQueue[(ClassFile, URL)]()
+
+        def toURL(path: String): URL = new URI(path.replace(" ", "%20")).toURL
+
+        parForeachSeqElement(zipFile.entries, NumberOfThreadsForIOBoundTasks) { entry =>
+            val entryName = entry.name
+            if (!entry.isDirectory && entry.size > 0) {
+                try {
+                    if (entryName.endsWith(".class")) {
+                        val in = new DataInputStream(new ByteBufferInputStream(zipFile.data(entry)))
+                        val url = toURL(jarFileURL + entryName)
+                        ClassFile(in).foreach(classFile => classFiles.add((classFile, url)))
+                    } else if (isClassFileRepository(entryName, Some(zipFile.file.getName))) {
+                        val nestedJarFileURL = s"${jarFileURL}jar:$entryName!/"
+                        val data = zipFile.bytes(entry)
+                        ClassFiles(new JarInputStream(new ByteArrayInputStream(data))).foreach { cfName =>
+                            val (classFile, name) = cfName
+                            classFiles.add((classFile, toURL(nestedJarFileURL + name)))
+                        }
+                    }
+                } catch {
+                    case b: Break[?]  => throw b
+                    case t: Throwable => exceptionHandler(entryName, t)
+                }
+            }
+        }
+        classFiles.asScala.toList
+    }
+}
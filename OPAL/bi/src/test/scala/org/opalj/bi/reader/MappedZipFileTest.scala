@@ -0,0 +1,98 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package bi
+package reader
+
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.File
+import java.io.IOException
+import java.nio.file.Files
+import java.util.zip.CRC32
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+import org.junit.runner.RunWith
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.io.ByteBufferInputStream
+
+/**
+ * Tests the reading of zip files using [[MappedZipFile]].
+ */
+@RunWith(classOf[JUnitRunner])
+class MappedZipFileTest extends AnyFunSuite {
+
+    private val storedData = Array.tabulate[Byte](1000)(i => (i % 127).toByte)
+    private val deflatedData = ("OPAL " * 1000).getBytes("UTF-8")
+
+    private def createZipFile(prefix: Array[Byte]): File = {
+        val out = new ByteArrayOutputStream()
+        val zipOut = new ZipOutputStream(out)
+        zipOut.putNextEntry(new ZipEntry("dir/"))
+        zipOut.closeEntry()
+
+        val storedEntry = new ZipEntry("dir/Stored.class")
+        val crc = new CRC32()
+        crc.update(storedData)
+        storedEntry.setMethod(ZipEntry.STORED)
+        storedEntry.setSize(storedData.length.toLong)
+        storedEntry.setCompressedSize(storedData.length.toLong)
+        storedEntry.setCrc(crc.getValue)
+        zipOut.putNextEntry(storedEntry)
+        zipOut.write(storedData)
+        zipOut.closeEntry()
+
+        zipOut.putNextEntry(new ZipEntry("dir/Deflated.class"))
+        zipOut.write(deflatedData)
+        zipOut.closeEntry()
+        zipOut.close()
+
+        val file = File.createTempFile("MappedZipFileTest", ".zip")
+        file.deleteOnExit()
+        Files.write(file.toPath, prefix ++ out.toByteArray)
+        file
+    }
+
+    private def testZipFile(prefix: Array[Byte]): Unit = {
+        val zipFile = MappedZipFile.open(createZipFile(prefix)).get
+        val entries = zipFile.entries.map(e => (e.name, e)).toMap
+        assert(entries.keySet == Set("dir/", "dir/Stored.class", "dir/Deflated.class"))
+        assert(entries("dir/").isDirectory)
+
+        val storedEntry = entries("dir/Stored.class")
+        assert(storedEntry.method == ZipEntry.STORED)
+        assert(zipFile.bytes(storedEntry).sameElements(storedData))
+
+        val deflatedEntry = entries("dir/Deflated.class")
+        assert(deflatedEntry.method == ZipEntry.DEFLATED)
+        assert(deflatedEntry.compressedSize < deflatedData.length)
+        assert(zipFile.bytes(deflatedEntry).sameElements(deflatedData))
+
+        val in = new DataInputStream(new ByteBufferInputStream(zipFile.data(deflatedEntry)))
+        val readData = new Array[Byte](deflatedData.length)
+        in.readFully(readData)
+        assert(readData.sameElements(deflatedData))
+        assert(in.read() == -1)
+
+        zipFile.close()
+        assertThrows[IOException](zipFile.data(storedEntry))
+        assert(zipFile.file.delete())
+    }
+
+    test("reading stored and deflated entries of a zip file") {
+        testZipFile(Array.empty)
+    }
+
+    test("reading a zip file with a prefix (e.g., a jmod file)") {
+        testZipFile(Array[Byte](0x4A, 0x4D, 0x01, 0x00)) // "JM" + version
+    }
+
+    test("opening a file that is not a zip file") {
+        val file = File.createTempFile("MappedZipFileTest", ".txt")
+        file.deleteOnExit()
+        Files.write(file.toPath, ("no zip file " * 10).getBytes("UTF-8"))
+        assert(MappedZipFile.open(file).isEmpty)
+    }
+}
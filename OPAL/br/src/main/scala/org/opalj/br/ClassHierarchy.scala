@@ -102,6 +102,9 @@ import it.unimi.dsi.fastutil.ints.Int2IntArrayMap
  *          as such is incomplete. Whether the type information is complete for a given type
  *          or not can be checked using `isSupertypeInformationComplete`.
  *
+ * @param   subtypeIndex The subtype relation encoded using intervals of pre-order numbers;
+ *          derived from `subtypeInformationMap` and used to answer `isSubtypeOf` queries.
+ *
  * @author Michael Eichberg
  */
 class ClassHierarchy private (
@@ -125,7 +128,8 @@ class ClassHierarchy private (
     val leafTypes:                                 UIDSet[ClassType],
     private val isSupertypeInformationCompleteMap: Array[Boolean],
     private val supertypeInformationMap:           Array[SupertypeInformation],
-    private val subtypeInformationMap:             Array[SubtypeInformation]
+    private val subtypeInformationMap:             Array[SubtypeInformation],
+    private val subtypeIndex:                      SubtypeIndex
 )(
     implicit val logContext: LogContext
 ) {
@@ -144,7 +148,8 @@ class ClassHierarchy private (
             leafTypes,
             isSupertypeInformationCompleteMap,
             supertypeInformationMap,
-            subtypeInformationMap
+            subtypeInformationMap,
+            subtypeIndex
         )(
             using newLogContext
         )
@@ -1309,7 +1314,7 @@ class ClassHierarchy private (
         if (isUnknown(theSupertypeId))
             return false;
 
-        subtypeInformationMap(theSupertypeId).contains(subtype)
+        subtypeIndex.isSubtypeOf(subtype.id, theSupertypeId)
     }
 
     /**
@@ -3395,6 +3400,8 @@ object ClassHierarchy {
 
         val supertypes = await(supertypesFuture, Inf)
 
+        val subtypeIndex = SubtypeIndex(knownTypesMap, superclassTypeMap, superinterfaceTypesMap, subtypes)
+
         new ClassHierarchy(
             // BAREBONE INFORMATION
             knownTypesMap,
@@ -3410,7 +3417,8 @@ object ClassHierarchy {
             leafTypes,
             isSupertypeInformationCompleteMap,
             supertypes,
-            subtypes
+            subtypes,
+            subtypeIndex
         )
     }
 }
@@ -42,16 +42,19 @@ import org.opalj.util.AnyToAnyThis
  *          preferred way to iterate over all instructions is to use for-comprehensions
  *          and pattern matching or to use one of the predefined methods [[foreach]],
  *          [[collect]], [[collectPair]], [[collectWithIndex]], etc.
- *          The `instructions` array must not be mutated!
+ *          The `instructions` array must not be mutated! The instructions may be decoded
+ *          lazily (see [[Code.lazily]]).
  *
  * @author Michael Eichberg
  */
 final class Code private (
-    val maxStack:          Int,
-    val maxLocals:         Int,
-    val instructions:      Array[Instruction],
-    val exceptionHandlers: ExceptionHandlers,
-    val attributes:        Attributes
+    val maxStack:                          Int,
+    val maxLocals:                         Int,
+    @volatile private var theInstructions: Array[Instruction],
+    val exceptionHandlers:                 ExceptionHandlers,
+    val attributes:                        Attributes,
+    private var decodeInstructions:        () => Array[Instruction] = null,
+    private val undecodedCodeSize:         Int                      = -1
 ) extends Attribute
     with CommonAttributes
     with InstructionsContainer
@@ -59,6 +62,30 @@ final class Code private (
     with Iterable[PCAndInstruction] {
     code =>
 
+    /**
+     * The instructions of this code block; if the instructions were not yet decoded
+     * (see [[Code.lazily]]), they are decoded now.
+     */
+    final def instructions: Array[Instruction] = {
+        val instructions = theInstructions
+        if (instructions ne null) instructions else decodeInstructionsNow()
+    }
+
+    private def decodeInstructionsNow(): Array[Instruction] = this.synchronized {
+        if (theInstructions eq null) {
+            theInstructions = decodeInstructions()
+            decodeInstructions = null
+        }
+        theInstructions
+    }
+
+    /**
+     * `true` if the instructions are already decoded. Accessing the instructions or any
+     * information derived from them decodes the instructions; the [[codeSize]] is
+     * available without decoding.
+     */
+    def isDecoded: Boolean = theInstructions ne null
+
     def copy(
         maxStack:          Int                = this.maxStack,
         maxLocals:         Int                = this.maxLocals,
@@ -107,7 +134,10 @@ final class Code private (
         compareAttributes(other.attributes, config).isEmpty
     }
 
-    @inline final def codeSize: Int = instructions.length
+    @inline final def codeSize: Int = {
+        val instructions = theInstructions
+        if (instructions ne null) instructions.length else undecodedCodeSize
+    }
 
     override def iterator: Iterator[PCAndInstruction] = {
         new AbstractIterator[PCAndInstruction] {
@@ -1667,6 +1697,39 @@ object Code {
         exceptionHandlers: ExceptionHandlers = NoExceptionHandlers,
         attributes:        Attributes        = NoAttributes
     ): Code = {
+        create(maxStack, maxLocals, instructions, -1, null, exceptionHandlers, attributes)
+    }
+
+    /**
+     * Creates a code block whose instructions are decoded using the given function when
+     * they are accessed for the first time; the decoding is thread-safe and is done at
+     * most once.
+     *
+     * @param codeSize The size of the code array; i.e., the length of the decoded instructions array.
+     * @param decodeInstructions Decodes the instructions; the function is released after
+     *          the decoding, i.e., all resources that are only required for decoding (e.g.,
+     *          the raw bytecode) can then be garbage collected.
+     */
+    def lazily(
+        maxStack:           Int,
+        maxLocals:          Int,
+        codeSize:           Int,
+        decodeInstructions: () => Array[Instruction],
+        exceptionHandlers:  ExceptionHandlers,
+        attributes:         Attributes
+    ): Code = {
+        create(maxStack, maxLocals, null, codeSize, decodeInstructions, exceptionHandlers, attributes)
+    }
+
+    private def create(
+        maxStack:           Int,
+        maxLocals:          Int,
+        instructions:       Array[Instruction],
+        codeSize:           Int,
+        decodeInstructions: () => Array[Instruction],
+        exceptionHandlers:  ExceptionHandlers,
+        attributes:         Attributes
+    ): Code = {
 
         var localVariableTablesCount = 0
         var lineNumberTablesCount = 0
@@ -1679,7 +1742,7 @@ object Code {
         }
 
         if (localVariableTablesCount <= 1 && lineNumberTablesCount <= 1) {
-            new Code(maxStack, maxLocals, instructions, exceptionHandlers, attributes)
+            new Code(maxStack, maxLocals, instructions, exceptionHandlers, attributes, decodeInstructions, codeSize)
         } else {
             val (localVariableTables, otherAttributes1) =
                 partitionByType(attributes, classOf[LocalVariableTable])
@@ -1702,7 +1765,15 @@ object Code {
                     newAttributes1
                 }
 
-            new Code(maxStack, maxLocals, instructions, exceptionHandlers, newAttributes2)
+            new Code(
+                maxStack,
+                maxLocals,
+                instructions,
+                exceptionHandlers,
+                newAttributes2,
+                decodeInstructions,
+                codeSize
+            )
         }
     }
 
@@ -1863,7 +1934,7 @@ object Code {
         new Code(
             maxStack = 3 /* 3 for the message! */,
             maxLocals = descriptor.requiredRegisters + (if (isInstanceMethod) 1 else 0),
-            instructions =
+            theInstructions =
                 Array(
                     NEW(ClassType.Error),
                     null,
@@ -36,6 +36,19 @@ sealed abstract class DeclaredField {
     override def hashCode(): Int = id
 }
 
+object DeclaredField {
+
+    /**
+     * Returns the id of the given entity if it is a declared field and `-1` otherwise. Intended
+     * to be registered with property keys whose entities are declared fields to enable a
+     * dense storage of the properties (see [[org.opalj.fpcf.PropertyKey]]).
+     */
+    final val entityId: AnyRef => Int = {
+        case df: DeclaredField => df.id
+        case _                 => -1
+    }
+}
+
 /**
  * Represents a field belonging to the API of the specified class type, where the original
  * field definition is not available (in the context of the current analysis).
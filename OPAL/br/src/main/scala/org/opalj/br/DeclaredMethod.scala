@@ -84,6 +84,19 @@ sealed abstract class DeclaredMethod {
     override def hashCode(): Int = id
 }
 
+object DeclaredMethod {
+
+    /**
+     * Returns the id of the given entity if it is a declared method and `-1` otherwise. Intended
+     * to be registered with property keys whose entities are declared methods to enable a
+     * dense storage of the properties (see [[org.opalj.fpcf.PropertyKey]]).
+     */
+    final val entityId: AnyRef => Int = {
+        case dm: DeclaredMethod => dm.id
+        case _                  => -1
+    }
+}
+
 /**
  * Represents a method belonging to the API of the specified class type, where the original
  * method definition is not available (in the context of the current analysis).
@@ -0,0 +1,236 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+
+import java.util.Arrays
+
+import org.opalj.collection.immutable.UIDSet
+
+/**
+ * A precomputed index of the subtype relation of a [[ClassHierarchy]] which enables subtype
+ * tests using a few array accesses.
+ *
+ * All known types are numbered in pre-order w.r.t. the class tree (a type's parent is its
+ * superclass or – if the superclass is unknown – its first known superinterface). Hence, the
+ * subtypes of a class always form a single interval of pre-order numbers. The subtypes of an
+ * interface are, in general, scattered across the tree and are encoded as a sorted set of
+ * disjoint intervals; however, given that all subclasses of a class implementing an interface
+ * also implement the interface, the number of intervals is typically small.
+ *
+ * The index is derived from the types' [[SubtypeInformation]] and is therefore always
+ * consistent with it. As in the case of `SubtypeInformation.contains`, the test is not
+ * reflexive and every type except `java.lang.Object` is considered a subtype of
+ * `java.lang.Object`.
+ *
+ * @param   preorderNumbers The pre-order number of each known type (by id); `-1` otherwise.
+ * @param   largestIntervalStarts The start of the largest interval of the subtypes of each
+ *          type (by id).
+ * @param   largestIntervalEnds The (inclusive) end of the largest interval of the subtypes of
+ *          each type (by id).
+ * @param   allIntervals The (sorted) starts and ends of all intervals of the subtypes of each
+ *          type (by id); `null` if the subtypes form at most a single interval.
+ */
+private[br] final class SubtypeIndex private (
+    private val preorderNumbers:       Array[Int],
+    private val largestIntervalStarts: Array[Int],
+    private val largestIntervalEnds:   Array[Int],
+    private val allIntervals:          Array[Array[Int]]
+) {
+
+    /**
+     * Returns `true` if the type with the id `subtypeId` is a (non-reflexive) subtype of the
+     * '''known''' type with the id `supertypeId`.
+     */
+    def isSubtypeOf(subtypeId: Int, supertypeId: Int): Boolean = {
+        if (supertypeId == ClassType.ObjectId)
+            return subtypeId != ClassType.ObjectId;
+
+        val preorderNumbers = this.preorderNumbers
+        if (subtypeId >= preorderNumbers.length)
+            return false;
+
+        val preorderNumber = preorderNumbers(subtypeId)
+        if (preorderNumber < 0)
+            return false;
+
+        if (preorderNumber >= largestIntervalStarts(supertypeId) &&
+            preorderNumber <= largestIntervalEnds(supertypeId)
+        )
+            return true;
+
+        val intervals = allIntervals(supertypeId)
+        (intervals ne null) && SubtypeIndex.intervalsContain(intervals, preorderNumber)
+    }
+
+    /** The number of intervals required to encode the subtypes of the type with the given id. */
+    def intervalsCount(supertypeId: Int): Int = {
+        val intervals = allIntervals(supertypeId)
+        if (intervals ne null)
+            intervals.length / 2
+        else if (largestIntervalStarts(supertypeId) <= largestIntervalEnds(supertypeId))
+            1
+        else
+            0
+    }
+}
+
+private[br] object SubtypeIndex {
+
+    private def intervalsContain(intervals: Array[Int], preorderNumber: Int): Boolean = {
+        // intervals = [start_0, end_0, start_1, end_1, ...]; search the last start <= n
+        var low = 0
+        var high = intervals.length / 2 - 1
+        while (low <= high) {
+            val mid = (low + high) >>> 1
+            val start = intervals(mid * 2)
+            if (start <= preorderNumber) {
+                if (preorderNumber <= intervals(mid * 2 + 1))
+                    return true;
+                low = mid + 1
+            } else {
+                high = mid - 1
+            }
+        }
+        false
+    }
+
+    def apply(
+        knownTypesMap:          Array[ClassType],
+        superclassTypeMap:      Array[ClassType],
+        superinterfaceTypesMap: Array[UIDSet[ClassType]],
+        subtypeInformationMap:  Array[SubtypeInformation]
+    ): SubtypeIndex = {
+        val typesCount = knownTypesMap.length
+        def isKnown(t: ClassType): Boolean = {
+            (t ne null) && t.id < typesCount && (knownTypesMap(t.id) ne null)
+        }
+
+        // 1. Compute the (spanning) class tree...
+        val parents = new Array[Int](typesCount)
+        val childrenCounts = new Array[Int](typesCount)
+        var tid = 0
+        while (tid < typesCount) {
+            parents(tid) = -1
+            if (knownTypesMap(tid) ne null) {
+                val superclassType = superclassTypeMap(tid)
+                if (isKnown(superclassType)) {
+                    parents(tid) = superclassType.id
+                } else {
+                    val superinterfaceTypes = superinterfaceTypesMap(tid)
+                    if (superinterfaceTypes ne null) {
+                        superinterfaceTypes.find(isKnown).foreach(t => parents(tid) = t.id)
+                    }
+                }
+                if (parents(tid) >= 0) childrenCounts(parents(tid)) += 1
+            }
+            tid += 1
+        }
+        // ... the children are stored in a single array (CSR encoding)
+        val childrenOffsets = new Array[Int](typesCount + 1)
+        tid = 0
+        while (tid < typesCount) {
+            childrenOffsets(tid + 1) = childrenOffsets(tid) + childrenCounts(tid)
+            tid += 1
+        }
+        val children = new Array[Int](childrenOffsets(typesCount))
+        val nextChildIndex = Arrays.copyOf(childrenOffsets, typesCount)
+        tid = 0
+        while (tid < typesCount) {
+            val parent = parents(tid)
+            if (parent >= 0) {
+                children(nextChildIndex(parent)) = tid
+                nextChildIndex(parent) += 1
+            }
+            tid += 1
+        }
+
+        // 2. Number the types in pre-order; types that are part of a cycle in the (inconsistent)
+        //    type information are not reachable from a root and are numbered afterwards.
+        val preorderNumbers = new Array[Int](typesCount)
+        Arrays.fill(preorderNumbers, -1)
+        var nextPreorderNumber = 0
+        val worklist = new Array[Int](typesCount)
+        def numberSubtree(root: Int): Unit = {
+            var worklistSize = 1
+            worklist(0) = root
+            while (worklistSize > 0) {
+                worklistSize -= 1
+                val t = worklist(worklistSize)
+                if (preorderNumbers(t) < 0) {
+                    preorderNumbers(t) = nextPreorderNumber
+                    nextPreorderNumber += 1
+                    // push the children in reverse order to number them in order
+                    var i = childrenOffsets(t + 1) - 1
+                    while (i >= childrenOffsets(t)) {
+                        worklist(worklistSize) = children(i)
+                        worklistSize += 1
+                        i -= 1
+                    }
+                }
+            }
+        }
+        tid = 0
+        while (tid < typesCount) {
+            if ((knownTypesMap(tid) ne null) && parents(tid) < 0) numberSubtree(tid)
+            tid += 1
+        }
+        tid = 0
+        while (tid < typesCount) {
+            if ((knownTypesMap(tid) ne null) && preorderNumbers(tid) < 0) numberSubtree(tid)
+            tid += 1
+        }
+
+        // 3. Encode the subtypes of each type as a set of intervals of pre-order numbers.
+        val largestIntervalStarts = new Array[Int](typesCount)
+        val largestIntervalEnds = new Array[Int](typesCount)
+        val allIntervals = new Array[Array[Int]](typesCount)
+        Arrays.fill(largestIntervalStarts, 1)
+        // largestIntervalEnds are 0; i.e., the intervals are empty by default
+        tid = 0
+        while (tid < typesCount) {
+            val subtypeInformation = subtypeInformationMap(tid)
+            if ((knownTypesMap(tid) ne null) && tid != ClassType.ObjectId &&
+                (subtypeInformation ne null) && subtypeInformation.size > 0
+            ) {
+                val subtypePreorderNumbers = new Array[Int](subtypeInformation.size)
+                var count = 0
+                subtypeInformation.foreach { subtype =>
+                    val preorderNumber = preorderNumbers(subtype.id)
+                    if (preorderNumber >= 0) {
+                        subtypePreorderNumbers(count) = preorderNumber
+                        count += 1
+                    }
+                }
+                Arrays.sort(subtypePreorderNumbers, 0, count)
+
+                val intervals = new Array[Int](count * 2)
+                var intervalsLength = 0
+                var largestIntervalSize = 0
+                var i = 0
+                while (i < count) {
+                    val start = subtypePreorderNumbers(i)
+                    var end = start
+                    while (i + 1 < count && subtypePreorderNumbers(i + 1) == end + 1) {
+                        i += 1
+                        end += 1
+                    }
+                    intervals(intervalsLength) = start
+                    intervals(intervalsLength + 1) = end
+                    intervalsLength += 2
+                    if (end - start + 1 > largestIntervalSize) {
+                        largestIntervalSize = end - start + 1
+                        largestIntervalStarts(tid) = start
+                        largestIntervalEnds(tid) = end
+                    }
+                    i += 1
+                }
+                if (intervalsLength > 2) {
+                    allIntervals(tid) = Arrays.copyOf(intervals, intervalsLength)
+                }
+            }
+            tid += 1
+        }
+
+        new SubtypeIndex(preorderNumbers, largestIntervalStarts, largestIntervalEnds, allIntervals)
+    }
+}
@@ -4,9 +4,7 @@ package br
 
 import scala.annotation.tailrec
 
-import java.lang.ref.WeakReference
 import java.util.Arrays as JArrays
-import java.util.WeakHashMap
 import java.util.concurrent.atomic.AtomicInteger
 import java.util.concurrent.locks.ReentrantReadWriteLock
 import scala.collection.SortedSet
@@ -1038,22 +1036,16 @@ object ClassType {
     // IMPROVE Use a soft reference or something similar to avoid filling up the memory when we create multiple projects in a row!
     @volatile private var classTypes: Array[ClassType] = new Array[ClassType](0)
 
-    private def updateClassTypes(): Unit = {
-        if (nextId.get > classTypes.length) {
-            val newClassTypes = JArrays.copyOf(this.classTypes, nextId.get)
-            cacheRWLock.readLock().lock()
-            try {
-                cache.values.forEach { wct =>
-                    val ct = wct.get
-                    if (ct != null && ct.id < newClassTypes.length) {
-                        newClassTypes(ct.id) = ct
-                    }
-                }
-            } finally {
-                cacheRWLock.readLock().unlock()
+    private def updateClassTypes(): Unit = this.synchronized {
+        // A type may have got its id, but may not yet be in the cache; hence, we also have to
+        // update the array if it contains no type for some id.
+        val newClassTypes = JArrays.copyOf(this.classTypes, Math.max(nextId.get, classTypes.length))
+        cache.foreach { ct =>
+            if (ct.id < newClassTypes.length) {
+                newClassTypes(ct.id) = ct
             }
-            this.classTypes = newClassTypes
         }
+        this.classTypes = newClassTypes
     }
 
     /**
@@ -1061,23 +1053,19 @@ object ClassType {
      */
     def lookup(id: Int): ClassType = {
         var classTypes = this.classTypes
+        if (id >= classTypes.length || (classTypes(id) eq null)) {
+            // Let's check if the type was created in the meantime!
+            updateClassTypes()
+            classTypes = this.classTypes
+        }
         if (id < classTypes.length) {
             val ct = classTypes(id)
             if (ct == null) throw new IllegalArgumentException(s"$id is unknown")
             ct
         } else {
-            // Let's check if the type was created in the meantime!
-            updateClassTypes()
-            classTypes = this.classTypes
-            if (id < classTypes.length) {
-                val ct = classTypes(id)
-                if (ct == null) throw new IllegalArgumentException(s"$id is unknown")
-                ct
-            } else {
-                throw new IllegalArgumentException(
-                    s"$id belongs to ClassType created after the creation of the lookup map"
-                )
-            }
+            throw new IllegalArgumentException(
+                s"$id belongs to ClassType created after the creation of the lookup map"
+            )
         }
     }
 
@@ -1087,14 +1075,14 @@ object ClassType {
      */
     def flushTypeCache(): Unit = {
 
-        val writeLock = cacheRWLock.writeLock()
+        val writeLock = creationLock.writeLock()
         writeLock.lock()
 
-        // First we need to write all cached new types to the actual array, otherwise
-        // we might delete the predefined types
-        updateClassTypes()
-
         try {
+            // First we need to write all cached new types to the actual array, otherwise
+            // we might delete the predefined types
+            updateClassTypes()
+
             // Clear the entire cache
             cache.clear()
 
@@ -1102,7 +1090,7 @@ object ClassType {
             classTypes = JArrays.copyOf(classTypes, highestPredefinedTypeId + 1)
 
             // Refill the cache using the classTypes array
-            classTypes.foreach { ct => cache.put(ct.fqn, new WeakReference[ClassType](ct)) }
+            classTypes.foreach { ct => cache.put(ct.fqn, ct) }
 
             // Reset ID counter to the highest id in the cache
             nextId.set(highestPredefinedTypeId + 1)
@@ -1113,8 +1101,10 @@ object ClassType {
     }
 
     private val nextId = new AtomicInteger(0)
-    private val cacheRWLock = new ReentrantReadWriteLock();
-    private val cache = new WeakHashMap[String, WeakReference[ClassType]]()
+    // Lookups do not acquire the lock; the creation of new types acquires the read lock to
+    // enable flushing the cache and registering the listener without missing any type.
+    private val creationLock = new ReentrantReadWriteLock()
+    private val cache = new TypeCache[String, ClassType]()
 
     @volatile private var classTypeCreationListener: ClassType => Unit = uninitialized
 
@@ -1124,16 +1114,12 @@ object ClassType {
      * class type creation. However, invocation may occur concurrently.
      */
     def setClassTypeCreationListener(f: ClassType => Unit): Unit = {
-        cacheRWLock.readLock().lock()
+        creationLock.writeLock().lock()
         try {
             classTypeCreationListener = f
-            val classTypesIterator = cache.values().iterator()
-            while (classTypesIterator.hasNext) {
-                val classType = classTypesIterator.next.get()
-                if (classType ne null) f(classType)
-            }
+            cache.foreach(f)
         } finally {
-            cacheRWLock.readLock().unlock()
+            creationLock.writeLock().unlock()
         }
     }
 
@@ -1155,40 +1141,31 @@ object ClassType {
     def apply(fqn: String): ClassType = {
         elidedAssert(!fqn.endsWith(";")) // Catch errors where we accidentally use a JVMTypeName instead
 
-        val readLock = cacheRWLock.readLock()
-        readLock.lock()
-        try {
-            val wrCT = cache.get(fqn)
-            if (wrCT != null) {
-                val CT = wrCT.get()
-                if (CT != null)
-                    return CT;
-            }
-        } finally {
-            readLock.unlock()
-        }
+        val CT = cache.get(fqn)
+        if (CT ne null)
+            return CT;
 
-        // Remember: Lock upgrading is not possible
-        val writeLock = cacheRWLock.writeLock()
-        writeLock.lock()
+        val readLock = creationLock.readLock()
+        readLock.lock()
         try {
-            // WE HAVE TO CHECK AGAIN
-            val wrCT = cache.get(fqn)
-            if (wrCT != null) {
-                val CT = wrCT.get()
-                if (CT != null)
-                    return CT;
+            var isNew = false
+            val newCT = cache.getOrCreate(
+                fqn,
+                { fqn =>
+                    isNew = true
+                    new ClassType(nextId.getAndIncrement(), fqn)
+                }
+            )
+            if (isNew) {
+                // The listener is called outside the cache's critical section as it may
+                // create further types.
+                val currentClassTypeCreationListener = classTypeCreationListener
+                if (currentClassTypeCreationListener ne null)
+                    currentClassTypeCreationListener(newCT)
             }
-
-            val newCT = new ClassType(nextId.getAndIncrement(), fqn)
-            val wrNewCT = new WeakReference(newCT)
-            cache.put(fqn, wrNewCT)
-            val currentClassTypeCreationListener = classTypeCreationListener
-            if (currentClassTypeCreationListener ne null)
-                currentClassTypeCreationListener(newCT)
             newCT
         } finally {
-            writeLock.unlock()
+            readLock.unlock()
         }
     }
 
@@ -1569,19 +1546,16 @@ object ArrayType {
     // IMPROVE Use a soft reference or something similar to avoid filling up the memory when we create multiple projects in a row!
     @volatile private var arrayTypes: Array[ArrayType] = new Array[ArrayType](0)
 
-    private def updateArrayTypes(): Unit = {
-        if (-nextId.get > arrayTypes.length) {
-            val newArrayTypes = JArrays.copyOf(this.arrayTypes, -nextId.get)
-            cache.synchronized {
-                cache.values.forEach { wat =>
-                    val at = wat.get
-                    if (at != null && -at.id < newArrayTypes.length) {
-                        newArrayTypes(-at.id) = at
-                    }
-                }
+    private def updateArrayTypes(): Unit = this.synchronized {
+        // A type may have got its id, but may not yet be in the cache; hence, we also have to
+        // update the array if it contains no type for some id.
+        val newArrayTypes = JArrays.copyOf(this.arrayTypes, Math.max(-nextId.get, arrayTypes.length))
+        cache.foreach { at =>
+            if (-at.id < newArrayTypes.length) {
+                newArrayTypes(-at.id) = at
             }
-            this.arrayTypes = newArrayTypes
         }
+        this.arrayTypes = newArrayTypes
     }
 
     /**
@@ -1590,23 +1564,19 @@ object ArrayType {
     def lookup(atId: Int): ArrayType = {
         var arrayTypes = this.arrayTypes
         val id = -atId
+        if (id >= arrayTypes.length || (arrayTypes(id) eq null)) {
+            // Let's check if the type was created in the meantime!
+            updateArrayTypes()
+            arrayTypes = this.arrayTypes
+        }
         if (id < arrayTypes.length) {
             val at = arrayTypes(id)
             if (at == null) throw new IllegalArgumentException(s"$atId is unknown")
             at
         } else {
-            // Let's check if the type was created in the meantime!
-            updateArrayTypes()
-            arrayTypes = this.arrayTypes
-            if (id < arrayTypes.length) {
-                val at = arrayTypes(id)
-                if (at == null) throw new IllegalArgumentException(s"$atId is unknown")
-                at
-            } else {
-                throw new IllegalArgumentException(
-                    s"$atId belongs to ArrayType created after the creation of the lookup map"
-                )
-            }
+            throw new IllegalArgumentException(
+                s"$atId belongs to ArrayType created after the creation of the lookup map"
+            )
         }
     }
 
@@ -1616,7 +1586,10 @@ object ArrayType {
      */
     def flushTypeCache(): Unit = {
 
-        cache.synchronized {
+        val writeLock = creationLock.writeLock()
+        writeLock.lock()
+
+        try {
 
             // First we need to write all cached new types to the actual array, otherwise
             // we might delete the predefined types
@@ -1632,17 +1605,21 @@ object ArrayType {
             arrayTypes.foreach { at =>
                 // arrayTypes(0) is gonna be null, so we need this guard
                 if (at != null) {
-                    cache.put(at.componentType, new WeakReference[ArrayType](at))
+                    cache.put(at.componentType, at)
                 }
             }
 
             // Reset id counter
             nextId.set(lowestPredefinedTypeId - 1)
 
+        } finally {
+            writeLock.unlock()
         }
     }
 
-    private val cache = new WeakHashMap[FieldType, WeakReference[ArrayType]]()
+    // See ClassType for the usage of the lock.
+    private val creationLock = new ReentrantReadWriteLock()
+    private val cache = new TypeCache[FieldType, ArrayType]()
 
     private val nextId = new AtomicInteger(-1)
 
@@ -1655,17 +1632,16 @@ object ArrayType {
      * iff it is the same object.
      */
     def apply(componentType: FieldType): ArrayType = {
-        cache.synchronized {
-            val wrAT = cache.get(componentType)
-            if (wrAT != null) {
-                val AT = wrAT.get()
-                if (AT != null)
-                    return AT;
-            }
-            val newAT = new ArrayType(nextId.getAndDecrement(), componentType)
-            val wrNewAT = new WeakReference(newAT)
-            cache.put(componentType, wrNewAT)
-            newAT
+        val AT = cache.get(componentType)
+        if (AT ne null)
+            return AT;
+
+        val readLock = creationLock.readLock()
+        readLock.lock()
+        try {
+            cache.getOrCreate(componentType, ct => new ArrayType(nextId.getAndDecrement(), ct))
+        } finally {
+            readLock.unlock()
         }
     }
 
@@ -0,0 +1,88 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+
+import java.lang.ref.ReferenceQueue
+import java.lang.ref.WeakReference
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * A thread-safe interning table that weakly references its values; used to ensure that only
+ * one instance of a [[ReferenceType]] exists per key.
+ *
+ * Lookups are lock-free; insertions only lock the respective bin of the underlying
+ * `ConcurrentHashMap`. Entries whose values were garbage collected are removed when the next
+ * value is created.
+ */
+private[br] final class TypeCache[K <: AnyRef, T <: AnyRef] {
+
+    import TypeCache.Entry
+
+    private val queue = new ReferenceQueue[T]()
+
+    private val entries = new ConcurrentHashMap[K, Entry[K, T]]()
+
+    /** Returns the cached value or `null`. */
+    def get(key: K): T = {
+        val entry = entries.get(key)
+        if (entry eq null) null.asInstanceOf[T] else entry.get
+    }
+
+    /**
+     * Returns the cached value or caches and returns the value created by `create`. For each
+     * key, `create` is called at most once as long as the created value is (strongly) reachable.
+     */
+    def getOrCreate(key: K, create: K => T): T = {
+        expungeStaleEntries()
+
+        var value: T = null.asInstanceOf[T]
+        entries.compute(
+            key,
+            (k: K, entry: Entry[K, T]) => {
+                val currentValue = if (entry eq null) null.asInstanceOf[T] else entry.get
+                if (currentValue ne null) {
+                    value = currentValue
+                    entry
+                } else {
+                    value = create(k)
+                    new Entry(k, value, queue)
+                }
+            }
+        )
+        value
+    }
+
+    /** Caches the given value; only intended to be used to (re)fill the cache. */
+    def put(key: K, value: T): Unit = entries.put(key, new Entry(key, value, queue))
+
+    def clear(): Unit = {
+        entries.clear()
+        expungeStaleEntries()
+    }
+
+    /** Calls `f` for each value that is still cached. */
+    def foreach(f: T => Unit): Unit = {
+        entries.values.forEach { (entry: Entry[K, T]) =>
+            val value = entry.get
+            if (value ne null) f(value)
+        }
+    }
+
+    private def expungeStaleEntries(): Unit = {
+        var reference = queue.poll()
+        while (reference ne null) {
+            val entry = reference.asInstanceOf[Entry[K, T]]
+            entries.remove(entry.key, entry)
+            reference = queue.poll()
+        }
+    }
+}
+
+private[br] object TypeCache {
+
+    private final class Entry[K, T](
+        val key: K,
+        value:   T,
+        queue:   ReferenceQueue[T]
+    ) extends WeakReference[T](value, queue)
+}
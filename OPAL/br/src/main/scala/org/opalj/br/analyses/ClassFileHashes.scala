@@ -0,0 +1,193 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package analyses
+
+import java.io.DataOutputStream
+import java.io.File
+import java.io.InputStream
+import java.io.OutputStream
+import java.nio.charset.StandardCharsets.UTF_8
+import java.nio.file.Files
+import java.security.DigestOutputStream
+import java.security.MessageDigest
+import java.util.zip.ZipFile
+import scala.jdk.CollectionConverters.*
+import scala.util.Using
+
+import org.opalj.br.instructions.BIPUSH
+import org.opalj.br.instructions.NEWARRAY
+
+/**
+ * Computes content hashes (SHA-256) of the class files in jar/jmod files and directories
+ * and of single methods.
+ *
+ * The hashes are, e.g., used to identify persisted analysis results
+ * (see [[org.opalj.fpcf.PropertySnapshot]]) and to determine the class files that changed
+ * between two runs.
+ */
+object ClassFileHashes {
+
+    final val Algorithm = "SHA-256"
+
+    /**
+     * Returns the hashes of all class files in the given files (jar/jmod files or single class
+     * files) and directories. The hashes are keyed by the fully qualified (binary) name of the
+     * class as derived from the class file's location in its archive or directory; e.g.,
+     * `java/lang/Object`. Hence, the keys are independent of the location of the archives and
+     * directories. Single class files are keyed by their file name (without `.class`) and entries
+     * in `META-INF` are ignored.
+     */
+    def apply(files: Iterable[File]): Map[String, Array[Byte]] = {
+        val hashes = Map.newBuilder[String, Array[Byte]]
+        files.foreach { file =>
+            if (file.isDirectory) collect(file, "", hashes)
+            else collect(file, hashes)
+        }
+        hashes.result()
+    }
+
+    private def collect(
+        directory: File,
+        prefix:    String,
+        hashes:    scala.collection.mutable.Builder[(String, Array[Byte]), ?]
+    ): Unit = {
+        Option(directory.listFiles()).foreach(_.foreach { file =>
+            if (file.isDirectory) collect(file, s"$prefix${file.getName}/", hashes)
+            else if (file.getName.endsWith(".class")) hashFile(file, s"$prefix${file.getName}", hashes)
+        })
+    }
+
+    private def collect(file: File, hashes: scala.collection.mutable.Builder[(String, Array[Byte]), ?]): Unit = {
+        if (file.getName.endsWith(".class")) {
+            hashFile(file, file.getName, hashes)
+        } else if (file.getName.endsWith(".jar") || file.getName.endsWith(".jmod")) {
+            Using.resource(new ZipFile(file)) { zipFile =>
+                zipFile.entries().asScala.foreach { entry =>
+                    val name = entry.getName
+                    if (!entry.isDirectory && name.endsWith(".class") && !name.startsWith("META-INF/")) {
+                        val hashValue = Using.resource(zipFile.getInputStream(entry))(hash)
+                        hashes += ((className(name.stripPrefix("classes/")), hashValue))
+                    }
+                }
+            }
+        }
+    }
+
+    private def hashFile(
+        file:   File,
+        name:   String,
+        hashes: scala.collection.mutable.Builder[(String, Array[Byte]), ?]
+    ): Unit = {
+        hashes += ((className(name), Using.resource(Files.newInputStream(file.toPath))(hash)))
+    }
+
+    private def className(classFileName: String): String = classFileName.stripSuffix(".class")
+
+    def hash(in: InputStream): Array[Byte] = {
+        val digest = MessageDigest.getInstance(Algorithm)
+        val buffer = new Array[Byte](8192)
+        var read = in.read(buffer)
+        while (read != -1) {
+            digest.update(buffer, 0, read)
+            read = in.read(buffer)
+        }
+        digest.digest()
+    }
+
+    def hash(bytes: Array[Byte]): Array[Byte] = MessageDigest.getInstance(Algorithm).digest(bytes)
+
+    /**
+     * Computes a hash of the given method's signature, its declaring class and its code (the
+     * instructions and the exception handlers); i.e., the hash changes if the method's
+     * bytecode changes, but is independent of the other members of the class file.
+     *
+     * The instructions are hashed using a binary encoding of their opcodes and operands in which
+     * constant pool references are replaced by the referenced names, types and values; the raw
+     * bytecode is not used, because its constant pool indexes change whenever other members of
+     * the class file change (and it is not retained after decoding).
+     *
+     * @throws IllegalArgumentException If an instruction or an operand of an unknown type is
+     *         encountered; such types have to be added to the encoding explicitly.
+     */
+    def hash(method: Method): Array[Byte] = {
+        val digest = MessageDigest.getInstance(Algorithm)
+        val out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))
+        out.writeUTF(method.classFile.thisType.fqn)
+        out.writeUTF(method.name)
+        out.writeUTF(method.descriptor.toJVMDescriptor)
+        method.body.foreach { code =>
+            out.writeInt(code.codeSize)
+            code.iterate { (pc, instruction) =>
+                out.writeShort(pc)
+                out.writeByte(instruction.opcode)
+                instruction match {
+                    case bipush: BIPUSH     => out.writeInt(bipush.value)
+                    case newArray: NEWARRAY => out.writeByte(newArray.atype)
+                    case operands: Product  => writeOperands(operands, out)
+                    case _                  =>
+                        throw new IllegalArgumentException(s"unsupported instruction: ${instruction.getClass.getName}")
+                }
+            }
+            out.writeInt(code.exceptionHandlers.size)
+            code.exceptionHandlers.foreach { handler =>
+                out.writeShort(handler.startPC)
+                out.writeShort(handler.endPC)
+                out.writeShort(handler.handlerPC)
+                out.writeUTF(if (handler.catchType.isDefined) handler.catchType.get.fqn else "")
+            }
+        }
+        out.flush()
+        digest.digest()
+    }
+
+    private def writeOperands(operands: Product, out: DataOutputStream): Unit = {
+        out.writeByte(operands.productArity)
+        var i = 0
+        while (i < operands.productArity) {
+            writeOperand(operands.productElement(i), out)
+            i += 1
+        }
+    }
+
+    private def writeOperand(operand: Any, out: DataOutputStream): Unit = {
+        operand match {
+            case i: Int               => out.writeInt(i)
+            case l: Long              => out.writeLong(l)
+            case f: Float             => out.writeFloat(f)
+            case d: Double            => out.writeDouble(d)
+            case b: Boolean           => out.writeBoolean(b)
+            case c: Char              => out.writeChar(c)
+            case s: Short             => out.writeShort(s)
+            case b: Byte              => out.writeByte(b)
+            case s: String            => out.writeUTF(s)
+            case t: FieldType         => out.writeUTF(t.toJVMTypeName)
+            case d: MethodDescriptor  => out.writeUTF(d.toJVMDescriptor)
+            case values: Iterable[?]  =>
+                out.writeInt(values.size)
+                values.foreach(writeOperand(_, out))
+            case dc: DynamicConstant  =>
+                writeOperand(dc.bootstrapMethod, out)
+                out.writeUTF(dc.name)
+                out.writeUTF(dc.descriptor.toJVMTypeName)
+            // bootstrap methods, method handles, constant values and switch pairs are case classes
+            case p: Product           => writeOperands(p, out)
+            case other                =>
+                throw new IllegalArgumentException(s"unsupported operand: ${other.getClass.getName}")
+        }
+    }
+
+    /**
+     * Computes a single hash (the ''fingerprint'') for the given class file hashes (see
+     * [[apply]]); the fingerprint is independent of the order and of the location of the class
+     * files.
+     */
+    def fingerprint(hashes: Map[String, Array[Byte]]): Array[Byte] = {
+        val digest = MessageDigest.getInstance(Algorithm)
+        hashes.toSeq.sortBy(_._1).foreach { case (name, hash) =>
+            digest.update(name.getBytes(UTF_8))
+            digest.update(hash)
+        }
+        digest.digest()
+    }
+}
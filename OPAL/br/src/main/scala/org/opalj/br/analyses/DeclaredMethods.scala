@@ -153,4 +153,45 @@ class DeclaredMethods(
         // Thread-safe as .values() creates a view of the current state
         data.values().asScala.iterator.flatMap { _.values().asScala }
     }
+
+    /**
+     * Returns the declared methods of an updated version of the project which only differs from
+     * the project in the bodies of the methods of some class files (see [[IncrementalReanalysis]]).
+     * All declared methods keep their ids; the declared methods which are defined by methods of
+     * changed class files are replaced by declared methods which refer to the updated methods.
+     */
+    private[analyses] def updated(newProject: SomeProject): DeclaredMethods = {
+        def isChanged(m: Method): Boolean = newProject.classFile(m.classFile.thisType).exists(_ ne m.classFile)
+
+        def updatedMethod(m: Method): Method = {
+            if (isChanged(m)) newProject.classFile(m.classFile.thisType).get.findMethod(m.name, m.descriptor).get
+            else m
+        }
+
+        lock.readLock().lock()
+        try {
+            val newId2method = java.util.Arrays.copyOf(id2method, id2method.length)
+            val newData = new ConcurrentHashMap[ReferenceType, ConcurrentHashMap[MethodContext, DeclaredMethod]]()
+            data.forEach { (referenceType, dms) =>
+                val newDms = new ConcurrentHashMap[MethodContext, DeclaredMethod]()
+                dms.forEach { (context, dm) =>
+                    val newDm = dm match {
+                        case dm: DefinedMethod if isChanged(dm.definedMethod) =>
+                            new DefinedMethod(dm.declaringClassType, updatedMethod(dm.definedMethod), dm.id)
+                        case dm: MultipleDefinedMethods if dm.definedMethods.exists(isChanged) =>
+                            val definedMethods = dm.definedMethods.map(updatedMethod)
+                            new MultipleDefinedMethods(dm.declaringClassType, definedMethods, dm.id)
+                        case _ =>
+                            dm
+                    }
+                    newDms.put(context, newDm)
+                    newId2method(newDm.id) = newDm
+                }
+                newData.put(referenceType, newDms)
+            }
+            new DeclaredMethods(newProject, newData, newId2method, idCounter)
+        } finally {
+            lock.readLock().unlock()
+        }
+    }
 }
@@ -14,6 +14,7 @@ import org.opalj.br.ClassType.VarHandle
 import org.opalj.br.MethodDescriptor.SignaturePolymorphicMethodBoolean
 import org.opalj.br.MethodDescriptor.SignaturePolymorphicMethodObject
 import org.opalj.br.MethodDescriptor.SignaturePolymorphicMethodVoid
+import org.opalj.fpcf.Entity
 import org.opalj.util.elidedAssert
 
 /**
@@ -26,7 +27,7 @@ import org.opalj.util.elidedAssert
  * @author Dominik Helm
  * @author Florian Kuebler
  */
-object DeclaredMethodsKey extends ProjectInformationKey[DeclaredMethods, Nothing] {
+object DeclaredMethodsKey extends IncrementalProjectInformationKey[DeclaredMethods, DeclaredMethods] {
 
     // The following lists were created using the Java 10 specification
     private val methodHandleSignaturePolymorphicMethods = List(
@@ -75,11 +76,34 @@ object DeclaredMethodsKey extends ProjectInformationKey[DeclaredMethods, Nothing
      */
     override def requirements(project: SomeProject): Seq[ProjectInformationKey[Nothing, Nothing]] = Nil
 
+    /**
+     * Sets the declared methods of the previous version as the initialization data for the updated project; the
+     * declared methods of the updated project keep their ids and are, hence, equal to the previous ones (see
+     * [[DeclaredMethods.updated]]).
+     *
+     * @return The declared methods which are defined by changed methods.
+     */
+    override def prepareUpdate(
+        oldProject:     SomeProject,
+        newProject:     SomeProject,
+        changedMethods: Set[Method]
+    ): Option[Iterator[Entity]] = {
+        oldProject.has(this).map { declaredMethods =>
+            newProject.updateProjectInformationKeyInitializationData(this)(_ => declaredMethods)
+            declaredMethods.declaredMethods.filter(IncrementalProjectInformationKey.isDefinedBy(_, changedMethods))
+        }
+    }
+
     // TODO [Java9+] Needs to be updated for Java9+ projects which use Modules.
     /**
-     * Collects all declared methods.
+     * Collects all declared methods; if declared methods of a previous version of the project
+     * are given as the initialization data, they are updated instead.
      */
     override def compute(p: SomeProject): DeclaredMethods = {
+        val previousDeclaredMethods = p.getProjectInformationKeyInitializationData(this)
+        if (previousDeclaredMethods.isDefined) {
+            return previousDeclaredMethods.get.updated(p);
+        }
 
         val result: ConcurrentHashMap[ReferenceType, ConcurrentHashMap[MethodContext, DeclaredMethod]] =
             new ConcurrentHashMap
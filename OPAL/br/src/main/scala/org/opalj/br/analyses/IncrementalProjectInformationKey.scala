@@ -0,0 +1,48 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package analyses
+
+import org.opalj.fpcf.Entity
+
+/**
+ * The ''key'' object of project information that can be derived again for an updated project by an
+ * [[IncrementalReanalysis]] without re-analyzing the whole project. The updated project only differs from the
+ * previous version in the bodies of the methods of some class files; the information derived for the updated project
+ * has to be equal to the information of the previous version except for the information about the changed methods.
+ * In particular, the entities contained in the information (e.g., [[org.opalj.br.DeclaredMethod]]s) have to be equal
+ * to the respective entities of the previous version.
+ */
+trait IncrementalProjectInformationKey[T <: AnyRef, I <: AnyRef] extends ProjectInformationKey[T, I] {
+
+    /**
+     * Prepares deriving the information for the updated project (e.g., by setting the initialization data of this key
+     * for the updated project); called before the analyses are executed for the updated project.
+     *
+     * By default, the information is derived from scratch; this is not possible if initialization data was set for
+     * the previous version, because the data (e.g., a domain factory) may refer to the previous version.
+     *
+     * @param oldProject The previous version of the project; the information was derived for it.
+     * @param changedMethods The methods of the previous version whose class files changed.
+     * @return The entities of the previous version's information whose properties have to be recomputed because
+     *         they are affected by the changed methods; `None` if the information cannot be derived incrementally.
+     */
+    def prepareUpdate(
+        oldProject:     SomeProject,
+        newProject:     SomeProject,
+        changedMethods: Set[Method]
+    ): Option[Iterator[Entity]] = {
+        if (oldProject.getProjectInformationKeyInitializationData(this).isDefined) None
+        else Some(Iterator.empty)
+    }
+}
+
+object IncrementalProjectInformationKey {
+
+    /** Returns `true` if the given declared method is defined by one of the given methods. */
+    def isDefinedBy(declaredMethod: DeclaredMethod, methods: Set[Method]): Boolean = declaredMethod match {
+        case dm: DefinedMethod          => methods.contains(dm.definedMethod)
+        case dm: MultipleDefinedMethods => dm.definedMethods.exists(methods.contains)
+        case _                          => false
+    }
+}
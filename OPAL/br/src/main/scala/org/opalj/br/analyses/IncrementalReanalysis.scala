@@ -0,0 +1,382 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package analyses
+
+import java.io.File
+import java.net.URL
+import scala.util.Using
+
+import com.typesafe.config.Config
+
+import org.opalj.br.analyses.cg.ClosedPackagesKey
+import org.opalj.br.analyses.cg.IsOverridableMethodKey
+import org.opalj.br.analyses.cg.TypeExtensibilityKey
+import org.opalj.br.fpcf.FPCFAnalysisScheduler
+import org.opalj.fpcf.Entity
+import org.opalj.fpcf.FPCFAnalysesManagerKey
+import org.opalj.fpcf.PropertyStore
+import org.opalj.fpcf.PropertyStoreContext
+import org.opalj.fpcf.PropertyStoreKey
+import org.opalj.log.LogContext
+import org.opalj.log.OPALLogger
+
+/**
+ * The class files that changed between two versions of a project.
+ */
+case class ClassFileChanges(changed: Set[ClassType], added: Set[ClassType], removed: Set[ClassType]) {
+
+    def isEmpty: Boolean = changed.isEmpty && added.isEmpty && removed.isEmpty
+
+    override def toString: String = {
+        s"ClassFileChanges(changed=${changed.size}, added=${added.size}, removed=${removed.size})"
+    }
+}
+
+/**
+ * Executes a set of analyses and re-executes them after (project) class files have changed such
+ * that only the properties of the entities that are affected by the changes are recomputed.
+ *
+ * Class files are compared using content hashes (see [[ClassFileHashes]]). When the project
+ * is updated, the class files that did not change are reused. Hence, the class types,
+ * class files, methods and fields of unchanged class files keep their properties; all
+ * properties of the entities of changed and removed class files as well as of all entities
+ * that (transitively) depend on them are invalidated using [[PropertyStore.invalidate]]
+ * and are recomputed.
+ *
+ * The recorded dependencies only capture the properties an analysis queried, but not its
+ * dependencies on the class hierarchy and on other project information. Hence, the analyses are
+ * executed again from scratch using a new property store if
+ *  - an analysis derives properties collaboratively,
+ *  - class files were added or removed (e.g., a new subclass) or the structure of a changed class
+ *    file changed (its supertypes or the signatures or modifiers of its members, e.g., a new
+ *    overriding method), i.e., if the class hierarchy may have changed, or
+ *  - project information other than the `structuralProjectInformation` and the information of the
+ *    [[IncrementalProjectInformationKey]]s required by the analyses was derived for the current
+ *    project, or some of the latter information cannot be updated; other information is computed
+ *    again for the updated project and may create the entities analyses derive properties for.
+ * Otherwise, only the bodies of methods changed and the project information is the same for the
+ * updated project except for the information about the changed methods (e.g., the
+ * [[org.opalj.br.DeclaredMethod]]s defined by changed methods); the properties of the entities of
+ * the project information that are affected by the changes are invalidated, too.
+ *
+ * @note The library class files are expected to be unchanged.
+ *
+ * @param initialProject The project which is analyzed first.
+ * @param analyses The analyses that are executed.
+ * @param structuralProjectInformation Project information which only depends on the class
+ *        hierarchy and on the signatures and modifiers of the classes' members and which does not
+ *        contain entities; deriving it does not prevent incremental re-analysis.
+ */
+class IncrementalReanalysis(
+    initialProject:                   Project[URL],
+    val analyses:                     Seq[FPCFAnalysisScheduler],
+    val structuralProjectInformation: ProjectInformationKeys = IncrementalReanalysis.StructuralProjectInformation
+) {
+
+    private var theProject: Project[URL] = initialProject
+
+    private var hashes: Map[ClassType, Array[Byte]] = IncrementalReanalysis.hashes(initialProject)
+
+    private var isAnalyzed: Boolean = false
+
+    def project: Project[URL] = theProject
+
+    def propertyStore: PropertyStore = theProject.get(PropertyStoreKey)
+
+    /**
+     * `true` if the analyses support incremental re-analysis; whether an update is analyzed
+     * incrementally also depends on the changes (see [[IncrementalReanalysis]]).
+     */
+    val isIncremental: Boolean = analyses.forall(_.derivesCollaboratively.isEmpty)
+
+    /**
+     * Executes the analyses on the initial project; has to be called (once) before the project
+     * is updated.
+     */
+    def analyze(): PropertyStore = this.synchronized {
+        if (isAnalyzed) {
+            throw new IllegalStateException("the project was already analyzed")
+        }
+        val ps = propertyStore
+        ps.recordDependencies = isIncremental
+        theProject.get(FPCFAnalysesManagerKey).runAll(analyses)
+        isAnalyzed = true
+        ps
+    }
+
+    /**
+     * Reads the (project) class files from the given files and updates the analysis results.
+     *
+     * @return The changed, added and removed class files.
+     */
+    def reload(projectFiles: Iterable[File]): ClassFileChanges = this.synchronized {
+        val oldProject = theProject
+        val reader = Project.JavaClassFileReader(using oldProject.logContext, oldProject.config)
+        update(projectFiles.flatMap(reader.ClassFiles(_)))
+    }
+
+    /**
+     * Updates the analysis results w.r.t. the given (current) project class files.
+     *
+     * @return The changed, added and removed class files.
+     */
+    def update(projectClassFilesWithSources: Iterable[(ClassFile, URL)]): ClassFileChanges = this.synchronized {
+        if (!isAnalyzed) {
+            throw new IllegalStateException("the project was not yet analyzed")
+        }
+        doUpdate(projectClassFilesWithSources)
+    }
+
+    private def doUpdate(projectClassFilesWithSources: Iterable[(ClassFile, URL)]): ClassFileChanges = {
+        val oldProject = theProject
+        implicit val logContext: LogContext = oldProject.logContext
+
+        val newClassFiles = projectClassFilesWithSources.map { cfSource =>
+            val (cf, source) = cfSource
+            (cf.thisType, (cf, source))
+        }.toMap
+        val newHashes = newClassFiles.map { e =>
+            val (classType, (_, source)) = e
+            (classType, IncrementalReanalysis.hash(source))
+        }
+        val changes = IncrementalReanalysis.diff(hashes, newHashes)
+        OPALLogger.info("analysis progress", s"incremental re-analysis: $changes")
+        if (changes.isEmpty) {
+            return changes;
+        }
+
+        val updatedClassFiles = changes.changed ++ changes.added
+        val reusedClassFiles = oldProject.projectClassFilesWithSources.filter { cfSource =>
+            val classType = cfSource._1.thisType
+            newClassFiles.contains(classType) && !updatedClassFiles.contains(classType)
+        }
+        def createProject(): Project[URL] = Project(
+            reusedClassFiles ++ updatedClassFiles.iterator.map(newClassFiles),
+            oldProject.libraryClassFilesWithSources,
+            oldProject.libraryClassFilesAreInterfacesOnly,
+            virtualClassFiles = Iterable.empty
+        )(using oldProject.config, OPALLogger.logger(oldProject.logContext.successor))
+
+        val incrementalUpdate = fullReanalysisReason(oldProject, newClassFiles, changes)
+            .toLeft(createProject())
+            .flatMap { newProject => prepareProjectInformation(oldProject, newProject, changes).map((newProject, _)) }
+        val newProject = incrementalUpdate match {
+            case Right((newProject, affectedEntities)) =>
+                reanalyze(oldProject, newProject, changes, affectedEntities)
+                newProject
+
+            case Left(reason) =>
+                OPALLogger.info(
+                    "analysis progress",
+                    s"$reason; re-analyzing the whole project"
+                )
+                // the project information of a project created before may already be prepared
+                // for an incremental update
+                val newProject = createProject()
+                val ps = newProject.get(PropertyStoreKey)
+                ps.recordDependencies = isIncremental
+                newProject.get(FPCFAnalysesManagerKey).runAll(analyses)
+                newProject
+        }
+
+        theProject = newProject
+        hashes = newHashes
+        changes
+    }
+
+    /**
+     * Invalidates the properties of the entities affected by the changes and executes the
+     * analyses for the updated project using the current property store.
+     */
+    private def reanalyze(
+        oldProject:       Project[URL],
+        newProject:       Project[URL],
+        changes:          ClassFileChanges,
+        affectedEntities: List[Entity]
+    ): Unit = {
+        val ps = propertyStore
+        val changedEntities = (changes.changed ++ changes.removed).iterator.flatMap { classType =>
+            IncrementalReanalysis.entities(classType, oldProject.classFile(classType))
+        }.toList
+        val newEntities = (changes.changed ++ changes.added).iterator.flatMap { classType =>
+            IncrementalReanalysis.entities(classType, newProject.classFile(classType))
+        }.toList
+        ps.invalidate(changedEntities ++ affectedEntities, newEntities)
+
+        newProject.updateProjectInformationKeyInitializationData(PropertyStoreKey) { _ =>
+            (_: List[PropertyStoreContext[AnyRef]]) => ps
+        }
+        ps.updateContext(
+            PropertyStoreContext(classOf[si.Project], newProject),
+            PropertyStoreContext(newProject.getClass.asInstanceOf[Class[si.Project]], newProject),
+            PropertyStoreContext(classOf[Config], newProject.config)
+        )
+        try {
+            newProject.get(FPCFAnalysesManagerKey).runAll(analyses)
+        } finally {
+            ps.finishReanalysis()
+        }
+    }
+
+    /**
+     * Returns the reason why the analyses have to be executed again from scratch; `None` if the
+     * changes can be analyzed incrementally.
+     */
+    private def fullReanalysisReason(
+        oldProject:    Project[URL],
+        newClassFiles: Map[ClassType, (ClassFile, URL)],
+        changes:       ClassFileChanges
+    ): Option[String] = {
+        def hasSameStructure(classType: ClassType): Boolean = {
+            IncrementalReanalysis.hasSameStructure(oldProject.classFile(classType).get, newClassFiles(classType)._1)
+        }
+
+        if (!isIncremental) {
+            Some("analyses derive properties collaboratively")
+        } else if (changes.added.nonEmpty || changes.removed.nonEmpty) {
+            Some("class files were added or removed")
+        } else if (!changes.changed.forall(hasSameStructure)) {
+            Some("the structure of changed class files changed")
+        } else {
+            val ps = propertyStore
+            val reusableProjectInformation: Set[AnyRef] =
+                (structuralProjectInformation ++ incrementalProjectInformation(oldProject)).iterator
+                    .flatMap(oldProject.has(_)).toSet ++ oldProject.has(FPCFAnalysesManagerKey) + ps
+            val derivedProjectInformation = oldProject.availableProjectInformation.filterNot { pi =>
+                reusableProjectInformation.exists(_ eq pi)
+            }
+            if (derivedProjectInformation.nonEmpty) {
+                val names = derivedProjectInformation.map(_.getClass.getSimpleName).mkString(", ")
+                Some(s"analyses depend on project information ($names)")
+            } else {
+                None
+            }
+        }
+    }
+
+    /**
+     * The incrementally updatable project information (transitively) required by the analyses.
+     */
+    private def incrementalProjectInformation(
+        project: Project[URL]
+    ): List[IncrementalProjectInformationKey[? <: AnyRef, ? <: AnyRef]] = {
+        IncrementalReanalysis.requiredProjectInformation(project, analyses).iterator.collect {
+            case key: IncrementalProjectInformationKey[?, ?] => key
+        }.toList
+    }
+
+    /**
+     * Prepares deriving the incrementally updatable project information which was derived for the
+     * previous version of the project for the updated project (see
+     * [[IncrementalProjectInformationKey.prepareUpdate]]).
+     *
+     * @return The entities of the previous version's project information which are affected by
+     *         the changes; the reason why the analyses have to be executed again from scratch if
+     *         some information cannot be updated.
+     */
+    private def prepareProjectInformation(
+        oldProject: Project[URL],
+        newProject: Project[URL],
+        changes:    ClassFileChanges
+    ): Either[String, List[Entity]] = {
+        val changedMethods = changes.changed.iterator.flatMap(oldProject.classFile(_).iterator.flatMap(_.methods)).toSet
+        val keys = incrementalProjectInformation(oldProject).iterator.filter(oldProject.has(_).isDefined)
+        var affectedEntities: Either[String, List[Entity]] = Right(Nil)
+        while (affectedEntities.isRight && keys.hasNext) {
+            val key = keys.next()
+            affectedEntities = key.prepareUpdate(oldProject, newProject, changedMethods) match {
+                case Some(entities) => affectedEntities.map(entities.toList ::: _)
+                case None           => Left(s"the project information ${key.getClass.getSimpleName} cannot be updated")
+            }
+        }
+        affectedEntities
+    }
+}
+
+object IncrementalReanalysis {
+
+    /** Computes the content hashes of the given project's (project) class files. */
+    def hashes(project: Project[URL]): Map[ClassType, Array[Byte]] = {
+        project.projectClassFilesWithSources.map { cfSource =>
+            val (cf, source) = cfSource
+            (cf.thisType, hash(source))
+        }.toMap
+    }
+
+    private def hash(source: URL): Array[Byte] = {
+        Using.resource(source.openStream())(ClassFileHashes.hash)
+    }
+
+    /** The project information that is (transitively) required by the given analyses. */
+    def requiredProjectInformation(
+        project:  SomeProject,
+        analyses: Seq[FPCFAnalysisScheduler]
+    ): Set[ProjectInformationKey[? <: AnyRef, ? <: AnyRef]] = {
+        var requiredKeys = Set.empty[ProjectInformationKey[? <: AnyRef, ? <: AnyRef]]
+        var worklist: ProjectInformationKeys = analyses.flatMap(_.requiredProjectInformation)
+        while (worklist.nonEmpty) {
+            val key = worklist.head
+            worklist = worklist.tail
+            key match {
+                case key: ProjectInformationKey[?, ?] if !requiredKeys.contains(key) =>
+                    requiredKeys += key
+                    worklist = key.requirements(project) ++ worklist
+                case _ =>
+            }
+        }
+        requiredKeys
+    }
+
+    /** Compares the content hashes of two versions of a project's class files. */
+    def diff(
+        oldHashes: Map[ClassType, Array[Byte]],
+        newHashes: Map[ClassType, Array[Byte]]
+    ): ClassFileChanges = {
+        val changed = newHashes.iterator.collect {
+            case (classType, hash) if oldHashes.get(classType).exists(!java.util.Arrays.equals(_, hash)) =>
+                classType
+        }.toSet
+        val added = newHashes.keySet -- oldHashes.keySet
+        val removed = oldHashes.keySet -- newHashes.keySet
+        ClassFileChanges(changed, added, removed)
+    }
+
+    /**
+     * Project information which only depends on the class hierarchy and the signatures and
+     * modifiers of the classes' members and which does not contain entities; incrementally
+     * updatable project information is supported in addition (see
+     * [[IncrementalProjectInformationKey]]).
+     */
+    final val StructuralProjectInformation: ProjectInformationKeys = Seq(
+        ClosedPackagesKey,
+        TypeExtensibilityKey,
+        IsOverridableMethodKey
+    )
+
+    /**
+     * Returns `true` if both class files have the same supertypes, modifiers and members (w.r.t.
+     * the members' signatures and modifiers); i.e., if they only differ in the methods' bodies
+     * and other attributes.
+     */
+    def hasSameStructure(oldClassFile: ClassFile, newClassFile: ClassFile): Boolean = {
+        def fields(cf: ClassFile) = cf.fields.iterator.map(f => (f.name, f.fieldType, f.accessFlags)).toSet
+        def methods(cf: ClassFile) = cf.methods.iterator.map { m =>
+            (m.name, m.descriptor, m.accessFlags, m.body.isDefined)
+        }.toSet
+
+        oldClassFile.thisType == newClassFile.thisType &&
+        oldClassFile.accessFlags == newClassFile.accessFlags &&
+        oldClassFile.superclassType == newClassFile.superclassType &&
+        oldClassFile.interfaceTypes == newClassFile.interfaceTypes &&
+        fields(oldClassFile) == fields(newClassFile) &&
+        methods(oldClassFile) == methods(newClassFile)
+    }
+
+    /** The entities defined by a class file. */
+    private def entities(classType: ClassType, classFile: Option[ClassFile]): Iterator[Entity] = {
+        Iterator.single(classType) ++ classFile.iterator.flatMap { cf =>
+            Iterator.single(cf) ++ cf.methods.iterator ++ cf.fields.iterator
+        }
+    }
+}
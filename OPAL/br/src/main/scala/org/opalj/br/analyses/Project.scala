@@ -10,6 +10,9 @@ import java.io.File
 import java.lang.ref.SoftReference
 import java.net.URL
 import java.util.Arrays.sort as sortArray
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicIntegerArray
 import java.util.concurrent.atomic.AtomicReferenceArray
 import scala.collection.Map
 import scala.collection.Set
@@ -18,25 +21,30 @@ import scala.collection.immutable.ArraySeq
 import scala.collection.mutable
 import scala.collection.mutable.ArrayBuffer
 import scala.collection.mutable.Buffer
+import scala.jdk.CollectionConverters.*
 
 import com.typesafe.config.Config
 import com.typesafe.config.ConfigFactory
 
+import org.opalj.bi.reader.MemoryMappedArchiveReading
 import org.opalj.br.instructions.Instruction
 import org.opalj.br.instructions.INVOKESPECIAL
 import org.opalj.br.instructions.INVOKESTATIC
 import org.opalj.br.instructions.NEW
 import org.opalj.br.instructions.NonVirtualMethodInvocationInstruction
 import org.opalj.br.reader.BytecodeInstructionsCache
+import org.opalj.br.reader.ClassFileReaderConfiguration
 import org.opalj.br.reader.Java17FrameworkWithDynamicRewritingAndCaching
 import org.opalj.br.reader.Java17LibraryFramework
+import org.opalj.br.reader.LazyMethodBodies
 import org.opalj.collection.immutable.UIDSet
 import org.opalj.concurrent.ConcurrentExceptions
 import org.opalj.concurrent.NumberOfThreadsForCPUBoundTasks
-import org.opalj.concurrent.SequentialTasks
+import org.opalj.concurrent.OPALHTBoundedExecutionContext
 import org.opalj.concurrent.Tasks
 import org.opalj.concurrent.defaultIsInterrupted
 import org.opalj.concurrent.parForeachArrayElement
+import org.opalj.concurrent.parForeachSeqElement
 import org.opalj.log.Error
 import org.opalj.log.GlobalLogContext
 import org.opalj.log.LogContext
@@ -631,6 +639,17 @@ class Project[Source] private (
         parForeachArrayElement(methods, parallelizationLevel, isInterrupted)(f)
     }
 
+    /**
+     * Decodes – in parallel – the instructions of all method bodies which are not yet decoded
+     * (see [[org.opalj.br.reader.LazyMethodBodies]]). Afterwards, accessing the instructions
+     * of a method never requires decoding them.
+     */
+    def decodeAllMethodBodies(): Unit = {
+        parForeachArrayElement(methodsWithBody, NumberOfThreadsForCPUBoundTasks) { m =>
+            m.body.get.instructions
+        }
+    }
+
     /**
      * Iterates over all methods in parallel; actually, the methods belonging to a specific class are processed
      * sequentially.
@@ -741,6 +760,16 @@ class Project[Source] private (
         libraryClassFiles.view.map { classFile => (classFile, sources(classFile.thisType)) }
     }
 
+    /** The "module-info" class files of the analyzed project. */
+    private[analyses] def projectModuleDefinitions: Iterable[ModuleDefinition[Source]] = {
+        projectModules.values
+    }
+
+    /** The "module-info" class files of the analyzed libraries. */
+    private[analyses] def libraryModuleDefinitions: Iterable[ModuleDefinition[Source]] = {
+        libraryModules.values
+    }
+
     /**
      * Returns `true` iff the given type belongs to the project and not to a library.
      */
@@ -893,7 +922,7 @@ class Project[Source] private (
         val nonSyntheticMethodsWithBody = methodsWithBody.iterator.filterNot(_.isSynthetic)
         val data = immutable.SortedMap.empty[Int, immutable.Set[Method]]
         nonSyntheticMethodsWithBody.foldLeft(data) { (data, method) =>
-            val methodLength = method.body.get.instructions.length
+            val methodLength = method.body.get.codeSize
             val methods = data.getOrElse(methodLength, immutable.Set.empty[Method])
             data + ((methodLength, methods + method))
         }
@@ -1012,9 +1041,29 @@ object Project {
             override def defaultLogContext: LogContext = theLogContext
             override def defaultConfig: Config = theConfig
         }
-        new ConfiguredFramework
+        class ConfiguredMemoryMappingFramework extends ConfiguredFramework with MemoryMappedArchiveReading
+        class ConfiguredLazyFramework extends ConfiguredFramework with LazyMethodBodies
+        class ConfiguredLazyMemoryMappingFramework extends ConfiguredMemoryMappingFramework with LazyMethodBodies
+
+        def isEnabled(key: String): Boolean = theConfig.hasPath(key) && theConfig.getBoolean(key)
+        val memoryMapArchives = isEnabled(ClassFileReaderConfiguration.MemoryMapArchivesConfigKey)
+        val lazyMethodBodies = isEnabled(ClassFileReaderConfiguration.LazyMethodBodiesConfigKey)
+        if (memoryMapArchives && lazyMethodBodies)
+            new ConfiguredLazyMemoryMappingFramework
+        else if (memoryMapArchives)
+            new ConfiguredMemoryMappingFramework
+        else if (lazyMethodBodies)
+            new ConfiguredLazyFramework
+        else
+            new ConfiguredFramework
     }
 
+    /**
+     * If `true`, the instance methods and the overriding methods of a project are computed
+     * by processing independent parts of the class hierarchy concurrently.
+     */
+    final val ComputeMethodTablesInParallelConfigKey = "org.opalj.br.Project.computeMethodTablesInParallel"
+
     /**
      * Performs some fundamental validations to make sure that subsequent analyses don't have
      * to deal with completely broken projects/that the user is aware of the issues!
@@ -1034,9 +1083,14 @@ object Project {
             exsMutex.synchronized { exs = ex :: exs }
         }
 
+        // The bodies of library methods which are lazily decoded (see LazyMethodBodies) are
+        // not validated to avoid decoding them; the bodies of the project's methods are always
+        // validated (and, hence, decoded).
+        val methods = project.allMethodsWithBody.filter { m =>
+            m.body.get.isDecoded || project.isProjectType(m.classFile.thisType)
+        }
         try {
-            project.parForeachMethodWithBody(() => Thread.interrupted()) { mi =>
-                val m: Method = mi.method
+            parForeachSeqElement(methods, NumberOfThreadsForCPUBoundTasks, () => Thread.interrupted()) { m =>
                 val cf = m.classFile
 
                 def completeSupertypeInformation =
@@ -1159,9 +1213,18 @@ object Project {
         OPALLogger.log(ex.severity("project configuration", ex.message))(using logContext)
     }
 
+    /**
+     * Computes for each type the set of instance methods that can be invoked on an instance
+     * of the type.
+     *
+     * @param computeInParallel If `true`, independent subtrees of the class hierarchy are
+     *        processed concurrently; i.e., a type is processed as soon as all its direct
+     *        supertypes are processed.
+     */
     def instanceMethods(
         classHierarchy:       ClassHierarchy,
-        classTypeToClassFile: ClassType => Option[ClassFile]
+        classTypeToClassFile: ClassType => Option[ClassFile],
+        computeInParallel:    Boolean = false
     )(
         implicit logContext: LogContext
     ): Map[ClassType, ArraySeq[MethodDeclarationContext]] = time {
@@ -1176,16 +1239,35 @@ object Project {
         //      interface A; interface B extends A; interface C extends A, B,
         // we postpone the processing of C until the information is available.
 
-        val methods: mutable.HashMap[ClassType, List[MethodDeclarationContext]] = {
-            new mutable.HashMap(ClassType.classTypesCount, mutable.HashMap.defaultLoadFactor)
+        // When we compute the methods in parallel, we process a type as soon as all its
+        // direct supertypes are processed. Hence, we store for each type the number of direct
+        // supertypes that still need to be processed.
+        val supertypesToProcessCounts: AtomicIntegerArray =
+            if (computeInParallel) {
+                val counts = new AtomicIntegerArray(ClassType.classTypesCount)
+                classHierarchy.foreachKnownType { classType =>
+                    classHierarchy.foreachDirectSubtypeOf(classType) { subtype =>
+                        counts.incrementAndGet(subtype.id)
+                    }
+                }
+                counts
+            } else {
+                null
+            }
+
+        val methods: mutable.Map[ClassType, List[MethodDeclarationContext]] = {
+            if (computeInParallel)
+                new ConcurrentHashMap[ClassType, List[MethodDeclarationContext]](ClassType.classTypesCount).asScala
+            else
+                new mutable.HashMap(ClassType.classTypesCount, mutable.HashMap.defaultLoadFactor)
         }
 
         // Here, "overridden" is to be taken with a grain of salt, because we have a static
         // method with the same name and descriptor as an instance method defined by a super
         // class...
-        var staticallyOverriddenInstanceMethods: List[(ClassType, String, MethodDescriptor)] = Nil
+        val staticallyOverriddenInstanceMethods = new ConcurrentLinkedQueue[(ClassType, String, MethodDescriptor)]
 
-        var missingClassTypes = immutable.Set.empty[ClassType]
+        val missingClassTypes = ConcurrentHashMap.newKeySet[ClassType]()
 
         // Returns `true` if the potentially available information is not yet available.
         @inline def notYetAvailable(superinterfaceType: ClassType): Boolean = {
@@ -1377,8 +1459,9 @@ object Project {
                                 // we can only remove it later on, because the instance method is
                                 // visible again in subclasses/subinterfaces and we therefore
                                 // first have to propagate it.
-                                staticallyOverriddenInstanceMethods ::=
-                                    ((classType, declaredMethodName, declaredMethodDescriptor))
+                                staticallyOverriddenInstanceMethods.add(
+                                    (classType, declaredMethodName, declaredMethodDescriptor)
+                                )
                             }
                         } else if (!declaredMethod.isInitializer) {
                             // Private methods can be invoked by invokevirtual instructions (and
@@ -1400,20 +1483,36 @@ object Project {
 
                 case None =>
                     // ... reached only in case of rather incomplete projects...
-                    missingClassTypes += classType
+                    missingClassTypes.add(classType)
             }
             methods(classType) = definedMethods
-            classHierarchy.foreachDirectSubtypeOf(classType)(tasks.submit)
+            if (computeInParallel) {
+                classHierarchy.foreachDirectSubtypeOf(classType) { subtype =>
+                    if (supertypesToProcessCounts.decrementAndGet(subtype.id) == 0) {
+                        tasks.submit(subtype)
+                    }
+                }
+            } else {
+                classHierarchy.foreachDirectSubtypeOf(classType)(tasks.submit)
+            }
         }
 
-        val tasks = new SequentialTasks[ClassType](computeDefinedMethods, abortOnExceptions = true)
-        classHierarchy.rootTypes.foreach(tasks.submit)
+        val tasks = Tasks[ClassType](computeDefinedMethods, abortOnExceptions = true)(
+            using if (computeInParallel) OPALHTBoundedExecutionContext else null
+        )
+        if (computeInParallel) {
+            classHierarchy.foreachKnownType { classType =>
+                if (supertypesToProcessCounts.get(classType.id) == 0) tasks.submit(classType)
+            }
+        } else {
+            classHierarchy.rootTypes.foreach(tasks.submit)
+        }
         try {
             tasks.join()
-            if (missingClassTypes.nonEmpty) {
+            if (!missingClassTypes.isEmpty) {
                 OPALLogger.warn(
                     "project configuration - instance methods",
-                    missingClassTypes
+                    missingClassTypes.asScala
                         .map(_.toJava)
                         .toList.sorted
                         .take(10)
@@ -1424,12 +1523,24 @@ object Project {
                         )
                 )
             }
+            if (computeInParallel) {
+                var unprocessedTypesCount = 0
+                classHierarchy.foreachKnownType { classType =>
+                    if (supertypesToProcessCounts.get(classType.id) > 0) unprocessedTypesCount += 1
+                }
+                if (unprocessedTypesCount > 0) {
+                    OPALLogger.warn(
+                        "project configuration - instance methods",
+                        s"$unprocessedTypesCount types were not processed due to cyclic type relations"
+                    )
+                }
+            }
         } catch {
             case ce: ConcurrentExceptions =>
                 ce.getSuppressed foreach { e => error("project setup", "computing the defined methods failed", e) }
         }
 
-        staticallyOverriddenInstanceMethods foreach { sodm =>
+        staticallyOverriddenInstanceMethods.asScala foreach { sodm =>
             val (declaringType, name, descriptor) = sodm
             methods(declaringType) =
                 methods(declaringType) filter { mdc => mdc.descriptor != descriptor || mdc.name != name }
@@ -1452,11 +1563,15 @@ object Project {
      * @see     [[Method]]`.isVirtualMethodDeclaration` for further details.
      * @note    The map only contains those methods which have at least one concrete
      *          implementation.
+     *
+     * @param   computeInParallel If `true`, a type is processed concurrently to other types
+     *          as soon as all its direct subtypes are processed.
      */
     def overridingMethods(
         classHierarchy:       ClassHierarchy,
         virtualMethodsCount:  Int,
-        classTypeToClassFile: Map[ClassType, ClassFile]
+        classTypeToClassFile: Map[ClassType, ClassFile],
+        computeInParallel:    Boolean = false
     )(
         implicit theLogContext: LogContext
     ): Map[Method, immutable.Set[Method]] = time {
@@ -1484,14 +1599,17 @@ object Project {
         // 2.   Continue with 1.
 
         // Stores for each type the number of subtypes that still need to be processed.
-        val subtypesToProcessCounts = new Array[Int](ClassType.classTypesCount)
+        val subtypesToProcessCounts = new AtomicIntegerArray(ClassType.classTypesCount)
         classHierarchy.foreachKnownType { classType =>
             val cid = classType.id
-            subtypesToProcessCounts(cid) = classHierarchy.directSubtypesCount(cid)
+            subtypesToProcessCounts.set(cid, classHierarchy.directSubtypesCount(cid))
         }
 
-        val methods =
-            new mutable.HashMap[Method, immutable.Set[Method]](virtualMethodsCount, mutable.HashMap.defaultLoadFactor)
+        val methods: mutable.Map[Method, immutable.Set[Method]] =
+            if (computeInParallel)
+                new ConcurrentHashMap[Method, immutable.Set[Method]](virtualMethodsCount).asScala
+            else
+                new mutable.HashMap(virtualMethodsCount, mutable.HashMap.defaultLoadFactor)
 
         def computeOverridingMethods(tasks: Tasks[ClassType], classType: ClassType): Unit = {
             val declaredMethodPackageName = classType.packageName
@@ -1534,17 +1652,16 @@ object Project {
                 // The try-finally is a safety net to ensure that this method at least
                 // terminates and that exceptions can be reported!
                 classHierarchy.foreachDirectSupertype(classType) { supertype =>
-                    val sid = supertype.id
-                    val newCount = subtypesToProcessCounts(sid) - 1
-                    subtypesToProcessCounts(sid) = newCount
-                    if (newCount == 0) {
+                    if (subtypesToProcessCounts.decrementAndGet(supertype.id) == 0) {
                         tasks.submit(supertype)
                     }
                 }
             }
         }
 
-        val tasks = new SequentialTasks[ClassType](computeOverridingMethods)
+        val tasks = Tasks[ClassType](computeOverridingMethods)(
+            using if (computeInParallel) OPALHTBoundedExecutionContext else null
+        )
         classHierarchy.leafTypes foreach { t => tasks.submit(t) }
         try {
             tasks.join()
@@ -1575,6 +1692,23 @@ object Project {
         Project.apply(file, OPALLogger.globalLogger())
     }
 
+    /**
+     * Creates a `Project` from a snapshot of a fully loaded project; i.e., the class files
+     * are neither transformed again nor are the class hierarchy related information and the
+     * method tables recomputed. Snapshots are written using `org.opalj.ba.ProjectSnapshotWriter`.
+     *
+     * @param snapshotFile A file created by [[ProjectSnapshot.write]].
+     * @param config The configuration; it has to be compatible with the configuration
+     *        that was used to create the project from which the snapshot was created.
+     */
+    def load(
+        snapshotFile:  File,
+        config:        Config     = BaseConfig,
+        projectLogger: OPALLogger = OPALLogger.globalLogger()
+    ): Project[URL] = {
+        ProjectSnapshot.read(snapshotFile, config, projectLogger)
+    }
+
     /**
      * Creates a `Project` from a class file, jar file, jmod file, or directory containing class-, jar-, and jmod files.
      *
@@ -2018,6 +2152,33 @@ object Project {
         handleInconsistentProject:          HandleInconsistentProject,
         config:                             Config,
         logContext:                         LogContext
+    ): Project[Source] = {
+        create(
+            projectClassFilesWithSources,
+            libraryClassFilesWithSources,
+            libraryClassFilesAreInterfacesOnly,
+            virtualClassFiles,
+            handleInconsistentProject,
+            config,
+            logContext,
+            precomputedInformation = None
+        )
+    }
+
+    /**
+     * Creates a new `Project`; if available, the precomputed class hierarchy related
+     * information and method tables (see [[ProjectSnapshot]]) are used instead of computing
+     * them.
+     */
+    private[analyses] def create[Source](
+        projectClassFilesWithSources:       Iterable[(ClassFile, Source)],
+        libraryClassFilesWithSources:       Iterable[(ClassFile, Source)],
+        libraryClassFilesAreInterfacesOnly: Boolean,
+        virtualClassFiles:                  Iterable[ClassFile],
+        handleInconsistentProject:          HandleInconsistentProject,
+        config:                             Config,
+        logContext:                         LogContext,
+        precomputedInformation:             Option[ProjectSnapshot.PrecomputedInformation]
     ): Project[Source] = time {
         implicit val projectConfig: Config = config
         implicit val projectLogContext: LogContext = logContext
@@ -2032,7 +2193,7 @@ object Project {
             val classHierarchyFuture: Future[ClassHierarchy] = Future {
                 time {
                     val OTObject = ClassType.Object
-                    val typeHierarchyDefinitions =
+                    lazy val typeHierarchyDefinitions =
                         if (projectClassFilesWithSources.exists(_._1.thisType == OTObject) ||
                             libraryClassFilesWithSources.exists(_._1.thisType == OTObject)
                         ) {
@@ -2045,12 +2206,16 @@ object Project {
                             info("project configuration", "JDK classes not found " + alternative)
                             ClassHierarchy.defaultTypeHierarchyDefinitions()
                         }
-                    ClassHierarchy(
+                    val classFiles =
                         projectClassFilesWithSources.view.map(_._1) ++
                             libraryClassFilesWithSources.view.map(_._1) ++
-                            virtualClassFiles,
-                        typeHierarchyDefinitions
-                    )
+                            virtualClassFiles
+                    precomputedInformation match {
+                        case Some(precomputed) =>
+                            ClassHierarchy.create(classFiles, precomputed.typeDeclarations)
+                        case None =>
+                            ClassHierarchy(classFiles, typeHierarchyDefinitions)
+                    }
                 } { t => info("project setup", s"computing type hierarchy took ${t.toSeconds}") }
             }(using ScalaExecutionContext)
 
@@ -2147,7 +2312,7 @@ object Project {
                     projectClassFilesCount += 1
                     for (method <- classFile.methods) {
                         projectMethodsCount += 1
-                        method.body.foreach(codeSize += _.instructions.length)
+                        method.body.foreach(codeSize += _.codeSize)
                     }
                     projectFieldsCount += classFile.fields.size
                     classTypeToClassFile(projectType) = classFile
@@ -2216,7 +2381,7 @@ object Project {
                     libraryClassFilesCount += 1
                     for (method <- libClassFile.methods) {
                         libraryMethodsCount += 1
-                        method.body.foreach(codeSize += _.instructions.length)
+                        method.body.foreach(codeSize += _.codeSize)
                     }
                     libraryFieldsCount += libClassFile.fields.size
                     classTypeToClassFile(libraryType) = libClassFile
@@ -2227,8 +2392,20 @@ object Project {
 
             val classHierarchy = Await.result(classHierarchyFuture, Duration.Inf)
 
+            val computeMethodTablesInParallel =
+                config.hasPath(ComputeMethodTablesInParallelConfigKey) &&
+                    config.getBoolean(ComputeMethodTablesInParallelConfigKey)
+
             val instanceMethodsFuture = Future {
-                this.instanceMethods(classHierarchy, classTypeToClassFile.get)
+                precomputedInformation match {
+                    case Some(precomputed) => precomputed.instanceMethods
+                    case None              =>
+                        this.instanceMethods(
+                            classHierarchy,
+                            classTypeToClassFile.get,
+                            computeMethodTablesInParallel
+                        )
+                }
             }
 
             val projectClassFilesArray = projectClassFiles.toArray
@@ -2244,7 +2421,16 @@ object Project {
             val virtualMethodsCount: Int = allMethods.count(m => m.isVirtualMethodDeclaration)
 
             val overridingMethodsFuture = Future {
-                this.overridingMethods(classHierarchy, virtualMethodsCount, classTypeToClassFile)
+                precomputedInformation match {
+                    case Some(precomputed) => precomputed.overridingMethods
+                    case None              =>
+                        this.overridingMethods(
+                            classHierarchy,
+                            virtualMethodsCount,
+                            classTypeToClassFile,
+                            computeMethodTablesInParallel
+                        )
+                }
             }
 
             val methodsWithBodySortedBySizeWithContext =
@@ -0,0 +1,363 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package analyses
+
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.ByteArrayInputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.net.URI
+import java.net.URL
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+import scala.collection.immutable
+import scala.collection.immutable.ArraySeq
+
+import com.typesafe.config.Config
+import com.typesafe.config.ConfigFactory
+
+import org.opalj.br.reader.BytecodeOptimizer
+import org.opalj.br.reader.DynamicConstantRewriting
+import org.opalj.br.reader.InvokedynamicRewriting
+import org.opalj.collection.immutable.UIDSet
+import org.opalj.concurrent.parForeachSeqElement
+import org.opalj.io.process
+import org.opalj.log.LogContext
+import org.opalj.log.OPALLogger
+import org.opalj.log.StandardLogContext
+import org.opalj.util.PerformanceEvaluation.time
+
+/**
+ * Writes a fully loaded [[Project]] to a (binary) snapshot file and restores it later
+ * (see [[Project.load]]).
+ *
+ * A snapshot contains the class files ''after'' all transformations (e.g., the
+ * `invokedynamic` rewriting and the bytecode optimizations) were performed, the
+ * information used to build the [[org.opalj.br.ClassHierarchy]] that is not derived from
+ * the class files (i.e., the used predefined type declarations) and the precomputed method
+ * tables (`instanceMethods` and `overridingMethods`). Hence, when a snapshot is loaded the
+ * class files are only parsed, but not transformed again and the method tables are not
+ * recomputed.
+ *
+ * The class files are stored using the standard class file format. Given that the
+ * `br` subproject cannot create class files, the function to serialize class files has to
+ * be passed to [[write]]; use `org.opalj.ba.ProjectSnapshotWriter` to write snapshots.
+ *
+ * The (gzip compressed) format is:
+ * {{{
+ * Snapshot {
+ *     int                  magic
+ *     int                  version
+ *     boolean              library_class_files_are_interfaces_only
+ *     int                  class_files_count
+ *     ClassFileRecord[]    class_files
+ *     int                  type_declarations_count
+ *     TypeDeclaration[]    type_declarations
+ *     int                  instance_methods_count
+ *     InstanceMethods[]    instance_methods
+ *     int                  overriding_methods_count
+ *     OverridingMethods[]  overriding_methods
+ * }
+ * ClassFileRecord {
+ *     byte    kind // see ProjectClassFile, ...
+ *     UTF     source // "" if the class file is a virtual class file
+ *     int     length
+ *     byte[]  class_file
+ * }
+ * TypeDeclaration {
+ *     UTF     fqn
+ *     boolean is_interface
+ *     UTF     superclass_fqn // "" if the type has no superclass
+ *     int     superinterfaces_count
+ *     UTF[]   superinterface_fqns
+ * }
+ * InstanceMethods {
+ *     UTF         fqn
+ *     int         methods_count
+ *     MethodRef[] methods
+ * }
+ * OverridingMethods {
+ *     MethodRef   method
+ *     int         overriding_methods_count
+ *     MethodRef[] overriding_methods
+ * }
+ * MethodRef {
+ *     int     class_file_index // w.r.t. the class files which are not modules
+ *     int     method_index
+ * }
+ * }}}
+ *
+ * @note A snapshot does not contain the project's configuration; the configuration is
+ *       passed to [[Project.load]] and must be compatible with the configuration that was
+ *       used to create the project.
+ */
+object ProjectSnapshot {
+
+    final val Magic = 0x4F505053 // "OPPS"
+    final val Version = 1
+
+    private final val ProjectClassFile: Byte = 0
+    private final val VirtualClassFile: Byte = 1
+    private final val LibraryClassFile: Byte = 2
+    private final val ProjectModule: Byte = 3
+    private final val LibraryModule: Byte = 4
+
+    /**
+     * The information which is restored from a snapshot instead of computing it.
+     *
+     * @param typeDeclarations The type declarations that complement the information
+     *        derived from the class files when creating the class hierarchy.
+     */
+    private[analyses] final class PrecomputedInformation(
+        val typeDeclarations:  Iterable[TypeDeclaration],
+        val instanceMethods:   Map[ClassType, ArraySeq[MethodDeclarationContext]],
+        val overridingMethods: Map[Method, immutable.Set[Method]]
+    )
+
+    /**
+     * Writes a snapshot of the given project to the given file.
+     *
+     * @param serialize Creates the class file (i.e., the byte array) for a `ClassFile`.
+     */
+    def write(project: SomeProject, file: File, serialize: ClassFile => Array[Byte]): Unit = {
+        implicit val logContext: LogContext = project.logContext
+        time {
+            doWrite(project, file, serialize)
+        } { t => OPALLogger.info("project setup", s"writing the project snapshot took ${t.toSeconds}") }
+    }
+
+    private def doWrite(project: SomeProject, file: File, serialize: ClassFile => Array[Byte]): Unit = {
+        val projectClassFiles = project.allProjectClassFiles
+        val libraryClassFiles = project.allLibraryClassFiles
+        val classFiles = projectClassFiles ++ libraryClassFiles
+        val classFileIndexes = classFiles.iterator.zipWithIndex.map(e => (e._1.thisType, e._2)).toMap
+        val classFilesData = new Array[Array[Byte]](classFiles.length)
+        parForeachSeqElement(classFiles.indices) { i => classFilesData(i) = serialize(classFiles(i)) }
+
+        process(
+            new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))))
+        ) { out =>
+            out.writeInt(Magic)
+            out.writeInt(Version)
+            out.writeBoolean(project.libraryClassFilesAreInterfacesOnly)
+
+            // 1. the class files
+            def writeClassFile(kind: Byte, source: Option[Any], data: Array[Byte]): Unit = {
+                out.writeByte(kind)
+                out.writeUTF(source.map(_.toString).getOrElse(""))
+                out.writeInt(data.length)
+                out.write(data)
+            }
+            val projectModules = project.projectModuleDefinitions
+            val libraryModules = project.libraryModuleDefinitions
+            out.writeInt(classFiles.length + projectModules.size + libraryModules.size)
+            classFiles.indices foreach { i =>
+                val classFile = classFiles(i)
+                val source = project.source(classFile)
+                val kind =
+                    if (i >= projectClassFiles.length) LibraryClassFile
+                    else if (source.isEmpty) VirtualClassFile
+                    else ProjectClassFile
+                writeClassFile(kind, source, classFilesData(i))
+            }
+            projectModules foreach { m => writeClassFile(ProjectModule, m.source, serialize(m.module)) }
+            libraryModules foreach { m => writeClassFile(LibraryModule, m.source, serialize(m.module)) }
+
+            // 2. the type declarations which are not derived from the class files
+            val classHierarchy = project.classHierarchy
+            var typeDeclarations = List.empty[TypeDeclaration]
+            classHierarchy.foreachKnownType { classType =>
+                if (!classFileIndexes.contains(classType)) {
+                    classHierarchy.superinterfaceTypes(classType) foreach { superinterfaceTypes =>
+                        typeDeclarations ::= TypeDeclaration(
+                            classType,
+                            classHierarchy.isInterface(classType).isYes,
+                            classHierarchy.superclassType(classType),
+                            superinterfaceTypes
+                        )
+                    }
+                }
+            }
+            out.writeInt(typeDeclarations.size)
+            typeDeclarations foreach { typeDeclaration =>
+                out.writeUTF(typeDeclaration.classType.fqn)
+                out.writeBoolean(typeDeclaration.isInterfaceType)
+                out.writeUTF(typeDeclaration.theSuperclassType.map(_.fqn).getOrElse(""))
+                out.writeInt(typeDeclaration.theSuperinterfaceTypes.size)
+                typeDeclaration.theSuperinterfaceTypes foreach { t => out.writeUTF(t.fqn) }
+            }
+
+            // 3. the method tables
+            def writeMethodRef(method: Method): Unit = {
+                val classFile = method.classFile
+                out.writeInt(classFileIndexes(classFile.thisType))
+                out.writeInt(classFile.methods.indexWhere(_ eq method))
+            }
+            out.writeInt(project.instanceMethods.size)
+            project.instanceMethods foreach { e =>
+                val (classType, methods) = e
+                out.writeUTF(classType.fqn)
+                out.writeInt(methods.size)
+                methods foreach { mdc => writeMethodRef(mdc.method) }
+            }
+            out.writeInt(project.overridingMethods.size)
+            project.overridingMethods foreach { e =>
+                val (method, overridingMethods) = e
+                writeMethodRef(method)
+                out.writeInt(overridingMethods.size)
+                overridingMethods foreach writeMethodRef
+            }
+        }
+    }
+
+    /**
+     * Creates a [[Project]] using the given snapshot.
+     *
+     * @see [[Project.load]]
+     */
+    @throws[IOException]("if the file is not a valid snapshot")
+    def read(
+        file:          File,
+        config:        Config,
+        projectLogger: OPALLogger
+    ): Project[URL] = {
+        implicit val logContext: LogContext = new StandardLogContext()
+        OPALLogger.register(logContext, projectLogger)
+        try {
+            time {
+                process(
+                    new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))
+                ) { in => read(file, in, config) }
+            } { t => OPALLogger.info("project setup", s"loading the project snapshot took ${t.toSeconds}") }
+        } catch {
+            case t: Throwable => OPALLogger.unregister(logContext); throw t
+        }
+    }
+
+    private def read(
+        file:   File,
+        in:     DataInputStream,
+        config: Config
+    )(
+        implicit logContext: LogContext
+    ): Project[URL] = {
+        if (in.readInt() != Magic)
+            throw new IOException(s"$file is not a project snapshot");
+        val version = in.readInt()
+        if (version != Version)
+            throw new IOException(s"$file: unsupported snapshot version $version")
+        val libraryClassFilesAreInterfacesOnly = in.readBoolean()
+
+        // 1. the class files
+        val classFilesCount = in.readInt()
+        val kinds = new Array[Byte](classFilesCount)
+        val sources = new Array[String](classFilesCount)
+        val classFilesData = new Array[Array[Byte]](classFilesCount)
+        var i = 0
+        while (i < classFilesCount) {
+            kinds(i) = in.readByte()
+            sources(i) = in.readUTF()
+            val data = new Array[Byte](in.readInt())
+            in.readFully(data)
+            classFilesData(i) = data
+            i += 1
+        }
+
+        // The class files were already transformed.
+        val readerConfig = ConfigFactory.parseString(
+            s"""${InvokedynamicRewriting.InvokedynamicRewritingConfigKey} = false
+               |${DynamicConstantRewriting.RewritingConfigKey} = false
+               |${BytecodeOptimizer.SimplifyControlFlowKey} = false
+               |""".stripMargin
+        ).withFallback(config)
+        val reader = Project.JavaClassFileReader(using logContext, readerConfig)
+        val classFiles = new Array[ClassFile](classFilesCount)
+        parForeachSeqElement(classFiles.indices) { i =>
+            val in = new DataInputStream(new ByteArrayInputStream(classFilesData(i)))
+            classFiles(i) = reader.ClassFile(in).head
+            classFilesData(i) = null
+        }
+
+        def toURL(source: String): URL = {
+            try {
+                new URI(source).toURL
+            } catch {
+                case _: Exception => new File(source).toURI.toURL
+            }
+        }
+        val snapshotURL = file.toURI.toURL
+        var projectClassFiles = List.empty[(ClassFile, URL)]
+        var virtualClassFiles = List.empty[ClassFile]
+        var libraryClassFiles = List.empty[(ClassFile, URL)]
+        i = classFilesCount - 1
+        while (i >= 0) {
+            val classFile = classFiles(i)
+            val source = sources(i)
+            kinds(i) match {
+                case ProjectClassFile | ProjectModule if source.nonEmpty =>
+                    projectClassFiles ::= ((classFile, toURL(source)))
+                case ProjectClassFile | VirtualClassFile | ProjectModule =>
+                    virtualClassFiles ::= classFile
+                case LibraryClassFile | LibraryModule =>
+                    val url = if (source.nonEmpty) toURL(source) else snapshotURL
+                    libraryClassFiles ::= ((classFile, url))
+                case kind =>
+                    throw new IOException(s"$file: unknown class file kind $kind")
+            }
+            i -= 1
+        }
+
+        // 2. the type declarations
+        val typeDeclarationsCount = in.readInt()
+        val typeDeclarations = List.fill(typeDeclarationsCount) {
+            val classType = ClassType(in.readUTF())
+            val isInterfaceType = in.readBoolean()
+            val superclassFQN = in.readUTF()
+            val superinterfaceTypes = List.fill(in.readInt())(ClassType(in.readUTF()))
+            TypeDeclaration(
+                classType,
+                isInterfaceType,
+                if (superclassFQN.isEmpty) None else Some(ClassType(superclassFQN)),
+                UIDSet.fromSpecific(superinterfaceTypes)
+            )
+        }
+
+        // 3. the method tables (the indexes refer to the class files that are not modules)
+        val indexedClassFiles = classFiles.iterator.zip(kinds.iterator).collect {
+            case (classFile, kind) if kind != ProjectModule && kind != LibraryModule => classFile
+        }.toArray
+        def readMethodRef(): Method = {
+            val classFile = indexedClassFiles(in.readInt())
+            classFile.methods(in.readInt())
+        }
+        val instanceMethodsCount = in.readInt()
+        val instanceMethods = Iterator.fill(instanceMethodsCount) {
+            val classType = ClassType(in.readUTF())
+            val methods = ArraySeq.fill(in.readInt())(new MethodDeclarationContext(readMethodRef()))
+            (classType, methods)
+        }.toMap
+        val overridingMethodsCount = in.readInt()
+        val overridingMethods = Iterator.fill(overridingMethodsCount) {
+            val method = readMethodRef()
+            val overridingMethods = immutable.Set.from(Iterator.fill(in.readInt())(readMethodRef()))
+            (method, overridingMethods)
+        }.toMap
+
+        Project.create(
+            projectClassFiles,
+            libraryClassFiles,
+            libraryClassFilesAreInterfacesOnly,
+            virtualClassFiles,
+            Project.defaultHandlerForInconsistentProjects,
+            config,
+            logContext,
+            Some(new PrecomputedInformation(typeDeclarations, instanceMethods, overridingMethods))
+        )
+    }
+}
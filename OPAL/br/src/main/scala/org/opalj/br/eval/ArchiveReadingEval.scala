@@ -0,0 +1,48 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package eval
+
+import java.io.File
+
+import org.opalj.bi.reader.MemoryMappedArchiveReading
+import org.opalj.br.reader.BytecodeInstructionsCache
+import org.opalj.br.reader.Java17FrameworkWithCaching
+import org.opalj.bytecode.JRELibraryFolder
+import org.opalj.util.PerformanceEvaluation.time
+
+/**
+ * Compares the time required to load the class files of a set of archives (by default, the
+ * JRE's jars or jmods) using `java.util.zip.ZipFile` (the default) and using memory mapped
+ * files (see [[org.opalj.bi.reader.MemoryMappedArchiveReading]]). If the JRE is the
+ * current runtime image, reading the class files from the `jrt:/` file system is measured
+ * as well.
+ *
+ * Usage: `ArchiveReadingEval [<archive or folder>... ]`
+ */
+object ArchiveReadingEval extends App {
+
+    val files = if (args.isEmpty) List(JRELibraryFolder) else args.toList.map(new File(_))
+    val repetitions = 3
+
+    def run(name: String)(load: => Iterable[?]): Unit = {
+        util.gc()
+        time {
+            val classFilesCount = load.size
+            print(s"$name: $classFilesCount class files; ")
+        } { t => println(t.toSeconds) }
+    }
+
+    for (_ <- 1 to repetitions) {
+        val reader = new Java17FrameworkWithCaching(new BytecodeInstructionsCache)
+        run("ZipFile          ") { reader.AllClassFiles(files) }
+
+        val mappingReader =
+            new Java17FrameworkWithCaching(new BytecodeInstructionsCache) with MemoryMappedArchiveReading
+        run("memory mapped    ") { mappingReader.AllClassFiles(files) }
+
+        if (args.isEmpty && !System.getProperty("java.version").startsWith("1.")) {
+            run("jrt:/ file system") { reader.JRTClassFiles.flatMap(_._2) }
+        }
+    }
+}
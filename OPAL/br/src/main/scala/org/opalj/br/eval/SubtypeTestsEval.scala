@@ -0,0 +1,74 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package eval
+
+import java.io.File
+import scala.util.Random
+
+import org.opalj.br.reader.Java17LibraryFramework
+import org.opalj.bytecode.JRELibraryFolder
+import org.opalj.log.GlobalLogContext
+import org.opalj.util.PerformanceEvaluation.time
+
+/**
+ * Compares the time required to perform subtype tests (`ClassHierarchy.isSubtypeOf`) on
+ * the JDK's class hierarchy using the precomputed subtype index with the time required to
+ * answer the same queries using the types' subtype information (i.e., `UIDSet` lookups).
+ *
+ * Half of the queried pairs are in a subtype relation and the other half are randomly
+ * chosen pairs of types.
+ *
+ * Usage: `SubtypeTestsEval [<JRE library folder> [<number of queries>]]`
+ */
+object SubtypeTestsEval extends App {
+
+    val libraryFolder = if (args.length > 0) new File(args(0)) else JRELibraryFolder
+    val queriesCount = if (args.length > 1) args(1).toInt else 10000000
+    val repetitions = 5
+
+    val classFiles = Java17LibraryFramework.AllClassFiles(List(libraryFolder)).map(_._1)
+    val classHierarchy = ClassHierarchy(classFiles)(using GlobalLogContext)
+
+    val types: Array[ClassType] = {
+        val types = Array.newBuilder[ClassType]
+        classHierarchy.foreachKnownType(types += _)
+        types.result().sortBy(_.fqn)
+    }
+    println(s"${types.length} types; ${types.count(classHierarchy.isInterface(_).isYes)} interface types")
+
+    val random = new Random(42L)
+    val subtypes = Array.fill(queriesCount)(types(random.nextInt(types.length)))
+    val supertypes = Array.tabulate(queriesCount) { i =>
+        if (i % 2 == 0) {
+            val allSupertypes = classHierarchy.allSupertypes(subtypes(i), reflexive = true).toArray
+            allSupertypes(random.nextInt(allSupertypes.length))
+        } else {
+            types(random.nextInt(types.length))
+        }
+    }
+
+    def isSubtypeOfUsingSubtypeInformation(subtype: ClassType, supertype: ClassType): Boolean = {
+        (subtype eq supertype) || {
+            val subtypeInformation = classHierarchy.subtypeInformation(supertype)
+            subtypeInformation.isDefined && subtypeInformation.get.contains(subtype)
+        }
+    }
+
+    def run(name: String)(isSubtypeOf: (ClassType, ClassType) => Boolean): Unit = {
+        util.gc()
+        var subtypeRelations = 0
+        time {
+            var i = 0
+            while (i < queriesCount) {
+                if (isSubtypeOf(subtypes(i), supertypes(i))) subtypeRelations += 1
+                i += 1
+            }
+        } { t => println(s"$name: ${t.toSeconds} ($subtypeRelations subtype relations)") }
+    }
+
+    for (_ <- 1 to repetitions) {
+        run("subtype information") { isSubtypeOfUsingSubtypeInformation }
+        run("subtype index      ") { (subtype, supertype) => classHierarchy.isSubtypeOf(subtype, supertype) }
+    }
+}
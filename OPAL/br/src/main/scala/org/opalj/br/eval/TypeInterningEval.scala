@@ -0,0 +1,81 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package eval
+
+import java.io.ByteArrayInputStream
+import java.io.DataInputStream
+import java.io.File
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.zip.ZipFile
+import scala.jdk.CollectionConverters.*
+import scala.util.Using
+
+import org.opalj.br.reader.BytecodeInstructionsCache
+import org.opalj.br.reader.Java17FrameworkWithCaching
+import org.opalj.bytecode.JRELibraryFolder
+import org.opalj.concurrent.parForeachSeqElement
+import org.opalj.util.PerformanceEvaluation.time
+
+/**
+ * Measures the throughput of reading the JRE's class files (rt.jar or the jmods) using an
+ * increasing number of threads. Since every class reference in a constant pool is interned
+ * (see [[ClassType.apply]] and [[ArrayType.apply]]), the class file reader's scalability
+ * is bounded by the scalability of the type caches.
+ *
+ * The class files are loaded into memory upfront to avoid measuring I/O; the type caches are
+ * flushed before each run.
+ *
+ * Usage: `TypeInterningEval [<JRE library folder> [<repetitions>]]`
+ */
+object TypeInterningEval extends App {
+
+    val libraryFolder = if (args.length > 0) new File(args(0)) else JRELibraryFolder
+    val repetitions = if (args.length > 1) args(1).toInt else 3
+
+    val classFilesData: IndexedSeq[Array[Byte]] = {
+        val archives = libraryFolder.listFiles().filter { f =>
+            val name = f.getName
+            name.endsWith(".jar") || name.endsWith(".jmod")
+        }
+        archives.iterator.flatMap { archive =>
+            Using.resource(new ZipFile(archive)) { zipFile =>
+                zipFile.entries().asScala.filter(_.getName.endsWith(".class")).map { entry =>
+                    val data = new Array[Byte](entry.getSize.toInt)
+                    Using.resource(new DataInputStream(zipFile.getInputStream(entry))) {
+                        _.readFully(data)
+                    }
+                    data
+                }.toList
+            }
+        }.toIndexedSeq
+    }
+    println(s"loaded ${classFilesData.size} class files from $libraryFolder")
+
+    def run(threads: Int): Unit = {
+        ClassType.flushTypeCache()
+        ArrayType.flushTypeCache()
+        val reader = new Java17FrameworkWithCaching(new BytecodeInstructionsCache)
+        val classFilesCount = new AtomicInteger(0)
+        time {
+            parForeachSeqElement(classFilesData, threads) { data =>
+                val classFiles = reader.ClassFile(new DataInputStream(new ByteArrayInputStream(data)))
+                classFilesCount.addAndGet(classFiles.size)
+            }
+        } { t =>
+            val throughput = (classFilesCount.get / t.toSeconds.timeSpan).toLong
+            println(
+                f"$threads%3d threads: ${t.toSeconds} (${classFilesCount.get} class files; " +
+                    s"$throughput class files/s; ${ClassType.classTypesCount} class types)"
+            )
+        }
+    }
+
+    for {
+        threads <- List(1, 2, 4, 8, 16, 32)
+        _ <- 1 to repetitions
+    } {
+        util.gc()
+        run(threads)
+    }
+}
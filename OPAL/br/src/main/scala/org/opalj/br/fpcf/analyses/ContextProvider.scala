@@ -70,21 +70,17 @@ trait CallStringContextProvider extends ContextProvider {
     private lazy val callStringContexts: CallStringContexts = project.get(CallStringContextsKey)
 
     @inline def newContext(method: DeclaredMethod): CallStringContext =
-        callStringContexts(method, Nil)
+        callStringContexts(method)
 
     @inline override def expandContext(
         oldContext: Context,
         method:     DeclaredMethod,
         pc:         Int
     ): CallStringContext = {
-        oldContext match {
-            case csc: CallStringContext =>
-                callStringContexts(method, (oldContext.method, pc) :: csc.callString.take(k - 1))
-            case _ if oldContext.hasContext =>
-                callStringContexts(method, List((oldContext.method, pc)))
-            case _ =>
-                callStringContexts(method, Nil)
-        }
+        if (oldContext.hasContext)
+            callStringContexts.expand(method, oldContext, pc, k)
+        else
+            callStringContexts(method)
     }
 
     @inline override def contextFromId(contextId: Int): Context = {
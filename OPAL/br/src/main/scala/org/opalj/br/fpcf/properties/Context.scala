@@ -4,15 +4,15 @@ package br
 package fpcf
 package properties
 
-import java.util.concurrent.atomic.AtomicInteger
-import java.util.concurrent.locks.ReentrantReadWriteLock
-import scala.collection.mutable
+import java.util.concurrent.atomic.AtomicLongArray
 
 import org.opalj.br.analyses.DeclaredMethods
 import org.opalj.br.analyses.DeclaredMethodsKey
+import org.opalj.br.analyses.IncrementalProjectInformationKey
 import org.opalj.br.analyses.ProjectInformationKey
 import org.opalj.br.analyses.ProjectInformationKeys
 import org.opalj.br.analyses.SomeProject
+import org.opalj.fpcf.Entity
 
 /**
  * Provides the context in which a method was invoked or an object was allocated.
@@ -54,7 +54,7 @@ case class SimpleContext private[properties] (method: DeclaredMethod) extends Co
     override def id: Int = method.id
 }
 
-object SimpleContextsKey extends ProjectInformationKey[SimpleContexts, Nothing] {
+object SimpleContextsKey extends IncrementalProjectInformationKey[SimpleContexts, Nothing] {
 
     override def requirements(project: SomeProject): ProjectInformationKeys =
         Seq(DeclaredMethodsKey)
@@ -63,6 +63,23 @@ object SimpleContextsKey extends ProjectInformationKey[SimpleContexts, Nothing]
         new SimpleContexts(p.get(DeclaredMethodsKey))
     }
 
+    /**
+     * The simple contexts of the updated project are equal to the previous ones as the declared
+     * methods keep their ids (see [[DeclaredMethodsKey.prepareUpdate]]).
+     *
+     * @return The contexts of the declared methods which are defined by changed methods.
+     */
+    override def prepareUpdate(
+        oldProject:     SomeProject,
+        newProject:     SomeProject,
+        changedMethods: Set[Method]
+    ): Option[Iterator[Entity]] = {
+        oldProject.has(this).map { simpleContexts =>
+            simpleContexts.contexts.filter { context =>
+                IncrementalProjectInformationKey.isDefinedBy(context.method, changedMethods)
+            }
+        }
+    }
 }
 
 trait Contexts[ContextType <: Context]
@@ -71,6 +88,9 @@ class SimpleContexts private[properties] (declaredMethods: DeclaredMethods) exte
 
     @volatile private var id2Context = new Array[SimpleContext](declaredMethods._UNSAFE_size)
 
+    /** The contexts that were created so far. */
+    private[properties] def contexts: Iterator[SimpleContext] = id2Context.iterator.filter(_ ne null)
+
     def apply(method: DeclaredMethod): SimpleContext = {
         val id = method.id
         if (id < id2Context.length) {
@@ -110,13 +130,18 @@ class SimpleContexts private[properties] (declaredMethods: DeclaredMethods) exte
 }
 
 /**
- * A context that includes a call string
+ * A context that includes a call string; i.e., the call sites (caller and pc) which lead to
+ * the invocation of the method, starting with the most recent one.
  */
 class CallStringContext private[properties] (
-    val id:         Int,
-    val method:     DeclaredMethod,
-    val callString: List[(DeclaredMethod, Int)]
+    val id:                                     Int,
+    val method:                                 DeclaredMethod,
+    private[properties] val callStringId:       Int,
+    private[properties] val callStringContexts: CallStringContexts
 ) extends Context {
+
+    def callString: List[(DeclaredMethod, Int)] = callStringContexts.callString(callStringId)
+
     override def toString: String = {
         s"CallStringContext($method, $callString)"
     }
@@ -133,56 +158,253 @@ object CallStringContextsKey extends ProjectInformationKey[CallStringContexts, N
 
 }
 
+/**
+ * Interns [[CallStringContext]]s.
+ *
+ * The call strings are stored in a trie: the call string `(caller, pc) :: tail` is represented
+ * by a node which stores the call site `(caller, pc)` and the id of the node representing `tail`;
+ * the root node represents the empty call string. Hence, call strings that share their tails
+ * are stored only once and the memory required grows with the number of distinct call strings.
+ *
+ * Call sites, trie nodes and contexts are identified by ids and are looked up using
+ * open-addressing hash tables with primitive keys. Lookups of existing contexts are lock-free
+ * and do not allocate; only the creation of new call sites, nodes and contexts is synchronized.
+ */
 class CallStringContexts extends Contexts[CallStringContext] {
 
-    @volatile private var id2Context = new Array[CallStringContext](32768)
-    private val context2id = new mutable.HashMap[(DeclaredMethod, List[(DeclaredMethod, Int)]), CallStringContext]()
+    import CallStringContexts.EmptyCallString
+    import CallStringContexts.IdTable
+
+    // (caller id, pc) => call site id
+    private val callSiteIds = new IdTable
+    @volatile private var callSiteCallers = new Array[DeclaredMethod](1024)
+    @volatile private var callSitePCs = new Array[Int](1024)
+    private var callSitesCount = 0
 
-    private val nextId = new AtomicInteger(1)
-    private val rwLock = new ReentrantReadWriteLock()
+    // (parent node id, call site id) => node id; the node data is stored in a single array:
+    // [parent node id, call site id, call string length] per node
+    private val nodeIds = new IdTable
+    @volatile private var nodes = new Array[Int](3 * 1024)
+    private var nodesCount = 1 // the root node (EmptyCallString)
+
+    // (method id, node id) => context id
+    private val contextIds = new IdTable
+    @volatile private var id2Context = new Array[CallStringContext](32768)
+    private var nextId = 1
 
     def apply(id: Int): CallStringContext = {
         id2Context(id)
     }
 
+    /**
+     * Returns the context of the given method with an empty call string.
+     */
+    def apply(method: DeclaredMethod): CallStringContext = context(method, EmptyCallString)
+
     def apply(
         method:     DeclaredMethod,
         callString: List[(DeclaredMethod, Int)]
     ): CallStringContext = {
-        val key = (method, callString)
-
-        val readLock = rwLock.readLock()
-        readLock.lock()
-        try {
-            val contextO = context2id.get(key)
-            if (contextO.isDefined) {
-                return contextO.get;
+        context(method, callStringId(callString))
+    }
+
+    /**
+     * Returns the context of `method` when it is called by `caller` at `pc`; i.e., the call
+     * string consists of the given call site followed by the (at most) `k - 1` most recent call
+     * sites of the caller's call string.
+     */
+    def expand(
+        method: DeclaredMethod,
+        caller: Context,
+        pc:     Int,
+        k:      Int
+    ): CallStringContext = {
+        val tail = caller match {
+            case csc: CallStringContext if csc.callStringContexts eq this => take(csc.callStringId, k - 1)
+            case csc: CallStringContext => take(callStringId(csc.callString), k - 1)
+            case _ => EmptyCallString
+        }
+        context(method, prepend(tail, callSiteId(caller.method, pc)))
+    }
+
+    private[properties] def callString(callStringId: Int): List[(DeclaredMethod, Int)] = {
+        val callString = List.newBuilder[(DeclaredMethod, Int)]
+        val nodes = this.nodes
+        var nodeId = callStringId
+        while (nodeId != EmptyCallString) {
+            val callSiteId = nodes(3 * nodeId + 1)
+            callString += ((callSiteCallers(callSiteId), callSitePCs(callSiteId)))
+            nodeId = nodes(3 * nodeId)
+        }
+        callString.result()
+    }
+
+    private def callStringId(callString: List[(DeclaredMethod, Int)]): Int = {
+        if (callString.isEmpty)
+            EmptyCallString
+        else {
+            val (caller, pc) = callString.head
+            prepend(callStringId(callString.tail), callSiteId(caller, pc))
+        }
+    }
+
+    /** Returns the node representing the call string's `n` most recent call sites. */
+    private def take(callStringId: Int, n: Int): Int = {
+        val nodes = this.nodes
+        if (nodes(3 * callStringId + 2) <= n)
+            callStringId
+        else if (n <= 0)
+            EmptyCallString
+        else
+            prepend(take(nodes(3 * callStringId), n - 1), nodes(3 * callStringId + 1))
+    }
+
+    private def callSiteId(caller: DeclaredMethod, pc: Int): Int = {
+        val key = (caller.id.toLong << 32) | (pc & 0xFFFFFFFFL)
+        val id = callSiteIds.get(key)
+        if (id >= 0)
+            id
+        else synchronized {
+            val id = callSiteIds.get(key)
+            if (id >= 0)
+                id
+            else {
+                val id = callSitesCount
+                if (id == callSitePCs.length) {
+                    callSiteCallers = java.util.Arrays.copyOf(callSiteCallers, id * 2)
+                    callSitePCs = java.util.Arrays.copyOf(callSitePCs, id * 2)
+                }
+                callSiteCallers(id) = caller
+                callSitePCs(id) = pc
+                callSitesCount = id + 1
+                callSiteIds.put(key, id)
+                id
             }
-        } finally {
-            readLock.unlock()
         }
+    }
+
+    private def prepend(callStringId: Int, callSiteId: Int): Int = {
+        val key = (callStringId.toLong << 32) | callSiteId
+        val id = nodeIds.get(key)
+        if (id >= 0)
+            id
+        else synchronized {
+            val id = nodeIds.get(key)
+            if (id >= 0)
+                id
+            else {
+                val id = nodesCount
+                var nodes = this.nodes
+                if (3 * id == nodes.length) {
+                    nodes = java.util.Arrays.copyOf(nodes, nodes.length * 2)
+                    this.nodes = nodes
+                }
+                nodes(3 * id) = callStringId
+                nodes(3 * id + 1) = callSiteId
+                nodes(3 * id + 2) = nodes(3 * callStringId + 2) + 1
+                nodesCount = id + 1
+                nodeIds.put(key, id)
+                id
+            }
+        }
+    }
 
-        val writeLock = rwLock.writeLock()
-        writeLock.lock()
-        try {
-            val contextO = context2id.get(key)
-            if (contextO.isDefined) {
-                return contextO.get;
+    private def context(method: DeclaredMethod, callStringId: Int): CallStringContext = {
+        val key = (method.id.toLong << 32) | callStringId
+        val id = contextIds.get(key)
+        if (id >= 0)
+            id2Context(id)
+        else synchronized {
+            val id = contextIds.get(key)
+            if (id >= 0)
+                id2Context(id)
+            else {
+                val context = new CallStringContext(nextId, method, callStringId, this)
+                nextId += 1
+                val curMap = id2Context
+                if (context.id < curMap.length) {
+                    curMap(context.id) = context
+                } else {
+                    val newMap = java.util.Arrays.copyOf(curMap, curMap.length * 2)
+                    newMap(context.id) = context
+                    id2Context = newMap
+                }
+                contextIds.put(key, context.id)
+                context
             }
+        }
+    }
+}
+
+object CallStringContexts {
+
+    private final val EmptyCallString = 0
+
+    private final val EmptyKey = -1L
+
+    /**
+     * An open-addressing hash table which maps non-negative `Long` keys to `Int` ids.
+     * Lookups are lock-free; `put` has to be called by at most one thread at a time.
+     */
+    private final class IdTable {
+
+        private final class Slots(val keys: AtomicLongArray, val ids: Array[Int])
+
+        @volatile private var slots = newSlots(1024)
+        private var size = 0
+
+        private def newSlots(capacity: Int): Slots = {
+            val keys = new Array[Long](capacity)
+            java.util.Arrays.fill(keys, EmptyKey)
+            new Slots(new AtomicLongArray(keys), new Array[Int](capacity))
+        }
+
+        private def index(key: Long, mask: Int): Int = {
+            val h = key * 0x9E3779B97F4A7C15L
+            (h ^ (h >>> 32)).toInt & mask
+        }
+
+        /** Returns the id associated with the given key or `-1`. */
+        def get(key: Long): Int = {
+            val slots = this.slots
+            val keys = slots.keys
+            val mask = keys.length - 1
+            var i = index(key, mask)
+            var k = keys.get(i)
+            while (k != key && k != EmptyKey) {
+                i = (i + 1) & mask
+                k = keys.get(i)
+            }
+            if (k == key) slots.ids(i) else -1
+        }
+
+        def put(key: Long, id: Int): Unit = {
+            var slots = this.slots
+            if ((size + 1) * 2 > slots.keys.length) {
+                val newSlots = this.newSlots(slots.keys.length * 2)
+                var i = 0
+                while (i < slots.keys.length) {
+                    val k = slots.keys.get(i)
+                    if (k != EmptyKey) insert(newSlots, k, slots.ids(i))
+                    i += 1
+                }
+                slots = newSlots
+                this.slots = newSlots
+            }
+            insert(slots, key, id)
+            size += 1
+        }
 
-            val context = new CallStringContext(nextId.getAndIncrement(), method, callString)
-            context2id.put(key, context)
-            val curMap = id2Context
-            if (context.id < curMap.length) {
-                curMap(context.id) = context
-            } else {
-                val newMap = java.util.Arrays.copyOf(curMap, curMap.length * 2)
-                newMap(context.id) = context
-                id2Context = newMap
+        private def insert(slots: Slots, key: Long, id: Int): Unit = {
+            val keys = slots.keys
+            val mask = keys.length - 1
+            var i = index(key, mask)
+            while (keys.get(i) != EmptyKey) {
+                i = (i + 1) & mask
             }
-            context
-        } finally {
-            writeLock.unlock()
+            // the id has to be written before the key is published
+            slots.ids(i) = id
+            keys.set(i, key)
         }
     }
 }
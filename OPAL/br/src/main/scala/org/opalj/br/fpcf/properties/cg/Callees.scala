@@ -623,7 +623,8 @@ object Callees extends CalleesPropertyMetaInformation {
                         NoCalleesDueToNotReachableMethod
                     case _ =>
                         throw new IllegalStateException(s"analysis required for property: $name")
-                }
+                },
+            DeclaredMethod.entityId
         )
     }
 }
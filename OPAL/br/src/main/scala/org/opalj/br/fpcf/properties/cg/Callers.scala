@@ -433,7 +433,8 @@ object Callers extends CallersPropertyMetaInformation {
                     case PropertyIsNotDerivedByPreviouslyExecutedAnalysis => NoCallers
                     case _                                                =>
                         throw new IllegalStateException(s"analysis required for property: $name")
-                }
+                },
+            DeclaredMethod.entityId
         )
     }
 
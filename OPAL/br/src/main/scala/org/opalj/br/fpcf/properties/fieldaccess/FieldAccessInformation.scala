@@ -35,7 +35,8 @@ sealed trait FieldAccessInformationPropertyMetaInformation[S <: FieldAccessInfor
                     case PropertyIsNotDerivedByPreviouslyExecutedAnalysis => fallbackValue
                     case _                                                =>
                         throw new IllegalStateException(s"No analysis is scheduled for property $propertyName")
-                }
+                },
+            DeclaredField.entityId
         )
     }
 
@@ -0,0 +1,343 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package fpcf
+package properties
+package immutability
+
+import java.io.DataInput
+import java.io.DataOutput
+import java.nio.charset.StandardCharsets.UTF_8
+import java.security.MessageDigest
+import scala.collection.immutable.SortedSet
+import scala.collection.mutable.ArrayBuffer
+
+import org.opalj.br.analyses.ClassFileHashes
+import org.opalj.br.analyses.SomeProject
+import org.opalj.fpcf.Entity
+import org.opalj.fpcf.Property
+import org.opalj.fpcf.PropertyKey
+import org.opalj.fpcf.PropertySnapshotCodec
+
+/**
+ * Codecs to persist the [[ClassImmutability]] and [[TypeImmutability]] properties of the class
+ * types of the given project using [[org.opalj.fpcf.PropertySnapshot]]s.
+ *
+ * The class types are encoded using their fully qualified names and a ''dependency hash'': a
+ * hash of the contents of the class file of the type and of the class files of all types the
+ * type's immutability (transitively) depends on, i.e., its superclasses, the types of its fields,
+ * the classes that may write its non-private instance fields and, for the type immutability, its subtypes.
+ * A type is not read (i.e., `readEntity` returns
+ * `null`) if its class file is not (or no longer) part of the project or if its dependency hash
+ * changed; hence, snapshots do not have to be invalidated as a whole if single class files change
+ * and the fingerprint of the snapshot can be independent of the class files.
+ *
+ * @param classFileHashes The content hashes of the project's class files keyed by the classes'
+ *                        fully qualified names (see [[org.opalj.br.analyses.ClassFileHashes]]).
+ *                        The properties of types whose class files (or dependencies' class files)
+ *                        have no hash are neither written nor read.
+ */
+class ImmutabilitySnapshotCodecs(project: SomeProject, classFileHashes: Map[String, Array[Byte]]) {
+
+    private lazy val dependencyHashes = new ImmutabilityDependencyHashes(project, classFileHashes)
+
+    private abstract class ClassTypeCodec[P <: Property](
+        dependencyHash: ClassType => Array[Byte]
+    ) extends PropertySnapshotCodec[ClassType, P] {
+
+        override def canEncode(e: Entity): Boolean = e match {
+            case ct: ClassType => dependencyHash(ct) ne null
+            case _             => false
+        }
+
+        override def writeEntity(e: ClassType, out: DataOutput): Unit = {
+            val hash = dependencyHash(e)
+            out.writeUTF(e.fqn)
+            out.writeInt(hash.length)
+            out.write(hash)
+        }
+
+        override def readEntity(in: DataInput): ClassType = {
+            val ct = ClassType(in.readUTF())
+            val hash = new Array[Byte](in.readInt())
+            in.readFully(hash)
+            if (java.util.Arrays.equals(dependencyHash(ct), hash)) ct else null
+        }
+
+        protected def writeParameters(parameters: SortedSet[String], out: DataOutput): Unit = {
+            out.writeInt(parameters.size)
+            parameters.foreach(out.writeUTF)
+        }
+
+        protected def readParameters(in: DataInput): SortedSet[String] = {
+            var parameters = SortedSet.empty[String]
+            var count = in.readInt()
+            while (count > 0) {
+                parameters += in.readUTF()
+                count -= 1
+            }
+            parameters
+        }
+    }
+
+    final val classImmutabilityCodec: PropertySnapshotCodec[ClassType, ClassImmutability] =
+        new ClassTypeCodec[ClassImmutability](dependencyHashes.classImmutabilityHash(_)) {
+
+            override def pk: PropertyKey[ClassImmutability] = ClassImmutability.key
+
+            override def writeProperty(p: ClassImmutability, out: DataOutput): Unit = p match {
+                case TransitivelyImmutableClass => out.writeByte(0)
+                case DependentlyImmutableClass(parameters) =>
+                    out.writeByte(1)
+                    writeParameters(parameters, out)
+                case NonTransitivelyImmutableClass => out.writeByte(2)
+                case MutableClass                  => out.writeByte(3)
+            }
+
+            override def readProperty(in: DataInput): ClassImmutability = in.readByte() match {
+                case 0 => TransitivelyImmutableClass
+                case 1 => DependentlyImmutableClass(readParameters(in))
+                case 2 => NonTransitivelyImmutableClass
+                case 3 => MutableClass
+                case b => throw new IllegalArgumentException(s"unknown class immutability: $b")
+            }
+        }
+
+    final val typeImmutabilityCodec: PropertySnapshotCodec[ClassType, TypeImmutability] =
+        new ClassTypeCodec[TypeImmutability](dependencyHashes.typeImmutabilityHash(_)) {
+
+            override def pk: PropertyKey[TypeImmutability] = TypeImmutability.key
+
+            override def writeProperty(p: TypeImmutability, out: DataOutput): Unit = p match {
+                case TransitivelyImmutableType => out.writeByte(0)
+                case DependentlyImmutableType(parameters) =>
+                    out.writeByte(1)
+                    writeParameters(parameters, out)
+                case NonTransitivelyImmutableType => out.writeByte(2)
+                case MutableType                  => out.writeByte(3)
+            }
+
+            override def readProperty(in: DataInput): TypeImmutability = in.readByte() match {
+                case 0 => TransitivelyImmutableType
+                case 1 => DependentlyImmutableType(readParameters(in))
+                case 2 => NonTransitivelyImmutableType
+                case 3 => MutableType
+                case b => throw new IllegalArgumentException(s"unknown type immutability: $b")
+            }
+        }
+
+    final val all: List[PropertySnapshotCodec[ClassType, ? <: Property]] =
+        List(classImmutabilityCodec, typeImmutabilityCodec)
+}
+
+/**
+ * Computes the dependency hashes of the class and type immutability of the project's class types
+ * (see [[ImmutabilitySnapshotCodecs]]).
+ *
+ * The dependencies form a graph with one node for the class and one node for the type immutability
+ * of each class file: the class immutability depends on the class immutability of the superclass
+ * and the type immutability of the fields' types; the type immutability depends on the class
+ * immutability of the type and the type immutability of the direct subtypes. The hash of a node is
+ * computed from the strongly connected component (Tarjan) that contains it: from the contents of
+ * the class files of the component's nodes, the names of referenced types without class file and
+ * the hashes of the components it depends on. Hence, all hashes are computed in a single pass over the graph.
+ *
+ * The assignability of a non-private, non-final instance field (and, hence, the class immutability) also
+ * depends on the code of the other classes that may write the field: the classes of the same package
+ * for package-private and protected fields, the subclasses for protected fields and all classes for
+ * public fields. The contents of the class files of these classes are part of the hash of the class
+ * immutability, too; they are not part of the graph as their code does not depend on other nodes.
+ */
+private[immutability] class ImmutabilityDependencyHashes(
+    project:         SomeProject,
+    classFileHashes: Map[String, Array[Byte]]
+) {
+
+    private val classFiles = project.allClassFiles.toArray
+    private val nodesCount = classFiles.length * 2
+    private val classIds: Map[ClassType, Int] = classFiles.iterator.map(_.thisType).zipWithIndex.toMap
+
+    private def classNode(classId: Int): Int = classId * 2
+    private def typeNode(classId: Int): Int = classId * 2 + 1
+
+    /** The successors of each node and the names of the referenced types without class file. */
+    private val (successors, missingTypes) = {
+        val successors = new Array[Array[Int]](nodesCount)
+        val missingTypes = new Array[List[String]](nodesCount)
+        classFiles.indices.foreach { classId =>
+            val classFile = classFiles(classId)
+            val classNodeSuccessors = ArrayBuffer.empty[Int]
+            var classNodeMissingTypes = List.empty[String]
+            def addDependency(ct: ClassType, node: Int => Int): Unit = classIds.get(ct) match {
+                case Some(id) => classNodeSuccessors += node(id)
+                case None     => classNodeMissingTypes ::= ct.fqn
+            }
+            classFile.superclassType.foreach(addDependency(_, classNode))
+            classFile.fields.foreach { field =>
+                val fieldType = field.fieldType
+                val elementType = if (fieldType.isArrayType) fieldType.asArrayType.elementType else fieldType
+                if (elementType.isClassType) addDependency(elementType.asClassType, typeNode)
+            }
+            successors(classNode(classId)) = classNodeSuccessors.distinct.toArray
+            missingTypes(classNode(classId)) = classNodeMissingTypes.distinct.sorted
+
+            val subtypes = project.classHierarchy.directSubtypesOf(classFile.thisType).flatMap(classIds.get)
+            successors(typeNode(classId)) = (classNode(classId) :: subtypes.map(typeNode).toList).toArray
+            missingTypes(typeNode(classId)) = Nil
+        }
+        (successors, missingTypes)
+    }
+
+    /**
+     * The combined hash of the class files of the given classes; `null` if a class file has no hash.
+     */
+    private def combinedHash(fqns: Array[String]): Array[Byte] = {
+        val sortedFqns = fqns.sorted
+        val hashes = sortedFqns.map(classFileHashes.get(_).orNull)
+        if (hashes.contains(null)) {
+            null
+        } else {
+            val digest = MessageDigest.getInstance(ClassFileHashes.Algorithm)
+            sortedFqns.indices.foreach { i =>
+                digest.update(sortedFqns(i).getBytes(UTF_8))
+                digest.update(hashes(i))
+            }
+            digest.digest()
+        }
+    }
+
+    private lazy val allClassesHash: Array[Byte] = combinedHash(classFiles.map(_.thisType.fqn))
+
+    private lazy val packageHashes: Map[String, Array[Byte]] = {
+        classFiles.map(_.thisType).groupBy(_.packageName).map { case (packageName, classTypes) =>
+            (packageName, combinedHash(classTypes.map(_.fqn)))
+        }
+    }
+
+    /**
+     * The hashes of the class files of the other classes that may write the non-private, non-final
+     * instance fields of the given class; a hash is `null` if a class file of such a class has no hash.
+     */
+    private def fieldWritersHashes(classFile: ClassFile): List[Array[Byte]] = {
+        val fields = classFile.fields.filter(field => !field.isStatic && !field.isPrivate && !field.isFinal)
+        if (fields.isEmpty) {
+            Nil
+        } else if (fields.exists(_.isPublic)) {
+            List(allClassesHash)
+        } else {
+            val packageHash = packageHashes(classFile.thisType.packageName)
+            if (fields.exists(_.isProtected)) {
+                val subclasses = project.classHierarchy.allSubclassTypes(classFile.thisType, reflexive = false)
+                    .filter(classIds.contains).map(_.fqn).toArray
+                List(packageHash, combinedHash(subclasses))
+            } else {
+                List(packageHash)
+            }
+        }
+    }
+
+    /** The hash of each node; `null` if a class file of the node's (transitive) dependencies has no hash. */
+    private val hashes: Array[Array[Byte]] = {
+        val hashes = new Array[Array[Byte]](nodesCount)
+        val components = new Array[Int](nodesCount)
+        var componentsCount = 0
+        val index = Array.fill(nodesCount)(-1)
+        val lowLink = new Array[Int](nodesCount)
+        val onStack = new Array[Boolean](nodesCount)
+        val componentStack = new Array[Int](nodesCount)
+        var componentStackSize = 0
+        val callStack = new Array[Int](nodesCount)
+        val callStackEdges = new Array[Int](nodesCount)
+        var callStackSize = 0
+        var nextIndex = 0
+
+        def visit(node: Int): Unit = {
+            index(node) = nextIndex
+            lowLink(node) = nextIndex
+            nextIndex += 1
+            componentStack(componentStackSize) = node
+            componentStackSize += 1
+            onStack(node) = true
+            callStack(callStackSize) = node
+            callStackEdges(callStackSize) = 0
+            callStackSize += 1
+        }
+
+        var root = 0
+        while (root < nodesCount) {
+            if (index(root) == -1) visit(root)
+            while (callStackSize > 0) {
+                val node = callStack(callStackSize - 1)
+                val edge = callStackEdges(callStackSize - 1)
+                if (edge < successors(node).length) {
+                    callStackEdges(callStackSize - 1) = edge + 1
+                    val successor = successors(node)(edge)
+                    if (index(successor) == -1) visit(successor)
+                    else if (onStack(successor)) lowLink(node) = Math.min(lowLink(node), index(successor))
+                } else {
+                    callStackSize -= 1
+                    if (callStackSize > 0) {
+                        val caller = callStack(callStackSize - 1)
+                        lowLink(caller) = Math.min(lowLink(caller), lowLink(node))
+                    }
+                    if (lowLink(node) == index(node)) {
+                        val component = ArrayBuffer.empty[Int]
+                        var member = -1
+                        while (member != node) {
+                            componentStackSize -= 1
+                            member = componentStack(componentStackSize)
+                            onStack(member) = false
+                            component += member
+                        }
+                        componentsCount += 1
+                        component.foreach(components(_) = componentsCount)
+                        val hash = componentHash(component, components, hashes)
+                        component.foreach(hashes(_) = hash)
+                    }
+                }
+            }
+            root += 1
+        }
+        hashes
+    }
+
+    /**
+     * Computes the hash of a strongly connected component; the hashes of all components it depends
+     * on are already computed as Tarjan's algorithm completes components in reverse topological order.
+     */
+    private def componentHash(
+        component:  ArrayBuffer[Int],
+        components: Array[Int],
+        hashes:     Array[Array[Byte]]
+    ): Array[Byte] = {
+        val members = component.sortBy(node => (classFiles(node / 2).thisType.fqn, node % 2))
+        val memberHashes = members.map(node => classFileHashes.get(classFiles(node / 2).thisType.fqn).orNull)
+        val memberWritersHashes = members.map { node =>
+            if (node % 2 == 0) fieldWritersHashes(classFiles(node / 2)) else Nil
+        }
+        // the nodes of a component share the same hash array; hence, `distinct` removes duplicate components
+        val dependencies = members.iterator.flatMap(successors(_))
+            .filter(components(_) != components(component.head)).map(hashes(_)).toArray.distinct
+        if (memberHashes.contains(null) || memberWritersHashes.exists(_.contains(null)) ||
+            dependencies.contains(null)
+        ) {
+            null
+        } else {
+            val digest = MessageDigest.getInstance(ClassFileHashes.Algorithm)
+            members.indices.foreach { i =>
+                val node = members(i)
+                digest.update((node % 2).toByte)
+                digest.update(classFiles(node / 2).thisType.fqn.getBytes(UTF_8))
+                digest.update(memberHashes(i))
+                memberWritersHashes(i).foreach(digest.update)
+                missingTypes(node).foreach(fqn => digest.update(fqn.getBytes(UTF_8)))
+            }
+            dependencies.sortWith(java.util.Arrays.compare(_, _) < 0).foreach(digest.update)
+            digest.digest()
+        }
+    }
+
+    def classImmutabilityHash(ct: ClassType): Array[Byte] = classIds.get(ct).map(id => hashes(classNode(id))).orNull
+
+    def typeImmutabilityHash(ct: ClassType): Array[Byte] = classIds.get(ct).map(id => hashes(typeNode(id))).orNull
+}
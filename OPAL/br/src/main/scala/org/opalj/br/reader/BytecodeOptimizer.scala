@@ -101,18 +101,33 @@ trait BytecodeOptimizer extends MethodsBinding {
         descriptor_index: Int,
         attributes:       Attributes
     ): Method_Info = {
-        attributes collectFirst { case c: Code => c } foreach { code =>
-            val isSimplified = optimizeInstructions(code.exceptionHandlers, code.instructions)
-            if (isSimplified) {
-                if (LogControlFlowSimplifications) {
-                    val methodSignature = cp(name_index).asString + cp(descriptor_index).asString
-                    info("class file reader", s"simplified control flow of $methodSignature")
-                }
-            }
+        // the instructions of lazily decoded code are optimized when they are decoded
+        attributes collectFirst { case c: Code if c.isDecoded => c } foreach { code =>
+            optimizeInstructions(cp, name_index, descriptor_index, code.exceptionHandlers, code.instructions)
         }
         super.Method_Info(cp, accessFlags, name_index, descriptor_index, attributes)
     }
 
+    /**
+     * Optimizes the instructions of the method with the given name and descriptor and logs
+     * the simplification of the control flow (if configured).
+     */
+    def optimizeInstructions(
+        cp:                 Constant_Pool,
+        name_index:         Int,
+        descriptor_index:   Int,
+        exceptionsHandlers: ExceptionHandlers,
+        instructions:       Array[Instruction]
+    ): Unit = {
+        val isSimplified = optimizeInstructions(exceptionsHandlers, instructions)
+        if (isSimplified) {
+            if (LogControlFlowSimplifications) {
+                val methodSignature = cp(name_index).asString + cp(descriptor_index).asString
+                info("class file reader", s"simplified control flow of $methodSignature")
+            }
+        }
+    }
+
     def optimizeInstructions(
         exceptionsHandlers: ExceptionHandlers,
         instructions:       Array[Instruction]
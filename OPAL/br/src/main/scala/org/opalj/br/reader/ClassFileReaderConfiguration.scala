@@ -12,4 +12,16 @@ object ClassFileReaderConfiguration {
         org.opalj.br.reader.ConfigKeyPrefix + "ClassFileReader."
     }
 
+    /**
+     * If `true`, the class files stored in archives (jar, jmod, ...) are read using memory
+     * mapped files; see [[org.opalj.bi.reader.MemoryMappedArchiveReading]].
+     */
+    final val MemoryMapArchivesConfigKey = ConfigKeyPrefix + "memoryMapArchives"
+
+    /**
+     * If `true`, the instructions of method bodies are decoded when they are accessed for
+     * the first time; see [[LazyMethodBodies]].
+     */
+    final val LazyMethodBodiesConfigKey = ConfigKeyPrefix + "lazyMethodBodies"
+
 }
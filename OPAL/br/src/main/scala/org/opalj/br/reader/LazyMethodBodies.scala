@@ -0,0 +1,59 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package reader
+
+import org.opalj.br.cp.CONSTANT_InvokeDynamic_info
+
+/**
+ * Defers the decoding of the instructions of methods until they are accessed for the first
+ * time (see [[org.opalj.br.Code.lazily]]). Until then, only the raw bytecode and a reference
+ * to the constant pool are kept. This is primarily useful when loading (large) libraries
+ * completely, where most method bodies are never analyzed. Use
+ * [[org.opalj.br.analyses.Project#decodeAllMethodBodies]] to force the decoding.
+ *
+ * The code of class files that use `invokedynamic` instructions or dynamic constants is always
+ * decoded immediately, because these instructions are rewritten when the class file is
+ * created.
+ *
+ * @example
+ * {{{
+ * object Java17FrameworkWithLazyMethodBodies extends Java17Framework with LazyMethodBodies {
+ *     override final def loadsInterfacesOnly: Boolean = false
+ * }
+ * }}}
+ */
+trait LazyMethodBodies extends CodeAttributeBinding { this: BytecodeOptimizer =>
+
+    override protected def decodeInstructionsLazily(cp: Constant_Pool): Boolean = {
+        !cp.exists { cpe =>
+            (cpe ne null) && (cpe.isDynamic || cpe.isInstanceOf[CONSTANT_InvokeDynamic_info])
+        }
+    }
+
+    override def LazyCode_attribute(
+        cp:                   Constant_Pool,
+        ap_name_index:        Constant_Pool_Index,
+        ap_descriptor_index:  Constant_Pool_Index,
+        attribute_name_index: Constant_Pool_Index,
+        max_stack:            Int,
+        max_locals:           Int,
+        code_length:          Int,
+        instructions:         () => Instructions,
+        exception_handlers:   ExceptionHandlers,
+        attributes:           Attributes
+    ): Code_attribute = {
+        br.Code.lazily(
+            max_stack,
+            max_locals,
+            code_length,
+            () => {
+                val decodedInstructions = instructions()
+                optimizeInstructions(cp, ap_name_index, ap_descriptor_index, exception_handlers, decodedInstructions)
+                decodedInstructions
+            },
+            exception_handlers,
+            attributes
+        )
+    }
+}
@@ -4,6 +4,8 @@ package br
 
 import org.scalatest.funsuite.AnyFunSuite
 
+import org.opalj.concurrent.parForeachSeqElement
+
 /**
  * @author Michael Eichberg
  */
@@ -87,4 +89,19 @@ class ClassTypeTest extends AnyFunSuite {
             case _            => fail(s"pattern match on ClassType ($ot1) failed")
         }
     }
+
+    test("concurrent creation of ClassTypes") {
+        val fqns = (0 until 1000).map(i => s"org/opalj/br/concurrent/C$i")
+        val classTypes = new java.util.concurrent.ConcurrentLinkedQueue[ClassType]()
+        parForeachSeqElement((0 until 16).map(_ => fqns), 16) { fqns =>
+            fqns.foreach(fqn => classTypes.add(ClassType(fqn)))
+        }
+        val classTypesByFQN = classTypes.toArray(Array.empty[ClassType]).groupBy(_.fqn)
+        assert(classTypesByFQN.size == fqns.size)
+        classTypesByFQN.values.foreach { cts =>
+            assert(cts.forall(_ eq cts.head))
+            assert(ClassType.lookup(cts.head.id) eq cts.head)
+        }
+        assert(classTypesByFQN.values.map(_.head.id).toSet.size == fqns.size)
+    }
 }
@@ -506,6 +506,24 @@ class ClassHierarchyTest extends AnyFlatSpec with Matchers {
         javaLangCH.isSubtypeOf(Serializable, Cloneable) should be(false)
     }
 
+    it should "answer all queries as the subtype information of the respective supertype does" in {
+        val opalCH = Project(ClassFiles(locateTestResources("classfiles/OPAL-SNAPSHOT-0.3.jar", "bi"))).classHierarchy
+        for (classHierarchy <- List(jlsCH, preInitCH, javaLangCH, opalCH)) {
+            val types = List.newBuilder[ClassType]
+            classHierarchy.foreachKnownType(types += _)
+            val knownTypes = AnUnknownType :: types.result()
+            for {
+                supertype <- knownTypes
+                subtypeInformation <- classHierarchy.subtypeInformation(supertype)
+                subtype <- knownTypes
+                if subtype ne supertype
+            } {
+                if (classHierarchy.isSubtypeOf(subtype, supertype) != subtypeInformation.contains(subtype))
+                    fail(s"${subtype.toJava} <: ${supertype.toJava}: ${subtypeInformation.contains(subtype)} expected")
+            }
+        }
+    }
+
     behavior of "the preInitialized ClassHierarchy's is(A)SubtypeOf method w.r.t. Exceptions"
 
     it should "correctly reflect the base exception hierarchy" in {
@@ -0,0 +1,127 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package analyses
+
+import java.net.URL
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.bi.ACC_FINAL
+import org.opalj.bi.TestResources.locateTestResources
+import org.opalj.br.fpcf.analyses.EagerL0PurityAnalysis
+import org.opalj.br.fpcf.properties.Purity
+import org.opalj.br.fpcf.properties.SimpleContextsKey
+
+/**
+ * Tests when the [[IncrementalReanalysis]] re-analyzes a project incrementally and when it
+ * falls back to re-analyzing the whole project.
+ */
+@RunWith(classOf[JUnitRunner])
+class IncrementalReanalysisTest extends AnyFlatSpec with Matchers {
+
+    val classFiles: Seq[(ClassFile, URL)] =
+        Project.JavaClassFileReader().ClassFiles(locateTestResources("classhierarchy.jar", "bi")).toSeq
+
+    val changedClassFile: ClassFile = classFiles(0)._1
+
+    val otherSource: URL = classFiles(1)._2
+
+    /** A class file of a subclass of another class file of the project. */
+    val subclass: (ClassFile, URL) = classFiles.find { cfSource =>
+        cfSource._1.superclassType.exists(superclassType => classFiles.exists(_._1.thisType == superclassType))
+    }.get
+
+    def analyzed(classFiles: Seq[(ClassFile, URL)]): IncrementalReanalysis = {
+        val reanalysis = new IncrementalReanalysis(Project(classFiles), Seq.empty)
+        reanalysis.analyze()
+        reanalysis
+    }
+
+    /** The class files with the given class file (with another source) replacing the respective class file. */
+    def withChangedSource(classFile: ClassFile): Seq[(ClassFile, URL)] = classFiles.map { cfSource =>
+        if (cfSource._1.thisType == classFile.thisType) (classFile, otherSource) else cfSource
+    }
+
+    behavior of "the incremental re-analysis"
+
+    it should "re-analyze incrementally if only method bodies changed" in {
+        val reanalysis = analyzed(classFiles)
+        val ps = reanalysis.propertyStore
+        val changes = reanalysis.update(withChangedSource(changedClassFile))
+        changes should be(ClassFileChanges(Set(changedClassFile.thisType), Set.empty, Set.empty))
+        reanalysis.propertyStore should be theSameInstanceAs ps
+    }
+
+    it should "re-analyze incrementally if analyses use declared methods and contexts" in {
+        val classFile = classFiles.iterator.map(_._1).find(_.methods.exists(_.body.isDefined)).get
+        val method = classFile.methods.find(_.body.isDefined).get
+        val reanalysis = new IncrementalReanalysis(Project(classFiles), Seq(EagerL0PurityAnalysis))
+        val ps = reanalysis.analyze()
+        val oldProject = reanalysis.project
+        val declaredMethod = oldProject.get(DeclaredMethodsKey)(method)
+        val purities = ps.entities(Purity.key).map(eps => (eps.e, eps)).toMap
+
+        // the changed class file has new (but equal) methods
+        reanalysis.update(withChangedSource(classFile.copy()))
+
+        reanalysis.propertyStore should be theSameInstanceAs ps
+        val newProject = reanalysis.project
+        val newMethod = newProject.classFile(classFile.thisType).get.findMethod(method.name, method.descriptor).get
+        newMethod should not be theSameInstanceAs(method)
+        val newDeclaredMethod = newProject.get(DeclaredMethodsKey)(newMethod)
+        newDeclaredMethod should be(declaredMethod)
+        newDeclaredMethod.definedMethod should be theSameInstanceAs newMethod
+
+        val newPurities = ps.entities(Purity.key).map(eps => (eps.e, eps)).toMap
+        newPurities.keySet should be(purities.keySet)
+        newPurities.foreach { case (e, eps) => eps.ub should be(purities(e).ub) }
+        // the purity of the changed method is recomputed ...
+        val context = newProject.get(SimpleContextsKey)(newDeclaredMethod)
+        val purity = ps(context, Purity.key)
+        purity should not be theSameInstanceAs(purities(context))
+        purity.e.method.definedMethod should be theSameInstanceAs newMethod
+        // ... but the purity of methods which do not depend on the changed class file is kept
+        newPurities.count { case (e, eps) => eps eq purities(e) } should be > 0
+    }
+
+    it should "re-analyze the whole project if a class file was added" in {
+        val reanalysis = analyzed(classFiles.filterNot(_ eq subclass))
+        val ps = reanalysis.propertyStore
+        val changes = reanalysis.update(classFiles)
+        changes should be(ClassFileChanges(Set.empty, Set(subclass._1.thisType), Set.empty))
+        reanalysis.propertyStore should not be theSameInstanceAs(ps)
+        reanalysis.project.classHierarchy.isSubtypeOf(
+            subclass._1.thisType,
+            subclass._1.superclassType.get
+        ) should be(true)
+    }
+
+    it should "re-analyze the whole project if a class file was removed" in {
+        val reanalysis = analyzed(classFiles)
+        val ps = reanalysis.propertyStore
+        val changes = reanalysis.update(classFiles.filterNot(_ eq subclass))
+        changes should be(ClassFileChanges(Set.empty, Set.empty, Set(subclass._1.thisType)))
+        reanalysis.propertyStore should not be theSameInstanceAs(ps)
+    }
+
+    it should "re-analyze the whole project if the structure of a class file changed" in {
+        val reanalysis = analyzed(classFiles)
+        val ps = reanalysis.propertyStore
+        val newClassFile = changedClassFile.copy(accessFlags = changedClassFile.accessFlags ^ ACC_FINAL.mask)
+        IncrementalReanalysis.hasSameStructure(changedClassFile, newClassFile) should be(false)
+        reanalysis.update(withChangedSource(newClassFile))
+        reanalysis.propertyStore should not be theSameInstanceAs(ps)
+    }
+
+    it should "re-analyze the whole project if other project information was derived" in {
+        val reanalysis = analyzed(classFiles)
+        val ps = reanalysis.propertyStore
+        reanalysis.project.get(DeclaredMethodsKey)
+        reanalysis.update(withChangedSource(changedClassFile))
+        reanalysis.propertyStore should not be theSameInstanceAs(ps)
+    }
+}
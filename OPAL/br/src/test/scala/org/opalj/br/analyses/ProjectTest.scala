@@ -10,6 +10,7 @@ import org.scalatestplus.junit.JUnitRunner
 
 import org.opalj.bi.TestResources.locateTestResources
 import org.opalj.br.reader.Java11Framework.ClassFiles
+import org.opalj.log.LogContext
 
 /**
  * Tests the support for "project" related functionality.
@@ -735,6 +736,34 @@ class ProjectTest extends AnyFlatSpec with Matchers {
             implementingMethods.size should be(0)
         }
     }
+
+    behavior of "the parallel computation of a project's method tables"
+
+    it should "compute the same instance methods as the sequential computation" in {
+        implicit val logContext: LogContext = opalProject.logContext
+        val instanceMethods = Project.instanceMethods(
+            opalProject.classHierarchy,
+            opalProject.classFile,
+            computeInParallel = true
+        )
+        instanceMethods.keySet should be(opalProject.instanceMethods.keySet)
+        instanceMethods foreach { e =>
+            val (classType, methods) = e
+            methods.map(_.method) should be(opalProject.instanceMethods(classType).map(_.method))
+        }
+    }
+
+    it should "compute the same overriding methods as the sequential computation" in {
+        implicit val logContext: LogContext = opalProject.logContext
+        val classTypeToClassFile = opalProject.allClassFiles.map(cf => (cf.thisType, cf)).toMap
+        val overridingMethods = Project.overridingMethods(
+            opalProject.classHierarchy,
+            opalProject.allMethods.count(_.isVirtualMethodDeclaration),
+            classTypeToClassFile,
+            computeInParallel = true
+        )
+        overridingMethods should be(opalProject.overridingMethods)
+    }
 }
 
 private class TestProjectInformationKey extends ProjectInformationKey[Object, Nothing] {
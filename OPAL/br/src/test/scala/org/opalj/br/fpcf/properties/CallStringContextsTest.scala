@@ -0,0 +1,65 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package fpcf
+package properties
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.br.TestSupport.biProject
+import org.opalj.br.analyses.DeclaredMethodsKey
+import org.opalj.concurrent.parForeachSeqElement
+
+@RunWith(classOf[JUnitRunner])
+class CallStringContextsTest extends AnyFlatSpec with Matchers {
+
+    val project = biProject("methods.jar")
+    val declaredMethods = project.get(DeclaredMethodsKey)
+    val methods = project.allMethods.map(declaredMethods(_)).toIndexedSeq.take(20)
+
+    behavior of "CallStringContexts"
+
+    it should "intern contexts with equal call strings" in {
+        val contexts = new CallStringContexts
+        val callString = List((methods(1), 5), (methods(2), 7))
+        val context = contexts(methods(0), callString)
+        context.method should be(methods(0))
+        context.callString should be(callString)
+        contexts(methods(0), callString) should be theSameInstanceAs context
+        contexts(context.id) should be theSameInstanceAs context
+        contexts(methods(0)) should not be theSameInstanceAs(context)
+        contexts(methods(0)).callString should be(Nil)
+    }
+
+    it should "expand contexts by prepending the call site and limiting the call string's length" in {
+        val contexts = new CallStringContexts
+        val c0 = contexts(methods(0))
+        val c1 = contexts.expand(methods(1), c0, 3, k = 2)
+        c1.callString should be(List((methods(0), 3)))
+        val c2 = contexts.expand(methods(2), c1, 4, k = 2)
+        c2.callString should be(List((methods(1), 4), (methods(0), 3)))
+        val c3 = contexts.expand(methods(3), c2, 5, k = 2)
+        c3.callString should be(List((methods(2), 5), (methods(1), 4)))
+        c3 should be theSameInstanceAs contexts(methods(3), List((methods(2), 5), (methods(1), 4)))
+        contexts.expand(methods(1), SimpleContext(methods(0)), 3, k = 2) should be theSameInstanceAs c1
+    }
+
+    it should "create each context exactly once if used concurrently" in {
+        val contexts = new CallStringContexts
+        val callStrings = for {
+            caller <- methods
+            pc <- 0 until 10
+        } yield List((caller, pc), (methods(0), 1))
+        val createdContexts = new java.util.concurrent.ConcurrentLinkedQueue[CallStringContext]()
+        parForeachSeqElement(callStrings ++ callStrings ++ callStrings, 8) { callString =>
+            createdContexts.add(contexts(methods(1), callString))
+        }
+        val distinctContexts = new java.util.IdentityHashMap[CallStringContext, AnyRef]()
+        createdContexts.forEach(c => distinctContexts.put(c, c))
+        distinctContexts.size should be(callStrings.size)
+        callStrings foreach { callString => contexts(methods(1), callString).callString should be(callString) }
+    }
+}
@@ -0,0 +1,108 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package fpcf
+package properties
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.bi.TestResources.locateTestResources
+import org.opalj.br.TestSupport.biProject
+import org.opalj.br.analyses.ClassFileHashes
+import org.opalj.br.fpcf.properties.immutability.ImmutabilitySnapshotCodecs
+import org.opalj.fpcf.PropertySnapshotCodec
+
+/**
+ * Tests the encoding of class types by the [[ImmutabilitySnapshotCodecs]].
+ */
+@RunWith(classOf[JUnitRunner])
+class ImmutabilitySnapshotCodecsTest extends AnyFlatSpec with Matchers {
+
+    val project = biProject("classhierarchy.jar")
+
+    val classFileHashes = ClassFileHashes(Seq(locateTestResources("classhierarchy.jar", "bi")))
+
+    /** A class of the project whose superclass belongs to the project, too, and which has no subtypes. */
+    val (subclass, superclass) = project.allClassFiles.iterator.collect {
+        case cf if cf.superclassType.exists(project.classFile(_).isDefined) &&
+                project.classHierarchy.directSubtypesOf(cf.thisType).isEmpty =>
+            (cf.thisType, cf.superclassType.get)
+    }.next()
+
+    def encode(codec: PropertySnapshotCodec[ClassType, ?], ct: ClassType): Array[Byte] = {
+        val data = new ByteArrayOutputStream()
+        val out = new DataOutputStream(data)
+        codec.writeEntity(ct, out)
+        out.flush()
+        data.toByteArray
+    }
+
+    def decode(codec: PropertySnapshotCodec[ClassType, ?], data: Array[Byte]): ClassType = {
+        codec.readEntity(new DataInputStream(new ByteArrayInputStream(data)))
+    }
+
+    def changedCodecs(ct: ClassType): ImmutabilitySnapshotCodecs = {
+        new ImmutabilitySnapshotCodecs(project, classFileHashes.updated(ct.fqn, Array[Byte](1, 2, 3)))
+    }
+
+    behavior of "the immutability snapshot codecs"
+
+    it should "read the class types they have written" in {
+        val codecs = new ImmutabilitySnapshotCodecs(project, classFileHashes)
+        project.allClassFiles.foreach { cf =>
+            codecs.all.foreach { codec =>
+                codec.canEncode(cf.thisType) should be(true)
+                decode(codec, encode(codec, cf.thisType)) should be(cf.thisType)
+            }
+        }
+    }
+
+    it should "not read class types whose class files are not part of the project" in {
+        val codecs = new ImmutabilitySnapshotCodecs(project, classFileHashes)
+        val data = encode(codecs.classImmutabilityCodec, subclass)
+        val otherProject = biProject("methods.jar")
+        val otherCodecs = new ImmutabilitySnapshotCodecs(otherProject, classFileHashes)
+        decode(otherCodecs.classImmutabilityCodec, data) should be(null)
+    }
+
+    it should "not read class types whose dependencies changed" in {
+        val codecs = new ImmutabilitySnapshotCodecs(project, classFileHashes)
+        val subclassData = encode(codecs.classImmutabilityCodec, subclass)
+        val superclassData = encode(codecs.classImmutabilityCodec, superclass)
+        val superTypeData = encode(codecs.typeImmutabilityCodec, superclass)
+
+        val superclassChanged = changedCodecs(superclass)
+        decode(superclassChanged.classImmutabilityCodec, subclassData) should be(null)
+        decode(superclassChanged.classImmutabilityCodec, superclassData) should be(null)
+
+        // the class immutability of a class does not depend on its subclasses, but its type immutability does
+        val subclassChanged = changedCodecs(subclass)
+        decode(subclassChanged.classImmutabilityCodec, subclassData) should be(null)
+        decode(subclassChanged.classImmutabilityCodec, superclassData) should be(superclass)
+        decode(subclassChanged.typeImmutabilityCodec, superTypeData) should be(null)
+    }
+
+    it should "not read class types whose non-private fields may be written by changed classes" in {
+        val fieldsProject = biProject("fields-g=none-5.jar")
+        val fieldsHashes = ClassFileHashes(Seq(locateTestResources("fields-g=none-5.jar", "bi")))
+        val codecs = new ImmutabilitySnapshotCodecs(fieldsProject, fieldsHashes)
+        // Sub has a public instance field; the fields of Super are private
+        val sub = ClassType("fields/Sub")
+        val superclass = ClassType("fields/Super")
+        val subData = encode(codecs.classImmutabilityCodec, sub)
+        val superclassData = encode(codecs.classImmutabilityCodec, superclass)
+
+        val userChanged =
+            new ImmutabilitySnapshotCodecs(fieldsProject, fieldsHashes.updated("fields/User", Array[Byte](1, 2, 3)))
+        decode(userChanged.classImmutabilityCodec, subData) should be(null)
+        decode(userChanged.classImmutabilityCodec, superclassData) should be(superclass)
+    }
+}
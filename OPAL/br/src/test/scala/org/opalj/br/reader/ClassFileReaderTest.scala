@@ -3,6 +3,11 @@ package org.opalj
 package br
 package reader
 
+import java.net.URL
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
+import scala.jdk.CollectionConverters.*
+
 import org.scalatest.flatspec.AnyFlatSpec
 import org.scalatest.matchers.should.Matchers
 
@@ -35,4 +40,51 @@ class ClassFileReaderTest extends AnyFlatSpec with Matchers {
         ClassFiles(emptyJARFile) should be(empty)
     }
 
+    it should "stream the same class files as are read by ClassFiles" in {
+        val jarFile = locateTestResources("classfiles/JarsInAJar.jar", "bi")
+        val streamedClassFiles = new ConcurrentLinkedQueue[String]
+        Java8Framework.streamClassFiles(
+            List(jarFile),
+            (cfSource: (ClassFile, URL)) => streamedClassFiles.add(cfSource._1.fqn),
+            consumersCount = 2,
+            queueCapacity = 1
+        )
+        streamedClassFiles.asScala.toList.sorted should be(ClassFiles(jarFile).map(_._1.fqn).sorted)
+    }
+
+    it should "report exceptions of the consumer and continue streaming" in {
+        val jarFile = locateTestResources("classfiles/JarsInAJar.jar", "bi")
+        val consumedClassFiles = new AtomicInteger(0)
+        val exceptions = new AtomicInteger(0)
+        Java8Framework.streamClassFiles(
+            List(jarFile),
+            (_: (ClassFile, URL)) => {
+                consumedClassFiles.incrementAndGet()
+                throw new UnknownError()
+            },
+            exceptionHandler = (_, _) => { exceptions.incrementAndGet(); () }
+        )
+        consumedClassFiles.get should be(ClassFiles(jarFile).size)
+        exceptions.get should be(consumedClassFiles.get)
+    }
+
+    it should "abort streaming if the exception handler fails" in {
+        val jarFile = locateTestResources("classfiles/JarsInAJar.jar", "bi")
+        val consumedClassFiles = new AtomicInteger(0)
+        val thrown = intercept[IllegalStateException] {
+            Java8Framework.streamClassFiles(
+                List(jarFile),
+                (_: (ClassFile, URL)) => {
+                    consumedClassFiles.incrementAndGet()
+                    throw new UnknownError()
+                },
+                consumersCount = 1,
+                queueCapacity = 1,
+                exceptionHandler = (_, _) => throw new IllegalStateException("handler failed")
+            )
+        }
+        thrown.getMessage should be("handler failed")
+        consumedClassFiles.get should be(1)
+    }
+
 }
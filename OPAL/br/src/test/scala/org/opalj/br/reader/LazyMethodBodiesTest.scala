@@ -0,0 +1,67 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package br
+package reader
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.bi.TestResources.locateTestResources
+import org.opalj.br.analyses.Project
+
+/**
+ * Tests that lazily decoded method bodies are equivalent to eagerly decoded ones.
+ */
+@RunWith(classOf[JUnitRunner])
+class LazyMethodBodiesTest extends AnyFlatSpec with Matchers {
+
+    object Java8FrameworkWithLazyMethodBodies extends Java8Framework with LazyMethodBodies {
+        override final def loadsInterfacesOnly: Boolean = false
+    }
+
+    val jarFile = locateTestResources("classhierarchy.jar", "bi")
+
+    def methodsWithBody(classFiles: Iterable[(ClassFile, java.net.URL)]): Map[String, Method] = {
+        classFiles.iterator.flatMap(_._1.methods).filter(_.body.isDefined).map(m => (m.toJava, m)).toMap
+    }
+
+    behavior of "lazily decoded method bodies"
+
+    it should "not be decoded when the class files are read" in {
+        val methods = methodsWithBody(Java8FrameworkWithLazyMethodBodies.ClassFiles(jarFile))
+        methods should not be empty
+        methods.values.forall(!_.body.get.isDecoded) should be(true)
+    }
+
+    it should "be equivalent to eagerly decoded method bodies" in {
+        val lazyMethods = methodsWithBody(Java8FrameworkWithLazyMethodBodies.ClassFiles(jarFile))
+        val eagerMethods = methodsWithBody(Java8Framework.ClassFiles(jarFile))
+        lazyMethods.keySet should be(eagerMethods.keySet)
+        lazyMethods foreach { case (name, lazyMethod) =>
+            val lazyCode = lazyMethod.body.get
+            val eagerCode = eagerMethods(name).body.get
+            lazyCode.codeSize should be(eagerCode.codeSize)
+            lazyCode.isDecoded should be(false)
+            if (!lazyCode.similar(eagerCode, CompareAllConfiguration)) {
+                fail(s"the lazily decoded body of $name differs from the eagerly decoded body")
+            }
+            lazyCode.isDecoded should be(true)
+        }
+    }
+
+    it should "be decoded and validated if they belong to the project but not to a library" in {
+        val classFiles = Java8FrameworkWithLazyMethodBodies.ClassFiles(jarFile).toSeq
+        val (projectClassFiles, libraryClassFiles) = classFiles.splitAt(classFiles.size / 2)
+        val project = Project(projectClassFiles, libraryClassFiles, libraryClassFilesAreInterfacesOnly = false)
+        val (projectMethods, libraryMethods) = project.allMethodsWithBody.partition { m =>
+            project.isProjectType(m.classFile.thisType)
+        }
+        projectMethods should not be empty
+        libraryMethods should not be empty
+        projectMethods.forall(_.body.get.isDecoded) should be(true)
+        libraryMethods.forall(!_.body.get.isDecoded) should be(true)
+    }
+
+}
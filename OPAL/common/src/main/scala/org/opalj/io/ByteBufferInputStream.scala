@@ -0,0 +1,49 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package io
+
+import java.io.InputStream
+import java.nio.ByteBuffer
+
+/**
+ * An `InputStream` that reads the remaining bytes of the given buffer; in particular, this
+ * enables reading (memory mapped) buffers using a `java.io.DataInputStream` without copying
+ * the buffer's content upfront.
+ *
+ * The stream is not thread-safe and changes the position of the given buffer; if the buffer
+ * is shared, pass a `duplicate` of it.
+ */
+final class ByteBufferInputStream(buffer: ByteBuffer) extends InputStream {
+
+    override def read(): Int = {
+        if (buffer.hasRemaining) buffer.get() & 0xFF else -1
+    }
+
+    override def read(b: Array[Byte], off: Int, len: Int): Int = {
+        if (len == 0) {
+            0
+        } else {
+            val remaining = buffer.remaining()
+            if (remaining == 0) {
+                -1
+            } else {
+                val count = Math.min(len, remaining)
+                buffer.get(b, off, count)
+                count
+            }
+        }
+    }
+
+    override def skip(n: Long): Long = {
+        if (n <= 0) {
+            0L
+        } else {
+            val count = Math.min(n, buffer.remaining().toLong).toInt
+            buffer.position(buffer.position() + count)
+            count.toLong
+        }
+    }
+
+    override def available(): Int = buffer.remaining()
+
+}
@@ -16,7 +16,9 @@ import org.opalj.fpcf.PropertyStoreKey
 import org.opalj.ide.problem.IDEFact
 import org.opalj.ide.problem.IDEProblem
 import org.opalj.ide.problem.IDEValue
+import org.opalj.ide.solver.EdgeFunctionCache
 import org.opalj.ide.solver.IDEAnalysis
+import org.opalj.ide.solver.IDESummaryStore
 
 /**
  * A base scheduler for IDE analyses adding common default behavior.
@@ -38,6 +40,24 @@ abstract class IDEAnalysisScheduler[
 
     def createICFG(project: SomeProject): ICFG
 
+    /**
+     * The number of threads the solver uses to process the work lists of a single run (see
+     * [[org.opalj.ide.solver.IDEAnalysis]]); only use more than one thread if the problem and the ICFG are thread safe.
+     */
+    def solverParallelismLevel(project: SomeProject): Int = 1
+
+    /**
+     * The number of slots of the solver's memo tables for composing and meeting edge functions (see
+     * [[org.opalj.ide.solver.EdgeFunctionCache]]); zero disables the memoization.
+     */
+    def solverEdgeFunctionMemoSize(project: SomeProject): Int = EdgeFunctionCache.DefaultMemoSize
+
+    /**
+     * The store the solver looks up persisted end summaries in and records end summaries in (see
+     * [[org.opalj.ide.solver.IDESummaryStore]]); none by default.
+     */
+    def summaryStore(project: SomeProject): Option[IDESummaryStore[Fact, Value, Statement, Callable]] = None
+
     override final def derivesLazily: Some[PropertyBounds] =
         Some(PropertyBounds.ub(propertyMetaInformation.backingPropertyMetaInformation))
 
@@ -55,7 +75,15 @@ abstract class IDEAnalysisScheduler[
     ): IDEAnalysis[Fact, Value, Statement, Callable] = {
         val icfg = createICFG(project)
         val problem = createProblem(project, icfg)
-        new IDEAnalysis(project, problem, icfg, propertyMetaInformation)
+        new IDEAnalysis(
+            project,
+            problem,
+            icfg,
+            propertyMetaInformation,
+            solverParallelismLevel(project),
+            solverEdgeFunctionMemoSize(project),
+            summaryStore(project)
+        )
     }
 
     override final def register(
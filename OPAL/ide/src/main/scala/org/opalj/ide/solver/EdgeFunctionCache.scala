@@ -0,0 +1,132 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package ide
+package solver
+
+import java.util.concurrent.ConcurrentHashMap
+
+import org.opalj.ide.problem.EdgeFunction
+import org.opalj.ide.problem.IDEValue
+
+/**
+ * Interns edge functions and memoizes the results of composing and meeting interned edge functions.
+ *
+ * Only edge functions that are products (i.e., instances of case classes and case objects) are interned, as only for
+ * those `==` is structural. Two edge functions are interned to the same instance if they have the same class and are
+ * equal (`==`). Hence, two interned edge functions of the same class are equal (in the sense of
+ * `EdgeFunction.equals`) if and only if they are the same instance, which requires that the structural equality of
+ * these edge functions is consistent with `EdgeFunction.equals`.
+ *
+ * The memo tables are direct-mapped: each table has `memoSize` (rounded up to a power of two) slots that are indexed
+ * by the identities of the arguments, and a new result replaces the result stored in its slot. As edge functions are
+ * immutable, the tables can be shared between threads without synchronization.
+ *
+ * The interned edge functions are retained as long as the cache is reachable; hence, the [[IDEAnalysis]] uses a new
+ * cache for each solver run.
+ *
+ * @param memoSize The number of slots of each of the memo tables for `compose` and `meet`. Results are not memoized
+ *                 if it is zero.
+ */
+class EdgeFunctionCache[Value <: IDEValue](val memoSize: Int) {
+
+    private final class InternKey(val edgeFunction: EdgeFunction[Value]) {
+        override def equals(other: Any): Boolean = other match {
+            case that: InternKey =>
+                (that.edgeFunction eq edgeFunction) ||
+                    (that.edgeFunction.getClass eq edgeFunction.getClass) && that.edgeFunction == edgeFunction
+            case _ => false
+        }
+
+        override def hashCode: Int = edgeFunction.hashCode
+    }
+
+    private final class MemoEntry(
+        val first:  EdgeFunction[Value],
+        val second: EdgeFunction[Value],
+        val result: EdgeFunction[Value]
+    )
+
+    private val internedEdgeFunctions = new ConcurrentHashMap[InternKey, EdgeFunction[Value]]
+
+    private val memoMask = if (memoSize > 0) Integer.highestOneBit(memoSize * 2 - 1) - 1 else -1
+    private val composeMemo = new Array[MemoEntry](memoMask + 1)
+    private val meetMemo = new Array[MemoEntry](memoMask + 1)
+
+    private def isInternable(edgeFunction: EdgeFunction[Value]): Boolean = edgeFunction.isInstanceOf[Product]
+
+    /**
+     * Get the interned instance of an edge function
+     */
+    def intern(edgeFunction: EdgeFunction[Value]): EdgeFunction[Value] = {
+        if (isInternable(edgeFunction)) {
+            val internedEdgeFunction = internedEdgeFunctions.putIfAbsent(new InternKey(edgeFunction), edgeFunction)
+            if (internedEdgeFunction eq null) edgeFunction else internedEdgeFunction
+        } else {
+            edgeFunction
+        }
+    }
+
+    /**
+     * Number of interned edge functions
+     */
+    def internedCount: Int = internedEdgeFunctions.size
+
+    /**
+     * Check two interned edge functions for equality. Edge functions of the same class are compared by reference.
+     */
+    def equal(edgeFunction1: EdgeFunction[Value], edgeFunction2: EdgeFunction[Value]): Boolean = {
+        (edgeFunction1 eq edgeFunction2) ||
+        !(isInternable(edgeFunction1) && (edgeFunction1.getClass eq edgeFunction2.getClass)) &&
+        edgeFunction1.equals(edgeFunction2)
+    }
+
+    /**
+     * Compose two edge functions (see [[EdgeFunction.composeWith]]) and intern the result
+     */
+    def compose(
+        firstEdgeFunction:  EdgeFunction[Value],
+        secondEdgeFunction: EdgeFunction[Value]
+    ): EdgeFunction[Value] = {
+        memoized(composeMemo, firstEdgeFunction, secondEdgeFunction) {
+            firstEdgeFunction.composeWith(secondEdgeFunction)
+        }
+    }
+
+    /**
+     * Meet two edge functions (see [[EdgeFunction.meet]]) and intern the result
+     */
+    def meet(edgeFunction: EdgeFunction[Value], otherEdgeFunction: EdgeFunction[Value]): EdgeFunction[Value] = {
+        memoized(meetMemo, edgeFunction, otherEdgeFunction) {
+            edgeFunction.meet(otherEdgeFunction)
+        }
+    }
+
+    private def memoized(
+        memo:   Array[MemoEntry],
+        first:  EdgeFunction[Value],
+        second: EdgeFunction[Value]
+    )(compute: => EdgeFunction[Value]): EdgeFunction[Value] = {
+        if (memoMask < 0) {
+            intern(compute)
+        } else {
+            val hash = System.identityHashCode(first) * 31 + System.identityHashCode(second)
+            val index = (hash ^ (hash >>> 16)) & memoMask
+            val entry = memo(index)
+            if ((entry ne null) && (entry.first eq first) && (entry.second eq second)) {
+                entry.result
+            } else {
+                val result = intern(compute)
+                memo(index) = new MemoEntry(first, second, result)
+                result
+            }
+        }
+    }
+}
+
+object EdgeFunctionCache {
+
+    /**
+     * The default number of slots of the memo tables
+     */
+    final val DefaultMemoSize = 1 << 14
+}
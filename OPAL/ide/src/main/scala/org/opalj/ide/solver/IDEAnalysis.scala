@@ -3,12 +3,22 @@ package org.opalj
 package ide
 package solver
 
+import java.util.ArrayDeque
+import java.util.Queue as JQueue
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import scala.collection.concurrent.Map as ConcurrentMap
+import scala.collection.concurrent.TrieMap
+import scala.collection.mutable.ArrayBuffer
 import scala.collection.mutable.Map as MutableMap
 import scala.collection.mutable.Queue as MutableQueue
 import scala.collection.mutable.Set as MutableSet
+import scala.jdk.CollectionConverters.*
 
 import org.opalj.br.analyses.SomeProject
 import org.opalj.br.fpcf.FPCFAnalysis
+import org.opalj.concurrent.parForeachArrayElement
+import org.opalj.concurrent.parForeachSeqElement
 import org.opalj.fpcf.Entity
 import org.opalj.fpcf.EOptionP
 import org.opalj.fpcf.EPS
@@ -54,14 +64,39 @@ import org.opalj.ide.problem.InterimEdgeFunction
  * `LinearConstantPropagationProblemExtended`. These are an extension of the basic linear constant propagation and
  * capable of detecting and tracking constants in fields. They also are an example for cyclic analysis interaction.
  *
+ * If the `parallelismLevel` is greater than one, the work lists of both phases ([[processPathWorkList]] and
+ * [[computeValues]]) are processed in rounds: the items of a round are partitioned by their statement and the
+ * partitions are processed in parallel, while the jump functions, summary functions and values are stored in
+ * concurrent maps and updated atomically. As the solver computes a fixed point, the final results do not depend on
+ * the processing order. In this case, the problem's flow and edge functions as well as the ICFG have to be thread
+ * safe.
+ *
+ * Edge functions provided by the problem as well as the results of composing and meeting edge functions are interned
+ * per solver run (see [[EdgeFunctionCache]]). Thus, the stored jump and summary functions are compared by reference
+ * and the results of composing and meeting them are memoized.
+ *
+ * If an [[IDESummaryStore]] is given, the solver looks up the persisted end summaries of a callable's start node before
+ * entering the callable through a call and, if there are any, uses them instead of analyzing the callable. The end
+ * summaries of all other callables entered through a call are recorded in the store once the first phase finished
+ * without outstanding dependees (i.e., once they are final).
+ *
+ * @param parallelismLevel The number of threads used to process the work lists of a single solver run.
+ * @param edgeFunctionMemoSize The number of slots of the memo tables for composing and meeting edge functions.
+ * @param summaryStore The store to look up persisted end summaries in and to record end summaries in.
+ *
  * @author Robin Körkemeier
  */
 class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Entity](
     val project:                 SomeProject,
     val problem:                 IDEProblem[Fact, Value, Statement, Callable],
     val icfg:                    ICFG[Statement, Callable],
-    val propertyMetaInformation: IDEPropertyMetaInformation[Fact, Value, Statement, Callable]
+    val propertyMetaInformation: IDEPropertyMetaInformation[Fact, Value, Statement, Callable],
+    val parallelismLevel:        Int = 1,
+    val edgeFunctionMemoSize:    Int = EdgeFunctionCache.DefaultMemoSize,
+    val summaryStore:            Option[IDESummaryStore[Fact, Value, Statement, Callable]] = None
 ) extends FPCFAnalysis {
+    private val isParallel = parallelismLevel > 1
+
     /**
      * Type of a node in the exploded supergraph, denoted by the corresponding statement and IDE fact
      */
@@ -74,7 +109,7 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
     /**
      * Type of the path worklist used in the first phase of the algorithm
      */
-    private type PathWorkList = MutableQueue[Path]
+    private type PathWorkList = JQueue[Path]
 
     /**
      * Type of a jump function
@@ -90,7 +125,7 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
     /**
      * Type of the node worklist used in the second phase of the algorithm
      */
-    private type NodeWorkList = MutableQueue[Node]
+    private type NodeWorkList = JQueue[Node]
 
     private type Values = MutableMap[Node, Value]
 
@@ -112,6 +147,68 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
             otherEdgeFunction eq this
     }
 
+    /**
+     * Creates a map which is concurrent if the solver runs in parallel
+     */
+    private def newMap[K, V]: MutableMap[K, V] = {
+        if (isParallel) TrieMap.empty else MutableMap.empty
+    }
+
+    /**
+     * Creates a set which is concurrent if the solver runs in parallel
+     */
+    private def newSet[T]: MutableSet[T] = {
+        if (isParallel) ConcurrentHashMap.newKeySet[T]().asScala else MutableSet.empty
+    }
+
+    /**
+     * Creates a work list which is concurrent if the solver runs in parallel
+     */
+    private def newWorkList[T]: JQueue[T] = {
+        if (isParallel) new ConcurrentLinkedQueue[T] else new ArrayDeque[T]
+    }
+
+    /**
+     * Replaces the value stored for a key (or the default value) with the updated value unless both are equal. The
+     * update is performed atomically if the map is a concurrent map; i.e., the update function may be called several
+     * times.
+     *
+     * @return the updated value and whether it differs from the previous value
+     */
+    private def updateValue[K, V](
+        map:     MutableMap[K, V],
+        key:     K,
+        default: V
+    )(update: V => V, isEqual: (V, V) => Boolean): (V, Boolean) = {
+        map match {
+            case concurrentMap: ConcurrentMap[K @unchecked, V @unchecked] =>
+                var result: (V, Boolean) = null
+                while (result eq null) {
+                    val oldValueOption = concurrentMap.get(key)
+                    val oldValue = oldValueOption.getOrElse(default)
+                    val newValue = update(oldValue)
+                    if (isEqual(newValue, oldValue)) {
+                        result = (newValue, false)
+                    } else if (
+                        if (oldValueOption.isEmpty) concurrentMap.putIfAbsent(key, newValue).isEmpty
+                        else concurrentMap.replace(key, oldValue, newValue)
+                    ) {
+                        result = (newValue, true)
+                    }
+                }
+                result
+            case _ =>
+                val oldValue = map.getOrElse(key, default)
+                val newValue = update(oldValue)
+                if (isEqual(newValue, oldValue)) {
+                    (newValue, false)
+                } else {
+                    map.put(key, newValue)
+                    (newValue, true)
+                }
+        }
+    }
+
     /**
      * Container class for simpler interaction and passing of the shared data
      */
@@ -121,10 +218,16 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
             IDETargetCallablesProperty[Callable]
         ]
     ) {
+        /**
+         * The interned edge functions and the memoized results of composing and meeting them. The cache belongs to
+         * the state of a solver run, so the interned edge functions can be garbage collected with the state.
+         */
+        val edgeFunctions = new EdgeFunctionCache[Value](edgeFunctionMemoSize)
+
         /**
          * Collection of callables to compute results for. Used to optimize solver computation.
          */
-        private val targetCallables = MutableSet.empty[Callable]
+        private val targetCallables = newSet[Callable]
 
         private var targetCallablesEOptionP: EOptionP[
             IDEPropertyMetaInformation[Fact, Value, Statement, Callable],
@@ -138,51 +241,57 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
          * value, e.g. a changed jump function. Especially used to reduce computation overhead in phase 2 and to reduce
          * amount of created results.
          */
-        private val callablesWithChanges = MutableSet.empty[Callable]
+        private val callablesWithChanges = newSet[Callable]
 
         /**
          * The work list for paths used in the first phase
          */
-        private val pathWorkList: PathWorkList = MutableQueue.empty
+        private val pathWorkList: PathWorkList = newWorkList
 
         /**
          * The jump functions (incrementally calculated) in the first phase
          */
-        private val jumpFunctions: JumpFunctions = MutableMap.empty
+        private val jumpFunctions: JumpFunctions = newMap
 
         /**
          * The summary functions (incrementally calculated) in the first phase
          */
-        private val summaryFunctions: SummaryFunctions = MutableMap.empty
+        private val summaryFunctions: SummaryFunctions = newMap
 
         /**
          * A map of visited end nodes with corresponding jump function for a given start node (needed for endSummaries
          * extension)
          */
-        private val endSummaries = MutableMap.empty[Node, MutableSet[(Node, JumpFunction)]]
+        private val endSummaries = newMap[Node, MutableSet[(Node, JumpFunction)]]
 
         /**
          * A map of call targets to visited call sources (basically a reverse call graph/caller graph; needed for
          * endSummaries extension)
          */
-        private val callTargetsToSources = MutableMap.empty[Node, MutableSet[Node]]
+        private val callTargetsToSources = newMap[Node, MutableSet[Node]]
+
+        /**
+         * The start nodes (with their callables) recorded in the summary store whose end summaries have to be recorded
+         * once they are final
+         */
+        private val recordedStartNodes = newSet[(Callable, Node)]
 
         /**
          * The work list for nodes used in the second phase
          */
-        private val nodeWorkList: NodeWorkList = MutableQueue.empty
+        private val nodeWorkList: NodeWorkList = newWorkList
 
         /**
          * A data structure storing all calculated (intermediate) values. Additionally grouped by callable for more
          * performant access.
          */
-        private val values: MutableMap[Callable, Values] = MutableMap.empty
+        private val values: MutableMap[Callable, Values] = newMap
 
         /**
          * A data structure mapping outstanding EPKs to the last processed property result as well as the continuations
          * to be executed when a new result is available (needed to integrate IDE into OPAL)
          */
-        private val dependees = MutableMap.empty[SomeEPK, (SomeEOptionP, MutableSet[() => Unit])]
+        private val dependees = newMap[SomeEPK, (SomeEOptionP, MutableSet[() => Unit])]
 
         /**
          * Get the callables the IDE analysis should compute results for
@@ -250,7 +359,20 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
          * Dequeue a path from the path work list
          */
         def dequeuePath(): Path = {
-            pathWorkList.dequeue()
+            pathWorkList.remove()
+        }
+
+        /**
+         * Dequeue all (distinct) paths from the path work list
+         */
+        def dequeueAllPaths(): scala.collection.Set[Path] = {
+            val paths = MutableSet.empty[Path]
+            var path = pathWorkList.poll()
+            while (path != null) {
+                paths.add(path)
+                path = pathWorkList.poll()
+            }
+            paths
         }
 
         /**
@@ -261,14 +383,19 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
         }
 
         /**
-         * Store a jump function for a path. Existing jump functions for the path are overwritten (meeting, ... needs to
-         * be done before calling this method).
+         * Meet a jump function with the stored jump function for a path (see [[getJumpFunction]]) and store the
+         * result.
+         *
+         * @return whether the stored jump function changed
          */
-        def setJumpFunction(path: Path, jumpFunction: JumpFunction): Unit = {
+        def meetJumpFunction(path: Path, jumpFunction: JumpFunction): Boolean = {
             val ((source, sourceFact), (target, targetFact)) = path
-            jumpFunctions
-                .getOrElseUpdate((source, target), { MutableMap.empty })
-                .put((sourceFact, targetFact), jumpFunction)
+            val (_, changed) = updateValue(
+                jumpFunctions.getOrElseUpdate((source, target), { newMap }),
+                (sourceFact, targetFact),
+                allTopEdgeFunction
+            )(edgeFunctions.meet(jumpFunction, _), edgeFunctions.equal)
+            changed
         }
 
         /**
@@ -310,14 +437,6 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
             }
         }
 
-        /**
-         * Store a summary function for a path. Existing summary functions for the path are overwritten (meeting, ...
-         * needs to be done before calling this method).
-         */
-        def setSummaryFunction(path: Path, summaryFunction: SummaryFunction): Unit = {
-            summaryFunctions.put(path, summaryFunction)
-        }
-
         /**
          * Get the summary function for a path. Returns the [[allTopEdgeFunction]] if no summary function can be found
          * for the path.
@@ -326,12 +445,25 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
             summaryFunctions.getOrElse(path, allTopEdgeFunction) // else part handles IDE lines 3 - 4
         }
 
+        /**
+         * Meet a summary function with the stored summary function for a path (see [[getSummaryFunction]]) and store
+         * the result.
+         *
+         * @return the resulting summary function and whether it differs from the previously stored one
+         */
+        def meetSummaryFunction(path: Path, summaryFunction: SummaryFunction): (SummaryFunction, Boolean) = {
+            updateValue(summaryFunctions, path, allTopEdgeFunction)(
+                edgeFunctions.meet(summaryFunction, _),
+                edgeFunctions.equal
+            )
+        }
+
         /**
          * Add a jump function as end summary for a given path (starting and ending in the same callable)
          */
         def addEndSummary(path: Path, jumpFunction: JumpFunction): Unit = {
             val (start, end) = path
-            val set = endSummaries.getOrElseUpdate(start, MutableSet.empty)
+            val set = endSummaries.getOrElseUpdate(start, newSet)
             set.add((end, jumpFunction))
         }
 
@@ -342,6 +474,21 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
             endSummaries.getOrElse(start, Set.empty)
         }
 
+        /**
+         * Get the end summaries for a given start node with a single (the current) jump function per end node
+         */
+        def getCurrentEndSummaries(start: Node): scala.collection.Set[(Node, JumpFunction)] = {
+            getEndSummaries(start).map { case (end, _) => (end, getJumpFunction((start, end))) }
+        }
+
+        def addRecordedStartNode(callable: Callable, start: Node): Unit = {
+            recordedStartNodes.add((callable, start))
+        }
+
+        def getRecordedStartNodes: scala.collection.Set[(Callable, Node)] = {
+            recordedStartNodes
+        }
+
         /**
          * Remember a visited call edge (which is an edge from a call-site node to a start node). This adds the
          * call-site node as possible caller of the start node.
@@ -349,7 +496,7 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
         def rememberCallEdge(path: Path): Unit = {
             val (source, target) = path
 
-            val set = callTargetsToSources.getOrElseUpdate(target, MutableSet.empty)
+            val set = callTargetsToSources.getOrElseUpdate(target, newSet)
             set.add(source)
         }
 
@@ -371,7 +518,20 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
          * Dequeue a node from the node work list
          */
         def dequeueNode(): Node = {
-            nodeWorkList.dequeue()
+            nodeWorkList.remove()
+        }
+
+        /**
+         * Dequeue all (distinct) nodes from the node work list
+         */
+        def dequeueAllNodes(): scala.collection.Set[Node] = {
+            val nodes = MutableSet.empty[Node]
+            var node = nodeWorkList.poll()
+            while (node != null) {
+                nodes.add(node)
+                node = nodeWorkList.poll()
+            }
+            nodes
         }
 
         /**
@@ -402,7 +562,21 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
          * method).
          */
         def setValue(node: Node, newValue: Value, callable: Callable): Unit = {
-            values.getOrElseUpdate(callable, { MutableMap.empty }).put(node, newValue)
+            values.getOrElseUpdate(callable, { newMap }).put(node, newValue)
+        }
+
+        /**
+         * Meet a value with the stored value for a node (see [[getValue]]) and store the result.
+         *
+         * @return whether the stored value changed
+         */
+        def meetValue(node: Node, value: Value, callable: Callable): Boolean = {
+            val (_, changed) = updateValue(
+                values.getOrElseUpdate(callable, { newMap }),
+                node,
+                problem.lattice.top
+            )(problem.lattice.meet(value, _), _ == _)
+            changed
         }
 
         /**
@@ -457,7 +631,8 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
         def addDependee(eOptionP: SomeEOptionP, c: () => Unit): Unit = {
             // The eOptionP is only inserted the first time the corresponding EPK occurs. Consequently, it is the most
             // precise property result that is seen by all dependents.
-            val (_, set) = dependees.getOrElseUpdate(eOptionP.toEPK, (eOptionP, MutableSet.empty))
+            // (getOrElseUpdate is atomic if the solver runs in parallel)
+            val (_, set) = dependees.getOrElseUpdate(eOptionP.toEPK, (eOptionP, newSet))
             set.add(c)
         }
 
@@ -510,7 +685,7 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
             propertyStore(propertyMetaInformation, propertyMetaInformation.targetCallablesPropertyMetaInformation.key)
         implicit val state: State = new State(targetCallablesEOptionP)
 
-        performPhase1()
+        if (performPhase1()) recordEndSummaries()
         performPhase2()
 
         createResult()
@@ -537,6 +712,18 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
         !s.hasDependees
     }
 
+    /**
+     * Record the end summaries of the start nodes recorded in the summary store. Must only be called after the first
+     * phase finished without outstanding dependees; only then, the end summaries are final.
+     */
+    private def recordEndSummaries()(implicit s: State): Unit = {
+        summaryStore.foreach { store =>
+            s.getRecordedStartNodes.foreach { case (callable, start) =>
+                store.record(callable, start, s.getCurrentEndSummaries(start))
+            }
+        }
+    }
+
     /**
      * Perform the second phase of the algorithm. This phase computes the result values.
      */
@@ -631,7 +818,7 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
         seedPhase1()
 
         // Re-seeding can have enqueued paths to the path worklist
-        continuePhase1()
+        if (continuePhase1()) recordEndSummaries()
         continuePhase2()
 
         createResult()
@@ -653,7 +840,7 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
         cs.foreach(c => c())
 
         // The continuations can have enqueued paths to the path work list
-        continuePhase1()
+        if (continuePhase1()) recordEndSummaries()
         continuePhase2()
 
         createResult()
@@ -665,11 +852,7 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
      */
     private def seedPhase1()(implicit s: State): Unit = {
         def propagateSeed(e: Path, callable: Callable, f: EdgeFunction[Value]): Unit = {
-            val oldJumpFunction = s.getJumpFunction(e)
-            val fPrime = f.meet(oldJumpFunction)
-
-            if (!fPrime.equals(oldJumpFunction)) {
-                s.setJumpFunction(e, fPrime)
+            if (s.meetJumpFunction(e, f)) {
                 s.enqueuePath(e)
                 s.rememberCallableWithChanges(callable)
             }
@@ -707,21 +890,46 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
      * Process the path work list. This is the main loop of the first phase of the algorithm.
      */
     private def processPathWorkList()(implicit s: State): Unit = {
-        while (!s.isPathWorkListEmpty) { // IDE P1 line 7
-            val path = s.dequeuePath() // IDE P1 line 8
-            val ((_, _), (n, _)) = path
-            val f = s.getJumpFunction(path) // IDE P1 line 9
-
-            if (icfg.isCallStatement(n)) { // IDE P1 line 11
-                processCallFlow(path, f, icfg.getCallees(n))
-            } else if (icfg.isNormalExitStatement(n)) { // IDE P1 line 19
-                processExitFlow(path, f)
-            } else { // IDE P1 line 30
-                processNormalFlow(path, f)
+        if (isParallel) {
+            while (!s.isPathWorkListEmpty) {
+                processPartitioned(s.dequeueAllPaths(), (path: Path) => path._2._1) { path => processPath(path) }
             }
+        } else {
+            while (!s.isPathWorkListEmpty) { // IDE P1 line 7
+                processPath(s.dequeuePath()) // IDE P1 line 8
+            }
+        }
+    }
+
+    /**
+     * Process a path from the path work list
+     */
+    private def processPath(path: Path)(implicit s: State): Unit = {
+        val ((_, _), (n, _)) = path
+        val f = s.getJumpFunction(path) // IDE P1 line 9
+
+        if (icfg.isCallStatement(n)) { // IDE P1 line 11
+            processCallFlow(path, f, icfg.getCallees(n))
+        } else if (icfg.isNormalExitStatement(n)) { // IDE P1 line 19
+            processExitFlow(path, f)
+        } else { // IDE P1 line 30
+            processNormalFlow(path, f)
         }
     }
 
+    /**
+     * Process the given work list items in parallel. The items are partitioned by their statement, i.e., all items of
+     * a statement are processed by the same thread.
+     */
+    private def processPartitioned[T](
+        items:     scala.collection.Set[T],
+        statement: T => Statement
+    )(process: T => Unit): Unit = {
+        val partitions = Array.fill(parallelismLevel)(ArrayBuffer.empty[T])
+        items.foreach { item => partitions(Math.floorMod(statement(item).hashCode(), parallelismLevel)) += item }
+        parForeachArrayElement(partitions, parallelismLevel) { partition => partition.foreach(process) }
+    }
+
     /**
      * Process a call flow found in the first phase of the algorithm
      *
@@ -746,14 +954,9 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
                     val summaryFunction =
                         handleEdgeFunctionResult(problem.getPrecomputedSummaryFunction(n, d2, r, d5), path)
                     val callToReturnPath = ((n, d2), (r, d5))
-                    val oldSummaryFunction = s.getSummaryFunction(callToReturnPath)
-                    val fPrime = summaryFunction.meet(oldSummaryFunction)
+                    val (fPrime, _) = s.meetSummaryFunction(callToReturnPath, summaryFunction)
 
-                    if (!fPrime.equals(oldSummaryFunction)) {
-                        s.setSummaryFunction(callToReturnPath, fPrime)
-                    }
-
-                    propagate(((sp, d1), (r, d5)), f.composeWith(fPrime))
+                    propagate(((sp, d1), (r, d5)), s.edgeFunctions.compose(f, fPrime))
                 }
             }
         } else {
@@ -768,14 +971,9 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
                             val summaryFunction =
                                 handleEdgeFunctionResult(problem.getPrecomputedSummaryFunction(n, d2, q, r, d5), path)
                             val callToReturnPath = ((n, d2), (r, d5))
-                            val oldSummaryFunction = s.getSummaryFunction(callToReturnPath)
-                            val fPrime = summaryFunction.meet(oldSummaryFunction)
-
-                            if (!fPrime.equals(oldSummaryFunction)) {
-                                s.setSummaryFunction(callToReturnPath, fPrime)
-                            }
+                            val (fPrime, _) = s.meetSummaryFunction(callToReturnPath, summaryFunction)
 
-                            propagate(((sp, d1), (r, d5)), f.composeWith(fPrime))
+                            propagate(((sp, d1), (r, d5)), s.edgeFunctions.compose(f, fPrime))
                         }
                     }
                 } else {
@@ -787,7 +985,8 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
                         d3s.foreach { d3 =>
                             s.rememberCallEdge(((n, d2), (sq, d3)))
 
-                            val endSummaries = s.getEndSummaries((sq, d3))
+                            val persistedEndSummaries = summaryStore.flatMap(_.lookup(q, (sq, d3)))
+                            val endSummaries = persistedEndSummaries.getOrElse(s.getEndSummaries((sq, d3)))
                             // Handling for end summaries extension
                             if (endSummaries.nonEmpty) {
                                 endSummaries.foreach { case ((eq, d4), fEndSummary) =>
@@ -806,20 +1005,21 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
                                                 path
                                             )
                                             val callToReturnPath = ((n, d2), (r, d5))
-                                            val oldSummaryFunction = s.getSummaryFunction(callToReturnPath)
-                                            val fPrime =
-                                                f4.composeWith(fEndSummary).composeWith(f5).meet(oldSummaryFunction)
-
-                                            if (!fPrime.equals(oldSummaryFunction)) {
-                                                s.setSummaryFunction(callToReturnPath, fPrime)
-                                            }
+                                            val (fPrime, _) = s.meetSummaryFunction(
+                                                callToReturnPath,
+                                                s.edgeFunctions.compose(s.edgeFunctions.compose(f4, fEndSummary), f5)
+                                            )
 
-                                            propagate(((sp, d1), (r, d5)), f.composeWith(fPrime))
+                                            propagate(((sp, d1), (r, d5)), s.edgeFunctions.compose(f, fPrime))
                                         }
                                     }
                                 }
-                            } else {
+                            } else if (persistedEndSummaries.isEmpty) {
                                 // Default algorithm behavior
+                                if (summaryStore.isDefined) {
+                                    summaryStore.get.recordStart(q, (sq, d3))
+                                    s.addRecordedStartNode(q, (sq, d3))
+                                }
                                 propagate(((sq, d3), (sq, d3)), IdentityEdgeFunction)
                             }
                         }
@@ -834,10 +1034,10 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
                     d3s.foreach { d3 =>
                         propagate(
                             ((sp, d1), (r, d3)),
-                            f.composeWith(handleEdgeFunctionResult(
-                                problem.getCallToReturnEdgeFunction(n, d2, q, r, d3),
-                                path
-                            ))
+                            s.edgeFunctions.compose(
+                                f,
+                                handleEdgeFunctionResult(problem.getCallToReturnEdgeFunction(n, d2, q, r, d3), path)
+                            )
                         )
                     }
 
@@ -845,7 +1045,7 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
                     d3s.foreach { d3 =>
                         val f3 = s.getSummaryFunction(((n, d2), (r, d3)))
                         if (!f3.equals(allTopEdgeFunction)) {
-                            propagate(((sp, d1), (r, d3)), f.composeWith(f3))
+                            propagate(((sp, d1), (r, d3)), s.edgeFunctions.compose(f, f3))
                         }
                     }
                 }
@@ -882,20 +1082,20 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
 
                         // IDE P1 line 24
                         val callToReturnPath = ((c, d4), (r, d5))
-                        val oldSummaryFunction = s.getSummaryFunction(callToReturnPath)
-                        val fPrime = f4.composeWith(f).composeWith(f5).meet(oldSummaryFunction)
+                        val (fPrime, changed) = s.meetSummaryFunction(
+                            callToReturnPath,
+                            s.edgeFunctions.compose(s.edgeFunctions.compose(f4, f), f5)
+                        )
 
                         // IDE P1 lines 25 - 29
-                        if (!fPrime.equals(oldSummaryFunction)) {
-                            s.setSummaryFunction(callToReturnPath, fPrime)
-
+                        if (changed) {
                             val sqs = icfg.getStartStatements(icfg.getCallable(c))
                             sqs.foreach { sq =>
                                 val jumpFunctionsMatchingTarget =
                                     s.lookupJumpFunctions(source = sq, target = c, targetFactOption = Some(d4))
                                 jumpFunctionsMatchingTarget.foreach {
                                     case ((d3, _), f3) if !f3.equals(allTopEdgeFunction) =>
-                                        propagate(((sq, d3), (r, d5)), f3.composeWith(fPrime))
+                                        propagate(((sq, d3), (r, d5)), s.edgeFunctions.compose(f3, fPrime))
                                     case _ =>
                                 }
                             }
@@ -921,7 +1121,10 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
             d3s.foreach { d3 =>
                 propagate(
                     ((sp, d1), (m, d3)),
-                    f.composeWith(handleEdgeFunctionResult(problem.getNormalEdgeFunction(n, d2, m, d3), path))
+                    s.edgeFunctions.compose(
+                        f,
+                        handleEdgeFunctionResult(problem.getNormalEdgeFunction(n, d2, m, d3), path)
+                    )
                 )
             }
         }
@@ -936,11 +1139,7 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
      */
     private def propagate(e: Path, f: EdgeFunction[Value])(implicit s: State): Unit = {
         // IDE P1 lines 34 - 37
-        val oldJumpFunction = s.getJumpFunction(e)
-        val fPrime = f.meet(oldJumpFunction)
-
-        if (!fPrime.equals(oldJumpFunction)) {
-            s.setJumpFunction(e, fPrime)
+        if (s.meetJumpFunction(e, f)) {
             s.enqueuePath(e)
             s.rememberCallableWithChanges(icfg.getCallable(e._2._1))
         }
@@ -1001,7 +1200,7 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
     )(implicit s: State): EdgeFunction[Value] = {
         edgeFunctionResult match {
             case FinalEdgeFunction(edgeFunction) =>
-                edgeFunction
+                s.edgeFunctions.intern(edgeFunction)
             case InterimEdgeFunction(intermediateEdgeFunction, dependees) =>
                 dependees.foreach { dependee =>
                     s.addDependee(
@@ -1009,7 +1208,7 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
                         continuation
                     )
                 }
-                intermediateEdgeFunction
+                s.edgeFunctions.intern(intermediateEdgeFunction)
         }
     }
 
@@ -1036,15 +1235,13 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
      */
     private def computeValues()(implicit s: State): Unit = {
         // IDE P2 part (i)
-        while (!s.isNodeWorkListEmpty) { // IDE P2 line 4
-            val node = s.dequeueNode() // IDE P2 line 5
-
-            val (n, _) = node
-
-            if (icfg.isCallStatement(n)) { // IDE P2 line 11
-                processCallNode(node, icfg.getCallees(n))
-            } else { // IDE P2 line 7
-                processStartNode(node)
+        if (isParallel) {
+            while (!s.isNodeWorkListEmpty) {
+                processPartitioned(s.dequeueAllNodes(), (node: Node) => node._1) { node => processNode(node) }
+            }
+        } else {
+            while (!s.isNodeWorkListEmpty) { // IDE P2 line 4
+                processNode(s.dequeueNode()) // IDE P2 line 5
             }
         }
 
@@ -1052,26 +1249,49 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
         // IDE P2 lines 15 - 17
         // Reduced to the callables whose values could have changed
         val ps = s.getCallablesWithChanges.intersect(s.getTargetCallables)
-        ps.foreach { p =>
-            val sps = icfg.getStartStatements(p)
-            val ns = collectReachableStmts(sps, stmt => !icfg.isCallStatement(stmt))
-
-            // IDE P2 line 16 - 17
-            ns.foreach { n =>
-                sps.foreach { sp =>
-                    val jumpFunctionsMatchingTarget = s.lookupJumpFunctions(source = sp, target = n)
-                    jumpFunctionsMatchingTarget.foreach {
-                        case ((dPrime, d), fPrime) if !fPrime.equals(allTopEdgeFunction) =>
-                            val nSharp = (n, d)
-                            val vPrime = problem.lattice.meet(
-                                s.getValue(nSharp, p),
-                                fPrime.compute(s.getValue((sp, dPrime), p))
-                            )
+        // The values of each callable are only accessed by the thread processing the callable
+        if (isParallel) {
+            parForeachSeqElement(ps.toIndexedSeq, parallelismLevel) { p => computeCallableValues(p) }
+        } else {
+            ps.foreach { p => computeCallableValues(p) }
+        }
+    }
 
-                            s.setValue(nSharp, vPrime, p)
+    /**
+     * Process a node from the node work list
+     */
+    private def processNode(node: Node)(implicit s: State): Unit = {
+        val (n, _) = node
 
-                        case _ =>
-                    }
+        if (icfg.isCallStatement(n)) { // IDE P2 line 11
+            processCallNode(node, icfg.getCallees(n))
+        } else { // IDE P2 line 7
+            processStartNode(node)
+        }
+    }
+
+    /**
+     * Computes the values for every statement (that is no call statement) of a callable
+     */
+    private def computeCallableValues(p: Callable)(implicit s: State): Unit = {
+        val sps = icfg.getStartStatements(p)
+        val ns = collectReachableStmts(sps, stmt => !icfg.isCallStatement(stmt))
+
+        // IDE P2 line 16 - 17
+        ns.foreach { n =>
+            sps.foreach { sp =>
+                val jumpFunctionsMatchingTarget = s.lookupJumpFunctions(source = sp, target = n)
+                jumpFunctionsMatchingTarget.foreach {
+                    case ((dPrime, d), fPrime) if !fPrime.equals(allTopEdgeFunction) =>
+                        val nSharp = (n, d)
+                        val vPrime = problem.lattice.meet(
+                            s.getValue(nSharp, p),
+                            fPrime.compute(s.getValue((sp, dPrime), p))
+                        )
+
+                        s.setValue(nSharp, vPrime, p)
+
+                    case _ =>
                 }
             }
         }
@@ -1190,11 +1410,7 @@ class IDEAnalysis[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Ent
         val callable = icfg.getCallable(nSharp._1)
 
         // IDE P2 lines 18 - 21
-        val oldValue = s.getValue(nSharp, callable)
-        val vPrime = problem.lattice.meet(v, oldValue)
-
-        if (vPrime != oldValue) {
-            s.setValue(nSharp, vPrime, callable)
+        if (s.meetValue(nSharp, v, callable)) {
             s.enqueueNode(nSharp)
             s.rememberCallableWithChanges(callable)
         }
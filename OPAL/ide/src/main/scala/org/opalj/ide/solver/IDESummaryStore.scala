@@ -0,0 +1,333 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package ide
+package solver
+
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInput
+import java.io.DataInputStream
+import java.io.DataOutput
+import java.io.DataOutputStream
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+import scala.collection.concurrent.TrieMap
+import scala.util.Using
+
+import org.opalj.fpcf.Entity
+import org.opalj.ide.problem.EdgeFunction
+import org.opalj.ide.problem.IDEFact
+import org.opalj.ide.problem.IDEValue
+import org.opalj.log.LogContext
+import org.opalj.log.OPALLogger
+
+/**
+ * Encodes the summaries of the callables of an IDE problem for an [[IDESummaryStore]].
+ *
+ * Statements and facts are encoded relative to their callable; the encoding has to be independent of the current run.
+ */
+trait IDESummaryCodec[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Entity] {
+
+    /**
+     * The name of the IDE problem; summaries persisted for a problem with a different name are ignored
+     */
+    def problemName: String
+
+    /**
+     * The key identifying a callable and its code across runs, e.g., a hash of the callable's bytecode. Summaries are
+     * only persisted and reused for callables with a key.
+     */
+    def callableKey(callable: Callable): Option[String]
+
+    /**
+     * Whether the summaries of a callable computed in the current run can be persisted and whether persisted summaries
+     * of the callable can be used in the current run. The summaries of a callable also contain the effects of its
+     * (transitive) callees; hence, they can only be reused in other runs if the callable's callees are the same in
+     * these runs.
+     */
+    def isPersistable(callable: Callable): Boolean
+
+    def writeStatement(statement: Statement, out: DataOutput): Unit
+
+    /**
+     * Reads a statement of the given callable; returns `null` if the statement is not available in the current run.
+     */
+    def readStatement(callable: Callable, in: DataInput): Statement
+
+    def writeFact(fact: Fact, out: DataOutput): Unit
+
+    def readFact(callable: Callable, in: DataInput): Fact
+
+    def writeEdgeFunction(edgeFunction: EdgeFunction[Value], out: DataOutput): Unit
+
+    def readEdgeFunction(in: DataInput): EdgeFunction[Value]
+}
+
+/**
+ * Stores the end summaries of callables (the jump functions from the start nodes to the end nodes of a callable, see
+ * [[IDEAnalysis]]) and persists them across runs. This way, the callables of a library that are called by different
+ * applications do not have to be analyzed again for each application.
+ *
+ * An [[IDEAnalysis]] using the store records all start nodes of callables it enters through a call and, before
+ * entering a callable, looks up the summaries of the callable's start node. The end summaries of a recorded start node
+ * are recorded once they are final, i.e., once the solver no longer depends on other (non-final) properties; start
+ * nodes without final end summaries are not persisted. Summaries are only looked up in the persisted summaries (see
+ * [[read]]); the summaries recorded in the current run are only persisted by [[write]], which should be called after
+ * the analysis is finished.
+ *
+ * A store file is identified by a ''fingerprint'' of the analyzed code (e.g., of the library, see
+ * `org.opalj.br.analyses.ClassFileHashes`) and the summaries of a callable are identified by the callable's key (see
+ * [[IDESummaryCodec.callableKey]]). The (gzip compressed) format is:
+ * {{{
+ * SummaryStore {
+ *     int         magic
+ *     int         version
+ *     UTF         problem_name
+ *     int         fingerprint_length
+ *     byte[]      fingerprint
+ *     int         callables_count
+ *     Callable[]  callables
+ * }
+ * Callable {
+ *     UTF         callable_key
+ *     int         data_length
+ *     byte[]      data // encoded using the codec
+ * }
+ * Data {
+ *     int         start_nodes_count
+ *     {
+ *         Statement   start_statement
+ *         Fact        start_fact
+ *         int         end_summaries_count
+ *         {
+ *             Statement       end_statement
+ *             Fact            end_fact
+ *             EdgeFunction    jump_function
+ *         }[end_summaries_count]
+ *     }[start_nodes_count]
+ * }
+ * }}}
+ * Persisted summaries of callables for which no final summaries are recorded in the current run are written back
+ * unchanged.
+ *
+ * @note Persisted summaries are only sound if the callables have the same callees in the current run as in the run
+ *       the summaries were computed in; hence, persisted summaries are only used for callables that are persistable
+ *       in the current run, too (see [[IDESummaryCodec.isPersistable]]).
+ */
+class IDESummaryStore[Fact <: IDEFact, Value <: IDEValue, Statement, Callable <: Entity](
+    val codec: IDESummaryCodec[Fact, Value, Statement, Callable]
+) {
+    private type Node = (Statement, Fact)
+    private type EndSummaries = scala.collection.Set[(Node, EdgeFunction[Value])]
+
+    private val callableKeys = TrieMap.empty[Callable, Option[String]]
+
+    /**
+     * The persisted summaries in their encoded form by callable key
+     */
+    private val persistedSummaries = TrieMap.empty[String, Array[Byte]]
+
+    /**
+     * The decoded persisted summaries; `None` if the summaries are not available in the current run
+     */
+    private val decodedSummaries = TrieMap.empty[Callable, Option[Map[Node, EndSummaries]]]
+
+    /**
+     * The summaries recorded in the current run; `None` for start nodes whose end summaries are not final (yet)
+     */
+    private val recordedSummaries = TrieMap.empty[Callable, TrieMap[Node, Option[EndSummaries]]]
+
+    private def callableKey(callable: Callable): Option[String] = {
+        callableKeys.getOrElseUpdate(callable, codec.callableKey(callable))
+    }
+
+    /**
+     * Look up the persisted end summaries for a start node of a callable. Persisted summaries are only used if the
+     * callable is persistable in the current run (see [[IDESummaryCodec.isPersistable]]); e.g., if it does not call
+     * any methods of the analyzed application, whose effects are not reflected by the summaries.
+     *
+     * @return the end summaries (which may be empty); `None` if no (usable) summaries are persisted for the start node
+     */
+    def lookup(callable: Callable, start: Node): Option[EndSummaries] = {
+        if (persistedSummaries.isEmpty) {
+            None
+        } else {
+            decodedSummaries.getOrElseUpdate(
+                callable,
+                callableKey(callable)
+                    .flatMap(persistedSummaries.get)
+                    .filter(_ => codec.isPersistable(callable))
+                    .flatMap(decode(callable, _))
+            ).flatMap(_.get(start))
+        }
+    }
+
+    /**
+     * Record that a callable was entered through its start node
+     */
+    def recordStart(callable: Callable, start: Node): Unit = {
+        if (callableKey(callable).isDefined) {
+            recordedSummaries.getOrElseUpdate(callable, TrieMap.empty).putIfAbsent(start, None)
+        }
+    }
+
+    /**
+     * Record the final end summaries (one jump function per end node) of a start node which was recorded using
+     * [[recordStart]]; replaces the end summaries recorded before for the start node.
+     */
+    def record(callable: Callable, start: Node, endSummaries: EndSummaries): Unit = {
+        recordedSummaries.get(callable).foreach(_.replace(start, Some(endSummaries)))
+    }
+
+    private def decode(callable: Callable, data: Array[Byte]): Option[Map[Node, EndSummaries]] = {
+        val in = new DataInputStream(new ByteArrayInputStream(data))
+        def readNode(): Node = {
+            val statement = codec.readStatement(callable, in)
+            val fact = codec.readFact(callable, in)
+            if (statement == null || fact == null) null else (statement, fact)
+        }
+
+        var available = true
+        val summaries = Map.newBuilder[Node, EndSummaries]
+        val startNodesCount = in.readInt()
+        var i = 0
+        while (i < startNodesCount) {
+            val start = readNode()
+            val endSummariesCount = in.readInt()
+            val endSummaries = Set.newBuilder[(Node, EdgeFunction[Value])]
+            var j = 0
+            while (j < endSummariesCount) {
+                val end = readNode()
+                val jumpFunction = codec.readEdgeFunction(in)
+                if (end == null) available = false
+                else endSummaries += ((end, jumpFunction))
+                j += 1
+            }
+            if (start == null) available = false
+            else summaries += ((start, endSummaries.result()))
+            i += 1
+        }
+        if (available) Some(summaries.result()) else None
+    }
+
+    private def encode(summaries: scala.collection.Map[Node, EndSummaries]): Array[Byte] = {
+        val data = new ByteArrayOutputStream()
+        val out = new DataOutputStream(data)
+        def writeNode(node: Node): Unit = {
+            codec.writeStatement(node._1, out)
+            codec.writeFact(node._2, out)
+        }
+
+        out.writeInt(summaries.size)
+        summaries.foreach { case (start, endSummaries) =>
+            writeNode(start)
+            out.writeInt(endSummaries.size)
+            endSummaries.foreach { case (end, jumpFunction) =>
+                writeNode(end)
+                codec.writeEdgeFunction(jumpFunction, out)
+            }
+        }
+        out.flush()
+        data.toByteArray
+    }
+
+    /**
+     * Writes the recorded final summaries of all persistable callables (see [[IDESummaryCodec.isPersistable]]) and the
+     * persisted summaries of all other callables to the given file.
+     *
+     * @return The number of written callables.
+     */
+    def write(file: Path, fingerprint: Array[Byte])(implicit logContext: LogContext): Int = {
+        val callables = TrieMap.empty[String, Array[Byte]] ++= persistedSummaries
+        recordedSummaries.foreach { case (callable, summaries) =>
+            val finalSummaries = summaries.readOnlySnapshot().collect {
+                case (start, Some(endSummaries)) => (start, endSummaries)
+            }
+            if (finalSummaries.nonEmpty && codec.isPersistable(callable))
+                callables.put(callableKey(callable).get, encode(finalSummaries))
+        }
+
+        Using.resource(
+            new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file))))
+        ) { out =>
+            out.writeInt(IDESummaryStore.Magic)
+            out.writeInt(IDESummaryStore.Version)
+            out.writeUTF(codec.problemName)
+            out.writeInt(fingerprint.length)
+            out.write(fingerprint)
+            out.writeInt(callables.size)
+            callables.foreach { case (key, data) =>
+                out.writeUTF(key)
+                out.writeInt(data.length)
+                out.write(data)
+            }
+        }
+        OPALLogger.info(IDESummaryStore.LogCategory, s"wrote the summaries of ${callables.size} callables to $file")
+        callables.size
+    }
+
+    /**
+     * Reads the summaries from the given file if the file exists and if the fingerprint and the problem name match.
+     * Reading the summaries should be done before the analysis starts.
+     *
+     * @return The number of read callables.
+     */
+    def read(file: Path, fingerprint: Array[Byte])(implicit logContext: LogContext): Int = {
+        if (!Files.exists(file)) {
+            OPALLogger.info(IDESummaryStore.LogCategory, s"no summaries available: $file")
+            return 0;
+        }
+
+        Using.resource(
+            new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))
+        ) { in => read(file, in, fingerprint) }
+    }
+
+    private def read(
+        file:        Path,
+        in:          DataInputStream,
+        fingerprint: Array[Byte]
+    )(
+        implicit logContext: LogContext
+    ): Int = {
+        if (in.readInt() != IDESummaryStore.Magic || in.readInt() != IDESummaryStore.Version) {
+            OPALLogger.warn(IDESummaryStore.LogCategory, s"ignoring summaries with unsupported format: $file")
+            return 0;
+        }
+        if (in.readUTF() != codec.problemName) {
+            OPALLogger.warn(IDESummaryStore.LogCategory, s"ignoring summaries of a different problem: $file")
+            return 0;
+        }
+        val storeFingerprint = new Array[Byte](in.readInt())
+        in.readFully(storeFingerprint)
+        if (!java.util.Arrays.equals(storeFingerprint, fingerprint)) {
+            OPALLogger.info(IDESummaryStore.LogCategory, s"ignoring outdated summaries: $file")
+            return 0;
+        }
+
+        val callablesCount = in.readInt()
+        var i = 0
+        while (i < callablesCount) {
+            val key = in.readUTF()
+            val data = new Array[Byte](in.readInt())
+            in.readFully(data)
+            persistedSummaries.put(key, data)
+            i += 1
+        }
+        decodedSummaries.clear()
+        OPALLogger.info(IDESummaryStore.LogCategory, s"read the summaries of $callablesCount callables from $file")
+        callablesCount
+    }
+}
+
+object IDESummaryStore {
+
+    final val Magic = 0x4F494453 // "OIDS"
+    final val Version = 1
+
+    final val LogCategory = "IDE summaries"
+}
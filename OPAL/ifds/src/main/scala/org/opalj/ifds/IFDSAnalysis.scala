@@ -2,6 +2,7 @@
 package org.opalj
 package ifds
 
+import java.util.BitSet
 import scala.collection.Set as SomeSet
 import scala.collection.mutable
 
@@ -111,15 +112,59 @@ object Dependees {
  * An entry of (statement, fact) means an edge (s0, source fact) -> (statement, fact) exists,
  * that is the fact reaches the statement as an input.
  * Source fact is the fact within the analysis entity.
+ *
+ * The statements and the facts are numbered consecutively when they are added for the first time
+ * (see [[statementId]] and [[factId]]) and the facts reaching a statement are stored as a bit set
+ * of fact ids. Hence, adding an edge for a known statement and fact does not allocate any objects
+ * unless facts are subsumed.
+ *
+ * @param subsumeFacts Whether new facts may be subsumed by existing ones; only then `subsumes`
+ *                     is called. The set of facts passed to `subsumes` is maintained alongside
+ *                     the bit set and is not rebuilt for each added edge.
  */
-case class PathEdges[Fact <: AbstractIFDSFact, S, C <: AnyRef](
-    subsumes: (Set[Fact], Fact) => Boolean
+class PathEdges[Fact <: AbstractIFDSFact, S, C <: AnyRef](
+    subsumes:     (Set[Fact], Fact) => Boolean,
+    subsumeFacts: Boolean
 ) {
+    import PathEdges.Facts
+
+    private val factIds = mutable.HashMap.empty[Fact, Int]
+    private val facts = mutable.ArrayBuffer.empty[Fact]
+    private val statementIds = mutable.HashMap.empty[S, Int]
+    private val statements = mutable.ArrayBuffer.empty[Some[S]]
+
     /**
-     * Left denotes a single relevant predecessor
-     * Right denotes several relevant predecessors
+     * For each statement, the facts reaching it (a `Facts`) if the statement does not mind about
+     * predecessors, or the facts per predecessor id (a `LongMap[Facts]`), or `null` if no fact
+     * reaches the statement.
      */
-    var edges = Map.empty[S, Either[Set[Fact], Map[S, Set[Fact]]]]
+    private val edges = mutable.ArrayBuffer.empty[AnyRef]
+
+    def factId(fact: Fact): Int = {
+        factIds.getOrElseUpdate(
+            fact, {
+                facts += fact
+                facts.size - 1
+            }
+        )
+    }
+
+    def fact(factId: Int): Fact = facts(factId)
+
+    def statementId(statement: S): Int = {
+        statementIds.getOrElseUpdate(
+            statement, {
+                statements += Some(statement)
+                edges += null
+                statements.size - 1
+            }
+        )
+    }
+
+    def statement(statementId: Int): S = statements(statementId).value
+
+    /** The statement with the given id wrapped in an `Option`; the option is not newly created. */
+    def someStatement(statementId: Int): Some[S] = statements(statementId)
 
     /**
      * Add the edge (s0, source fact) -> (statement, fact) to the path edges.
@@ -130,76 +175,172 @@ case class PathEdges[Fact <: AbstractIFDSFact, S, C <: AnyRef](
      * @return whether the edge was new
      */
     def add(statement: S, fact: Fact, predecessor: Option[S] = None): Boolean = {
-        edges.get(statement) match {
-            case None =>
-                predecessor match {
-                    case Some(predecessor) =>
-                        edges = edges.updated(statement, Right(Map(predecessor -> Set(fact))))
-                    case None =>
-                        edges = edges.updated(statement, Left(Set(fact)))
+        add(statementId(statement), factId(fact), if (predecessor.isDefined) statementId(predecessor.get) else -1)
+    }
+
+    /**
+     * Add the edge (s0, source fact) -> (statement, fact) to the path edges.
+     * @param predecessorId the id of the predecessor of the statement or -1.
+     * @return whether the edge was new
+     */
+    def add(statementId: Int, factId: Int, predecessorId: Int): Boolean = {
+        edges(statementId) match {
+            case null =>
+                val newFacts = new Facts[Fact]
+                addIfNew(newFacts, factId)
+                if (predecessorId == -1) {
+                    edges(statementId) = newFacts
+                } else {
+                    val predecessorFacts = mutable.LongMap.empty[Facts[Fact]]
+                    predecessorFacts.update(predecessorId, newFacts)
+                    edges(statementId) = predecessorFacts
                 }
                 true
-            case Some(Left(existingFacts)) =>
-                if (predecessor.isDefined)
-                    throw new IllegalArgumentException(s"$statement does not accept a predecessor")
-                if (isNew(existingFacts, fact)) {
-                    edges = edges.updated(statement, Left(existingFacts + fact))
+            case existingFacts: Facts[Fact @unchecked] =>
+                if (predecessorId != -1)
+                    throw new IllegalArgumentException(s"${statement(statementId)} does not accept a predecessor")
+                addIfNew(existingFacts, factId)
+            case existingFacts: mutable.LongMap[Facts[Fact] @unchecked] =>
+                if (predecessorId == -1)
+                    throw new IllegalArgumentException(s"${statement(statementId)} requires a predecessor")
+                val existingPredecessorFacts = existingFacts.getOrNull(predecessorId)
+                if (existingPredecessorFacts eq null) {
+                    val newFacts = new Facts[Fact]
+                    addIfNew(newFacts, factId)
+                    existingFacts.update(predecessorId, newFacts)
                     true
-                } else false
-            case Some(Right(existingFacts)) =>
-                predecessor match {
-                    case None              => throw new IllegalArgumentException(s"$statement requires a predecessor")
-                    case Some(predecessor) =>
-                        existingFacts.get(statement) match {
-                            case Some(existingPredecessorFacts) =>
-                                if (isNew(existingPredecessorFacts, fact)) {
-                                    edges = edges.updated(
-                                        statement,
-                                        Right(existingFacts.updated(predecessor, existingPredecessorFacts + fact))
-                                    )
-                                    true
-                                } else false
-                            case None =>
-                                edges =
-                                    edges.updated(statement, Right(existingFacts.updated(predecessor, Set(fact))))
-                                true
-                        }
+                } else {
+                    addIfNew(existingPredecessorFacts, factId)
                 }
         }
     }
 
-    private def isNew(existingFacts: Set[Fact], newFact: Fact): Boolean = {
-        !existingFacts.contains(newFact) && !subsumes(existingFacts, newFact)
+    private def addIfNew(existingFacts: Facts[Fact], factId: Int): Boolean = {
+        val ids = existingFacts.ids
+        if (ids.get(factId)) {
+            false
+        } else if (subsumeFacts) {
+            val fact = facts(factId)
+            if (!ids.isEmpty && subsumes(existingFacts.asSet, fact)) {
+                false
+            } else {
+                ids.set(factId)
+                existingFacts.asSet += fact
+                true
+            }
+        } else {
+            ids.set(factId)
+            true
+        }
+    }
+
+    private def toFacts(existingFacts: Facts[Fact]): Set[Fact] = {
+        if (subsumeFacts)
+            return existingFacts.asSet;
+
+        val factIds = existingFacts.ids
+        val builder = Set.newBuilder[Fact]
+        var factId = factIds.nextSetBit(0)
+        while (factId >= 0) {
+            builder += facts(factId)
+            factId = factIds.nextSetBit(factId + 1)
+        }
+        builder.result()
     }
 
     /**
      * @return The edges reaching statement if any. In case the statement minds about predecessors it is a map with an
      *         entry for each predecessor
      */
-    def get(statement: S): Option[Either[Set[Fact], Map[S, Set[Fact]]]] = edges.get(statement)
+    def get(statement: S): Option[Either[Set[Fact], Map[S, Set[Fact]]]] = {
+        statementIds.get(statement).flatMap(edgesOf)
+    }
+
+    private def edgesOf(statementId: Int): Option[Either[Set[Fact], Map[S, Set[Fact]]]] = {
+        edges(statementId) match {
+            case null                                 => None
+            case existingFacts: Facts[Fact @unchecked] => Some(Left(toFacts(existingFacts)))
+            case existingFacts: mutable.LongMap[Facts[Fact] @unchecked] =>
+                Some(Right(existingFacts.iterator.map {
+                    case (predecessorId, predecessorFacts) =>
+                        (statement(predecessorId.toInt), toFacts(predecessorFacts))
+                }.toMap))
+        }
+    }
 
     def debugData: Map[S, Set[Fact]] =
-        edges.foldLeft(Map.empty[S, Set[Fact]])((result, elem) => {
-            val facts: Set[Fact] = elem._2 match {
-                case Right(facts) => facts.foldLeft(Set.empty[Fact])(_ ++ _._2)
-                case Left(facts)  => facts
+        statements.indices.foldLeft(Map.empty[S, Set[Fact]])((result, statementId) => {
+            edgesOf(statementId) match {
+                case None               => result
+                case Some(Left(facts))  => result.updated(statement(statementId), facts)
+                case Some(Right(facts)) =>
+                    result.updated(statement(statementId), facts.foldLeft(Set.empty[Fact])(_ ++ _._2))
             }
-            result.updated(elem._1, result.getOrElse(elem._1, Set.empty) ++ facts)
         })
 }
 
+object PathEdges {
+
+    /**
+     * The facts reaching a statement (from a specific predecessor). The set of facts is only
+     * maintained if facts are subsumed.
+     */
+    private final class Facts[Fact] {
+        val ids = new BitSet
+        var asSet: Set[Fact] = Set.empty
+    }
+}
+
+/**
+ * A FIFO queue of work list items which are encoded as triples of ints: the id of the statement
+ * (or -1), the id of the fact and the id of the predecessor (or -1); the ids are those of the
+ * [[PathEdges]] of the respective state.
+ */
+private[ifds] final class Worklist {
+    private var data = new Array[Int](48)
+    private var head = 0
+    private var tail = 0
+
+    def isEmpty: Boolean = head == tail
+    def nonEmpty: Boolean = head != tail
+
+    def statementId: Int = data(head)
+    def factId: Int = data(head + 1)
+    def predecessorId: Int = data(head + 2)
+
+    /** Removes the first item; it has to be read before using the above accessors. */
+    def dequeue(): Unit = head += 3
+
+    def enqueue(statementId: Int, factId: Int, predecessorId: Int): Unit = {
+        if (tail + 3 > data.length) {
+            val size = tail - head
+            val newData = if (size * 2 > data.length) new Array[Int](data.length * 2) else data
+            System.arraycopy(data, head, newData, 0, size)
+            data = newData
+            head = 0
+            tail = size
+        }
+        data(tail) = statementId
+        data(tail + 1) = factId
+        data(tail + 2) = predecessorId
+        tail += 3
+    }
+}
+
 /**
  * The state of the analysis. For each method and source fact, there is a separate state.
  *
  * @param source The callable and input fact for which the callable is analyzed.
  * @param subsumes The subsuming function, return whether a new fact is subsumed by the existing ones
+ * @param subsumeFacts Whether to use the subsuming function at all
  */
 protected class IFDSState[Fact <: AbstractIFDSFact, C <: AnyRef, S, WorklistItem](
-    val source: (C, IFDSFact[Fact, C, S]),
-    subsumes:   (Set[Fact], Fact) => Boolean
+    val source:   (C, IFDSFact[Fact, C, S]),
+    subsumes:     (Set[Fact], Fact) => Boolean,
+    subsumeFacts: Boolean
 ) {
     val dependees: Dependees[WorklistItem] = Dependees()
-    val pathEdges: PathEdges[Fact, S, C] = PathEdges(subsumes)
+    val pathEdges: PathEdges[Fact, S, C] = new PathEdges(subsumes, subsumeFacts)
     var endSummaries: Set[(S, Fact)] = Set.empty
     var selfDependees: Set[WorklistItem] = Set.empty
 }
@@ -236,7 +377,6 @@ class IFDSAnalysis[Fact <: AbstractIFDSFact, C <: AnyRef, S, ICFG <: ide.solver.
     val propertyKey: IFDSPropertyMetaInformation[S, Fact]
 ) extends FPCFAnalysis {
     private type WorklistItem = (Option[S], IFDSFact[Fact, C, S], Option[S]) // statement, fact, predecessor
-    private type Worklist = mutable.Queue[WorklistItem]
     type State = IFDSState[Fact, C, S, WorklistItem]
 
     implicit var statistics: Statistics = Statistics()
@@ -254,9 +394,9 @@ class IFDSAnalysis[Fact <: AbstractIFDSFact, C <: AnyRef, S, ICFG <: ide.solver.
         val (function, sourceFact) = entity
 
         // Start processing at the start of the icfg with the given source fact
-        implicit val state: State = new IFDSState[Fact, C, S, WorklistItem](entity, subsumes)
-        implicit val queue: Worklist = mutable.Queue
-            .empty[WorklistItem]
+        implicit val state: State =
+            new IFDSState[Fact, C, S, WorklistItem](entity, subsumes, ifdsProblem.subsumeFacts)
+        implicit val worklist: Worklist = new Worklist
 
         // if method is analyzed for unbalanced return fact, start with next statements after call statement
         val startStatements: Set[(Option[S], Option[S])] = if (sourceFact.isUnbalancedReturn) {
@@ -269,7 +409,7 @@ class IFDSAnalysis[Fact <: AbstractIFDSFact, C <: AnyRef, S, ICFG <: ide.solver.
 
         startStatements.foreach(start => {
             if (start._1.isDefined) state.pathEdges.add(start._1.get, sourceFact.fact) // ifds line 2
-            queue.enqueue((start._1, sourceFact, start._2)) // ifds line 3
+            enqueue((start._1, sourceFact, start._2)) // ifds line 3
         })
         process()
         createResult()
@@ -325,29 +465,65 @@ class IFDSAnalysis[Fact <: AbstractIFDSFact, C <: AnyRef, S, ICFG <: ide.solver.
     private def propertyUpdate(
         eps: SomeEPS
     )(implicit state: State): ProperPropertyComputationResult = {
-        implicit val queue: mutable.Queue[WorklistItem] = mutable.Queue()
-        state.dependees.takeWork(eps.toEPK).foreach(queue.enqueue)
+        implicit val worklist: Worklist = new Worklist
+        state.dependees.takeWork(eps.toEPK).foreach(enqueue)
         process()
         createResult()
     }
 
+    /**
+     * The fact id of work list items whose fact is the source fact of the analyzed entity; all
+     * other items' facts are plain (i.e., not unbalanced return) facts.
+     */
+    private final val SourceFactId = -1
+
+    private def enqueue(item: WorklistItem)(implicit state: State, worklist: Worklist): Unit = {
+        val (statement, in, predecessor) = item
+        val pathEdges = state.pathEdges
+        worklist.enqueue(
+            if (statement.isDefined) pathEdges.statementId(statement.get) else -1,
+            if (in eq state.source._2) SourceFactId else pathEdges.factId(in.fact),
+            if (predecessor.isDefined) pathEdges.statementId(predecessor.get) else -1
+        )
+    }
+
+    private def worklistItem(statementId: Int, factId: Int, predecessorId: Int)(implicit state: State): WorklistItem = {
+        val pathEdges = state.pathEdges
+        (
+            if (statementId == -1) None else pathEdges.someStatement(statementId),
+            if (factId == SourceFactId) state.source._2 else new IFDSFact(pathEdges.fact(factId)),
+            if (predecessorId == -1) None else pathEdges.someStatement(predecessorId)
+        )
+    }
+
     /**
      * Analyzes a queue of BasicBlocks.
      *
      * @param worklist the current worklist that needs to be processed
      */
     private def process()(implicit state: State, worklist: Worklist): Unit = {
+        val pathEdges = state.pathEdges
         while (worklist.nonEmpty) { // ifds line 10
-            implicit val work: (Option[S], IFDSFact[Fact, C, S], Option[S]) = worklist.dequeue() // ifds line 11
-            val (statement, in, predecessor) = work
-            statement match {
-                case Some(stmt) if icfg.isCallStatement(stmt) =>
-                    handleCall(stmt, icfg.getCallees(stmt), in.fact) // ifds line 13
-                case Some(stmt) =>
-                    handleOther(stmt, in.fact, predecessor) // ifds line 33
-                case None if icfg.isExitStatement(predecessor.get) =>
-                    handleExit(predecessor.get, in.fact) // ifds line 21
-                case _ => // last statement was no exit statement, should not happen
+            val statementId = worklist.statementId // ifds line 11
+            val factId = worklist.factId
+            val predecessorId = worklist.predecessorId
+            worklist.dequeue()
+            val in = if (factId == SourceFactId) state.source._2.fact else pathEdges.fact(factId)
+            if (statementId != -1) {
+                val stmt = pathEdges.statement(statementId)
+                if (icfg.isCallStatement(stmt)) {
+                    implicit val work: WorklistItem = worklistItem(statementId, factId, predecessorId)
+                    handleCall(stmt, icfg.getCallees(stmt), in) // ifds line 13
+                } else {
+                    val predecessor = if (predecessorId == -1) None else pathEdges.someStatement(predecessorId)
+                    handleOther(stmt, in, predecessor) // ifds line 33
+                }
+            } else {
+                val predecessor = pathEdges.statement(predecessorId)
+                if (icfg.isExitStatement(predecessor)) {
+                    implicit val work: WorklistItem = worklistItem(statementId, factId, predecessorId)
+                    handleExit(predecessor, in) // ifds line 21
+                } // else: last statement was no exit statement, should not happen
             }
         }
     }
@@ -465,7 +641,7 @@ class IFDSAnalysis[Fact <: AbstractIFDSFact, C <: AnyRef, S, ICFG <: ide.solver.
         for (newEdge <- newEdges) {
             if (!state.endSummaries.contains(newEdge)) {
                 state.endSummaries += ((statement, in)) // ifds line 21.1
-                state.selfDependees.foreach(selfDependee => worklist.enqueue(selfDependee))
+                state.selfDependees.foreach(selfDependee => enqueue(selfDependee))
 
                 if (ifdsProblem.enableUnbalancedReturns &&
                     ifdsProblem.shouldPerformUnbalancedReturn(state.source)
@@ -483,14 +659,15 @@ class IFDSAnalysis[Fact <: AbstractIFDSFact, C <: AnyRef, S, ICFG <: ide.solver.
         state:    State,
         worklist: Worklist
     ): Unit = {
-        val successors = icfg.getNextStatements(statement)
-        for (out <- normalFlow(statement, in, predecessor)) { // ifds line 34
+        val outs = normalFlow(statement, in, predecessor) // ifds line 34
+        if (outs.nonEmpty) {
+            val successors = icfg.getNextStatements(statement)
             if (successors.isEmpty) {
                 // exit reached
-                propagate(None, out, statement) // ifds line 35
+                for (out <- outs) propagate(None, out, statement) // ifds line 35
             } else {
-                for (successor <- successors) {
-                    propagate(Some(successor), out, statement) // ifds line 35
+                for (successor <- successors.iterator.map(Some(_))) {
+                    for (out <- outs) propagate(successor, out, statement) // ifds line 35
                 }
             }
         }
@@ -535,15 +712,18 @@ class IFDSAnalysis[Fact <: AbstractIFDSFact, C <: AnyRef, S, ICFG <: ide.solver.
         state:    State,
         worklist: Worklist
     ): Unit = {
-        val predecessorOption =
-            if (successor.isDefined && ifdsProblem.needsPredecessor(successor.get)) Some(predecessor)
-            else None
-
-        // ifds line 9
-        if (successor.isEmpty // last statement was reached, must be processed to trigger handleExit
-            || state.pathEdges.add(successor.get, out, predecessorOption)
-        ) {
-            worklist.enqueue((successor, new IFDSFact(out), Some(predecessor)))
+        val pathEdges = state.pathEdges
+        val factId = pathEdges.factId(out)
+        val predecessorId = pathEdges.statementId(predecessor)
+        if (successor.isEmpty) {
+            // last statement was reached, must be processed to trigger handleExit
+            worklist.enqueue(-1, factId, predecessorId)
+        } else {
+            val successorId = pathEdges.statementId(successor.get)
+            val edgePredecessorId = if (ifdsProblem.needsPredecessor(successor.get)) predecessorId else -1
+            if (pathEdges.add(successorId, factId, edgePredecessorId)) { // ifds line 9
+                worklist.enqueue(successorId, factId, predecessorId)
+            }
         }
     }
 
@@ -0,0 +1,130 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package ifds
+
+import java.io.DataInput
+import java.io.DataOutput
+
+import org.opalj.fpcf.Entity
+import org.opalj.fpcf.PropertyKey
+import org.opalj.fpcf.PropertySnapshotCodec
+
+/**
+ * Encodes the summaries computed by an [[IFDSAnalysis]], i.e., the final [[IFDSProperty]]s of the entities
+ * `(callable, entry fact)`, for a [[org.opalj.fpcf.PropertySnapshot]]. Summaries which are loaded from a snapshot are
+ * used by the analysis instead of analyzing the callable for the entry fact again.
+ *
+ * Only the summaries of callables for which [[isPersistable]] holds and of entry facts that are not created by
+ * unbalanced returns are encoded. A callable has to be encoded together with a key that identifies its code (e.g., a
+ * hash of its bytecode) and it must not be read (i.e., [[readCallable]] has to return `null`) if its code changed.
+ * The statements and facts of a property are read relative to the callable of the property's entity (see
+ * `readProperty(e, in)`).
+ */
+abstract class IFDSPropertySnapshotCodec[Fact <: AbstractIFDSFact, C <: AnyRef, S](
+    val propertyMetaInformation: IFDSPropertyMetaInformation[S, Fact]
+) extends PropertySnapshotCodec[(C, IFDSFact[Fact, C, S]), IFDSProperty[S, Fact]] {
+
+    override def pk: PropertyKey[IFDSProperty[S, Fact]] =
+        propertyMetaInformation.key.asInstanceOf[PropertyKey[IFDSProperty[S, Fact]]]
+
+    /**
+     * Whether the summaries of the given callable can be persisted. The summaries of a callable also contain the
+     * effects of its (transitive) callees; hence, they can only be reused in other runs if the callable's callees are
+     * the same in these runs.
+     */
+    def isPersistable(callable: C): Boolean
+
+    def writeCallable(callable: C, out: DataOutput): Unit
+
+    /**
+     * Reads a callable; returns `null` if the callable is not available in the current run or if its code changed.
+     */
+    def readCallable(in: DataInput): C
+
+    def writeFact(fact: Fact, out: DataOutput): Unit
+
+    /**
+     * Reads a fact of the given callable; the callable may be `null`, in which case the encoded fact has to be read
+     * nevertheless. Returns `null` if the fact is not available in the current run (e.g., if it refers to a method
+     * that does not exist).
+     */
+    def readFact(callable: C, in: DataInput): Fact
+
+    def writeStatement(statement: S, out: DataOutput): Unit
+
+    /**
+     * Reads a statement of the given callable; the callable may be `null`, in which case the encoded statement has to
+     * be read nevertheless and `null` is returned.
+     */
+    def readStatement(callable: C, in: DataInput): S
+
+    override def canEncode(e: Entity): Boolean = e match {
+        case (callable, fact: IFDSFact[?, ?, ?]) =>
+            !fact.isUnbalancedReturn && fact.callStmt.isEmpty && isPersistable(callable.asInstanceOf[C])
+        case _ =>
+            false
+    }
+
+    override def writeEntity(e: (C, IFDSFact[Fact, C, S]), out: DataOutput): Unit = {
+        val (callable, fact) = e
+        writeCallable(callable, out)
+        writeFact(fact.fact, out)
+    }
+
+    /**
+     * Reads an entity; returns `null` if its callable or its entry fact is not available in the current run or if the
+     * callable is not persistable in the current run (see [[isPersistable]]). In the latter case, the summaries may
+     * lack the effects of callees that are part of the analyzed application; hence, the callable's [[isPersistable]]
+     * has to be computable (e.g., the call graph has to be computed) before a snapshot is read.
+     */
+    override def readEntity(in: DataInput): (C, IFDSFact[Fact, C, S]) = {
+        val callable = readCallable(in)
+        val fact = readFact(callable, in)
+        if (callable == null || fact == null || !isPersistable(callable)) null
+        else (callable, new IFDSFact[Fact, C, S](fact))
+    }
+
+    override def writeProperty(p: IFDSProperty[S, Fact], out: DataOutput): Unit = {
+        out.writeInt(p.flows.size)
+        p.flows.foreach { case (statement, facts) =>
+            writeStatement(statement, out)
+            out.writeInt(facts.size)
+            facts.foreach(writeFact(_, out))
+        }
+    }
+
+    /**
+     * Reads a property without an entity; as the statements cannot be resolved without the entity's callable, the
+     * property is not available and `null` is returned.
+     */
+    override def readProperty(in: DataInput): IFDSProperty[S, Fact] = readProperty(null, in)
+
+    /**
+     * Reads the property of the given entity; the entity may be `null`, in which case the encoded property has to be
+     * read nevertheless. Returns `null` if the entity is `null` or if a statement or a fact of the property is not
+     * available in the current run.
+     */
+    override def readProperty(e: (C, IFDSFact[Fact, C, S]), in: DataInput): IFDSProperty[S, Fact] = {
+        val callable = if (e == null) null.asInstanceOf[C] else e._1
+        var available = e != null
+        val flows = Map.newBuilder[S, Set[Fact]]
+        val flowsCount = in.readInt()
+        var i = 0
+        while (i < flowsCount) {
+            val statement = readStatement(callable, in)
+            val facts = Set.newBuilder[Fact]
+            val factsCount = in.readInt()
+            var j = 0
+            while (j < factsCount) {
+                val fact = readFact(callable, in)
+                if (fact == null) available = false
+                else facts += fact
+                j += 1
+            }
+            if (statement == null) available = false
+            else flows += ((statement, facts.result()))
+            i += 1
+        }
+        if (available) propertyMetaInformation.create(flows.result()) else null
+    }
+}
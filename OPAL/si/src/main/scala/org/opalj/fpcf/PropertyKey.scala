@@ -41,6 +41,12 @@ object PropertyKey {
         new Array[(PropertyStore, FallbackReason, Entity) => Property](SupportedPropertyKinds)
     }
 
+    /*
+     * Functions that map the entities of a property kind to unique, stable and dense ids;
+     * `null` if no such function was registered for the respective property kind.
+     */
+    private val entityIds = new Array[Entity => Int](SupportedPropertyKinds)
+
     private val lastKeyId = new AtomicInteger(-1)
 
     private def nextKeyId(): Int = {
@@ -99,6 +105,26 @@ object PropertyKey {
         pk
     }
 
+    /**
+     * Creates a new [[PropertyKey]] object for properties of entities that have unique, stable
+     * and dense ids, such as [[org.opalj.br.DeclaredMethod]]s. Property stores may use the ids
+     * to store the properties in arrays instead of hash maps.
+     *
+     * @param entityId Returns the non-negative id of the given entity or `-1` if the entity does
+     *              not have an id. The ids have to be unique and stable across the lifetime of
+     *              the property store and should be dense; ids of entities of different property
+     *              kinds may overlap.
+     */
+    def create[E <: Entity, P <: Property](
+        name:                        String,
+        fallbackPropertyComputation: FallbackPropertyComputation[E, P],
+        entityId:                    Entity => Int
+    ): PropertyKey[P] = {
+        val pk = create[E, P](name, fallbackPropertyComputation)
+        entityIds(pk.id) = entityId
+        pk
+    }
+
     def create[E <: Entity, P <: Property](name: String): PropertyKey[P] = {
         create(name, fallbackPropertyComputation = null)
     }
@@ -127,6 +153,12 @@ object PropertyKey {
 
     final def name(eOptionP: SomeEOptionP): String = name(eOptionP.pk.id)
 
+    /**
+     * Returns the function that maps the entities of the given property kind to their ids or
+     * `null` if the entities of the given kind have no (registered) ids.
+     */
+    def entityId(pkId: Int): Entity => Int = entityIds(pkId)
+
     final def hasFallback(propertyKind: PropertyKind): Boolean = {
         hasFallbackBasedOnPKId(propertyKind.id)
     }
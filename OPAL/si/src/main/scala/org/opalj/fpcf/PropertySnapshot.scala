@@ -0,0 +1,249 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package fpcf
+
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInput
+import java.io.DataInputStream
+import java.io.DataOutput
+import java.io.DataOutputStream
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+import scala.collection.mutable.ArrayBuffer
+import scala.util.Using
+
+import org.opalj.log.LogContext
+import org.opalj.log.OPALLogger
+
+/**
+ * Encodes the entities and the properties of one property kind for a [[PropertySnapshot]].
+ *
+ * The encoding of the entities has to be independent of the current run; e.g., entities
+ * should be encoded using their names and not using their (run-specific) ids.
+ */
+trait PropertySnapshotCodec[E <: Entity, P <: Property] {
+
+    def pk: PropertyKey[P]
+
+    /** Returns `true` if the given entity can be encoded by this codec. */
+    def canEncode(e: Entity): Boolean
+
+    def writeEntity(e: E, out: DataOutput): Unit
+
+    /**
+     * Reads an entity; returns `null` if the entity is not available in the current run, e.g.,
+     * because the respective class file is no longer part of the project.
+     */
+    def readEntity(in: DataInput): E
+
+    def writeProperty(p: P, out: DataOutput): Unit
+
+    /**
+     * Reads a property; returns `null` if the property is not available in the current run, in
+     * which case the property is not stored for the entity.
+     */
+    def readProperty(in: DataInput): P
+
+    /**
+     * Reads the property of the given entity, which was read before using [[readEntity]] and
+     * which is `null` if it is not available in the current run. Codecs whose encoding of a
+     * property depends on the entity override this method; by default, the entity is ignored.
+     */
+    def readProperty(e: E, in: DataInput): P = readProperty(in)
+}
+
+/**
+ * Writes the final properties of selected property kinds to a file and reads them back in a
+ * later run. This way the properties of, e.g., library classes that did not change between
+ * two runs do not have to be recomputed.
+ *
+ * A snapshot is identified by a ''fingerprint'' of the analyzed code, e.g., a content hash of
+ * the class files; a snapshot is only read if the fingerprints match.
+ *
+ * The (gzip compressed) format is:
+ * {{{
+ * Snapshot {
+ *     int         magic
+ *     int         version
+ *     int         fingerprint_length
+ *     byte[]      fingerprint
+ *     int         kinds_count
+ *     Kind[]      kinds
+ * }
+ * Kind {
+ *     UTF         property_key_name
+ *     int         properties_count
+ *     int         data_length
+ *     byte[]      data // encoded using the property kind's codec
+ * }
+ * }}}
+ * Kinds for which no codec is given when reading a snapshot are skipped.
+ *
+ * @note The properties are only read and stored in the property store if no analysis is
+ *       running. Analyses which are scheduled afterward must not compute the properties of
+ *       the respective entities again, see [[PropertyStore.set]].
+ */
+object PropertySnapshot {
+
+    final val Magic = 0x4F50534E // "OPSN"
+    final val Version = 1
+
+    final val LogCategory = "property snapshot"
+
+    type SomePropertySnapshotCodec = PropertySnapshotCodec[? <: Entity, ? <: Property]
+
+    /**
+     * Writes the final properties of the kinds for which codecs are given to the given file.
+     *
+     * @return The number of written properties.
+     */
+    def write(
+        ps:          PropertyStore,
+        file:        Path,
+        fingerprint: Array[Byte],
+        codecs:      Iterable[SomePropertySnapshotCodec]
+    )(
+        implicit logContext: LogContext
+    ): Int = {
+        var writtenProperties = 0
+        Using.resource(
+            new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file))))
+        ) { out =>
+            out.writeInt(Magic)
+            out.writeInt(Version)
+            out.writeInt(fingerprint.length)
+            out.write(fingerprint)
+            out.writeInt(codecs.size)
+            codecs.foreach { codec =>
+                val count = writeKind(ps, codec.asInstanceOf[PropertySnapshotCodec[Entity, Property]], out)
+                writtenProperties += count
+            }
+        }
+        OPALLogger.info(LogCategory, s"wrote $writtenProperties properties to $file")
+        writtenProperties
+    }
+
+    private def writeKind(
+        ps:    PropertyStore,
+        codec: PropertySnapshotCodec[Entity, Property],
+        out:   DataOutputStream
+    ): Int = {
+        val finalEPs = ArrayBuffer.empty[EPS[Entity, Property]]
+        ps.entities(codec.pk).foreach { eps =>
+            if (eps.isFinal && codec.canEncode(eps.e)) finalEPs += eps
+        }
+
+        val data = new ByteArrayOutputStream(finalEPs.size * 16)
+        val dataOut = new DataOutputStream(data)
+        finalEPs.foreach { eps =>
+            codec.writeEntity(eps.e, dataOut)
+            codec.writeProperty(eps.asFinal.p, dataOut)
+        }
+        dataOut.flush()
+
+        out.writeUTF(PropertyKey.name(codec.pk))
+        out.writeInt(finalEPs.size)
+        out.writeInt(data.size())
+        data.writeTo(out)
+        finalEPs.size
+    }
+
+    /**
+     * Reads the final properties of the kinds for which codecs are given from the given
+     * file if the file exists and if the snapshot's fingerprint matches the given fingerprint.
+     *
+     * @return The read properties; `None` if the file does not exist or was written for a
+     *         different fingerprint or using a different version of the format.
+     */
+    def read(
+        file:        Path,
+        fingerprint: Array[Byte],
+        codecs:      Iterable[SomePropertySnapshotCodec]
+    )(
+        implicit logContext: LogContext
+    ): Option[IndexedSeq[FinalEP[Entity, Property]]] = {
+        if (!Files.exists(file)) {
+            OPALLogger.info(LogCategory, s"no snapshot available: $file")
+            return None;
+        }
+
+        val codecsByName = codecs.iterator.map { codec =>
+            (PropertyKey.name(codec.pk), codec.asInstanceOf[PropertySnapshotCodec[Entity, Property]])
+        }.toMap
+
+        Using.resource(
+            new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))
+        ) { in => read(file, in, fingerprint, codecsByName) }
+    }
+
+    private def read(
+        file:         Path,
+        in:           DataInputStream,
+        fingerprint:  Array[Byte],
+        codecsByName: Map[String, PropertySnapshotCodec[Entity, Property]]
+    )(
+        implicit logContext: LogContext
+    ): Option[IndexedSeq[FinalEP[Entity, Property]]] = {
+        if (in.readInt() != Magic || in.readInt() != Version) {
+            OPALLogger.warn(LogCategory, s"ignoring snapshot with unsupported format: $file")
+            return None;
+        }
+        val snapshotFingerprint = new Array[Byte](in.readInt())
+        in.readFully(snapshotFingerprint)
+        if (!java.util.Arrays.equals(snapshotFingerprint, fingerprint)) {
+            OPALLogger.info(LogCategory, s"ignoring outdated snapshot: $file")
+            return None;
+        }
+
+        val finalEPs = ArrayBuffer.empty[FinalEP[Entity, Property]]
+        val kindsCount = in.readInt()
+        var kind = 0
+        while (kind < kindsCount) {
+            val name = in.readUTF()
+            val count = in.readInt()
+            val dataLength = in.readInt()
+            codecsByName.get(name) match {
+                case Some(codec) =>
+                    var i = 0
+                    while (i < count) {
+                        val e = codec.readEntity(in)
+                        val p = codec.readProperty(e, in)
+                        if ((e ne null) && (p ne null)) finalEPs += FinalEP(e, p)
+                        i += 1
+                    }
+                case None =>
+                    in.readFully(new Array[Byte](dataLength))
+            }
+            kind += 1
+        }
+        Some(finalEPs)
+    }
+
+    /**
+     * Reads the snapshot (see [[read]]) and stores all properties in the given property store
+     * using [[PropertyStore.set]].
+     *
+     * @return The number of properties that were read.
+     */
+    def load(
+        ps:          PropertyStore,
+        file:        Path,
+        fingerprint: Array[Byte],
+        codecs:      Iterable[SomePropertySnapshotCodec]
+    )(
+        implicit logContext: LogContext
+    ): Int = {
+        read(file, fingerprint, codecs) match {
+            case Some(finalEPs) =>
+                finalEPs.foreach { finalEP => ps.set(finalEP.e, finalEP.p) }
+                OPALLogger.info(LogCategory, s"loaded ${finalEPs.size} properties from $file")
+                finalEPs.size
+            case None =>
+                0
+        }
+    }
+}
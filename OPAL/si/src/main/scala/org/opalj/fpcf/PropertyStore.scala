@@ -7,6 +7,7 @@ import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.RejectedExecutionException
 import scala.collection.mutable
 import scala.compiletime.uninitialized
+import scala.jdk.CollectionConverters.*
 import scala.util.boundary.Break
 
 import org.opalj.collection.IntIterator
@@ -180,12 +181,29 @@ abstract class PropertyStore {
     /** Immutable map which stores the context objects given at initialization time. */
     val ctx: Map[Class[?], AnyRef]
 
+    @volatile private var updatedCtx: Map[Class[?], AnyRef] = null
+
     /**
      * Looks up the context object of the given type. This is a comparatively expensive operation;
      * the result should be cached.
      */
     final def context[T](key: Class[T]): T = {
-        ctx.getOrElse(key, { throw ContextNotAvailableException(key, ctx) }).asInstanceOf[T]
+        val theCtx = if (updatedCtx eq null) ctx else updatedCtx
+        theCtx.getOrElse(key, { throw ContextNotAvailableException(key, theCtx) }).asInstanceOf[T]
+    }
+
+    /**
+     * Replaces the context objects of the given types; e.g., to continue using the store with
+     * an updated project (see [[invalidate]]).
+     *
+     * '''Calling this method is only supported while no computations are running!'''
+     */
+    final def updateContext(context: PropertyStoreContext[AnyRef]*): Unit = {
+        if (!isIdle) {
+            throw new IllegalStateException("analyses are already running")
+        }
+        val theCtx = if (updatedCtx eq null) ctx else updatedCtx
+        updatedCtx = theCtx ++ context.iterator.map(_.asTuple)
     }
 
     //
@@ -210,6 +228,148 @@ abstract class PropertyStore {
      */
     def shutdown(): Unit
 
+    //
+    //
+    // INCREMENTAL RE-ANALYSIS RELATED FUNCTIONALITY
+    // (Required to recompute only those properties that are affected by a change.)
+    //
+    //
+
+    /**
+     * If `true`, the store records which entities depend on which other entities. An entity
+     * depends on another entity if a computation or continuation for the former queried a
+     * property of the latter; furthermore, an entity depends on the entity for which a
+     * computation was started if the computation derived a property of the entity.
+     * Unlike the dependencies between the E/PK pairs, the recorded dependencies are kept
+     * when a phase is completed; they are the basis of [[invalidate]].
+     *
+     * Has to be set before the first analysis is scheduled.
+     */
+    @volatile var recordDependencies: Boolean = false
+
+    // dependee => dependers
+    private val entityDependers = new ConcurrentHashMap[Entity, java.util.Set[Entity]]()
+
+    // the entity whose computation or continuation is currently executed by the thread
+    private val currentDepender = new ThreadLocal[Entity]()
+
+    // if not null, only eager computations for the respective entities are executed
+    @volatile private var reanalyzedEntities: java.util.Set[Entity] = null
+
+    /** Returns the entities that (directly) depend on the given entity. */
+    final def recordedDependers(e: Entity): Iterator[Entity] = {
+        val dependers = entityDependers.get(e)
+        if (dependers eq null) Iterator.empty else dependers.iterator.asScala
+    }
+
+    private def recordDependency(dependee: Entity, depender: Entity): Unit = {
+        if (dependee != depender) {
+            entityDependers.computeIfAbsent(dependee, _ => ConcurrentHashMap.newKeySet()).add(depender)
+        }
+    }
+
+    /**
+     * Executes the given computation or continuation of the given entity such that all queries
+     * and all derived properties are recorded as dependencies; to be called by implementations
+     * of the store.
+     *
+     * @note To avoid creating a closure for each computation, the store only calls this method
+     *       if [[recordDependencies]] is set; otherwise, the computation is executed directly
+     *       (see [[handleResultOf]]).
+     */
+    protected[fpcf] final def withRecordedDependencies[T](depender: Entity)(f: => T): T = {
+        val previousDepender = currentDepender.get
+        currentDepender.set(depender)
+        try f finally currentDepender.set(previousDepender)
+    }
+
+    /**
+     * Executes the given computation or continuation of the given entity and handles its result;
+     * records the dependencies of the computation if [[recordDependencies]] is set. To be called
+     * by implementations of the store.
+     */
+    protected[fpcf] final inline def handleResultOf(depender: Entity)(inline r: PropertyComputationResult): Unit = {
+        if (recordDependencies) withRecordedDependencies(depender) { handleResult(r) }
+        else handleResult(r)
+    }
+
+    /**
+     * Records that a property of the given entity was derived by the current computation;
+     * to be called by implementations of the store.
+     */
+    @inline protected final def recordDerivedProperty(e: Entity): Unit = {
+        if (recordDependencies) {
+            val depender = currentDepender.get
+            if (depender ne null) recordDependency(depender, e)
+        }
+    }
+
+    /**
+     * Removes the properties of the given entities and of all entities that (transitively)
+     * depend on them (see [[recordDependencies]]). Afterward, the analyses can be scheduled
+     * again; their eager computations are only executed for the invalidated entities and the
+     * given new entities, lazy computations are executed when the invalidated properties are
+     * queried again. Call [[finishReanalysis]] after the analyses were executed.
+     *
+     * Invalidation is only sound for analyses which derive the properties of an entity when
+     * the computation for that entity is executed; properties that are derived collaboratively
+     * (using [[PartialResult]]s) are not supported.
+     *
+     * '''Calling this method is only supported while no computations are running!'''
+     *
+     * @param changedEntities The entities that changed or were removed.
+     * @param newEntities The entities that were added; their properties will be computed.
+     * @return The invalidated entities.
+     */
+    final def invalidate(
+        changedEntities: Iterable[Entity],
+        newEntities:     Iterable[Entity] = Nil
+    ): scala.collection.Set[Entity] = {
+        if (!isIdle) {
+            throw new IllegalStateException("analyses are already running")
+        }
+        if (!recordDependencies) {
+            throw new IllegalStateException("dependencies were not recorded")
+        }
+
+        val invalidatedEntities = mutable.HashSet.empty[Entity]
+        var worklist: List[Entity] = changedEntities.toList
+        while (worklist.nonEmpty) {
+            val e = worklist.head
+            worklist = worklist.tail
+            if (invalidatedEntities.add(e)) {
+                val dependers = entityDependers.remove(e)
+                if (dependers ne null) dependers.forEach { depender => worklist ::= depender }
+            }
+        }
+        invalidatedEntities.foreach(doInvalidate)
+
+        val theReanalyzedEntities = ConcurrentHashMap.newKeySet[Entity]()
+        invalidatedEntities.foreach(theReanalyzedEntities.add)
+        newEntities.foreach(theReanalyzedEntities.add)
+        reanalyzedEntities = theReanalyzedEntities
+        // All analyses will be scheduled again; hence, all phases start afresh.
+        JArrays.fill(propertyKindsComputedInEarlierPhase, false)
+
+        info(
+            "analysis progress",
+            s"invalidated the properties of ${invalidatedEntities.size} entities " +
+                s"(${changedEntities.size} changed entities)"
+        )
+        invalidatedEntities
+    }
+
+    /** Removes all properties of the given entity. */
+    protected def doInvalidate(e: Entity): Unit
+
+    /**
+     * Ends the re-analysis started by [[invalidate]]; afterward, eager computations are
+     * executed for all entities again.
+     */
+    final def finishReanalysis(): Unit = {
+        reanalyzedEntities = null
+    }
+
     //
     //
     // DEBUGGING AND COMPREHENSION RELATED FUNCTIONALITY
@@ -747,6 +907,11 @@ abstract class PropertyStore {
             )
         }
 
+        if (recordDependencies) {
+            val depender = currentDepender.get
+            if (depender ne null) recordDependency(e, depender)
+        }
+
         doApply(epk, e, pkId)
     }
 
@@ -910,7 +1075,10 @@ abstract class PropertyStore {
     )(
         pc: PropertyComputation[E]
     ): Unit = {
-        doScheduleEagerComputationForEntity(e)(pc)
+        val theReanalyzedEntities = reanalyzedEntities
+        if ((theReanalyzedEntities eq null) || theReanalyzedEntities.contains(e)) {
+            doScheduleEagerComputationForEntity(e)(pc)
+        }
     }
 
     protected def doScheduleEagerComputationForEntity[E <: Entity](
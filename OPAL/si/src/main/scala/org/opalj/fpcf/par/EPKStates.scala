@@ -0,0 +1,253 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package fpcf
+package par
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * The states of all entities for a specific property kind in the [[PKECPropertyStore]].
+ *
+ * All methods are thread-safe; the iteration methods are weakly consistent, i.e., they reflect
+ * the states at some point at or since the creation of the iterator.
+ */
+abstract class EPKStates {
+
+    def get(e: Entity): EPKState
+
+    def containsKey(e: Entity): Boolean = get(e) ne null
+
+    /** Stores the given state and returns the previous state or `null`. */
+    def put(e: Entity, state: EPKState): EPKState
+
+    /** Stores the given state if no state exists and returns the previous state or `null`. */
+    def putIfAbsent(e: Entity, state: EPKState): EPKState
+
+    /**
+     * Returns the current state or, if no state exists, stores and returns the state computed
+     * by `f`. `f` is evaluated at most once and only if no state exists.
+     */
+    def computeIfAbsent(e: Entity, f: Entity => EPKState): EPKState
+
+    def remove(e: Entity): EPKState
+
+    def clear(): Unit
+
+    def size: Int
+
+    def forEachValue(f: EPKState => Unit): Unit
+
+    def forEach(f: (Entity, EPKState) => Unit): Unit
+}
+
+object EPKStates {
+
+    /**
+     * Creates the table for the property kind with the given id; property kinds for which an
+     * entity id function was registered (see [[PropertyKey]]) use a [[DenseEPKStates]]
+     * table.
+     */
+    def apply(pkId: Int): EPKStates = {
+        val entityId = PropertyKey.entityId(pkId)
+        if (entityId eq null) new HashEPKStates() else new DenseEPKStates(entityId)
+    }
+}
+
+/**
+ * Stores the states in a `ConcurrentHashMap`; used for all property kinds whose entities have no
+ * (dense) ids.
+ */
+final class HashEPKStates extends EPKStates {
+
+    private val states = new ConcurrentHashMap[Entity, EPKState]()
+
+    override def get(e: Entity): EPKState = states.get(e)
+    override def containsKey(e: Entity): Boolean = states.containsKey(e)
+    override def put(e: Entity, state: EPKState): EPKState = states.put(e, state)
+    override def putIfAbsent(e: Entity, state: EPKState): EPKState = states.putIfAbsent(e, state)
+    override def computeIfAbsent(e: Entity, f: Entity => EPKState): EPKState = {
+        states.computeIfAbsent(e, (entity: Entity) => f(entity))
+    }
+    override def remove(e: Entity): EPKState = states.remove(e)
+    override def clear(): Unit = states.clear()
+    override def size: Int = states.size()
+
+    override def forEachValue(f: EPKState => Unit): Unit = {
+        states.forEachValue(Long.MaxValue, (state: EPKState) => f(state))
+    }
+
+    override def forEach(f: (Entity, EPKState) => Unit): Unit = {
+        states.forEach((e: Entity, state: EPKState) => f(e, state))
+    }
+}
+
+/**
+ * Stores the states in a growable array that is indexed by the (dense) ids of the entities;
+ * compared to a hash map this saves the map's nodes and the hashing of the entities.
+ *
+ * The array is organized in chunks which are created on demand. Reads are lock-free;
+ * insertions and removals lock one of a fixed number of stripes.
+ *
+ * @param entityId Returns the unique, stable, non-negative id of an entity or `-1` if the entity
+ *                 has no id; the states of the latter entities are stored in a hash map.
+ */
+final class DenseEPKStates(val entityId: Entity => Int) extends EPKStates {
+
+    import DenseEPKStates.ChunkShift
+    import DenseEPKStates.ChunkMask
+    import DenseEPKStates.ChunkSize
+    import DenseEPKStates.LockStripes
+
+    @volatile private var chunks: AtomicReferenceArray[AtomicReferenceArray[EPKState]] =
+        new AtomicReferenceArray(16)
+
+    private val locks: Array[Object] = Array.fill(LockStripes) { new Object }
+
+    private val overflow = new ConcurrentHashMap[Entity, EPKState]()
+
+    private def chunk(id: Int): AtomicReferenceArray[EPKState] = {
+        val theChunks = chunks
+        val chunkId = id >>> ChunkShift
+        if (chunkId < theChunks.length) theChunks.get(chunkId) else null
+    }
+
+    private def getOrCreateChunk(id: Int): AtomicReferenceArray[EPKState] = {
+        val theChunk = chunk(id)
+        if (theChunk ne null) {
+            theChunk
+        } else this.synchronized {
+            val chunkId = id >>> ChunkShift
+            var theChunks = chunks
+            if (chunkId >= theChunks.length) {
+                var newLength = theChunks.length * 2
+                while (chunkId >= newLength) newLength *= 2
+                val newChunks = new AtomicReferenceArray[AtomicReferenceArray[EPKState]](newLength)
+                var i = 0
+                while (i < theChunks.length) {
+                    newChunks.set(i, theChunks.get(i))
+                    i += 1
+                }
+                chunks = newChunks
+                theChunks = newChunks
+            }
+            var newChunk = theChunks.get(chunkId)
+            if (newChunk eq null) {
+                newChunk = new AtomicReferenceArray[EPKState](ChunkSize)
+                theChunks.set(chunkId, newChunk)
+            }
+            newChunk
+        }
+    }
+
+    override def get(e: Entity): EPKState = {
+        val id = entityId(e)
+        if (id < 0) {
+            overflow.get(e)
+        } else {
+            val theChunk = chunk(id)
+            if (theChunk eq null) null else theChunk.get(id & ChunkMask)
+        }
+    }
+
+    override def put(e: Entity, state: EPKState): EPKState = {
+        val id = entityId(e)
+        if (id < 0) {
+            overflow.put(e, state)
+        } else {
+            val theChunk = getOrCreateChunk(id)
+            locks(id & (LockStripes - 1)).synchronized {
+                theChunk.getAndSet(id & ChunkMask, state)
+            }
+        }
+    }
+
+    override def putIfAbsent(e: Entity, state: EPKState): EPKState = {
+        var isAbsent = false
+        val currentState = computeIfAbsent(
+            e,
+            { _ =>
+                isAbsent = true; state
+            }
+        )
+        if (isAbsent) null else currentState
+    }
+
+    override def computeIfAbsent(e: Entity, f: Entity => EPKState): EPKState = {
+        val id = entityId(e)
+        if (id < 0) {
+            overflow.computeIfAbsent(e, (entity: Entity) => f(entity))
+        } else {
+            val theChunk = getOrCreateChunk(id)
+            val index = id & ChunkMask
+            val state = theChunk.get(index)
+            if (state ne null) {
+                state
+            } else locks(id & (LockStripes - 1)).synchronized {
+                val currentState = theChunk.get(index)
+                if (currentState ne null) {
+                    currentState
+                } else {
+                    val newState = f(e)
+                    theChunk.set(index, newState)
+                    newState
+                }
+            }
+        }
+    }
+
+    override def remove(e: Entity): EPKState = {
+        val id = entityId(e)
+        if (id < 0) {
+            overflow.remove(e)
+        } else {
+            val theChunk = chunk(id)
+            if (theChunk eq null) null
+            else locks(id & (LockStripes - 1)).synchronized {
+                theChunk.getAndSet(id & ChunkMask, null)
+            }
+        }
+    }
+
+    override def clear(): Unit = this.synchronized {
+        chunks = new AtomicReferenceArray(16)
+        overflow.clear()
+    }
+
+    override def size: Int = {
+        var size = 0
+        forEachValue(_ => size += 1)
+        size
+    }
+
+    override def forEachValue(f: EPKState => Unit): Unit = {
+        val theChunks = chunks
+        var chunkId = 0
+        while (chunkId < theChunks.length) {
+            val theChunk = theChunks.get(chunkId)
+            if (theChunk ne null) {
+                var index = 0
+                while (index < ChunkSize) {
+                    val state = theChunk.get(index)
+                    if (state ne null) f(state)
+                    index += 1
+                }
+            }
+            chunkId += 1
+        }
+        overflow.forEachValue(Long.MaxValue, (state: EPKState) => f(state))
+    }
+
+    override def forEach(f: (Entity, EPKState) => Unit): Unit = {
+        forEachValue { state => f(state.eOptP.e, state) }
+    }
+}
+
+object DenseEPKStates {
+
+    final val ChunkShift = 12
+    final val ChunkSize = 1 << ChunkShift
+    final val ChunkMask = ChunkSize - 1
+
+    final val LockStripes = 64
+}
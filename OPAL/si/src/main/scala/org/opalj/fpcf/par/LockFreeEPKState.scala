@@ -0,0 +1,251 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package fpcf
+package par
+
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
+
+import org.opalj.util.elidedAssert
+
+/**
+ * An [[EPKState]] that never blocks: the current value, the continuation, the dependees and the
+ * dependers are stored in one immutable [[LockFreeEPKState.State]] object that is replaced using
+ * compare-and-set operations. Hence, registering a depender with a heavily used dependee only
+ * requires a single successful CAS and never waits for updates of that dependee.
+ *
+ * Continuations of the same state are never executed concurrently. Instead of blocking, a thread
+ * that wants to apply the continuation while another thread is already doing so leaves its
+ * notification for that thread.
+ *
+ * @note Update computations of partial results may be evaluated more than once if there are
+ *       concurrent updates; as required by [[PartialResult]] they have to be side-effect free.
+ */
+final class LockFreeEPKState(
+    initialEOptP:     SomeEOptionP,
+    initialC:         OnUpdateContinuation,
+    initialDependees: Set[SomeEOptionP]
+) extends EPKState {
+
+    import LockFreeEPKState.State
+
+    private val state: AtomicReference[State] =
+        new AtomicReference(State(initialEOptP, initialC, initialDependees, Set.empty, Set.empty))
+
+    // The old values of the dependees for which the continuation still has to be applied.
+    private val pendingNotifications: AtomicReference[List[SomeEOptionP]] = new AtomicReference(Nil)
+    private val isApplyingContinuation: AtomicBoolean = new AtomicBoolean(false)
+
+    override def eOptP: SomeEOptionP = state.get.eOptP
+
+    override def c: OnUpdateContinuation = state.get.c
+    override def c_=(newC: OnUpdateContinuation): Unit = {
+        var oldState = state.get
+        while (!state.compareAndSet(oldState, oldState.copy(c = newC))) oldState = state.get
+    }
+
+    override def dependees: Set[SomeEOptionP] = state.get.dependees
+    override def dependees_=(newDependees: Set[SomeEOptionP]): Unit = {
+        var oldState = state.get
+        while (!state.compareAndSet(oldState, oldState.copy(dependees = newDependees))) oldState = state.get
+    }
+
+    override def dependersCount: Int = state.get.dependersCount
+
+    override def setFinal(finalEP: FinalEP[Entity, Property], unnotifiedPKs: Set[PropertyKind])(implicit
+        ps: PKECPropertyStore
+    ): Unit = {
+        val newState = State(finalEP, null, null, Set.empty, Set.empty)
+        var oldState: State = null
+        while {
+            oldState = state.get
+            val theEOptP = oldState.eOptP
+            if (theEOptP.isFinal) {
+                throw new IllegalStateException(s"${theEOptP.e} already had the property $theEOptP")
+            }
+            if (ps.debug) theEOptP.checkIsValidPropertiesUpdate(finalEP, Nil)
+            !state.compareAndSet(oldState, newState)
+        } do ()
+
+        notifyDependers(oldState.eOptP, oldState.dependers, unnotifiedPKs)
+        notifyDependers(finalEP, oldState.suppressedDependers, unnotifiedPKs)
+
+        if (oldState.eOptP.isEPK) ps.triggerComputations(oldState.eOptP.e, oldState.eOptP.pk.id)
+    }
+
+    override def interimUpdate(
+        interimEP:    InterimEP[Entity, Property],
+        newC:         OnUpdateContinuation,
+        newDependees: Set[SomeEOptionP]
+    )(implicit ps: PKECPropertyStore): Unit = {
+        var oldState: State = null
+        var isUpdated = false
+        while {
+            oldState = state.get
+            val theEOptP = oldState.eOptP
+            if (theEOptP.isFinal) {
+                throw new IllegalStateException(s"${theEOptP.e} already had the property $theEOptP")
+            }
+            if (ps.debug) theEOptP.checkIsValidPropertiesUpdate(interimEP, newDependees)
+            isUpdated = interimEP.isUpdatedComparedTo(theEOptP)
+            val newState =
+                if (isUpdated) oldState.withUpdatedEOptP(interimEP).copy(c = newC, dependees = newDependees)
+                else oldState.copy(c = newC, dependees = newDependees)
+            !state.compareAndSet(oldState, newState)
+        } do ()
+
+        if (isUpdated) notifyDependers(oldState.eOptP, oldState.dependers)
+
+        ps.updateDependees(this, newDependees)
+
+        if (oldState.eOptP.isEPK) ps.triggerComputations(oldState.eOptP.e, oldState.eOptP.pk.id)
+    }
+
+    override def partialUpdate(
+        updateComputation: UpdateComputation[Entity, Property]
+    )(implicit ps: PKECPropertyStore): Unit = {
+        var oldState: State = null
+        var isUpdated = false
+        while {
+            oldState = state.get
+            val theEOptP = oldState.eOptP
+            if (theEOptP.isFinal) {
+                throw new IllegalStateException(s"${theEOptP.e} already had the property $theEOptP")
+            }
+            updateComputation(theEOptP) match {
+                case Some(interimEP) =>
+                    if (ps.debug) elidedAssert(theEOptP != interimEP)
+                    isUpdated = true
+                    !state.compareAndSet(oldState, oldState.withUpdatedEOptP(interimEP))
+                case _ =>
+                    isUpdated = false
+                    false
+            }
+        } do ()
+
+        if (isUpdated) notifyDependers(oldState.eOptP, oldState.dependers)
+
+        if (oldState.eOptP.isEPK) ps.triggerComputations(oldState.eOptP.e, oldState.eOptP.pk.id)
+    }
+
+    override def addDependerOrScheduleContinuation(
+        depender:      EPKState,
+        dependee:      SomeEOptionP,
+        dependeePK:    Int,
+        suppressedPKs: Array[Boolean]
+    )(implicit ps: PKECPropertyStore): Boolean = {
+        val isSuppressed = suppressedPKs(dependeePK)
+        var isRegistered = false
+        var isDone = false
+        while (!isDone) {
+            val oldState = state.get
+            val theEOptP = oldState.eOptP
+            // If the epk state is already updated (compared to the given dependee)
+            // AND that update must not be suppressed (either final or not a suppressed PK).
+            if ((theEOptP ne dependee) && (!isSuppressed || theEOptP.isFinal)) {
+                if (isSuppressed)
+                    ps.scheduleTask(new ps.ContinuationTask(depender, theEOptP, this))
+                else
+                    ps.scheduleTask(new ps.ContinuationTask(depender, dependee, this))
+                isDone = true
+            } else {
+                val newState =
+                    if (isSuppressed) {
+                        if (oldState.suppressedDependers.contains(depender)) oldState
+                        else oldState.copy(suppressedDependers = oldState.suppressedDependers + depender)
+                    } else {
+                        if (oldState.dependers.contains(depender)) oldState
+                        else oldState.copy(dependers = oldState.dependers + depender)
+                    }
+                isRegistered = (newState eq oldState) || state.compareAndSet(oldState, newState)
+                isDone = isRegistered
+            }
+        }
+        isRegistered
+    }
+
+    override def removeDepender(dependerState: EPKState): Unit = {
+        var oldState: State = null
+        var newState: State = null
+        while {
+            oldState = state.get
+            newState = oldState.copy(
+                dependers = oldState.dependers - dependerState,
+                suppressedDependers = oldState.suppressedDependers - dependerState
+            )
+            !state.compareAndSet(oldState, newState)
+        } do ()
+    }
+
+    private def notifyDependers(
+        oldEOptP:      SomeEOptionP,
+        theDependers:  Set[EPKState],
+        unnotifiedPKs: Set[PropertyKind] = Set.empty
+    )(implicit ps: PKECPropertyStore): Unit = {
+        theDependers.foreach { dependerState =>
+            if (!unnotifiedPKs.contains(dependerState.eOptP.pk) && dependerState.dependees != null) {
+                ps.scheduleTask(new ps.ContinuationTask(dependerState, oldEOptP, this))
+            }
+        }
+    }
+
+    override def applyContinuation(oldDependee: SomeEOptionP)(implicit ps: PKECPropertyStore): Unit = {
+        var notifications = pendingNotifications.get
+        while (!pendingNotifications.compareAndSet(notifications, oldDependee :: notifications)) {
+            notifications = pendingNotifications.get
+        }
+
+        // The thread that succeeds in setting the flag processes all pending notifications,
+        // including those added while it is running; all other threads return immediately.
+        while (pendingNotifications.get.nonEmpty && isApplyingContinuation.compareAndSet(false, true)) {
+            try {
+                var theNotifications = pendingNotifications.getAndSet(Nil).reverse
+                while (theNotifications.nonEmpty) {
+                    doApplyContinuation(theNotifications.head)
+                    theNotifications = theNotifications.tail
+                }
+            } finally {
+                isApplyingContinuation.set(false)
+            }
+        }
+    }
+
+    private def doApplyContinuation(oldDependee: SomeEOptionP)(implicit ps: PKECPropertyStore): Unit = {
+        val theState = state.get
+        val theDependees = theState.dependees
+        // Are we still interested in that dependee?
+        if (theDependees != null &&
+            (oldDependee.isFinal || theDependees.contains(oldDependee))
+        ) {
+            // We always retrieve the most up-to-date state of the dependee.
+            val currentDependee = ps.ps(oldDependee.pk.id).get(oldDependee.e).eOptP.asEPS
+            ps.handleResultOf(theState.eOptP.e)(theState.c(currentDependee))
+        }
+    }
+}
+
+object LockFreeEPKState {
+
+    /**
+     * An immutable snapshot of a [[LockFreeEPKState]]. The dependers are kept in persistent sets;
+     * hence, a depender that registers itself again is notified only once.
+     */
+    private[par] final case class State(
+        eOptP:               SomeEOptionP,
+        c:                   OnUpdateContinuation,
+        dependees:           Set[SomeEOptionP],
+        dependers:           Set[EPKState],
+        suppressedDependers: Set[EPKState]
+    ) {
+
+        def dependersCount: Int = dependers.size + suppressedDependers.size
+
+        /**
+         * The state after updating the value; the (non-suppressed) dependers are removed as
+         * they will be notified and will re-register if required.
+         */
+        def withUpdatedEOptP(newEOptP: SomeEOptionP): State = {
+            State(newEOptP, c, dependees, Set.empty, suppressedDependers)
+        }
+    }
+}
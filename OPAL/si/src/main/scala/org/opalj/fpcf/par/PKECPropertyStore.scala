@@ -5,9 +5,13 @@ package par
 
 import scala.annotation.switch
 
-import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedDeque
 import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.PriorityBlockingQueue
+import java.util.concurrent.ThreadLocalRandom
 import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+import java.util.concurrent.locks.LockSupport
 import scala.collection.mutable.ArrayBuffer
 import scala.collection.mutable.ListBuffer
 import scala.util.boundary.Break
@@ -26,6 +30,12 @@ import org.opalj.util.elidedAssert
  * @param THREAD_COUNT Number of threads to use for simultaneous processing
  * @param MaxEvaluationDepth Maximum recursion level for lazy property computations before a task
  *                           is spawned to be handled by another thread
+ * @param useWorkStealing If true, each thread owns a queue of tasks and idle threads steal
+ *                        batches of tasks from the other threads' queues (see
+ *                        [[WorkStealingWorkerThread]]); otherwise, all threads share blocking
+ *                        queues and rebalance by draining the largest one
+ * @param useLockFreeStates If true, the states of the entity/property kind pairs are updated using
+ *                          compare-and-set operations (see [[LockFreeEPKState]]) instead of locks
  *
  * @author Dominik Helm
  */
@@ -33,7 +43,9 @@ class PKECPropertyStore(
     final val ctx:                   Map[Class[?], AnyRef],
     val taskManager:                 PKECTaskManager,
     val THREAD_COUNT:                Int,
-    override val MaxEvaluationDepth: Int
+    override val MaxEvaluationDepth: Int,
+    val useWorkStealing:             Boolean = false,
+    val useLockFreeStates:           Boolean = false
 )(
     implicit val logContext: LogContext
 ) extends ParallelPropertyStore {
@@ -42,8 +54,7 @@ class PKECPropertyStore(
 
     val evaluationDepth: ThreadLocal[Int] = ThreadLocal.withInitial[Int](() => 0)
 
-    val ps: Array[ConcurrentHashMap[Entity, EPKState]] =
-        Array.fill(PropertyKind.SupportedPropertyKinds) { new ConcurrentHashMap() }
+    val ps: Array[EPKStates] = Array.tabulate(PropertyKind.SupportedPropertyKinds) { EPKStates(_) }
 
     private val triggeredComputations: Array[Array[SomePropertyComputation]] =
         new Array(PropertyKind.SupportedPropertyKinds)
@@ -54,6 +65,23 @@ class PKECPropertyStore(
     private val initialQueues: Array[java.util.ArrayDeque[QualifiedTask]] =
         Array.fill(THREAD_COUNT) { new java.util.ArrayDeque[QualifiedTask](50000 / THREAD_COUNT) }
 
+    // Only used if work stealing is enabled and the task manager does not prioritize tasks: the
+    // owning thread pushes and pops at the tail, other threads steal from the head.
+    private val deques: Array[ConcurrentLinkedDeque[QualifiedTask]] =
+        if (useWorkStealing && (taskManager eq PKECNoPriorityTaskManager))
+            Array.fill(THREAD_COUNT) { new ConcurrentLinkedDeque[QualifiedTask]() }
+        else null
+
+    // Only used if work stealing is enabled and the task manager prioritizes tasks: the owning
+    // thread and other threads always take the task with the highest priority.
+    private val priorityQueues: Array[PriorityBlockingQueue[QualifiedTask]] =
+        if (useWorkStealing && (taskManager ne PKECNoPriorityTaskManager))
+            Array.fill(THREAD_COUNT) { new PriorityBlockingQueue[QualifiedTask]() }
+        else null
+
+    // Only used if work stealing is enabled: a lock-free (Treiber) stack of the parked workers.
+    private val parkedWorkers = new AtomicReference[ParkedWorker](null)
+
     override def shutdown(): Unit = {}
 
     var idle = true
@@ -80,6 +108,25 @@ class PKECPropertyStore(
         fallbacksForComputedProperties.getAndIncrement()
     }
 
+    // The following counters are only updated by the owning (work-stealing) thread.
+    private val steals: Array[Int] = new Array(THREAD_COUNT)
+    private val stolenTasks: Array[Int] = new Array(THREAD_COUNT)
+    private val failedStealAttempts: Array[Int] = new Array(THREAD_COUNT)
+    private val idlePhases: Array[Int] = new Array(THREAD_COUNT)
+    private val idleNanos: Array[Long] = new Array(THREAD_COUNT)
+
+    override def statistics: scala.collection.mutable.LinkedHashMap[String, Int] = {
+        val s = super.statistics
+        if (useWorkStealing) {
+            s.put("work stealing: successful steals", steals.sum)
+            s.put("work stealing: stolen tasks", stolenTasks.sum)
+            s.put("work stealing: failed steal attempts", failedStealAttempts.sum)
+            s.put("work stealing: idle phases", idlePhases.sum)
+            s.put("work stealing: idle time (ms)", (idleNanos.sum / 1000000L).toInt)
+        }
+        s
+    }
+
     // --------------------------------------------------------------------------------------------
     //
     // BASIC QUERY METHODS (ONLY TO BE CALLED WHEN THE STORE IS QUIESCENT)
@@ -91,7 +138,6 @@ class PKECPropertyStore(
             val properties = for (pkId <- 0 to PropertyKey.maxId) yield {
                 var entities: List[String] = List.empty
                 ps(pkId).forEachValue(
-                    Long.MaxValue,
                     (state: EPKState) => entities ::= state.eOptP.toString.replace("\n", "\n\t")
                 )
                 entities.sorted.mkString(s"Entities for property key $pkId:\n\t", "\n\t", "\n")
@@ -106,7 +152,6 @@ class PKECPropertyStore(
         ps.iterator.flatMap { propertiesPerKind =>
             val result: ListBuffer[Entity] = ListBuffer.empty
             propertiesPerKind.forEachValue(
-                Long.MaxValue,
                 (state: EPKState) => if (propertyFilter(state.eOptP.asEPS)) result.append(state.eOptP.e)
             )
             result
@@ -116,7 +161,6 @@ class PKECPropertyStore(
     override def entities[P <: Property](pk: PropertyKey[P]): Iterator[EPS[Entity, P]] = {
         val result: ListBuffer[EPS[Entity, P]] = ListBuffer.empty
         ps(pk.id).forEachValue(
-            Long.MaxValue,
             { (state: EPKState) => result.append(state.eOptP.asInstanceOf[EPS[Entity, P]]) }
         )
         result.iterator
@@ -171,6 +215,26 @@ class PKECPropertyStore(
     //
     // --------------------------------------------------------------------------------------------
 
+    override protected def newPhaseInitialized(
+        propertyKindsComputedInThisPhase:  Set[PropertyKind],
+        propertyKindsComputedInLaterPhase: Set[PropertyKind],
+        suppressInterimUpdates:            Map[PropertyKind, Set[PropertyKind]],
+        finalizationOrder:                 List[List[PropertyKind]]
+    ): Unit = {
+        // Property keys may be created after this store was created; hence, we switch to dense
+        // tables for those kinds for which entity ids were registered in the meantime.
+        var pkId = 0
+        while (pkId <= PropertyKey.maxId) {
+            val oldStates = ps(pkId)
+            if (oldStates.isInstanceOf[HashEPKStates] && (PropertyKey.entityId(pkId) ne null)) {
+                val newStates = EPKStates(pkId)
+                oldStates.forEach { (e, epkState) => newStates.put(e, epkState) }
+                ps(pkId) = newStates
+            }
+            pkId += 1
+        }
+    }
+
     override protected def doScheduleEagerComputationForEntity[E <: Entity](
         e: E
     )(pc: PropertyComputation[E]): Unit = {
@@ -203,6 +267,14 @@ class PKECPropertyStore(
         }
     }
 
+    override protected def doInvalidate(e: Entity): Unit = {
+        var pkId = 0
+        while (pkId <= PropertyKey.maxId) {
+            ps(pkId).remove(e)
+            pkId += 1
+        }
+    }
+
     override protected def doPreInitialize[E <: Entity, P <: Property](
         e:  E,
         pk: PropertyKey[P]
@@ -235,8 +307,30 @@ class PKECPropertyStore(
             initialQueues(numTasks % THREAD_COUNT).offer(task)
         } else {
             activeTasks.incrementAndGet()
-            queues(numTasks % THREAD_COUNT).offer(task)
+            if (useWorkStealing) {
+                // Tasks scheduled by a worker stay with that worker to benefit from locality;
+                // idle workers will steal them if necessary.
+                val tId = Thread.currentThread() match {
+                    case t: WorkStealingWorkerThread if threads(t.ownTId) eq t => t.ownTId
+                    case _                                                      => numTasks % THREAD_COUNT
+                }
+                if (deques ne null) deques(tId).offerLast(task)
+                else priorityQueues(tId).offer(task)
+                // The task has to be offered before a parked worker is popped; see
+                // WorkStealingWorkerThread.park
+                if (parkedWorkers.get() ne null) unparkWorker()
+            } else {
+                queues(numTasks % THREAD_COUNT).offer(task)
+            }
+        }
+    }
+
+    private def unparkWorker(): Unit = {
+        var parkedWorker = parkedWorkers.get()
+        while ((parkedWorker ne null) && !parkedWorkers.compareAndSet(parkedWorker, parkedWorker.next)) {
+            parkedWorker = parkedWorkers.get()
         }
+        if (parkedWorker ne null) LockSupport.unpark(parkedWorker.thread)
     }
 
     private def schedulePropertyComputation[E <: Entity](
@@ -334,6 +428,7 @@ class PKECPropertyStore(
         unnotifiedPKs: Set[PropertyKind] = Set.empty
     ): Unit = {
         val SomeEPS(e, pk) = finalEP
+        recordDerivedProperty(e)
         var isFresh = false
         val ePKState = ps(pk.id).computeIfAbsent(
             e,
@@ -358,6 +453,7 @@ class PKECPropertyStore(
         dependees: Set[SomeEOptionP]
     ): Unit = {
         val SomeEPS(e, pk) = interimEP
+        recordDerivedProperty(e)
         var isFresh = false
         val ePKState =
             ps(pk.id).computeIfAbsent(
@@ -377,6 +473,7 @@ class PKECPropertyStore(
         e:      Entity,
         pk:     PropertyKey[Property]
     ): Unit = {
+        recordDerivedProperty(e)
         val ePKState = ps(pk.id).computeIfAbsent(e, _ => EPKState(EPK(e, pk), null, null))
         ePKState.partialUpdate(update)
     }
@@ -408,7 +505,7 @@ class PKECPropertyStore(
                     val currentEvaluationDepth = evaluationDepth.get()
                     if (currentEvaluationDepth < MaxEvaluationDepth) {
                         evaluationDepth.set(currentEvaluationDepth + 1)
-                        handleResult(lazyComputation(e))
+                        handleResultOf(e)(lazyComputation(e))
                         evaluationDepth.set(currentEvaluationDepth)
                         ps(pkId).get(e).eOptP.asInstanceOf[EOptionP[E, P]]
                     } else {
@@ -509,7 +606,8 @@ class PKECPropertyStore(
         while (subPhaseId < subPhaseFinalizationOrder.length) {
             while {
                 while {
-                    startThreads(new WorkerThread(_))
+                    if (useWorkStealing) startThreads(new WorkStealingWorkerThread(_))
+                    else startThreads(new WorkerThread(_))
 
                     quiescenceCounter += 1
 
@@ -565,19 +663,23 @@ class PKECPropertyStore(
 
     class PKECThread(name: String) extends Thread(name)
 
+    private def processInitialTasks(ownTId: Int): Unit = {
+        val initialTasks = initialQueues(ownTId)
+        val initialTaskSize = initialTasks.size()
+        var curInitialTask: QualifiedTask = null
+        while ({ curInitialTask = initialTasks.poll(); curInitialTask != null }) {
+            curInitialTask.apply()
+        }
+        // Subtract the processed tasks just once to avoid synchronization overhead for
+        // decrementing every time we process a task
+        activeTasks.addAndGet(-initialTaskSize)
+    }
+
     class WorkerThread(ownTId: Int) extends PKECThread(s"PropertyStoreThread-#$ownTId") {
 
         override def run(): Unit = {
             try {
-                val initialTasks = initialQueues(ownTId)
-                val initialTaskSize = initialTasks.size()
-                var curInitialTask: QualifiedTask = null
-                while ({ curInitialTask = initialTasks.poll(); curInitialTask != null }) {
-                    curInitialTask.apply()
-                }
-                // Subtract the processed tasks just once to avoid synchronization overhead for
-                // decrementing every time we process a task
-                activeTasks.addAndGet(-initialTaskSize)
+                processInitialTasks(ownTId)
 
                 val tasksQueue = queues(ownTId)
                 val tasks = new java.util.ArrayDeque[QualifiedTask](50000 / THREAD_COUNT)
@@ -624,6 +726,124 @@ class PKECPropertyStore(
         }
     }
 
+    /**
+     * A worker that processes the tasks of its own queue and – if it runs out of tasks – steals
+     * a batch of tasks from the head of another worker's queue.
+     *
+     * If the task manager prioritizes tasks, the queues are priority queues and each worker
+     * always takes the task with the highest priority from its queue; i.e., tasks are processed in
+     * priority order per worker, but not across workers. Otherwise, the queues are lock-free
+     * deques and each worker takes its most recently scheduled task to benefit from locality.
+     *
+     * An idle worker is pushed on the stack of parked workers and parks until a thread that
+     * schedules a task pops and unparks it or until the phase ends (when the last task is
+     * finished, the worker that finished it returns and interrupts all other workers).
+     */
+    class WorkStealingWorkerThread(val ownTId: Int) extends PKECThread(s"PropertyStoreThread-#$ownTId") {
+
+        override def run(): Unit = {
+            try {
+                processInitialTasks(ownTId)
+
+                while (!doTerminate) {
+                    var curTask = pollOwnTask()
+                    if ((curTask eq null) && steal()) curTask = pollOwnTask()
+
+                    if (curTask ne null) {
+                        curTask.apply()
+                        activeTasks.decrementAndGet()
+                    } else if (activeTasks.get() == 0) {
+                        return;
+                    } else {
+                        park()
+                        if (Thread.interrupted()) return;
+                    }
+                }
+            } catch {
+                case b: Break[?]             => throw b
+                case _: InterruptedException =>
+                case ex: Throwable           =>
+                    collectException(ex)
+                    doTerminate = true
+            } finally {
+                threads.foreach { t =>
+                    if (t ne this)
+                        t.interrupt()
+                }
+            }
+        }
+
+        private def pollOwnTask(): QualifiedTask = {
+            if (deques ne null) deques(ownTId).pollLast()
+            else priorityQueues(ownTId).poll()
+        }
+
+        private def hasTasks: Boolean = {
+            if (deques ne null) deques.exists(!_.isEmpty)
+            else priorityQueues.exists(!_.isEmpty)
+        }
+
+        /**
+         * Moves a batch of tasks from the head of another worker's queue to the own queue.
+         *
+         * @return `true` if tasks were stolen.
+         */
+        private def steal(): Boolean = {
+            var stolen = 0
+            if (THREAD_COUNT > 1) {
+                val offset = ThreadLocalRandom.current().nextInt(THREAD_COUNT)
+                var i = 0
+                while (i < THREAD_COUNT && stolen == 0) {
+                    val victimTId = (offset + i) % THREAD_COUNT
+                    if (victimTId != ownTId) {
+                        var curTask: QualifiedTask = null
+                        if (deques ne null) {
+                            val victimDeque = deques(victimTId)
+                            val ownDeque = deques(ownTId)
+                            while (stolen < PKECPropertyStore.WorkStealingBatchSize &&
+                                   { curTask = victimDeque.pollFirst(); curTask != null }
+                            ) {
+                                ownDeque.offerLast(curTask)
+                                stolen += 1
+                            }
+                        } else {
+                            stolen = priorityQueues(victimTId).drainTo(
+                                priorityQueues(ownTId),
+                                PKECPropertyStore.WorkStealingBatchSize
+                            )
+                        }
+                    }
+                    i += 1
+                }
+                if (stolen > 0) {
+                    steals(ownTId) += 1
+                    stolenTasks(ownTId) += stolen
+                } else {
+                    failedStealAttempts(ownTId) += 1
+                }
+            }
+            stolen > 0
+        }
+
+        private def park(): Unit = {
+            val start = System.nanoTime()
+            val parkedWorker = new ParkedWorker(this)
+            while {
+                parkedWorker.next = parkedWorkers.get()
+                !parkedWorkers.compareAndSet(parkedWorker.next, parkedWorker)
+            } do ()
+            // Re-check after announcing that we are parked to not miss a task that was scheduled
+            // concurrently: a scheduling thread offers its task before it pops a parked worker;
+            // hence, either we see the task or the scheduling thread sees (and unparks) us. If we
+            // do not park, our entry stays on the stack; when it is popped, we are unparked
+            // spuriously or while running, i.e., the task is processed by us.
+            if (!hasTasks)
+                LockSupport.park(this)
+            idlePhases(ownTId) += 1
+            idleNanos(ownTId) += System.nanoTime() - start
+        }
+    }
+
     class FallbackThread(ownTId: Int) extends PKECThread(s"PropertyStoreFallbackThread-#$ownTId") {
 
         override def run(): Unit = handleExceptions {
@@ -631,7 +851,6 @@ class PKECPropertyStore(
             while (pkId <= PropertyKey.maxId) {
                 if (propertyKindsComputedInThisPhase(pkId) && (lazyComputations(pkId) eq null)) {
                     ps(pkId).forEachValue(
-                        Long.MaxValue,
                         { (epkState: EPKState) =>
                             if (epkState.eOptP.isEPK && ((epkState.dependees eq null) || epkState.dependees.isEmpty)) {
                                 val e = epkState.eOptP.e
@@ -659,7 +878,6 @@ class PKECPropertyStore(
             while (pkId <= PropertyKey.maxId) {
                 if (propertyKindsComputedInThisPhase(pkId)) {
                     ps(pkId).forEachValue(
-                        Long.MaxValue,
                         { (epkState: EPKState) =>
                             val eOptP = epkState.eOptP
                             if (eOptP.isRefinable && getResponsibleTId(eOptP.e) == ownTId) {
@@ -692,7 +910,6 @@ class PKECPropertyStore(
             pksToFinalize foreach { pk =>
                 val pkId = pk.id
                 ps(pkId).forEachValue(
-                    Long.MaxValue,
                     { (epkState: EPKState) =>
                         val eOptP = epkState.eOptP
                         if (getResponsibleTId(eOptP.e) == ownTId && eOptP.isRefinable && !eOptP.isEPK) // TODO Won't be required once subPhaseFinalizationOrder is reliably only the partial properties
@@ -734,7 +951,7 @@ class PKECPropertyStore(
         val priority = 0
 
         override def apply(): Unit = {
-            handleResult(pc(e))
+            handleResultOf(e)(pc(e))
         }
     }
 
@@ -748,8 +965,9 @@ class PKECPropertyStore(
         override def apply(): Unit = {
             val state = ps(pkId).get(e)
             state.synchronized {
-                if (state.eOptP.isEPK)
-                    handleResult(pc(e))
+                if (state.eOptP.isEPK) {
+                    handleResultOf(e)(pc(e))
+                }
             }
         }
     }
@@ -773,14 +991,25 @@ class PKECPropertyStore(
     }
 }
 
-case class EPKState(
-    var eOptP:     SomeEOptionP,
-    var c:         OnUpdateContinuation,
-    var dependees: Set[SomeEOptionP],
-    // Use Java's HashSet here, this is internal implementation only and they are *way* faster
-    dependers:           java.util.HashSet[EPKState] = new java.util.HashSet(),
-    suppressedDependers: java.util.HashSet[EPKState] = new java.util.HashSet()
-) {
+/**
+ * The state of an entity/property kind pair in the [[PKECPropertyStore]]: its current value, the
+ * continuation and dependees of the analysis computing it, and the states depending on it.
+ *
+ * Use the factory method of the companion object to create a new state; it selects the
+ * implementation configured for the respective store.
+ */
+abstract class EPKState {
+
+    def eOptP: SomeEOptionP
+
+    def c: OnUpdateContinuation
+    def c_=(newC: OnUpdateContinuation): Unit
+
+    def dependees: Set[SomeEOptionP]
+    def dependees_=(newDependees: Set[SomeEOptionP]): Unit
+
+    /** The number of dependers (including the suppressed ones); may be an over-approximation. */
+    def dependersCount: Int
 
     override lazy val hashCode: Int = eOptP.hashCode()
 
@@ -791,27 +1020,86 @@ case class EPKState(
 
     def setFinal(finalEP: FinalEP[Entity, Property], unnotifiedPKs: Set[PropertyKind])(implicit
         ps: PKECPropertyStore
+    ): Unit
+
+    def interimUpdate(
+        interimEP:    InterimEP[Entity, Property],
+        newC:         OnUpdateContinuation,
+        newDependees: Set[SomeEOptionP]
+    )(implicit ps: PKECPropertyStore): Unit
+
+    def partialUpdate(updateComputation: UpdateComputation[Entity, Property])(implicit ps: PKECPropertyStore): Unit
+
+    def addDependerOrScheduleContinuation(
+        depender:      EPKState,
+        dependee:      SomeEOptionP,
+        dependeePK:    Int,
+        suppressedPKs: Array[Boolean]
+    )(implicit ps: PKECPropertyStore): Boolean
+
+    def removeDepender(dependerState: EPKState): Unit
+
+    def applyContinuation(oldDependee: SomeEOptionP)(implicit ps: PKECPropertyStore): Unit
+}
+
+object EPKState {
+
+    def apply(
+        eOptP:     SomeEOptionP,
+        c:         OnUpdateContinuation,
+        dependees: Set[SomeEOptionP]
+    )(implicit ps: PKECPropertyStore): EPKState = {
+        if (ps.useLockFreeStates) new LockFreeEPKState(eOptP, c, dependees)
+        else new LockingEPKState(eOptP, c, dependees)
+    }
+}
+
+/**
+ * An [[EPKState]] that guards updates by the state's monitor and the dependers set's monitor.
+ */
+final class LockingEPKState(
+    private var currentEOptP:     SomeEOptionP,
+    private var currentC:         OnUpdateContinuation,
+    private var currentDependees: Set[SomeEOptionP]
+) extends EPKState {
+
+    // Use Java's HashSet here, this is internal implementation only and they are *way* faster
+    private val dependers: java.util.HashSet[EPKState] = new java.util.HashSet()
+    private val suppressedDependers: java.util.HashSet[EPKState] = new java.util.HashSet()
+
+    override def eOptP: SomeEOptionP = currentEOptP
+
+    override def c: OnUpdateContinuation = currentC
+    override def c_=(newC: OnUpdateContinuation): Unit = currentC = newC
+
+    override def dependees: Set[SomeEOptionP] = currentDependees
+    override def dependees_=(newDependees: Set[SomeEOptionP]): Unit = currentDependees = newDependees
+
+    override def dependersCount: Int = dependers.size() + suppressedDependers.size()
+
+    override def setFinal(finalEP: FinalEP[Entity, Property], unnotifiedPKs: Set[PropertyKind])(implicit
+        ps: PKECPropertyStore
     ): Unit = {
         var theEOptP: SomeEOptionP = null
         this.synchronized {
-            theEOptP = eOptP
+            theEOptP = currentEOptP
             if (theEOptP.isFinal) {
                 throw new IllegalStateException(s"${theEOptP.e} already had the property $theEOptP")
             } else {
-                if (ps.debug) eOptP.checkIsValidPropertiesUpdate(finalEP, Nil)
+                if (ps.debug) currentEOptP.checkIsValidPropertiesUpdate(finalEP, Nil)
                 dependers.synchronized {
-                    eOptP = finalEP
+                    currentEOptP = finalEP
                     notifyAndClearDependers(theEOptP, dependers, unnotifiedPKs)
                     notifyAndClearDependers(finalEP, suppressedDependers, unnotifiedPKs)
                 }
             }
-            dependees = null
+            currentDependees = null
         }
 
         if (theEOptP.isEPK) ps.triggerComputations(theEOptP.e, theEOptP.pk.id)
     }
 
-    def interimUpdate(
+    override def interimUpdate(
         interimEP:    InterimEP[Entity, Property],
         newC:         OnUpdateContinuation,
         newDependees: Set[SomeEOptionP]
@@ -819,19 +1107,19 @@ case class EPKState(
 
         var theEOptP: SomeEOptionP = null
         this.synchronized {
-            theEOptP = eOptP
+            theEOptP = currentEOptP
             if (theEOptP.isFinal) {
                 throw new IllegalStateException(s"${theEOptP.e} already had the property $theEOptP")
             } else {
                 if (ps.debug) theEOptP.checkIsValidPropertiesUpdate(interimEP, newDependees)
                 if (interimEP.isUpdatedComparedTo(theEOptP)) {
                     dependers.synchronized {
-                        eOptP = interimEP
+                        currentEOptP = interimEP
                         notifyAndClearDependers(theEOptP, dependers)
                     }
                 }
-                c = newC
-                dependees = newDependees
+                currentC = newC
+                currentDependees = newDependees
             }
         }
 
@@ -840,19 +1128,21 @@ case class EPKState(
         if (theEOptP.isEPK) ps.triggerComputations(theEOptP.e, theEOptP.pk.id)
     }
 
-    def partialUpdate(updateComputation: UpdateComputation[Entity, Property])(implicit ps: PKECPropertyStore): Unit = {
+    override def partialUpdate(
+        updateComputation: UpdateComputation[Entity, Property]
+    )(implicit ps: PKECPropertyStore): Unit = {
         var theEOptP: SomeEOptionP = null
 
         this.synchronized {
-            theEOptP = eOptP
+            theEOptP = currentEOptP
             if (theEOptP.isFinal) {
                 throw new IllegalStateException(s"${theEOptP.e} already had the property $theEOptP")
             } else {
                 updateComputation(theEOptP) match {
                     case Some(interimEP) =>
-                        if (ps.debug) elidedAssert(eOptP != interimEP)
+                        if (ps.debug) elidedAssert(currentEOptP != interimEP)
                         dependers.synchronized {
-                            eOptP = interimEP
+                            currentEOptP = interimEP
                             notifyAndClearDependers(theEOptP, dependers)
                         }
                     case _ =>
@@ -863,14 +1153,14 @@ case class EPKState(
         if (theEOptP.isEPK) ps.triggerComputations(theEOptP.e, theEOptP.pk.id)
     }
 
-    def addDependerOrScheduleContinuation(
+    override def addDependerOrScheduleContinuation(
         depender:      EPKState,
         dependee:      SomeEOptionP,
         dependeePK:    Int,
         suppressedPKs: Array[Boolean]
     )(implicit ps: PKECPropertyStore): Boolean = {
         dependers.synchronized {
-            val theEOptP = eOptP
+            val theEOptP = currentEOptP
             // If the epk state is already updated (compared to the given dependee)
             // AND that update must not be suppressed (either final or not a suppressed PK).
             val isSuppressed = suppressedPKs(dependeePK)
@@ -891,14 +1181,14 @@ case class EPKState(
         }
     }
 
-    def removeDepender(dependerState: EPKState): Unit = {
+    override def removeDepender(dependerState: EPKState): Unit = {
         dependers.synchronized {
             dependers.remove(dependerState)
             suppressedDependers.remove(dependerState)
         }
     }
 
-    def notifyAndClearDependers(
+    private def notifyAndClearDependers(
         oldEOptP:      SomeEOptionP,
         theDependers:  java.util.HashSet[EPKState],
         unnotifiedPKs: Set[PropertyKind] = Set.empty
@@ -913,9 +1203,9 @@ case class EPKState(
         theDependers.clear()
     }
 
-    def applyContinuation(oldDependee: SomeEOptionP)(implicit ps: PKECPropertyStore): Unit = {
+    override def applyContinuation(oldDependee: SomeEOptionP)(implicit ps: PKECPropertyStore): Unit = {
         this.synchronized {
-            val theDependees = dependees
+            val theDependees = currentDependees
             // Are we still interested in that dependee?
             if (theDependees != null &&
                 (oldDependee.isFinal || theDependees.contains(oldDependee))
@@ -924,7 +1214,7 @@ case class EPKState(
                 val currentDependee = ps.ps(oldDependee.pk.id).get(oldDependee.e).eOptP.asEPS
                 // IMPROVE: If we would know about ordering, we could only perform the operation
                 // if the given value of the dependee is actually the "newest".
-                ps.handleResult(c(currentDependee))
+                ps.handleResultOf(currentEOptP.e)(currentC(currentDependee))
             }
         }
     }
@@ -943,9 +1233,7 @@ object PKECTaskManager {
         if (dependerDependees == null) 0 else dependerDependees.size
     }
 
-    def dependersCount(dependee: EPKState): Int = {
-        dependee.dependers.size() + dependee.suppressedDependers.size()
-    }
+    def dependersCount(dependee: EPKState): Int = dependee.dependersCount
 }
 
 case object PKECNoPriorityTaskManager extends PKECTaskManager {
@@ -1000,10 +1288,20 @@ private class FakeEntity {
     override def toString: String = "FakeEntity"
 }
 
+/** An entry of the stack of parked work-stealing workers. */
+private final class ParkedWorker(val thread: Thread) {
+    var next: ParkedWorker = null
+}
+
 object PKECPropertyStore extends PropertyStoreFactory[PKECPropertyStore] {
 
     final val TaskManagerKey = "org.opalj.fpcf.par.PKECPropertyStore.TasksManager"
     final val MaxEvaluationDepthKey = "org.opalj.fpcf.par.PKECPropertyStore.MaxEvaluationDepth"
+    final val SchedulerKey = "org.opalj.fpcf.par.PKECPropertyStore.Scheduler"
+    final val LockFreeStatesKey = "org.opalj.fpcf.par.PKECPropertyStore.LockFreeStates"
+
+    /** Maximum number of tasks a work-stealing thread steals from another thread at once. */
+    final val WorkStealingBatchSize = 64
 
     @volatile var MaxThreads: Int = org.opalj.concurrent.NumberOfThreadsForCPUBoundTasks
 
@@ -1034,7 +1332,21 @@ object PKECPropertyStore extends PropertyStoreFactory[PKECPropertyStore] {
 
         val maxEvaluationDepth = config.getInt(MaxEvaluationDepthKey)
 
-        val ps = new PKECPropertyStore(contextMap, taskManager, MaxThreads, maxEvaluationDepth)
+        val useWorkStealing = config.getString(SchedulerKey) match {
+            case "SharedQueues" => false
+            case "WorkStealing" => true
+        }
+
+        val useLockFreeStates = config.getBoolean(LockFreeStatesKey)
+
+        val ps = new PKECPropertyStore(
+            contextMap,
+            taskManager,
+            MaxThreads,
+            maxEvaluationDepth,
+            useWorkStealing,
+            useLockFreeStates
+        )
         ps
     }
 }
@@ -0,0 +1,100 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package fpcf
+package par
+package eval
+
+import org.opalj.log.GlobalLogContext
+import org.opalj.log.LogContext
+import org.opalj.util.PerformanceEvaluation.time
+
+/**
+ * Compares the throughput of the [[LockingEPKState]] and the [[LockFreeEPKState]] using a
+ * workload with a single, heavily used dependee: every entity contributes to the
+ * (collaboratively computed) property of the dependee and depends on it at the same time.
+ * This resembles, e.g., the callers of `Object.<init>` or the points-to set of `System.out`.
+ *
+ * Usage: `EPKStateEval [<number of entities> [<repetitions>]]`
+ */
+object EPKStateEval extends App {
+
+    implicit val logContext: LogContext = GlobalLogContext
+
+    final val HotEntity = "hot"
+
+    case class Contributions(count: Int) extends Property {
+        type Self = Contributions
+        def key: PropertyKey[Contributions] = ContributionsKey
+    }
+
+    final val ContributionsKey: PropertyKey[Contributions] =
+        PropertyKey.create[String, Contributions]("EPKStateEval.Contributions", Contributions(0))
+
+    case class Observed(count: Int) extends Property {
+        type Self = Observed
+        def key: PropertyKey[Observed] = ObservedKey
+    }
+
+    final val ObservedKey: PropertyKey[Observed] =
+        PropertyKey.create[String, Observed]("EPKStateEval.Observed", Observed(0))
+
+    val entitiesCount = if (args.length > 0) args(0).toInt else 2000
+    val repetitions = if (args.length > 1) args(1).toInt else 3
+    val entities = (0 until entitiesCount).map(i => s"e$i")
+
+    def contribute(contributions: EOptionP[String, Contributions]): Option[InterimEP[String, Contributions]] = {
+        contributions match {
+            case InterimUBP(Contributions(count)) => Some(InterimEUBP(HotEntity, Contributions(count + 1)))
+            case _                                => Some(InterimEUBP(HotEntity, Contributions(1)))
+        }
+    }
+
+    def observe(e: String, hot: EOptionP[Entity, Contributions]): ProperPropertyComputationResult = {
+        if (hot.isFinal) {
+            Result(e, Observed(hot.ub.count))
+        } else {
+            val count = if (hot.hasUBP) hot.ub.count else 0
+            InterimResult.forUB(
+                e,
+                Observed(count),
+                Set(hot),
+                (newHot: SomeEPS) => observe(e, newHot.asInstanceOf[EOptionP[Entity, Contributions]])
+            )
+        }
+    }
+
+    def run(threads: Int, useLockFreeStates: Boolean): Unit = {
+        val ps = new PKECPropertyStore(
+            Map.empty,
+            PKECNoPriorityTaskManager,
+            threads,
+            32,
+            useLockFreeStates = useLockFreeStates
+        )
+        ps.setupPhase(Set(ContributionsKey, ObservedKey), Set.empty)
+        ps.scheduleEagerComputationsForEntities(entities) { e =>
+            Results(
+                PartialResult(HotEntity, ContributionsKey, contribute),
+                observe(e, ps(HotEntity, ContributionsKey))
+            )
+        }
+        time {
+            ps.waitOnPhaseCompletion()
+        } { t =>
+            val tasks = ps.scheduledTasksCount
+            val throughput = (tasks / t.toSeconds.timeSpan).toLong
+            val states = if (useLockFreeStates) "lock-free" else "locking"
+            println(f"$threads%3d threads, $states%-9s states: ${t.toSeconds} ($tasks tasks; $throughput tasks/s)")
+        }
+        ps.shutdown()
+    }
+
+    for {
+        threads <- List(8, 32, 64)
+        _ <- 1 to repetitions
+        useLockFreeStates <- List(false, true)
+    } {
+        util.gc()
+        run(threads, useLockFreeStates)
+    }
+}
@@ -270,7 +270,7 @@ final class PKESequentialPropertyStore protected (
                         epss.put(e, epk)
                         if (evaluationDepth < MaxEvaluationDepth) {
                             evaluationDepth += 1
-                            handleResult(lc(e))
+                            handleResultOf(e)(lc(e))
                             evaluationDepth -= 1
                             // we now have a new result (at least an EPK)
                             epss(e).asInstanceOf[EOptionP[E, P]]
@@ -362,6 +362,7 @@ final class PKESequentialPropertyStore protected (
     ): Unit = {
         val pkId = eps.pk.id
         val e = eps.e
+        recordDerivedProperty(e)
         val notificationRequired = ps(pkId).put(e, eps) match {
             case None =>
                 // The entity was unknown; i.e., there can't be any dependees - no one queried
@@ -398,9 +399,9 @@ final class PKESequentialPropertyStore protected (
                     if (isFinal || !suppressInterimUpdates(dependerEPK.pk.id)(pkId)) {
                         val t: QualifiedTask =
                             if (isFinal) {
-                                OnFinalUpdateComputationTask(this, eps.asFinal, c)
+                                OnFinalUpdateComputationTask(this, dependerEPK.e, eps.asFinal, c)
                             } else {
-                                OnUpdateComputationTask(this, eps.toEPK, c)
+                                OnUpdateComputationTask(this, dependerEPK.e, eps.toEPK, c)
                             }
                         tasksManager.push(t, dependerEPK, eps, newDependees, currentDependers)
                         scheduledOnUpdateComputationsCounter += 1
@@ -423,6 +424,17 @@ final class PKESequentialPropertyStore protected (
         }
     }
 
+    override protected def doInvalidate(e: Entity): Unit = {
+        var pkId = 0
+        while (pkId <= PropertyKey.maxId) {
+            ps(pkId).remove(e)
+            dependers(pkId).remove(e)
+            dependees(pkId).remove(e)
+            triggeredComputations(pkId).valuesIterator.foreach { triggeredEntities => triggeredEntities -= e }
+            pkId += 1
+        }
+    }
+
     override def doPreInitialize[E <: Entity, P <: Property](
         e:  E,
         pk: PropertyKey[P]
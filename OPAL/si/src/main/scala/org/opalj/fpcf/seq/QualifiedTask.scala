@@ -42,33 +42,37 @@ final case class PropertyComputationTask[E <: Entity](
     pc: PropertyComputation[E]
 ) extends QualifiedTask {
 
-    override def apply(): Unit = ps.handleResult(pc(e))
+    override def apply(): Unit = {
+        ps.handleResultOf(e)(pc(e))
+    }
 
     override def isTriggeredByFinalProperty: Boolean = false
 }
 
 final case class OnFinalUpdateComputationTask[E <: Entity, P <: Property](
-    ps: PropertyStore,
-    r:  FinalEP[E, P],
-    c:  OnUpdateContinuation
+    ps:       PropertyStore,
+    depender: Entity,
+    r:        FinalEP[E, P],
+    c:        OnUpdateContinuation
 ) extends QualifiedTask {
 
     override def apply(): Unit = {
-        ps.handleResult(c(r))
+        ps.handleResultOf(depender)(c(r))
     }
 
     override def isTriggeredByFinalProperty: Boolean = true
 }
 
 final case class OnUpdateComputationTask[E <: Entity, P <: Property](
-    ps:  PropertyStore,
-    epk: EPK[E, P],
-    c:   OnUpdateContinuation
+    ps:       PropertyStore,
+    depender: Entity,
+    epk:      EPK[E, P],
+    c:        OnUpdateContinuation
 ) extends QualifiedTask {
 
     override def apply(): Unit = {
         // Get the most current property when the depender is eventually evaluated.
-        ps.handleResult(c(ps(epk).asEPS))
+        ps.handleResultOf(depender)(c(ps(epk).asEPS))
     }
 
     override def isTriggeredByFinalProperty: Boolean = false
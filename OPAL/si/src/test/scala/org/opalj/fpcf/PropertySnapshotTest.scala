@@ -0,0 +1,78 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package fpcf
+
+import java.io.DataInput
+import java.io.DataOutput
+import java.nio.file.Files
+
+import org.scalatest.funsuite.AnyFunSuite
+
+import org.opalj.fpcf.fixtures.Marker
+import org.opalj.fpcf.fixtures.Marker.IsMarked
+import org.opalj.fpcf.fixtures.Marker.MarkerProperty
+import org.opalj.fpcf.fixtures.Marker.NotMarked
+import org.opalj.fpcf.seq.PKESequentialPropertyStore
+import org.opalj.log.GlobalLogContext
+import org.opalj.log.LogContext
+
+class PropertySnapshotTest extends AnyFunSuite {
+
+    implicit val logContext: LogContext = GlobalLogContext
+
+    object MarkerCodec extends PropertySnapshotCodec[String, MarkerProperty] {
+        override def pk: PropertyKey[MarkerProperty] = Marker.Key
+        override def canEncode(e: Entity): Boolean = e.isInstanceOf[String]
+        override def writeEntity(e: String, out: DataOutput): Unit = out.writeUTF(e)
+        override def readEntity(in: DataInput): String = {
+            val e = in.readUTF()
+            if (e == "removed") null else e
+        }
+        override def writeProperty(p: MarkerProperty, out: DataOutput): Unit = out.writeBoolean(p == IsMarked)
+        override def readProperty(in: DataInput): MarkerProperty = if (in.readBoolean()) IsMarked else NotMarked
+    }
+
+    private def withSnapshot(f: java.nio.file.Path => Unit): Unit = {
+        val file = Files.createTempFile("PropertySnapshotTest", ".snapshot")
+        try f(file) finally Files.deleteIfExists(file)
+    }
+
+    private def newPropertyStore(): PropertyStore = PKESequentialPropertyStore("FIFO", 0)()
+
+    test("final properties are restored if the fingerprint matches") {
+        withSnapshot { file =>
+            val ps = newPropertyStore()
+            ps.set("a", IsMarked)
+            ps.set("b", NotMarked)
+            ps.set("removed", IsMarked)
+            assert(PropertySnapshot.write(ps, file, Array[Byte](1, 2), List(MarkerCodec)) == 3)
+
+            val newPS = newPropertyStore()
+            assert(PropertySnapshot.load(newPS, file, Array[Byte](1, 2), List(MarkerCodec)) == 2)
+            assert(newPS("a", Marker.Key) == FinalEP("a", IsMarked))
+            assert(newPS("b", Marker.Key) == FinalEP("b", NotMarked))
+            assert(newPS.get(EPK("removed", Marker.Key)).isEmpty)
+        }
+    }
+
+    test("snapshots with a different fingerprint are ignored") {
+        withSnapshot { file =>
+            val ps = newPropertyStore()
+            ps.set("a", IsMarked)
+            PropertySnapshot.write(ps, file, Array[Byte](1, 2), List(MarkerCodec))
+
+            assert(PropertySnapshot.read(file, Array[Byte](1, 3), List(MarkerCodec)).isEmpty)
+            assert(PropertySnapshot.load(newPropertyStore(), file, Array[Byte](1), List(MarkerCodec)) == 0)
+        }
+    }
+
+    test("property kinds without a codec are skipped") {
+        withSnapshot { file =>
+            val ps = newPropertyStore()
+            ps.set("a", IsMarked)
+            PropertySnapshot.write(ps, file, Array.empty, List(MarkerCodec))
+
+            assert(PropertySnapshot.read(file, Array.empty, Nil).contains(IndexedSeq.empty))
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package fpcf
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import scala.jdk.CollectionConverters.*
+
+import org.scalatest.funsuite.AnyFunSuite
+
+import org.opalj.fpcf.fixtures.Marker
+import org.opalj.fpcf.fixtures.Marker.IsMarked
+import org.opalj.fpcf.fixtures.Marker.NotMarked
+import org.opalj.fpcf.par.PKECNoPriorityTaskManager
+import org.opalj.fpcf.par.PKECPropertyStore
+import org.opalj.fpcf.seq.PKESequentialPropertyStore
+import org.opalj.log.GlobalLogContext
+import org.opalj.log.LogContext
+
+class PropertyStoreInvalidationTest extends AnyFunSuite {
+
+    implicit val logContext: LogContext = GlobalLogContext
+
+    // "b" depends on "a", "c" is independent; "d" is derived by the computation for "c"
+    private def analyze(ps: PropertyStore, computed: ConcurrentLinkedQueue[String]): Unit = {
+        ps.setupPhase(Set(Marker.Key))
+        ps.scheduleEagerComputationsForEntities(List("a", "b", "c")) { (e: String) =>
+            computed.add(e)
+            e match {
+                case "b" =>
+                    ps("a", Marker.Key) match {
+                        case FinalP(p) => Result("b", p)
+                        case epk =>
+                            InterimResult.forUB(
+                                "b",
+                                NotMarked,
+                                Set(epk),
+                                (eps: SomeEPS) => Result("b", eps.asFinal.p)
+                            )
+                    }
+                case "c" => Results(Result("c", NotMarked), Result("d", NotMarked))
+                case _   => Result(e, IsMarked)
+            }
+        }
+        ps.waitOnPhaseCompletion()
+    }
+
+    private def testInvalidation(createPropertyStore: () => PropertyStore): Unit = {
+        val ps = createPropertyStore()
+        ps.recordDependencies = true
+        val computed = new ConcurrentLinkedQueue[String]()
+        analyze(ps, computed)
+        assert(computed.asScala.toSet == Set("a", "b", "c"))
+        assert(ps.recordedDependers("a").toSet == Set("b"))
+        assert(ps.recordedDependers("c").toSet == Set("d"))
+
+        assert(ps.invalidate(List("a")) == Set("a", "b"))
+        assert(ps.get(EPK("b", Marker.Key)).isEmpty)
+        assert(ps("c", Marker.Key) == FinalEP("c", NotMarked))
+
+        computed.clear()
+        analyze(ps, computed)
+        ps.finishReanalysis()
+        assert(computed.asScala.toSet == Set("a", "b"))
+        assert(ps("a", Marker.Key) == FinalEP("a", IsMarked))
+        assert(ps("b", Marker.Key) == FinalEP("b", IsMarked))
+        assert(ps("d", Marker.Key) == FinalEP("d", NotMarked))
+
+        assert(ps.invalidate(List("c")) == Set("c", "d"))
+        assert(ps.get(EPK("d", Marker.Key)).isEmpty)
+        ps.shutdown()
+    }
+
+    test("the sequential store invalidates the transitive dependers of changed entities") {
+        testInvalidation(() => PKESequentialPropertyStore("FIFO", 0)())
+    }
+
+    test("the parallel store invalidates the transitive dependers of changed entities") {
+        testInvalidation(() => new PKECPropertyStore(Map.empty, PKECNoPriorityTaskManager, 4, 32))
+    }
+
+    test("invalidation requires that dependencies were recorded") {
+        val ps = PKESequentialPropertyStore("FIFO", 0)()
+        assertThrows[IllegalStateException] { ps.invalidate(List("a")) }
+    }
+}
@@ -61,6 +61,8 @@ class BasePropertyStoreMockup extends PropertyStore {
 
     override def doSet(e: Entity, p: Property): Unit = ???
 
+    override protected def doInvalidate(e: Entity): Unit = ???
+
     override def doPreInitialize[E <: Entity, P <: Property](
         e:  E,
         pk: PropertyKey[P]
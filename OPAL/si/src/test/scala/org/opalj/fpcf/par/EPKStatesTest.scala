@@ -0,0 +1,115 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package fpcf
+package par
+
+import org.scalatest.funsuite.AnyFunSuite
+
+import org.opalj.fpcf.fixtures.NilProperty
+
+class EPKStatesTest extends AnyFunSuite {
+
+    case class IdEntity(id: Int)
+
+    private val entityId: Entity => Int = {
+        case IdEntity(id) => id
+        case _            => -1
+    }
+
+    private def state(e: Entity): EPKState = new LockingEPKState(EPK(e, NilProperty.key), null, null)
+
+    test("dense tables store and retrieve states of entities with and without ids") {
+        val states = new DenseEPKStates(entityId)
+        val e1 = IdEntity(1)
+        val e2 = IdEntity(100000)
+        val e3 = "no id"
+
+        val s1 = state(e1)
+        val s2 = state(e2)
+        val s3 = state(e3)
+        assert(states.put(e1, s1) eq null)
+        assert(states.putIfAbsent(e2, s2) eq null)
+        assert(states.putIfAbsent(e3, s3) eq null)
+
+        assert(states.get(e1) eq s1)
+        assert(states.get(e2) eq s2)
+        assert(states.get(e3) eq s3)
+        assert(states.get(IdEntity(2)) eq null)
+        assert(states.get(IdEntity(1 << 24)) eq null)
+        assert(states.size == 3)
+    }
+
+    test("dense tables do not overwrite existing states on putIfAbsent and computeIfAbsent") {
+        val states = new DenseEPKStates(entityId)
+        val e = IdEntity(42)
+        val s = state(e)
+        states.put(e, s)
+
+        assert(states.putIfAbsent(e, state(e)) eq s)
+        var evaluated = false
+        assert(states.computeIfAbsent(e, { entity => evaluated = true; state(entity) }) eq s)
+        assert(!evaluated)
+
+        assert(states.remove(e) eq s)
+        assert(!states.containsKey(e))
+        val newS = states.computeIfAbsent(e, state)
+        assert(states.get(e) eq newS)
+    }
+
+    test("dense tables iterate over all states") {
+        val states = new DenseEPKStates(entityId)
+        val entities = (0 until 10000 by 7).map(IdEntity(_)) :+ "no id"
+        entities.foreach { e => states.put(e, state(e)) }
+
+        var seen = Set.empty[Entity]
+        states.forEach { (e, s) =>
+            assert(s.eOptP.e == e)
+            seen += e
+        }
+        assert(seen == entities.toSet)
+
+        states.clear()
+        assert(states.size == 0)
+    }
+
+    test("dense tables are thread-safe") {
+        val states = new DenseEPKStates(entityId)
+        val threads = (0 until 8).map { t =>
+            new Thread(() => {
+                var i = 0
+                while (i < 50000) {
+                    val e = IdEntity(i)
+                    states.computeIfAbsent(e, state)
+                    assert(states.get(e).eOptP.e == e)
+                    i += 1 + t
+                }
+            })
+        }
+        threads.foreach(_.start())
+        threads.foreach(_.join())
+        assert(states.size == 50000)
+    }
+
+    test("lock-free states register a depender only once") {
+        var scheduledContinuations = 0
+        implicit val ps: PKECPropertyStore =
+            new PKECPropertyStore(Map.empty, PKECNoPriorityTaskManager, 1, 32, useLockFreeStates = true) {
+                override private[par] def scheduleTask(task: QualifiedTask): Unit = task match {
+                    case _: ContinuationTask => scheduledContinuations += 1
+                    case _                   =>
+                }
+            }
+        val dependeeEPK = EPK(IdEntity(1), NilProperty.key)
+        val dependee = new LockFreeEPKState(dependeeEPK, null, null)
+        val depender = new LockFreeEPKState(EPK(IdEntity(2), NilProperty.key), null, Set(dependeeEPK))
+        val suppressedPKs = new Array[Boolean](PropertyKind.SupportedPropertyKinds)
+
+        assert(dependee.addDependerOrScheduleContinuation(depender, dependeeEPK, NilProperty.key.id, suppressedPKs))
+        assert(dependee.addDependerOrScheduleContinuation(depender, dependeeEPK, NilProperty.key.id, suppressedPKs))
+        assert(dependee.dependersCount == 1)
+
+        dependee.setFinal(FinalEP(IdEntity(1), NilProperty), Set.empty)
+        assert(scheduledContinuations == 1)
+        assert(dependee.dependersCount == 0)
+    }
+}
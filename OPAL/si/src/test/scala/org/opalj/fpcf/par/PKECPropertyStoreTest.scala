@@ -77,6 +77,50 @@ class PKECPropertyStoreTestWithDebugging128ThreadsNoLocalEvaluation
 
 }
 
+class PKECPropertyStoreTestWithDebuggingWorkStealing
+    extends AbstractPKECPropertyStoreTestWithDebugging {
+
+    def createPropertyStore(): PKECPropertyStore = {
+        val ps = new PKECPropertyStore(Map.empty, PKECNoPriorityTaskManager, 8, 32, useWorkStealing = true)
+        ps.suppressError = true
+        ps
+    }
+
+}
+
+class PKECPropertyStoreTestWithDebuggingWorkStealingWithPriorities
+    extends AbstractPKECPropertyStoreTestWithDebugging {
+
+    def createPropertyStore(): PKECPropertyStore = {
+        val ps = new PKECPropertyStore(Map.empty, PKECManyDependeesLastTaskManager, 8, 0, useWorkStealing = true)
+        ps.suppressError = true
+        ps
+    }
+
+}
+
+class PKECPropertyStoreTestWithDebuggingLockFreeStates
+    extends AbstractPKECPropertyStoreTestWithDebugging {
+
+    def createPropertyStore(): PKECPropertyStore = {
+        val ps = new PKECPropertyStore(Map.empty, PKECNoPriorityTaskManager, 8, 32, useLockFreeStates = true)
+        ps.suppressError = true
+        ps
+    }
+
+}
+
+class PKECPropertyStoreTestWithDebugging128ThreadsNoLocalEvaluationLockFreeStates
+    extends AbstractPKECPropertyStoreTestWithDebugging {
+
+    def createPropertyStore(): PKECPropertyStore = {
+        val ps = new PKECPropertyStore(Map.empty, PKECNoPriorityTaskManager, 128, 0, useLockFreeStates = true)
+        ps.suppressError = true
+        ps
+    }
+
+}
+
 // *************************************************************************************************
 // ************************************* NO DEBUGGING **********************************************
 // *************************************************************************************************
@@ -149,3 +193,54 @@ class PKECPropertyStoreTestWithoutDebugging128ThreadsNoLocalEvaluation
     }
 
 }
+
+class PKECPropertyStoreTestWithoutDebuggingWorkStealing
+    extends AbstractPKECPropertyStoreTestWithoutDebugging {
+
+    def createPropertyStore(): PKECPropertyStore = {
+        val ps = new PKECPropertyStore(Map.empty, PKECNoPriorityTaskManager, 8, 32, useWorkStealing = true)
+        ps.suppressError = true
+        ps
+    }
+
+}
+
+class PKECPropertyStoreTestWithoutDebugging128ThreadsWorkStealing
+    extends AbstractPKECPropertyStoreTestWithoutDebugging {
+
+    def createPropertyStore(): PKECPropertyStore = {
+        val ps = new PKECPropertyStore(Map.empty, PKECNoPriorityTaskManager, 128, 0, useWorkStealing = true)
+        ps.suppressError = true
+        ps
+    }
+
+}
+
+class PKECPropertyStoreTestWithoutDebuggingLockFreeStates
+    extends AbstractPKECPropertyStoreTestWithoutDebugging {
+
+    def createPropertyStore(): PKECPropertyStore = {
+        val ps = new PKECPropertyStore(Map.empty, PKECNoPriorityTaskManager, 8, 32, useLockFreeStates = true)
+        ps.suppressError = true
+        ps
+    }
+
+}
+
+class PKECPropertyStoreTestWithoutDebuggingWorkStealingLockFreeStates
+    extends AbstractPKECPropertyStoreTestWithoutDebugging {
+
+    def createPropertyStore(): PKECPropertyStore = {
+        val ps = new PKECPropertyStore(
+            Map.empty,
+            PKECNoPriorityTaskManager,
+            8,
+            32,
+            useWorkStealing = true,
+            useLockFreeStates = true
+        )
+        ps.suppressError = true
+        ps
+    }
+
+}
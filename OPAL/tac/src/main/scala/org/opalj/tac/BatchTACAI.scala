@@ -0,0 +1,229 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.LongAdder
+import scala.jdk.CollectionConverters.*
+import scala.util.control.NonFatal
+
+import org.opalj.ai.BoundedInterruptableAI
+import org.opalj.ai.Domain
+import org.opalj.ai.common.DomainRegistry
+import org.opalj.ai.domain.RecordDefUse
+import org.opalj.ai.domain.l1.DefaultDomainWithCFGAndDefUse
+import org.opalj.br.Method
+import org.opalj.br.analyses.SomeProject
+import org.opalj.concurrent.NumberOfThreadsForCPUBoundTasks
+import org.opalj.concurrent.parForeachSeqElement
+import org.opalj.log.LogContext
+import org.opalj.log.OPALLogger
+import org.opalj.util.Milliseconds
+import org.opalj.util.Nanoseconds
+import org.opalj.value.ValueInformation
+
+/**
+ * Computes the three-address code of a batch of methods in parallel while bounding the effort
+ * spent on each single method.
+ *
+ * The methods are processed in the order of their estimated cost (the largest methods first)
+ * using at most `parallelizationLevel` threads. The code of each method is first computed
+ * using the configured `domainFactory`; if the method is too large (more than
+ * [[BatchTACAI.MaxInstructionsConfigKey]] instructions) or if the abstract interpretation
+ * exceeds its budget (see [[org.opalj.ai.BoundedInterruptableAI]]), the code is computed using
+ * the cheapest registered domain (see [[org.opalj.ai.common.DomainRegistry]]) that records
+ * def/use information; if that also exceeds its budget, [[TACNaive]] is used.
+ *
+ * @example
+ * {{{
+ * val statistics = new BatchTACAI(project).run(project.allMethodsWithBody) { r =>
+ *     ... r.code ...
+ * }
+ * println(statistics)
+ * }}}
+ *
+ * @param domainFactory The factory of the domain which is used by default.
+ */
+class BatchTACAI(
+    val project:              SomeProject,
+    val domainFactory:        Method => Domain & RecordDefUse,
+    val parallelizationLevel: Int
+) {
+
+    import BatchTACAI.*
+
+    def this(project: SomeProject) = {
+        this(project, m => new DefaultDomainWithCFGAndDefUse(project, m), NumberOfThreadsForCPUBoundTasks)
+    }
+
+    private val config = project.config
+    private implicit val logContext: LogContext = project.logContext
+
+    final val maxEvaluationFactor: Double = config.getDouble(MaxEvaluationFactorConfigKey)
+    final val maxEvaluationTime: Milliseconds = new Milliseconds(config.getLong(MaxEvaluationTimeConfigKey))
+    final val maxInstructions: Int = config.getInt(MaxInstructionsConfigKey)
+
+    private val fallbackDomainClass: Option[Class[? <: Domain]] = {
+        DomainRegistry.selectCheapest(Seq(classOf[RecordDefUse])).headOption
+    }
+
+    /** The estimated cost of computing the three-address code of the given method. */
+    def estimatedCost(m: Method): Double = {
+        val code = m.body.get
+        code.instructions.length * Math.log(code.exceptionHandlers.size + 2 * Math.E)
+    }
+
+    /**
+     * Computes the three-address code of the given methods with a body and passes each
+     * result to the given function; the function is called concurrently.
+     */
+    def run(methods: Iterable[Method])(f: Result => Unit): Statistics = {
+        val sortedMethods = methods.toIndexedSeq.map(m => (estimatedCost(m), m)).sortBy(-_._1).map(_._2)
+        val statistics = new StatisticsCollector
+        parForeachSeqElement(sortedMethods, parallelizationLevel) { m =>
+            val result = computeTAC(m)
+            statistics.add(result)
+            f(result)
+        }
+        statistics.result()
+    }
+
+    /**
+     * Computes the three-address code of the given method using the cheapest possible strategy
+     * that stays within the budget.
+     */
+    def computeTAC(m: Method): Result = {
+        val startTime = System.nanoTime()
+        var code: TACode[?, ?] = null
+        var strategy: Strategy = NaiveTAC
+        if (m.body.get.instructions.length <= maxInstructions) {
+            code = computeAITAC(m, domainFactory(m))
+            strategy = ConfiguredDomain
+        }
+        if ((code eq null) && fallbackDomainClass.isDefined) {
+            val domain = DomainRegistry.newDomain(fallbackDomainClass.get, project, m)
+            code = computeAITAC(m, domain.asInstanceOf[Domain & RecordDefUse])
+            strategy = FallbackDomain
+        }
+        if (code eq null) {
+            code = TACNaive(m, project.classHierarchy)
+            strategy = NaiveTAC
+        }
+        Result(m, code, strategy, new Nanoseconds(System.nanoTime() - startTime))
+    }
+
+    /**
+     * Computes the detached three-address code using the given domain or returns `null` if the
+     * abstract interpretation exceeds its budget.
+     */
+    private def computeAITAC(
+        m:      Method,
+        domain: Domain & RecordDefUse
+    ): AITACode[TACMethodParameter, ValueInformation] = {
+        try {
+            val ai = new BoundedInterruptableAI[Domain & RecordDefUse](
+                m.body.get,
+                maxEvaluationFactor,
+                maxEvaluationTime,
+                () => Thread.currentThread().isInterrupted
+            )
+            val aiResult = ai(m, domain)
+            if (aiResult.wasAborted) {
+                null
+            } else {
+                val code = TACAI(project, m, aiResult)
+                // well... the following cast safe is safe, because the underlying
+                // data-structure is actually, conceptually immutable
+                val taCode = code.asInstanceOf[AITACode[TACMethodParameter, ValueInformation]]
+                taCode.detach()
+                taCode
+            }
+        } catch {
+            case NonFatal(t) =>
+                OPALLogger.error(
+                    "tac",
+                    s"computing the TAC of ${m.toJava} using ${domain.getClass.getSimpleName} failed",
+                    t
+                )
+                null
+        }
+    }
+}
+
+object BatchTACAI {
+
+    final val MaxEvaluationFactorConfigKey = "org.opalj.tacai.batch.maxEvaluationFactor"
+    final val MaxEvaluationTimeConfigKey = "org.opalj.tacai.batch.maxEvaluationTimeInMs"
+    final val MaxInstructionsConfigKey = "org.opalj.tacai.batch.maxInstructions"
+
+    /** The strategy that was used to compute the three-address code of a method. */
+    sealed trait Strategy
+    case object ConfiguredDomain extends Strategy
+    case object FallbackDomain extends Strategy
+    case object NaiveTAC extends Strategy
+
+    /**
+     * The three-address code of a method.
+     *
+     * @param code Either an [[AITACode]] (if the code was computed using a domain) or a
+     *             [[NaiveTACode]].
+     * @param time The time it took to compute the code (including failed attempts).
+     */
+    final case class Result(method: Method, code: TACode[?, ?], strategy: Strategy, time: Nanoseconds)
+
+    /**
+     * Summary statistics of a batch.
+     *
+     * @param slowestMethods The methods with the highest computation times in descending order.
+     */
+    final case class Statistics(
+        methodsCount:          Int,
+        configuredDomainCount: Int,
+        fallbackDomainCount:   Int,
+        naiveTACCount:         Int,
+        totalTime:             Nanoseconds,
+        slowestMethods:        List[(Method, Nanoseconds)]
+    ) {
+
+        override def toString: String = {
+            val slowest = slowestMethods.map { case (m, t) => s"\n\t${m.toJava}: ${t.toSeconds}" }
+            s"TAC of $methodsCount methods computed in ${totalTime.toSeconds} (cumulative); " +
+                s"configured domain: $configuredDomainCount, fallback domain: $fallbackDomainCount, " +
+                s"naive: $naiveTACCount; slowest methods:" + slowest.mkString
+        }
+    }
+
+    final val SlowestMethodsCount = 20
+
+    private class StatisticsCollector {
+        private val methodsCount = new AtomicInteger(0)
+        private val configuredDomainCount = new AtomicInteger(0)
+        private val fallbackDomainCount = new AtomicInteger(0)
+        private val naiveTACCount = new AtomicInteger(0)
+        private val totalTime = new LongAdder
+        private val times = new ConcurrentLinkedQueue[(Method, Nanoseconds)]()
+
+        def add(result: Result): Unit = {
+            methodsCount.incrementAndGet()
+            result.strategy match {
+                case ConfiguredDomain => configuredDomainCount.incrementAndGet()
+                case FallbackDomain   => fallbackDomainCount.incrementAndGet()
+                case NaiveTAC         => naiveTACCount.incrementAndGet()
+            }
+            totalTime.add(result.time.timeSpan)
+            times.add((result.method, result.time))
+        }
+
+        def result(): Statistics = {
+            Statistics(
+                methodsCount.get,
+                configuredDomainCount.get,
+                fallbackDomainCount.get,
+                naiveTACCount.get,
+                new Nanoseconds(totalTime.sum()),
+                times.asScala.toList.sortBy(-_._2.timeSpan).take(SlowestMethodsCount)
+            )
+        }
+    }
+}
@@ -0,0 +1,386 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+
+import java.lang.ref.SoftReference
+import java.util.LinkedHashMap
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAdder
+
+import com.typesafe.config.Config
+
+import org.opalj.br.Method
+import org.opalj.value.ValueInformation
+
+/**
+ * Caches the (detached) three-address code of methods; used by the [[LazyDetachedTACAIKey]]
+ * and the [[EagerDetachedTACAIKey]].
+ *
+ * The caching policy is configured using the key [[DetachedTACAICache.PolicyConfigKey]]:
+ *  - `unbounded`: the three-address code of all methods is kept (default).
+ *  - `lru`: the least recently used three-address code is evicted when the capacity is exceeded.
+ *  - `tinylfu`: the three-address code is evicted and admitted using the W-TinyLFU policy; i.e.,
+ *    a small LRU window is followed by a main LRU segment and a method's code only replaces the
+ *    main segment's least recently used code if it is accessed more frequently.
+ *  - `soft`: the three-address code is referenced using soft references.
+ *  - `none`: the three-address code is not cached; i.e., it is recomputed on each request.
+ *
+ * The capacity of the `lru` and `tinylfu` caches ([[DetachedTACAICache.CapacityConfigKey]]) is
+ * either measured in the number of methods or – if [[DetachedTACAICache.WeighByStatementsConfigKey]]
+ * is set – in the number of statements; the latter enables running analyses in a fixed
+ * memory budget. To not serialize the lookups of concurrently executed analyses, both caches
+ * are striped: the methods are distributed over independently locked stripes (by their hash
+ * codes) which share the capacity evenly and apply the policy locally. Hence, the code of a
+ * method is only cached if its weight does not exceed the capacity of a stripe.
+ *
+ * @param computeTAC Computes the detached three-address code of a method.
+ */
+abstract class DetachedTACAICache private[tac] (
+    computeTAC: Method => DetachedTACAICache.DetachedTAC
+) extends (Method => DetachedTACAICache.DetachedTAC) {
+
+    import DetachedTACAICache.DetachedTAC
+
+    protected final val hits = new LongAdder
+    protected final val misses = new LongAdder
+    protected final val evictions = new LongAdder
+
+    /**
+     * Returns the cached code or `null`.
+     *
+     * @param isAccess `false` if the lookup is repeated for the same request (see [[apply]]); i.e.,
+     *        the access was already recorded by policies which take the access frequency into
+     *        account.
+     */
+    protected def get(m: Method, isAccess: Boolean): DetachedTAC
+
+    protected def put(m: Method, tac: DetachedTAC): Unit
+
+    /** The number of methods for which the code is currently cached. */
+    def size: Int
+
+    /** `true` if the code of all methods can be retained (by the cache). */
+    def isUnbounded: Boolean
+
+    final def apply(m: Method): DetachedTAC = {
+        val tac = get(m, isAccess = true)
+        if (tac ne null) {
+            hits.increment()
+            tac
+        } else {
+            // Basically, we use double-checked locking; we really don't want to
+            // transform the code more than once concurrently!
+            m.body.get.synchronized {
+                val tac = get(m, isAccess = false)
+                if (tac ne null) {
+                    hits.increment()
+                    tac
+                } else {
+                    misses.increment()
+                    val tac = computeTAC(m)
+                    put(m, tac)
+                    tac
+                }
+            }
+        }
+    }
+
+    /** Adds the given (eagerly computed) code to the cache. */
+    private[tac] final def add(m: Method, tac: DetachedTAC): Unit = put(m, tac)
+
+    def statistics: DetachedTACAICache.Statistics = {
+        DetachedTACAICache.Statistics(hits.sum(), misses.sum(), evictions.sum(), size)
+    }
+}
+
+object DetachedTACAICache {
+
+    type DetachedTAC = AITACode[TACMethodParameter, ValueInformation]
+
+    final val PolicyConfigKey = "org.opalj.tacai.detachedTACAICache.policy"
+    final val CapacityConfigKey = "org.opalj.tacai.detachedTACAICache.capacity"
+    final val WeighByStatementsConfigKey = "org.opalj.tacai.detachedTACAICache.weighByStatements"
+
+    /** The minimal capacity of a stripe of a striped cache. */
+    private final val MinStripeCapacity = 16L
+
+    /**
+     * The number of stripes of a striped cache with the given capacity: a power of two that is
+     * (about) four times the number of available processors unless the stripes' capacity would
+     * be less than [[MinStripeCapacity]].
+     */
+    private def stripesCount(capacity: Long): Int = {
+        val maxStripes = Integer.highestOneBit(Runtime.getRuntime.availableProcessors() * 4)
+        val stripes = Math.min(maxStripes.toLong, Math.max(1L, capacity / MinStripeCapacity)).toInt
+        Integer.highestOneBit(stripes)
+    }
+
+    private def stripeIndex(m: Method, stripesCount: Int): Int = {
+        val h = m.hashCode * 0x9E3779B9
+        (h ^ (h >>> 16)) & (stripesCount - 1)
+    }
+
+    final case class Statistics(hits: Long, misses: Long, evictions: Long, size: Int) {
+        override def toString: String = s"TAC cache: $hits hits, $misses misses, $evictions evictions, $size cached"
+    }
+
+    /**
+     * Creates the cache as configured by the given configuration.
+     */
+    def apply(config: Config)(computeTAC: Method => DetachedTAC): DetachedTACAICache = {
+        val policy =
+            if (config.hasPath(PolicyConfigKey)) config.getString(PolicyConfigKey).toLowerCase
+            else "unbounded"
+        lazy val capacity = config.getLong(CapacityConfigKey)
+        lazy val weigh: DetachedTAC => Int =
+            if (config.hasPath(WeighByStatementsConfigKey) && config.getBoolean(WeighByStatementsConfigKey))
+                tac => tac.stmts.length
+            else
+                _ => 1
+        policy match {
+            case "unbounded" => new UnboundedCache(computeTAC)
+            case "lru"       => new LRUCache(capacity, weigh, computeTAC)
+            case "tinylfu"   => new WTinyLFUCache(capacity, weigh, computeTAC)
+            case "soft"      => new SoftCache(computeTAC)
+            case "none"      => new NoCache(computeTAC)
+            case _           =>
+                throw new IllegalArgumentException(s"unknown TAC cache policy: $policy")
+        }
+    }
+
+    private final class UnboundedCache(
+        computeTAC: Method => DetachedTAC
+    ) extends DetachedTACAICache(computeTAC) {
+
+        private val taCodes = new ConcurrentHashMap[Method, DetachedTAC]()
+
+        override protected def get(m: Method, isAccess: Boolean): DetachedTAC = taCodes.get(m)
+        override protected def put(m: Method, tac: DetachedTAC): Unit = taCodes.put(m, tac)
+        override def size: Int = taCodes.size
+        override def isUnbounded: Boolean = true
+    }
+
+    private final class NoCache(
+        computeTAC: Method => DetachedTAC
+    ) extends DetachedTACAICache(computeTAC) {
+
+        override protected def get(m: Method, isAccess: Boolean): DetachedTAC = null
+        override protected def put(m: Method, tac: DetachedTAC): Unit = { /* nothing to do */ }
+        override def size: Int = 0
+        override def isUnbounded: Boolean = false
+    }
+
+    private final class SoftCache(
+        computeTAC: Method => DetachedTAC
+    ) extends DetachedTACAICache(computeTAC) {
+
+        private val taCodes = new ConcurrentHashMap[Method, SoftReference[DetachedTAC]]()
+
+        override protected def get(m: Method, isAccess: Boolean): DetachedTAC = {
+            val ref = taCodes.get(m)
+            if (ref eq null)
+                null
+            else {
+                val tac = ref.get
+                if ((tac eq null) && taCodes.remove(m, ref)) evictions.increment()
+                tac
+            }
+        }
+
+        override protected def put(m: Method, tac: DetachedTAC): Unit = {
+            taCodes.put(m, new SoftReference(tac))
+        }
+
+        override def size: Int = taCodes.size
+        override def isUnbounded: Boolean = true
+    }
+
+    /**
+     * A map of the cached code in LRU order which keeps track of the overall weight.
+     * Not thread-safe.
+     */
+    private final class LRUSegment(weigh: DetachedTAC => Int) {
+
+        val taCodes = new LinkedHashMap[Method, DetachedTAC](16, 0.75f, /* accessOrder = */ true)
+        var weight = 0L
+
+        def get(m: Method): DetachedTAC = taCodes.get(m)
+
+        def put(m: Method, tac: DetachedTAC): Unit = {
+            val oldTAC = taCodes.put(m, tac)
+            if (oldTAC ne null) weight -= weigh(oldTAC)
+            weight += weigh(tac)
+        }
+
+        def eldest: Method = taCodes.keySet.iterator.next()
+
+        def remove(m: Method): DetachedTAC = {
+            val tac = taCodes.remove(m)
+            weight -= weigh(tac)
+            tac
+        }
+    }
+
+    private final class LRUCache(
+        capacity:   Long,
+        weigh:      DetachedTAC => Int,
+        computeTAC: Method => DetachedTAC
+    ) extends DetachedTACAICache(computeTAC) {
+
+        private final class Stripe(capacity: Long) {
+
+            private val segment = new LRUSegment(weigh)
+
+            def get(m: Method): DetachedTAC = synchronized { segment.get(m) }
+
+            def put(m: Method, tac: DetachedTAC): Unit = synchronized {
+                if (weigh(tac) <= capacity) {
+                    segment.put(m, tac)
+                    while (segment.weight > capacity) {
+                        segment.remove(segment.eldest)
+                        evictions.increment()
+                    }
+                }
+            }
+
+            def size: Int = synchronized { segment.taCodes.size }
+        }
+
+        private val stripes = {
+            val count = stripesCount(capacity)
+            Array.fill(count)(new Stripe(capacity / count))
+        }
+
+        override protected def get(m: Method, isAccess: Boolean): DetachedTAC = {
+            stripes(stripeIndex(m, stripes.length)).get(m)
+        }
+
+        override protected def put(m: Method, tac: DetachedTAC): Unit = {
+            stripes(stripeIndex(m, stripes.length)).put(m, tac)
+        }
+
+        override def size: Int = stripes.iterator.map(_.size).sum
+        override def isUnbounded: Boolean = false
+    }
+
+    /**
+     * A W-TinyLFU cache: new code is added to a small LRU window (1% of the capacity); code
+     * evicted from the window is only admitted to the main LRU segment if its estimated
+     * access frequency is higher than the frequency of the main segment's victim.
+     * The access frequencies are estimated using a count-min sketch which is periodically
+     * aged by halving all counters. Each stripe has its own window, main segment and sketch.
+     */
+    private final class WTinyLFUCache(
+        capacity:   Long,
+        weigh:      DetachedTAC => Int,
+        computeTAC: Method => DetachedTAC
+    ) extends DetachedTACAICache(computeTAC) {
+
+        private final class Stripe(capacity: Long) {
+
+            private val windowCapacity = Math.max(1L, capacity / 100)
+            private val mainCapacity = Math.max(1L, capacity - windowCapacity)
+            private val window = new LRUSegment(weigh)
+            private val main = new LRUSegment(weigh)
+
+            // THE FREQUENCY SKETCH (4 rows)
+            private val sketchWidth = {
+                val estimatedEntries = Math.min(Math.max(capacity, 16L), 1L << 24).toInt
+                Integer.highestOneBit(estimatedEntries - 1) << 1
+            }
+            private val sketch = new Array[Int](4 * sketchWidth)
+            private val sampleSize = 10 * sketchWidth
+            private var additions = 0
+
+            private def sketchIndex(m: Method, row: Int): Int = {
+                val h = (m.hashCode + row * 0x9E3779B9) * 0x85EBCA6B
+                row * sketchWidth + ((h ^ (h >>> 16)) & (sketchWidth - 1))
+            }
+
+            private def frequency(m: Method): Int = {
+                var f = Int.MaxValue
+                var row = 0
+                while (row < 4) {
+                    f = Math.min(f, sketch(sketchIndex(m, row)))
+                    row += 1
+                }
+                f
+            }
+
+            private def recordAccess(m: Method): Unit = {
+                var row = 0
+                while (row < 4) {
+                    val i = sketchIndex(m, row)
+                    if (sketch(i) < 15) sketch(i) += 1
+                    row += 1
+                }
+                additions += 1
+                if (additions == sampleSize) {
+                    var i = 0
+                    while (i < sketch.length) {
+                        sketch(i) >>>= 1
+                        i += 1
+                    }
+                    additions = sampleSize / 2
+                }
+            }
+
+            def get(m: Method, isAccess: Boolean): DetachedTAC = synchronized {
+                if (isAccess) recordAccess(m)
+                val tac = window.get(m)
+                if (tac ne null) tac else main.get(m)
+            }
+
+            def put(m: Method, tac: DetachedTAC): Unit = synchronized {
+                if (weigh(tac) <= mainCapacity) {
+                    window.put(m, tac)
+                    while (window.weight > windowCapacity) {
+                        val candidate = window.eldest
+                        admit(candidate, window.remove(candidate))
+                    }
+                }
+            }
+
+            private def admit(candidate: Method, candidateTAC: DetachedTAC): Unit = {
+                val candidateFrequency = frequency(candidate)
+                val candidateWeight = weigh(candidateTAC)
+                // determine the victims which are evicted if the candidate is admitted
+                var victimsWeight = 0L
+                var victimsFrequency = 0
+                val victims = main.taCodes.entrySet.iterator
+                while (main.weight - victimsWeight + candidateWeight > mainCapacity && victims.hasNext) {
+                    val victim = victims.next()
+                    victimsWeight += weigh(victim.getValue)
+                    victimsFrequency = Math.max(victimsFrequency, frequency(victim.getKey))
+                }
+                if (victimsWeight == 0L || candidateFrequency > victimsFrequency) {
+                    while (main.weight + candidateWeight > mainCapacity) {
+                        main.remove(main.eldest)
+                        evictions.increment()
+                    }
+                    main.put(candidate, candidateTAC)
+                } else {
+                    evictions.increment()
+                }
+            }
+
+            def size: Int = synchronized { window.taCodes.size + main.taCodes.size }
+        }
+
+        private val stripes = {
+            val count = stripesCount(capacity)
+            Array.fill(count)(new Stripe(capacity / count))
+        }
+
+        override protected def get(m: Method, isAccess: Boolean): DetachedTAC = {
+            stripes(stripeIndex(m, stripes.length)).get(m, isAccess)
+        }
+
+        override protected def put(m: Method, tac: DetachedTAC): Unit = {
+            stripes(stripeIndex(m, stripes.length)).put(m, tac)
+        }
+
+        override def size: Int = stripes.iterator.map(_.size).sum
+        override def isUnbounded: Boolean = false
+    }
+}
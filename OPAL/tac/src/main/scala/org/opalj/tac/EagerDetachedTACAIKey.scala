@@ -2,10 +2,6 @@
 package org.opalj
 package tac
 
-import java.util.concurrent.ConcurrentLinkedQueue
-import scala.collection.mutable
-import scala.jdk.CollectionConverters.*
-
 import org.opalj.ai.BaseAI
 import org.opalj.ai.Domain
 import org.opalj.ai.domain.RecordDefUse
@@ -20,6 +16,10 @@ import org.opalj.value.ValueInformation
  * domain/data-flow analysis. This key performs the transformation eagerly for all methods. The
  * results of the underlying analysis are not cached.
  *
+ * The generated TAC is cached using the configured policy; see [[DetachedTACAICache]]. If the
+ * configured cache cannot retain the TAC of all methods (i.e., it is bounded or disabled),
+ * the TAC is – as in case of the [[LazyDetachedTACAIKey]] – only computed on demand.
+ *
  * @example To get the index use the [[org.opalj.br.analyses.Project]]'s `get` method and
  *          pass in `this` object.
  *
@@ -46,11 +46,7 @@ object EagerDetachedTACAIKey extends TACAIKey[Method => Domain & RecordDefUse] {
             .getProjectInformationKeyInitializationData(this)
             .getOrElse((m: Method) => new DefaultDomainWithCFGAndDefUse(project, m))
 
-        val taCodes =
-            new ConcurrentLinkedQueue[(Method, AITACode[TACMethodParameter, ValueInformation])]()
-
-        project.parForeachMethodWithBody() { mi =>
-            val m = mi.method
+        def computeTAC(m: Method): AITACode[TACMethodParameter, ValueInformation] = {
             val domain = domainFactory(m)
             val aiResult = BaseAI(m, domain)
             val code = TACAI(project, m, aiResult)
@@ -58,10 +54,16 @@ object EagerDetachedTACAIKey extends TACAIKey[Method => Domain & RecordDefUse] {
             // data-structure is actually, conceptually immutable
             val taCode = code.asInstanceOf[AITACode[TACMethodParameter, ValueInformation]]
             taCode.detach()
-            taCodes.add((m, taCode))
+            taCode
         }
 
-        mutable.Map.empty[Method, AITACode[TACMethodParameter, ValueInformation]] ++
-            taCodes.asScala
+        val taCodes = DetachedTACAICache(project.config)(computeTAC)
+        if (taCodes.isUnbounded) {
+            project.parForeachMethodWithBody() { mi =>
+                val m = mi.method
+                taCodes.add(m, computeTAC(m))
+            }
+        }
+        taCodes
     }
 }
@@ -2,8 +2,6 @@
 package org.opalj
 package tac
 
-import scala.collection.concurrent.TrieMap
-
 import org.opalj.ai.BaseAI
 import org.opalj.ai.Domain
 import org.opalj.ai.domain.RecordDefUse
@@ -20,6 +18,8 @@ import org.opalj.value.ValueInformation
  * Hence, this ''key'' should only be used if the result of the underlying analysis is no longer
  * required after generating the TAC.
  *
+ * The generated TAC is cached using the configured policy; see [[DetachedTACAICache]].
+ *
  * @example To get the index use the [[org.opalj.br.analyses.Project]]'s `get` method and
  *          pass in `this` object.
  *
@@ -46,9 +46,7 @@ object LazyDetachedTACAIKey extends TACAIKey[Method => Domain & RecordDefUse] {
             .getProjectInformationKeyInitializationData(this)
             .getOrElse((m: Method) => new DefaultDomainWithCFGAndDefUse(project, m))
 
-        val taCodes = TrieMap.empty[Method, AITACode[TACMethodParameter, ValueInformation]]
-
-        def computeAndCacheTAC(m: Method) = {
+        DetachedTACAICache(project.config) { m =>
             val domain = domainFactory(m)
             val aiResult = BaseAI(m, domain)
             val code = TACAI(project, m, aiResult)
@@ -56,23 +54,7 @@ object LazyDetachedTACAIKey extends TACAIKey[Method => Domain & RecordDefUse] {
             // data-structure is actually, conceptually immutable
             val taCode = code.asInstanceOf[AITACode[TACMethodParameter, ValueInformation]]
             taCode.detach()
-            taCodes.put(m, taCode)
             taCode
         }
-
-        (m: Method) =>
-            taCodes.get(m) match {
-                case Some(taCode) => taCode
-                case None         =>
-                    val brCode = m.body.get
-                    // Basically, we use double-checked locking; we really don't want to
-                    // transform the code more than once!
-                    brCode.synchronized {
-                        taCodes.get(m) match {
-                            case Some(taCode) => taCode
-                            case None         => computeAndCacheTAC(m)
-                        }
-                    }
-            }
     }
 }
@@ -3,11 +3,11 @@ package org.opalj
 package tac
 
 import org.opalj.br.Method
-import org.opalj.br.analyses.ProjectInformationKey
+import org.opalj.br.analyses.IncrementalProjectInformationKey
 import org.opalj.value.ValueInformation
 
 /**
  * @author Michael Eichberg
  */
 trait TACAIKey[I <: AnyRef]
-    extends ProjectInformationKey[Method => AITACode[TACMethodParameter, ValueInformation], I]
+    extends IncrementalProjectInformationKey[Method => AITACode[TACMethodParameter, ValueInformation], I]
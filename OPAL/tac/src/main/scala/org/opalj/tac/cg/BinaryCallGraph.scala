@@ -0,0 +1,285 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package cg
+
+import java.io.File
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.nio.IntBuffer
+import java.nio.channels.FileChannel
+import java.nio.charset.StandardCharsets
+
+import org.opalj.br.ClassType
+import org.opalj.br.DeclaredMethod
+import org.opalj.br.MethodDescriptor
+import org.opalj.br.analyses.DeclaredMethods
+
+/**
+ * A (context-insensitive) call graph which is loaded from a file written by the
+ * [[BinaryCallGraphSerializer]]. The file is memory-mapped and the call graph is queried
+ * directly; i.e., the call graph is neither parsed nor are any per-edge objects created. The
+ * methods are only resolved (using [[DeclaredMethods]]) when they are returned; methods that are
+ * passed to queries are looked up by their signatures using an index of the method table.
+ *
+ * ==Format==
+ * All values are big-endian, 4 byte integers:
+ *  - the magic number [[BinaryCallGraph.Magic]] and the [[BinaryCallGraph.Version]],
+ *  - the string table: the number of strings followed by each string's length and UTF-8 bytes;
+ *    the strings are not padded individually, instead, zero bytes follow the last string until
+ *    the total size of all strings' bytes is a multiple of four,
+ *  - the method table: the number of methods `N` followed by the ids of the strings of each
+ *    method's declaring class (fully-qualified binary name), name and (JVM) descriptor,
+ *  - the number of reachable methods followed by their ids,
+ *  - the number of edges `E`,
+ *  - the callees (CSR encoded): `N + 1` offsets into the `E` targets and the `E` call-site
+ *    information (`pc << 1 | isDirect`) sorted by the caller, pc and target; as the pcs of
+ *    JVM methods are less than 65536 ([[BinaryCallGraph.MaxPC]]), no bit of the pc is lost,
+ *  - the callers (CSR encoded): `N + 1` offsets into the `E` callers and the `E` call-site
+ *    information sorted by the callee and the caller.
+ *
+ * @note Files larger than 2GB are not supported.
+ */
+final class BinaryCallGraph private (
+    private val strings:       Array[String],
+    private val stringIds:     java.util.HashMap[String, Integer],
+    private val methodTable:   IntBuffer,
+    private val reachable:     IntBuffer,
+    private val calleeOffsets: IntBuffer,
+    private val calleeTargets: IntBuffer,
+    private val calleePCs:     IntBuffer,
+    private val callerOffsets: IntBuffer,
+    private val callers:       IntBuffer,
+    private val callerPCs:     IntBuffer
+)(implicit declaredMethods: DeclaredMethods) {
+
+    val methodsCount: Int = calleeOffsets.limit() - 1
+
+    def numEdges: Int = calleeTargets.limit()
+
+    // The resolved methods; races are benign, because DeclaredMethods are unique
+    private val methods = new Array[DeclaredMethod](methodsCount)
+
+    /**
+     * An open addressing hash table which maps the signatures of the methods (the ids of the
+     * strings of their declaring class, name and descriptor) to the methods' ids plus one.
+     */
+    private lazy val methodIndex: Array[Int] = {
+        val methodIndex = new Array[Int](Integer.highestOneBit(Math.max(methodsCount, 1) * 2) << 1)
+        val mask = methodIndex.length - 1
+        var mId = 0
+        while (mId < methodsCount) {
+            val triple = mId * 3
+            var i = indexOf(methodTable.get(triple), methodTable.get(triple + 1), methodTable.get(triple + 2), mask)
+            while (methodIndex(i) != 0) i = (i + 1) & mask
+            methodIndex(i) = mId + 1
+            mId += 1
+        }
+        methodIndex
+    }
+
+    private def indexOf(declaringClassId: Int, nameId: Int, descriptorId: Int, mask: Int): Int = {
+        val h = ((declaringClassId * 31) + nameId) * 31 + descriptorId
+        ((h ^ (h >>> 16)) * 0x85EBCA6B) & mask
+    }
+
+    /** Returns the method with the given id (w.r.t. this call graph). */
+    def method(methodId: Int): DeclaredMethod = {
+        var m = methods(methodId)
+        if (m eq null) {
+            val declaringClassType = ClassType(strings(methodTable.get(methodId * 3)))
+            val name = strings(methodTable.get(methodId * 3 + 1))
+            val descriptor = MethodDescriptor(strings(methodTable.get(methodId * 3 + 2)))
+            m = declaredMethods(
+                declaringClassType,
+                declaringClassType.packageName,
+                declaringClassType,
+                name,
+                descriptor
+            )
+            methods(methodId) = m
+        }
+        m
+    }
+
+    /** Returns the id of the given method (w.r.t. this call graph) or `-1` if it is unknown. */
+    def methodId(m: DeclaredMethod): Int = {
+        val declaringClass = stringIds.get(m.declaringClassType.fqn)
+        val name = stringIds.get(m.name)
+        val descriptor = stringIds.get(m.descriptor.toJVMDescriptor)
+        if ((declaringClass eq null) || (name eq null) || (descriptor eq null))
+            return -1;
+
+        val declaringClassId = declaringClass.intValue
+        val nameId = name.intValue
+        val descriptorId = descriptor.intValue
+        val methodIndex = this.methodIndex
+        var i = indexOf(declaringClassId, nameId, descriptorId, methodIndex.length - 1)
+        while (methodIndex(i) != 0) {
+            val mId = methodIndex(i) - 1
+            if (methodTable.get(mId * 3) == declaringClassId &&
+                methodTable.get(mId * 3 + 1) == nameId &&
+                methodTable.get(mId * 3 + 2) == descriptorId
+            ) {
+                return mId;
+            }
+            i = (i + 1) & (methodIndex.length - 1)
+        }
+        -1
+    }
+
+    def reachableMethods(): Iterator[DeclaredMethod] = {
+        Iterator.range(0, reachable.limit()).map(i => method(reachable.get(i)))
+    }
+
+    /**
+     * Calls the given function for each outgoing edge of the given method, passing the pc,
+     * the id of the target method and whether the call is direct.
+     */
+    def foreachCallee(methodId: Int)(f: (Int, Int, Boolean) => Unit): Unit = {
+        var i = calleeOffsets.get(methodId)
+        val end = calleeOffsets.get(methodId + 1)
+        while (i < end) {
+            val pcAndIsDirect = calleePCs.get(i)
+            f(pcAndIsDirect >>> 1, calleeTargets.get(i), (pcAndIsDirect & 1) == 1)
+            i += 1
+        }
+    }
+
+    /**
+     * Calls the given function for each incoming edge of the given method, passing the id of
+     * the calling method, the pc and whether the call is direct.
+     */
+    def foreachCaller(methodId: Int)(f: (Int, Int, Boolean) => Unit): Unit = {
+        var i = callerOffsets.get(methodId)
+        val end = callerOffsets.get(methodId + 1)
+        while (i < end) {
+            val pcAndIsDirect = callerPCs.get(i)
+            f(callers.get(i), pcAndIsDirect >>> 1, (pcAndIsDirect & 1) == 1)
+            i += 1
+        }
+    }
+
+    def calleesOf(m: DeclaredMethod, pc: Int): Iterator[DeclaredMethod] = {
+        val mId = methodId(m)
+        if (mId == -1)
+            return Iterator.empty;
+
+        // the edges are sorted by their pcs; hence, we search the first edge of the call site
+        val end = calleeOffsets.get(mId + 1)
+        var low = calleeOffsets.get(mId)
+        var high = end
+        while (low < high) {
+            val mid = (low + high) >>> 1
+            if ((calleePCs.get(mid) >>> 1) < pc) low = mid + 1
+            else high = mid
+        }
+        var callSiteEnd = low
+        while (callSiteEnd < end && (calleePCs.get(callSiteEnd) >>> 1) == pc) callSiteEnd += 1
+        Iterator.range(low, callSiteEnd).map(i => method(calleeTargets.get(i))).distinct
+    }
+
+    def calleesOf(m: DeclaredMethod): Iterator[(Int, Iterator[DeclaredMethod])] = {
+        val mId = methodId(m)
+        if (mId == -1)
+            return Iterator.empty;
+
+        val end = calleeOffsets.get(mId + 1)
+        new Iterator[(Int, Iterator[DeclaredMethod])] {
+            private var i = calleeOffsets.get(mId)
+            override def hasNext: Boolean = i < end
+            override def next(): (Int, Iterator[DeclaredMethod]) = {
+                // the edges are sorted by their pcs
+                val pc = calleePCs.get(i) >>> 1
+                val start = i
+                while (i < end && (calleePCs.get(i) >>> 1) == pc) i += 1
+                (pc, Iterator.range(start, i).map(j => method(calleeTargets.get(j))).distinct)
+            }
+        }
+    }
+
+    /**
+     * For the given method it returns all callers, including the pc of the call-site and a flag,
+     * indicating whether the call was direct (true) or indirect (false).
+     */
+    def callersOf(m: DeclaredMethod): Iterator[(DeclaredMethod, Int, Boolean)] = {
+        val mId = methodId(m)
+        if (mId == -1)
+            return Iterator.empty;
+
+        Iterator.range(callerOffsets.get(mId), callerOffsets.get(mId + 1)).map { i =>
+            val pcAndIsDirect = callerPCs.get(i)
+            (method(callers.get(i)), pcAndIsDirect >>> 1, (pcAndIsDirect & 1) == 1)
+        }
+    }
+}
+
+object BinaryCallGraph {
+
+    final val Magic = 0x4F504347 // "OPCG"
+
+    final val Version = 1
+
+    /** The largest pc that can be encoded; the code of JVM methods is less than 65536 bytes long. */
+    final val MaxPC = 0xFFFF
+
+    /**
+     * Memory-maps the given call graph file.
+     */
+    def apply(cgFile: File)(implicit declaredMethods: DeclaredMethods): BinaryCallGraph = {
+        val file = new RandomAccessFile(cgFile, "r")
+        val buffer =
+            try {
+                val fileSize = file.getChannel.size()
+                if (fileSize > Int.MaxValue)
+                    throw new IOException(s"$cgFile: binary call graphs larger than 2GB are not supported")
+                // the file is mapped once; the sections are views of the mapped buffer
+                file.getChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize)
+            } finally {
+                file.close()
+            }
+
+        if (buffer.getInt() != Magic)
+            throw new IOException(s"$cgFile is not a binary call graph")
+        val version = buffer.getInt()
+        if (version != Version)
+            throw new IOException(s"$cgFile: unsupported binary call graph version $version")
+
+        val strings = new Array[String](buffer.getInt())
+        val stringIds = new java.util.HashMap[String, Integer](strings.length * 2)
+        var stringsSize = 0
+        var i = 0
+        while (i < strings.length) {
+            val bytes = new Array[Byte](buffer.getInt())
+            buffer.get(bytes)
+            strings(i) = new String(bytes, StandardCharsets.UTF_8)
+            stringIds.put(strings(i), i)
+            stringsSize += bytes.length
+            i += 1
+        }
+        buffer.position(buffer.position() + (4 - stringsSize % 4) % 4)
+
+        def mapInts(count: Int): IntBuffer = {
+            val ints = buffer.slice().asIntBuffer()
+            ints.limit(count)
+            buffer.position(buffer.position() + count * 4)
+            ints
+        }
+        val methodsCount = buffer.getInt()
+        val methodTable = mapInts(methodsCount * 3)
+        val reachable = mapInts(buffer.getInt())
+        val edgesCount = buffer.getInt()
+        new BinaryCallGraph(
+            strings,
+            stringIds,
+            methodTable,
+            reachable,
+            calleeOffsets = mapInts(methodsCount + 1),
+            calleeTargets = mapInts(edgesCount),
+            calleePCs = mapInts(edgesCount),
+            callerOffsets = mapInts(methodsCount + 1),
+            callers = mapInts(edgesCount),
+            callerPCs = mapInts(edgesCount)
+        )
+    }
+}
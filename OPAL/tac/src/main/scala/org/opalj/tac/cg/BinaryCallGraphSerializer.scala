@@ -0,0 +1,172 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package cg
+
+import java.io.BufferedOutputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileOutputStream
+import java.nio.charset.StandardCharsets
+import java.util.Arrays
+import scala.collection.mutable
+import scala.collection.mutable.ArrayBuffer
+
+import org.opalj.br.DeclaredMethod
+import org.opalj.br.analyses.DeclaredMethods
+import org.opalj.br.fpcf.properties.Context
+
+/**
+ * Serializes a [[CallGraph]] into OPAL's compact binary call graph format which can be loaded
+ * (memory-mapped) using [[BinaryCallGraph]]; see [[BinaryCallGraph]] for the description of
+ * the format.
+ *
+ * In contrast to the JSON based [[CallGraphSerializer]], the contexts of the call graph are
+ * collapsed; i.e., the serialized call graph is context-insensitive.
+ */
+object BinaryCallGraphSerializer {
+
+    def writeCG(cg: CallGraph, outFile: File)(implicit declaredMethods: DeclaredMethods): Unit = {
+        // 1. Number the methods...
+        val methods = ArrayBuffer.empty[DeclaredMethod]
+        var methodIds = new Array[Int](Math.max(declaredMethods._UNSAFE_size, 16))
+        Arrays.fill(methodIds, -1)
+        def methodId(m: DeclaredMethod): Int = {
+            if (m.id >= methodIds.length) {
+                val oldLength = methodIds.length
+                methodIds = Arrays.copyOf(methodIds, Math.max(m.id + 1, oldLength * 2))
+                Arrays.fill(methodIds, oldLength, methodIds.length, -1)
+            }
+            var id = methodIds(m.id)
+            if (id == -1) {
+                id = methods.size
+                methodIds(m.id) = id
+                methods += m
+            }
+            id
+        }
+        val reachableMethods = cg.reachableMethods().map(c => methodId(c.method)).toArray.distinct
+
+        // 2. ... and collect the (sorted and deduplicated) edges of each method encoded as
+        //    `pc << 32 | target << 1 | isDirect`.
+        val edgesOfMethods = ArrayBuffer.fill[Array[Long]](methods.size)(null)
+        var edgesCount = 0
+        reachableMethods foreach { callerId =>
+            val caller = methods(callerId)
+            val edges = mutable.ArrayBuilder.make[Long]
+            def addEdges(callSites: Iterator[(Int, Iterator[Context])], isDirect: Int): Unit = {
+                callSites foreach { callSite =>
+                    val (pc, targets) = callSite
+                    if (pc < 0 || pc > BinaryCallGraph.MaxPC) {
+                        throw new IllegalArgumentException(s"${caller.toJava}: unsupported pc $pc")
+                    }
+                    targets foreach { target =>
+                        edges += (pc.toLong << 32) | (methodId(target.method).toLong << 1) | isDirect
+                    }
+                }
+            }
+            addEdges(cg.directCalleesOf(caller), 1)
+            addEdges(cg.indirectCalleesOf(caller), 0)
+            val sortedEdges = edges.result().sorted.distinct
+            while (edgesOfMethods.size < methods.size) edgesOfMethods += null
+            edgesOfMethods(callerId) = sortedEdges
+            edgesCount += sortedEdges.length
+        }
+        val methodsCount = methods.size
+
+        // 3. Compute the callee and caller relations (CSR encoded)
+        val calleeOffsets = new Array[Int](methodsCount + 1)
+        val calleeTargets = new Array[Int](edgesCount)
+        val calleePCs = new Array[Int](edgesCount)
+        val callerOffsets = new Array[Int](methodsCount + 1)
+        var mId = 0
+        var edgeIndex = 0
+        while (mId < methodsCount) {
+            calleeOffsets(mId) = edgeIndex
+            val edges = if (mId < edgesOfMethods.size) edgesOfMethods(mId) else null
+            if (edges ne null) {
+                edges foreach { edge =>
+                    val target = (edge & 0xFFFFFFFFL).toInt >>> 1
+                    calleeTargets(edgeIndex) = target
+                    calleePCs(edgeIndex) = ((edge >>> 32).toInt << 1) | (edge & 1L).toInt
+                    callerOffsets(target + 1) += 1
+                    edgeIndex += 1
+                }
+            }
+            mId += 1
+        }
+        calleeOffsets(methodsCount) = edgeIndex
+        mId = 0
+        while (mId < methodsCount) {
+            callerOffsets(mId + 1) += callerOffsets(mId)
+            mId += 1
+        }
+        val callers = new Array[Int](edgesCount)
+        val callerPCs = new Array[Int](edgesCount)
+        val nextCallerIndex = Arrays.copyOf(callerOffsets, methodsCount)
+        mId = 0
+        while (mId < methodsCount) {
+            var i = calleeOffsets(mId)
+            while (i < calleeOffsets(mId + 1)) {
+                val target = calleeTargets(i)
+                callers(nextCallerIndex(target)) = mId
+                callerPCs(nextCallerIndex(target)) = calleePCs(i)
+                nextCallerIndex(target) += 1
+                i += 1
+            }
+            mId += 1
+        }
+
+        // 4. Write the file
+        val strings = mutable.LinkedHashMap.empty[String, Int]
+        def stringId(s: String): Int = strings.getOrElseUpdate(s, strings.size)
+        val methodTable = new Array[Int](methodsCount * 3)
+        mId = 0
+        while (mId < methodsCount) {
+            val m = methods(mId)
+            methodTable(mId * 3) = stringId(m.declaringClassType.fqn)
+            methodTable(mId * 3 + 1) = stringId(m.name)
+            methodTable(mId * 3 + 2) = stringId(m.descriptor.toJVMDescriptor)
+            mId += 1
+        }
+
+        val out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outFile), 1 << 16))
+        try {
+            def writeInts(values: Array[Int]): Unit = {
+                var i = 0
+                while (i < values.length) {
+                    out.writeInt(values(i))
+                    i += 1
+                }
+            }
+            out.writeInt(BinaryCallGraph.Magic)
+            out.writeInt(BinaryCallGraph.Version)
+            out.writeInt(strings.size)
+            var stringsSize = 0
+            strings.keysIterator foreach { s =>
+                val bytes = s.getBytes(StandardCharsets.UTF_8)
+                out.writeInt(bytes.length)
+                out.write(bytes)
+                stringsSize += bytes.length
+            }
+            // align the remaining (int) sections
+            while (stringsSize % 4 != 0) {
+                out.writeByte(0)
+                stringsSize += 1
+            }
+            out.writeInt(methodsCount)
+            writeInts(methodTable)
+            out.writeInt(reachableMethods.length)
+            writeInts(reachableMethods)
+            out.writeInt(edgesCount)
+            writeInts(calleeOffsets)
+            writeInts(calleeTargets)
+            writeInts(calleePCs)
+            writeInts(callerOffsets)
+            writeInts(callers)
+            writeInts(callerPCs)
+        } finally {
+            out.close()
+        }
+    }
+}
@@ -37,6 +37,16 @@ class CallGraph private[cg] ()(implicit ps: PropertyStore, typeIterator: TypeIte
         callees.callerContexts.flatMap(callees.callSites(_).iterator)
     }
 
+    def directCalleesOf(m: DeclaredMethod): Iterator[(Int, Iterator[Context])] = {
+        val callees = ps(m, Callees.key).ub
+        callees.callerContexts.flatMap(callees.directCallSites(_).iterator)
+    }
+
+    def indirectCalleesOf(m: DeclaredMethod): Iterator[(Int, Iterator[Context])] = {
+        val callees = ps(m, Callees.key).ub
+        callees.callerContexts.flatMap(callees.indirectCallSites(_).iterator)
+    }
+
     def calleesPropertyOf(m: DeclaredMethod): Callees = {
         ps(m, Callees.key).ub
     }
@@ -94,6 +104,24 @@ class CallGraph private[cg] ()(implicit ps: PropertyStore, typeIterator: TypeIte
         }
     }
 
+    /**
+     * Creates an immutable snapshot of this call graph which answers queries without accessing
+     * the property store; see [[FrozenCallGraph]].
+     */
+    def freeze(): FrozenCallGraph = {
+        FrozenCallGraph(
+            reachableMethods(),
+            context => {
+                val callees = ps(context.method, Callees.key).ub
+                callees.directCallSites(context).iterator
+            },
+            context => {
+                val callees = ps(context.method, Callees.key).ub
+                callees.indirectCallSites(context).iterator
+            }
+        )
+    }
+
     lazy val numEdges: Int = {
         ps.entities(Callers.key).map { cs => cs.ub.callers(cs.e.asInstanceOf[DeclaredMethod]).iterator.size }.sum
     }
@@ -0,0 +1,471 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package cg
+
+import java.util.Arrays
+import java.util.BitSet
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLongArray
+import scala.collection.mutable
+
+import org.opalj.br.DeclaredMethod
+import org.opalj.br.fpcf.properties.Context
+import org.opalj.concurrent.parForeachSeqElement
+
+/**
+ * An immutable snapshot of a [[CallGraph]] (see [[CallGraph.freeze]]) which stores the callee
+ * and the caller relation in compact, primitive arrays (compressed sparse row format).
+ *
+ * The nodes of the graph are the reachable contexts, which are numbered consecutively; the
+ * node of a context can be looked up using the context's id and the nodes of a method using
+ * the method's ([[DeclaredMethod]]) id. The edges of a node are numbered consecutively, too,
+ * and can be iterated over without allocating any objects:
+ * {{{
+ * var e = frozenCG.calleeEdgesStart(node)
+ * val end = frozenCG.calleeEdgesEnd(node)
+ * while (e < end) {
+ *     val callee = frozenCG.calleeEdgeTarget(e)
+ *     val pc = frozenCG.calleeEdgePC(e)
+ *     ...
+ *     e += 1
+ * }
+ * }}}
+ * The callee edges of a node are sorted by their pcs.
+ *
+ * @param calleePCs The pc of each callee edge and whether the call is direct
+ *          (`pc << 1 | isDirect`).
+ * @param callerPCs The pc of each caller edge and whether the call is direct.
+ * @param nodeOfContextId The node of each context (by context id); `-1` if the context is
+ *          not reachable.
+ * @param methodNodesOffsets The offsets into `methodNodes` of the nodes (i.e., contexts) of
+ *          each method (by the method's id).
+ */
+final class FrozenCallGraph private (
+    private val contexts:           Array[Context],
+    private val calleeOffsets:      Array[Int],
+    private val calleeNodes:        Array[Int],
+    private val calleePCs:          Array[Int],
+    private val callerOffsets:      Array[Int],
+    private val callerNodes:        Array[Int],
+    private val callerPCs:          Array[Int],
+    private val nodeOfContextId:    Array[Int],
+    private val methodNodesOffsets: Array[Int],
+    private val methodNodes:        Array[Int]
+) {
+
+    import FrozenCallGraph.foreachChunk
+
+    def nodesCount: Int = contexts.length
+
+    def numEdges: Int = calleeNodes.length
+
+    def context(node: Int): Context = contexts(node)
+
+    def method(node: Int): DeclaredMethod = contexts(node).method
+
+    /** Returns the node of the given context or `-1` if the context is not reachable. */
+    def node(context: Context): Int = {
+        val contextId = context.id
+        if (contextId >= 0 && contextId < nodeOfContextId.length) nodeOfContextId(contextId)
+        else -1
+    }
+
+    /** Calls the given function for each node (i.e., reachable context) of the given method. */
+    def foreachNode(method: DeclaredMethod)(f: Int => Unit): Unit = {
+        val methodId = method.id
+        if (methodId < methodNodesOffsets.length - 1) {
+            var i = methodNodesOffsets(methodId)
+            val end = methodNodesOffsets(methodId + 1)
+            while (i < end) {
+                f(methodNodes(i))
+                i += 1
+            }
+        }
+    }
+
+    def calleeEdgesStart(node: Int): Int = calleeOffsets(node)
+    def calleeEdgesEnd(node: Int): Int = calleeOffsets(node + 1)
+    def calleeEdgeTarget(edge: Int): Int = calleeNodes(edge)
+    def calleeEdgePC(edge: Int): Int = calleePCs(edge) >>> 1
+    def isDirectCalleeEdge(edge: Int): Boolean = (calleePCs(edge) & 1) == 1
+
+    def callerEdgesStart(node: Int): Int = callerOffsets(node)
+    def callerEdgesEnd(node: Int): Int = callerOffsets(node + 1)
+    def callerEdgeSource(edge: Int): Int = callerNodes(edge)
+    def callerEdgePC(edge: Int): Int = callerPCs(edge) >>> 1
+    def isDirectCallerEdge(edge: Int): Boolean = (callerPCs(edge) & 1) == 1
+
+    /** Calls the given function for the target node of each callee edge of the given node. */
+    def foreachCallee(node: Int)(f: Int => Unit): Unit = {
+        var e = calleeOffsets(node)
+        val end = calleeOffsets(node + 1)
+        while (e < end) {
+            f(calleeNodes(e))
+            e += 1
+        }
+    }
+
+    /** Calls the given function for the source node of each caller edge of the given node. */
+    def foreachCaller(node: Int)(f: Int => Unit): Unit = {
+        var e = callerOffsets(node)
+        val end = callerOffsets(node + 1)
+        while (e < end) {
+            f(callerNodes(e))
+            e += 1
+        }
+    }
+
+    /**
+     * Computes the nodes that are (transitively) reachable from the given root nodes
+     * (including the root nodes) using a level-synchronous breadth-first search; each level is
+     * processed in parallel if `parallel` is `true`.
+     *
+     * @param backwards If `true`, the caller edges are followed; i.e., the nodes are computed
+     *          from which the root nodes are reachable.
+     */
+    def reachableNodes(
+        roots:     Array[Int],
+        backwards: Boolean = false,
+        parallel:  Boolean = true
+    ): BitSet = {
+        val offsets = if (backwards) callerOffsets else calleeOffsets
+        val targets = if (backwards) callerNodes else calleeNodes
+        val visited = new AtomicLongArray((nodesCount + 63) / 64)
+        def visit(node: Int): Boolean = {
+            val wordIndex = node >>> 6
+            val mask = 1L << node
+            var word = visited.get(wordIndex)
+            while ((word & mask) == 0L) {
+                if (visited.compareAndSet(wordIndex, word, word | mask))
+                    return true;
+                word = visited.get(wordIndex)
+            }
+            false
+        }
+
+        var frontier = new Array[Int](nodesCount)
+        var frontierSize = 0
+        roots foreach { root =>
+            if (visit(root)) {
+                frontier(frontierSize) = root
+                frontierSize += 1
+            }
+        }
+        var nextFrontier = new Array[Int](nodesCount)
+        val nextFrontierSize = new AtomicInteger(0)
+        while (frontierSize > 0) {
+            val currentFrontier = frontier
+            val currentNextFrontier = nextFrontier
+            foreachChunk(frontierSize, parallel) { (from, until) =>
+                var i = from
+                while (i < until) {
+                    val node = currentFrontier(i)
+                    var e = offsets(node)
+                    val end = offsets(node + 1)
+                    while (e < end) {
+                        val target = targets(e)
+                        if (visit(target)) currentNextFrontier(nextFrontierSize.getAndIncrement()) = target
+                        e += 1
+                    }
+                    i += 1
+                }
+            }
+            frontier = currentNextFrontier
+            frontierSize = nextFrontierSize.getAndSet(0)
+            nextFrontier = currentFrontier
+        }
+
+        val words = new Array[Long](visited.length)
+        var i = 0
+        while (i < words.length) {
+            words(i) = visited.get(i)
+            i += 1
+        }
+        BitSet.valueOf(words)
+    }
+
+    /**
+     * Computes the strongly connected components of this call graph.
+     *
+     * First, nodes which have no (remaining) callers or callees are iteratively removed – in
+     * parallel if `parallel` is `true` – since each of them forms a trivial component. Given
+     * that most methods are not (mutually) recursive, this typically removes most nodes.
+     * Afterwards, the remaining nodes are processed using (an iterative version of) Tarjan's
+     * algorithm.
+     */
+    def stronglyConnectedComponents(parallel: Boolean = true): FrozenCallGraph.SCCs = {
+        val nodesCount = this.nodesCount
+        val componentOf = new Array[Int](nodesCount)
+        Arrays.fill(componentOf, -1)
+        val componentsCount = new AtomicInteger(0)
+
+        // 1. Trimming
+        def hasRemainingNeighbor(node: Int, offsets: Array[Int], targets: Array[Int]): Boolean = {
+            var e = offsets(node)
+            val end = offsets(node + 1)
+            while (e < end) {
+                val target = targets(e)
+                if (target != node && componentOf(target) == -1)
+                    return true;
+                e += 1
+            }
+            false
+        }
+        var trimmedNodesCount = 0
+        var round = 0
+        var continueTrimming = true
+        while (continueTrimming && round < FrozenCallGraph.MaxTrimmingRounds) {
+            val trimmedInRound = new AtomicInteger(0)
+            foreachChunk(nodesCount, parallel) { (from, until) =>
+                var node = from
+                var trimmed = 0
+                while (node < until) {
+                    if (componentOf(node) == -1 && (
+                            !hasRemainingNeighbor(node, calleeOffsets, calleeNodes) ||
+                            !hasRemainingNeighbor(node, callerOffsets, callerNodes)
+                        )
+                    ) {
+                        componentOf(node) = componentsCount.getAndIncrement()
+                        trimmed += 1
+                    }
+                    node += 1
+                }
+                trimmedInRound.addAndGet(trimmed)
+            }
+            trimmedNodesCount += trimmedInRound.get
+            continueTrimming = trimmedInRound.get > 0 && trimmedNodesCount < nodesCount
+            round += 1
+        }
+
+        // 2. Tarjan's algorithm on the remaining nodes
+        if (trimmedNodesCount < nodesCount) {
+            val index = new Array[Int](nodesCount)
+            Arrays.fill(index, -1)
+            val lowLink = new Array[Int](nodesCount)
+            val onStack = new Array[Boolean](nodesCount)
+            val stack = new Array[Int](nodesCount)
+            var stackSize = 0
+            val callStack = new Array[Int](nodesCount)
+            val nextEdge = new Array[Int](nodesCount)
+            var callStackSize = 0
+            var nextIndex = 0
+            var nextComponent = componentsCount.get
+
+            var root = 0
+            while (root < nodesCount) {
+                if (componentOf(root) == -1 && index(root) == -1) {
+                    index(root) = nextIndex; lowLink(root) = nextIndex; nextIndex += 1
+                    stack(stackSize) = root; stackSize += 1; onStack(root) = true
+                    callStack(0) = root; nextEdge(0) = calleeOffsets(root); callStackSize = 1
+                    while (callStackSize > 0) {
+                        val node = callStack(callStackSize - 1)
+                        val e = nextEdge(callStackSize - 1)
+                        if (e < calleeOffsets(node + 1)) {
+                            nextEdge(callStackSize - 1) = e + 1
+                            val target = calleeNodes(e)
+                            if (index(target) == -1) {
+                                if (componentOf(target) == -1) {
+                                    index(target) = nextIndex; lowLink(target) = nextIndex; nextIndex += 1
+                                    stack(stackSize) = target; stackSize += 1; onStack(target) = true
+                                    callStack(callStackSize) = target
+                                    nextEdge(callStackSize) = calleeOffsets(target)
+                                    callStackSize += 1
+                                }
+                            } else if (onStack(target)) {
+                                lowLink(node) = Math.min(lowLink(node), index(target))
+                            }
+                        } else {
+                            callStackSize -= 1
+                            if (lowLink(node) == index(node)) {
+                                var member = -1
+                                while (member != node) {
+                                    stackSize -= 1
+                                    member = stack(stackSize)
+                                    onStack(member) = false
+                                    componentOf(member) = nextComponent
+                                }
+                                nextComponent += 1
+                            }
+                            if (callStackSize > 0) {
+                                val parent = callStack(callStackSize - 1)
+                                lowLink(parent) = Math.min(lowLink(parent), lowLink(node))
+                            }
+                        }
+                    }
+                }
+                root += 1
+            }
+            componentsCount.set(nextComponent)
+        }
+
+        FrozenCallGraph.SCCs(componentOf, componentsCount.get)
+    }
+}
+
+object FrozenCallGraph {
+
+    /**
+     * The strongly connected components of a [[FrozenCallGraph]].
+     *
+     * @param componentOf The component of each node.
+     * @param componentsCount The number of components; the components are numbered
+     *          consecutively starting with 0.
+     */
+    final case class SCCs(componentOf: Array[Int], componentsCount: Int)
+
+    private final val ChunkSize = 1024
+
+    private final val MaxTrimmingRounds = 16
+
+    /**
+     * Calls `f` for consecutive chunks of the indexes `[0, n)`; the chunks are processed in
+     * parallel if `parallel` is `true`.
+     */
+    private def foreachChunk(n: Int, parallel: Boolean)(f: (Int, Int) => Unit): Unit = {
+        val chunksCount = (n + ChunkSize - 1) / ChunkSize
+        if (!parallel || chunksCount <= 1) {
+            f(0, n)
+        } else {
+            parForeachSeqElement(0 until chunksCount) { chunk =>
+                f(chunk * ChunkSize, Math.min(n, (chunk + 1) * ChunkSize))
+            }
+        }
+    }
+
+    /**
+     * Creates the snapshot of the call graph consisting of the given reachable contexts.
+     *
+     * @param directCallSites The direct callees of each call site (pc) of a context.
+     * @param indirectCallSites The indirect callees of each call site (pc) of a context.
+     */
+    private[cg] def apply(
+        reachableContexts: Iterator[Context],
+        directCallSites:   Context => Iterator[(Int, Iterator[Context])],
+        indirectCallSites: Context => Iterator[(Int, Iterator[Context])]
+    ): FrozenCallGraph = {
+        // 1. Number the contexts and collect the callee edges encoded as
+        //    `pc << 32 | callee << 1 | isDirect`
+        val contexts = mutable.ArrayBuffer.empty[Context]
+        val edgesOfNodes = mutable.ArrayBuffer.empty[Array[Long]]
+        var nodeOfContextId = new Array[Int](1024)
+        Arrays.fill(nodeOfContextId, -1)
+        def nodeOf(context: Context): Int = {
+            val contextId = context.id
+            if (contextId >= nodeOfContextId.length) {
+                val oldLength = nodeOfContextId.length
+                nodeOfContextId = Arrays.copyOf(nodeOfContextId, Math.max(contextId + 1, oldLength * 2))
+                Arrays.fill(nodeOfContextId, oldLength, nodeOfContextId.length, -1)
+            }
+            var node = nodeOfContextId(contextId)
+            if (node == -1) {
+                node = contexts.size
+                nodeOfContextId(contextId) = node
+                contexts += context
+                edgesOfNodes += null
+            }
+            node
+        }
+
+        var edgesCount = 0
+        reachableContexts foreach { context =>
+            val node = nodeOf(context)
+            if (edgesOfNodes(node) eq null) {
+                val edges = mutable.ArrayBuilder.make[Long]
+                def addEdges(callSites: Iterator[(Int, Iterator[Context])], isDirect: Int): Unit = {
+                    callSites foreach { callSite =>
+                        val (pc, callees) = callSite
+                        callees foreach { callee =>
+                            edges += (pc.toLong << 32) | (nodeOf(callee).toLong << 1) | isDirect
+                        }
+                    }
+                }
+                addEdges(directCallSites(context), 1)
+                addEdges(indirectCallSites(context), 0)
+                val sortedEdges = edges.result().sorted.distinct
+                edgesOfNodes(node) = sortedEdges
+                edgesCount += sortedEdges.length
+            }
+        }
+        val nodesCount = contexts.size
+
+        // 2. Create the CSR encoded callee and caller relations
+        val calleeOffsets = new Array[Int](nodesCount + 1)
+        val calleeNodes = new Array[Int](edgesCount)
+        val calleePCs = new Array[Int](edgesCount)
+        val callerOffsets = new Array[Int](nodesCount + 1)
+        var node = 0
+        var edgeIndex = 0
+        while (node < nodesCount) {
+            calleeOffsets(node) = edgeIndex
+            val edges = edgesOfNodes(node)
+            if (edges ne null) {
+                var i = 0
+                while (i < edges.length) {
+                    val edge = edges(i)
+                    val callee = (edge & 0xFFFFFFFFL).toInt >>> 1
+                    calleeNodes(edgeIndex) = callee
+                    calleePCs(edgeIndex) = ((edge >>> 32).toInt << 1) | (edge & 1L).toInt
+                    callerOffsets(callee + 1) += 1
+                    edgeIndex += 1
+                    i += 1
+                }
+            }
+            node += 1
+        }
+        calleeOffsets(nodesCount) = edgeIndex
+        node = 0
+        while (node < nodesCount) {
+            callerOffsets(node + 1) += callerOffsets(node)
+            node += 1
+        }
+        val callerNodes = new Array[Int](edgesCount)
+        val callerPCs = new Array[Int](edgesCount)
+        val nextCallerIndex = Arrays.copyOf(callerOffsets, nodesCount)
+        node = 0
+        while (node < nodesCount) {
+            var e = calleeOffsets(node)
+            while (e < calleeOffsets(node + 1)) {
+                val callee = calleeNodes(e)
+                callerNodes(nextCallerIndex(callee)) = node
+                callerPCs(nextCallerIndex(callee)) = calleePCs(e)
+                nextCallerIndex(callee) += 1
+                e += 1
+            }
+            node += 1
+        }
+
+        // 3. Index the nodes of each method
+        var maxMethodId = -1
+        contexts foreach { context => maxMethodId = Math.max(maxMethodId, context.method.id) }
+        val methodNodesOffsets = new Array[Int](maxMethodId + 2)
+        contexts foreach { context => methodNodesOffsets(context.method.id + 1) += 1 }
+        var methodId = 0
+        while (methodId <= maxMethodId) {
+            methodNodesOffsets(methodId + 1) += methodNodesOffsets(methodId)
+            methodId += 1
+        }
+        val methodNodes = new Array[Int](nodesCount)
+        val nextMethodNodeIndex = Arrays.copyOf(methodNodesOffsets, maxMethodId + 1)
+        node = 0
+        while (node < nodesCount) {
+            val methodId = contexts(node).method.id
+            methodNodes(nextMethodNodeIndex(methodId)) = node
+            nextMethodNodeIndex(methodId) += 1
+            node += 1
+        }
+
+        new FrozenCallGraph(
+            contexts.toArray,
+            calleeOffsets,
+            calleeNodes,
+            calleePCs,
+            callerOffsets,
+            callerNodes,
+            callerPCs,
+            nodeOfContextId,
+            methodNodesOffsets,
+            methodNodes
+        )
+    }
+}
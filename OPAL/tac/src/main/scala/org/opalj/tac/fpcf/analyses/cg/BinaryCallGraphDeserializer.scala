@@ -0,0 +1,84 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package fpcf
+package analyses
+package cg
+
+import java.io.File
+import scala.collection.mutable.ArrayBuffer
+
+import org.opalj.br.analyses.DeclaredMethods
+import org.opalj.br.analyses.DeclaredMethodsKey
+import org.opalj.br.analyses.ProjectInformationKeys
+import org.opalj.br.analyses.SomeProject
+import org.opalj.br.fpcf.BasicFPCFEagerAnalysisScheduler
+import org.opalj.br.fpcf.FPCFAnalysis
+import org.opalj.br.fpcf.properties.SimpleContexts
+import org.opalj.br.fpcf.properties.SimpleContextsKey
+import org.opalj.br.fpcf.properties.cg.Callees
+import org.opalj.br.fpcf.properties.cg.Callers
+import org.opalj.fpcf.ProperPropertyComputationResult
+import org.opalj.fpcf.PropertyBounds
+import org.opalj.fpcf.PropertyComputationResult
+import org.opalj.fpcf.PropertyStore
+import org.opalj.fpcf.Results
+import org.opalj.tac.cg.BinaryCallGraph
+
+/**
+ * Reads the given call graph in OPAL's binary call graph format (see
+ * [[org.opalj.tac.cg.BinaryCallGraph]]) and stores the relations into the property store.
+ * Reachable methods without any callers are considered to be called by the VM.
+ */
+private class BinaryCallGraphDeserializer private[analyses] (
+    final val serializedCG: File,
+    final val project:      SomeProject
+) extends FPCFAnalysis {
+    private implicit val declaredMethods: DeclaredMethods = project.get(DeclaredMethodsKey)
+    private val simpleContexts: SimpleContexts = project.get(SimpleContextsKey)
+
+    def analyze(p: SomeProject): PropertyComputationResult = {
+        val cg = BinaryCallGraph(serializedCG)
+        val results = ArrayBuffer.empty[ProperPropertyComputationResult]
+        cg.reachableMethods() foreach { method =>
+            val mId = cg.methodId(method)
+            val context = simpleContexts(method)
+            val directCalls = new DirectCalls()
+            val indirectCalls = new IndirectCalls()
+            cg.foreachCallee(mId) { (pc, targetId, isDirect) =>
+                val calls = if (isDirect) directCalls else indirectCalls
+                calls.addCall(context, pc, simpleContexts(cg.method(targetId)))
+            }
+            results ++= directCalls.partialResults(context)
+            results ++= indirectCalls.partialResults(context)
+
+            var hasCallers = false
+            cg.foreachCaller(mId) { (_, _, _) => hasCallers = true }
+            if (!hasCallers) {
+                val vmReachableMethods = new VMReachableMethods()
+                vmReachableMethods.addVMReachableMethod(method)
+                results ++= vmReachableMethods.partialResults(context)
+            }
+        }
+
+        Results(results)
+    }
+}
+
+class BinaryCallGraphDeserializerScheduler(serializedCG: File) extends BasicFPCFEagerAnalysisScheduler {
+
+    override def requiredProjectInformation: ProjectInformationKeys =
+        Seq(DeclaredMethodsKey, SimpleContextsKey)
+
+    override def start(p: SomeProject, ps: PropertyStore, i: Null): FPCFAnalysis = {
+        val analysis = new BinaryCallGraphDeserializer(serializedCG, p)
+        ps.scheduleEagerComputationForEntity(p)(analysis.analyze)
+        analysis
+    }
+
+    override def uses: Set[PropertyBounds] = Set.empty
+
+    override def derivesEagerly: Set[PropertyBounds] = PropertyBounds.ubs(Callees, Callers)
+
+    override def derivesCollaboratively: Set[PropertyBounds] = Set.empty
+}
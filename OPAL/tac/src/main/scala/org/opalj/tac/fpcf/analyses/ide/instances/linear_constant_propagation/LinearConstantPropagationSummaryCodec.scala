@@ -0,0 +1,100 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package fpcf
+package analyses
+package ide
+package instances
+package linear_constant_propagation
+
+import java.io.DataInput
+import java.io.DataOutput
+
+import org.opalj.br.Method
+import org.opalj.ide.problem.EdgeFunction
+import org.opalj.ide.problem.IdentityEdgeFunction
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.ConstantValue
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.LinearCombinationEdgeFunction
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.LinearConstantPropagationFact
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.LinearConstantPropagationValue
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.NullFact
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.UnknownValue
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.UnknownValueEdgeFunction
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.VariableFact
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.VariableValue
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.VariableValueEdgeFunction
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaIDESummaryCodec
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaSummaryScope
+
+/**
+ * Codec to persist the summaries of linear constant propagation (see [[org.opalj.ide.solver.IDESummaryStore]]).
+ *
+ * @example
+ * {{{
+ * val store = new IDESummaryStore(new LinearConstantPropagationSummaryCodec(new JavaSummaryScope(project)))
+ * store.read(file, fingerprint)
+ * val scheduler = new LinearConstantPropagationAnalysisScheduler {
+ *     override def summaryStore(project: SomeProject) = Some(store)
+ * }
+ * // ... run the analysis ...
+ * store.write(file, fingerprint)
+ * }}}
+ */
+class LinearConstantPropagationSummaryCodec(scope: JavaSummaryScope)
+    extends JavaIDESummaryCodec[LinearConstantPropagationFact, LinearConstantPropagationValue](scope) {
+
+    override def problemName: String = "LinearConstantPropagation"
+
+    override def writeFact(fact: LinearConstantPropagationFact, out: DataOutput): Unit = fact match {
+        case NullFact                           => out.writeByte(0)
+        case VariableFact(name, definedAtIndex) =>
+            out.writeByte(1)
+            out.writeUTF(name)
+            out.writeInt(definedAtIndex)
+    }
+
+    override def readFact(callable: Method, in: DataInput): LinearConstantPropagationFact = in.readByte() match {
+        case 0 => NullFact
+        case 1 => VariableFact(in.readUTF(), in.readInt())
+        case b => throw new IllegalArgumentException(s"unknown fact: $b")
+    }
+
+    private def writeValue(value: LinearConstantPropagationValue, out: DataOutput): Unit = value match {
+        case UnknownValue     => out.writeByte(0)
+        case ConstantValue(c) =>
+            out.writeByte(1)
+            out.writeInt(c)
+        case VariableValue => out.writeByte(2)
+    }
+
+    private def readValue(in: DataInput): LinearConstantPropagationValue = in.readByte() match {
+        case 0 => UnknownValue
+        case 1 => ConstantValue(in.readInt())
+        case 2 => VariableValue
+        case b => throw new IllegalArgumentException(s"unknown value: $b")
+    }
+
+    override def writeEdgeFunction(
+        edgeFunction: EdgeFunction[LinearConstantPropagationValue],
+        out:          DataOutput
+    ): Unit = edgeFunction match {
+        case IdentityEdgeFunction                   => out.writeByte(0)
+        case LinearCombinationEdgeFunction(a, b, c) =>
+            out.writeByte(1)
+            out.writeInt(a)
+            out.writeInt(b)
+            writeValue(c, out)
+        case UnknownValueEdgeFunction  => out.writeByte(2)
+        case VariableValueEdgeFunction => out.writeByte(3)
+        case _                         =>
+            throw new IllegalArgumentException(s"unsupported edge function: $edgeFunction")
+    }
+
+    override def readEdgeFunction(in: DataInput): EdgeFunction[LinearConstantPropagationValue] = in.readByte() match {
+        case 0 => IdentityEdgeFunction
+        case 1 => LinearCombinationEdgeFunction(in.readInt(), in.readInt(), readValue(in))
+        case 2 => UnknownValueEdgeFunction
+        case 3 => VariableValueEdgeFunction
+        case b => throw new IllegalArgumentException(s"unknown edge function: $b")
+    }
+}
@@ -18,6 +18,7 @@ import org.opalj.ide.integration.IDEAnalysisScheduler
 import org.opalj.ide.problem.IDEFact
 import org.opalj.ide.problem.IDEValue
 import org.opalj.tac.cg.TypeIteratorKey
+import org.opalj.tac.fpcf.analyses.ide.solver.FrozenJavaICFG
 import org.opalj.tac.fpcf.analyses.ide.solver.JavaBackwardICFG
 import org.opalj.tac.fpcf.analyses.ide.solver.JavaForwardICFG
 import org.opalj.tac.fpcf.analyses.ide.solver.JavaICFG
@@ -63,4 +64,24 @@ object JavaIDEAnalysisSchedulerBase {
             new JavaBackwardICFG(project)
         }
     }
+
+    /**
+     * Trait to drop-in a [[org.opalj.tac.fpcf.analyses.ide.solver.FrozenJavaICFG]] in forward direction for
+     * [[createICFG]]
+     */
+    trait FrozenForwardICFG {
+        def createICFG(project: SomeProject): JavaICFG = {
+            FrozenJavaICFG.forward(project)
+        }
+    }
+
+    /**
+     * Trait to drop-in a [[org.opalj.tac.fpcf.analyses.ide.solver.FrozenJavaICFG]] in backward direction for
+     * [[createICFG]]
+     */
+    trait FrozenBackwardICFG {
+        def createICFG(project: SomeProject): JavaICFG = {
+            FrozenJavaICFG.backward(project)
+        }
+    }
 }
@@ -0,0 +1,357 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package fpcf
+package analyses
+package ide
+package solver
+
+import java.util.IdentityHashMap
+import scala.collection.mutable.ArrayBuffer
+
+import org.opalj.br.DeclaredMethod
+import org.opalj.br.Method
+import org.opalj.br.analyses.DeclaredMethods
+import org.opalj.br.analyses.DeclaredMethodsKey
+import org.opalj.br.analyses.SomeProject
+import org.opalj.br.fpcf.properties.cg.Callers
+import org.opalj.collection.mutable.IntArrayStack
+import org.opalj.fpcf.PropertyStore
+import org.opalj.fpcf.PropertyStoreKey
+
+/**
+ * An immutable, indexed interprocedural control flow graph for Java programs which is built
+ * once – when it is used for the first time – from the given forward or backward ICFG. Hence,
+ * the call graph must be final before this ICFG is used; afterwards, the call graph is no
+ * longer queried.
+ *
+ * All statements of all reachable methods are numbered consecutively (the statement and the
+ * return node of the statement with the tac index `i` of a method have the ids
+ * `first + 2 * i` and `first + 2 * i + 1`) and all methods that are reachable or called are
+ * numbered, too. The successors and the callees of each statement, the callers and the start
+ * statements of each method are stored in primitive arrays (compressed sparse row format),
+ * which can be traversed without allocating any objects using the id based methods (e.g.,
+ * [[foreachNextStatement]]). The callers of a method are the inverse of the callee relation.
+ *
+ * Statements of methods that are not reachable are delegated to the given ICFG.
+ *
+ * @example
+ * {{{
+ * val icfg = new FrozenJavaICFG(project, new JavaForwardICFG(project))
+ * }}}
+ */
+class FrozenJavaICFG(project: SomeProject, val baseICFG: JavaBaseICFG) extends JavaICFG {
+
+    protected val declaredMethods: DeclaredMethods = project.get(DeclaredMethodsKey)
+    protected val propertyStore: PropertyStore = project.get(PropertyStoreKey)
+
+    private final val IsCallStatement = 1
+    private final val IsNormalExitStatement = 2
+    private final val IsAbnormalExitStatement = 4
+
+    /**
+     * @param reachableMethodsCount The number of methods (callables) with statements; these
+     *          have the ids `[0, reachableMethodsCount)`.
+     * @param statements The statement with each id; `null` for return nodes of statements which
+     *          are not calls.
+     * @param firstStatementIds The id of the first statement of each reachable method.
+     */
+    private final class Index(
+        val callableIds:            IdentityHashMap[Method, Integer],
+        val callables:              Array[Method],
+        val reachableMethodsCount:  Int,
+        val statements:             Array[JavaStatement],
+        val firstStatementIds:      Array[Int],
+        val flags:                  Array[Byte],
+        val successorsOffsets:      Array[Int],
+        val successors:             Array[Int],
+        val calleesOffsets:         Array[Int],
+        val callees:                Array[Int],
+        val callersOffsets:         Array[Int],
+        val callers:                Array[Int],
+        val startStatementsOffsets: Array[Int],
+        val startStatements:        Array[Int]
+    )
+
+    private lazy val index: Index = createIndex()
+
+    private def createIndex(): Index = {
+        val callableIds = new IdentityHashMap[Method, Integer]
+        val callables = ArrayBuffer.empty[Method]
+        def callableId(m: Method): Int = {
+            val id = callableIds.get(m)
+            if (id ne null) {
+                id.intValue
+            } else {
+                val newId = callables.size
+                callables += m
+                callableIds.put(m, Integer.valueOf(newId))
+                newId
+            }
+        }
+
+        propertyStore.entities(Callers.key).foreach { eps =>
+            eps.e match {
+                case dm: DeclaredMethod
+                    if eps.isFinal && eps.ub.nonEmpty && dm.hasSingleDefinedMethod &&
+                        dm.definedMethod.body.isDefined =>
+                    callableId(dm.definedMethod)
+                case _ =>
+            }
+        }
+        val reachableMethodsCount = callables.size
+
+        // 1. number the statements
+        val statements = ArrayBuffer.empty[JavaStatement]
+        val firstStatementIds = new Array[Int](reachableMethodsCount + 1)
+        var m = 0
+        while (m < reachableMethodsCount) {
+            val method = callables(m)
+            val tac = baseICFG.tacProvider(method)
+            firstStatementIds(m) = statements.size
+            var tacIndex = 0
+            while (tacIndex < tac.stmts.length) {
+                val stmt = JavaStatement(method, tacIndex, isReturnNode = false, tac.stmts, tac.cfg)
+                statements += stmt
+                statements += (
+                    if (baseICFG.isCallStatement(stmt))
+                        JavaStatement(method, tacIndex, isReturnNode = true, tac.stmts, tac.cfg)
+                    else null
+                )
+                tacIndex += 1
+            }
+            m += 1
+        }
+        firstStatementIds(reachableMethodsCount) = statements.size
+        val statementsCount = statements.size
+
+        def statementId(stmt: JavaStatement): Int = {
+            val callable = callableIds.get(stmt.method).intValue
+            firstStatementIds(callable) + 2 * stmt.tacIndex + (if (stmt.isReturnNode) 1 else 0)
+        }
+
+        // 2. compute the intraprocedural successors, the callees and the exit statements
+        val flags = new Array[Byte](statementsCount)
+        val successorsOffsets = new Array[Int](statementsCount + 1)
+        val successors = new IntArrayStack(statementsCount)
+        val calleesOffsets = new Array[Int](statementsCount + 1)
+        val callees = new IntArrayStack()
+        val callSites = new IntArrayStack()
+        var s = 0
+        while (s < statementsCount) {
+            successorsOffsets(s) = successors.length
+            calleesOffsets(s) = callees.length
+            val stmt = statements(s)
+            if (stmt ne null) {
+                var stmtFlags = 0
+                if (baseICFG.isNormalExitStatement(stmt)) stmtFlags |= IsNormalExitStatement
+                if (baseICFG.isAbnormalExitStatement(stmt)) stmtFlags |= IsAbnormalExitStatement
+                if (baseICFG.isCallStatement(stmt)) {
+                    stmtFlags |= IsCallStatement
+                    baseICFG.getCallees(stmt).foreach { callee =>
+                        callees += callableId(callee)
+                        callSites += s
+                    }
+                }
+                flags(s) = stmtFlags.toByte
+                baseICFG.getNextStatements(stmt).foreach { next => successors += statementId(next) }
+            }
+            s += 1
+        }
+        successorsOffsets(statementsCount) = successors.length
+        calleesOffsets(statementsCount) = callees.length
+        val calleesArray = callees.toArray
+        val callSitesArray = callSites.toArray
+
+        // 3. invert the callee relation
+        val callablesCount = callables.size
+        val callersOffsets = new Array[Int](callablesCount + 1)
+        calleesArray.foreach { callee => callersOffsets(callee + 1) += 1 }
+        var c = 0
+        while (c < callablesCount) {
+            callersOffsets(c + 1) += callersOffsets(c)
+            c += 1
+        }
+        val callers = new Array[Int](calleesArray.length)
+        val nextCaller = java.util.Arrays.copyOf(callersOffsets, callablesCount)
+        var e = 0
+        while (e < calleesArray.length) {
+            val callee = calleesArray(e)
+            callers(nextCaller(callee)) = callSitesArray(e)
+            nextCaller(callee) += 1
+            e += 1
+        }
+
+        // 4. compute the start statements
+        val startStatementsOffsets = new Array[Int](reachableMethodsCount + 1)
+        val startStatements = new IntArrayStack()
+        m = 0
+        while (m < reachableMethodsCount) {
+            startStatementsOffsets(m) = startStatements.length
+            baseICFG.getStartStatements(callables(m)).foreach { stmt => startStatements += statementId(stmt) }
+            m += 1
+        }
+        startStatementsOffsets(reachableMethodsCount) = startStatements.length
+
+        new Index(
+            callableIds,
+            callables.toArray,
+            reachableMethodsCount,
+            statements.toArray,
+            firstStatementIds,
+            flags,
+            successorsOffsets,
+            successors.toArray,
+            calleesOffsets,
+            calleesArray,
+            callersOffsets,
+            callers,
+            startStatementsOffsets,
+            startStatements.toArray
+        )
+    }
+
+    /** The number of statement ids; the ids of return nodes of non-call statements are unused. */
+    def statementsCount: Int = index.statements.length
+
+    /** Returns the statement with the given id. */
+    def statement(id: Int): JavaStatement = index.statements(id)
+
+    /** Returns the id of the given statement or `-1` if the statement's method is not reachable. */
+    def statementId(stmt: JavaStatement): Int = {
+        val index = this.index
+        val m = index.callableIds.get(stmt.method)
+        if ((m eq null) || m.intValue >= index.reachableMethodsCount) {
+            -1
+        } else {
+            val id = index.firstStatementIds(m.intValue) + 2 * stmt.tacIndex + (if (stmt.isReturnNode) 1 else 0)
+            if (index.statements(id) ne null) id else -1
+        }
+    }
+
+    /** Calls the given function for the id of each statement that can directly follow the given one. */
+    def foreachNextStatement(id: Int)(f: Int => Unit): Unit = {
+        val index = this.index
+        var e = index.successorsOffsets(id)
+        val end = index.successorsOffsets(id + 1)
+        while (e < end) {
+            f(index.successors(e))
+            e += 1
+        }
+    }
+
+    /** Calls the given function for each possible callee of the statement with the given id. */
+    def foreachCallee(id: Int)(f: Method => Unit): Unit = {
+        val index = this.index
+        var e = index.calleesOffsets(id)
+        val end = index.calleesOffsets(id + 1)
+        while (e < end) {
+            f(index.callables(index.callees(e)))
+            e += 1
+        }
+    }
+
+    /** Calls the given function for the id of each statement that could call the given callable. */
+    def foreachCaller(callable: Method)(f: Int => Unit): Unit = {
+        val index = this.index
+        val m = index.callableIds.get(callable)
+        if (m ne null) {
+            var e = index.callersOffsets(m.intValue)
+            val end = index.callersOffsets(m.intValue + 1)
+            while (e < end) {
+                f(index.callers(e))
+                e += 1
+            }
+        }
+    }
+
+    private def statementSet(offsets: Array[Int], ids: Array[Int], i: Int): Set[JavaStatement] = {
+        val statements = index.statements
+        val start = offsets(i)
+        val end = offsets(i + 1)
+        (end - start) match {
+            case 0 => Set.empty
+            case 1 => Set(statements(ids(start)))
+            case _ =>
+                val builder = Set.newBuilder[JavaStatement]
+                var e = start
+                while (e < end) {
+                    builder += statements(ids(e))
+                    e += 1
+                }
+                builder.result()
+        }
+    }
+
+    override def getStartStatements(callable: Method): Set[JavaStatement] = {
+        val index = this.index
+        val m = index.callableIds.get(callable)
+        if ((m eq null) || m.intValue >= index.reachableMethodsCount) {
+            baseICFG.getStartStatements(callable)
+        } else {
+            statementSet(index.startStatementsOffsets, index.startStatements, m.intValue)
+        }
+    }
+
+    override def getNextStatements(stmt: JavaStatement): Set[JavaStatement] = {
+        val id = statementId(stmt)
+        if (id == -1) baseICFG.getNextStatements(stmt)
+        else statementSet(index.successorsOffsets, index.successors, id)
+    }
+
+    override def isNormalExitStatement(stmt: JavaStatement): Boolean = {
+        val id = statementId(stmt)
+        if (id == -1) baseICFG.isNormalExitStatement(stmt)
+        else (index.flags(id) & IsNormalExitStatement) != 0
+    }
+
+    override def isAbnormalExitStatement(stmt: JavaStatement): Boolean = {
+        val id = statementId(stmt)
+        if (id == -1) baseICFG.isAbnormalExitStatement(stmt)
+        else (index.flags(id) & IsAbnormalExitStatement) != 0
+    }
+
+    override def isCallStatement(stmt: JavaStatement): Boolean = {
+        val id = statementId(stmt)
+        if (id == -1) baseICFG.isCallStatement(stmt)
+        else (index.flags(id) & IsCallStatement) != 0
+    }
+
+    override def getCallees(stmt: JavaStatement): Set[Method] = {
+        val id = statementId(stmt)
+        if (id == -1) {
+            baseICFG.getCallees(stmt)
+        } else {
+            val index = this.index
+            val start = index.calleesOffsets(id)
+            val end = index.calleesOffsets(id + 1)
+            if (start == end) {
+                Set.empty
+            } else {
+                val builder = Set.newBuilder[Method]
+                var e = start
+                while (e < end) {
+                    builder += index.callables(index.callees(e))
+                    e += 1
+                }
+                builder.result()
+            }
+        }
+    }
+
+    override def getCallable(stmt: JavaStatement): Method = stmt.method
+
+    override def getCallers(callable: Method): Set[JavaStatement] = {
+        val index = this.index
+        val m = index.callableIds.get(callable)
+        if (m eq null) baseICFG.getCallers(callable)
+        else statementSet(index.callersOffsets, index.callers, m.intValue)
+    }
+}
+
+object FrozenJavaICFG {
+
+    def forward(project: SomeProject): FrozenJavaICFG = new FrozenJavaICFG(project, new JavaForwardICFG(project))
+
+    def backward(project: SomeProject): FrozenJavaICFG = new FrozenJavaICFG(project, new JavaBackwardICFG(project))
+}
@@ -6,7 +6,7 @@ package analyses
 package ide
 package solver
 
-import scala.collection.mutable.Map as MutableMap
+import scala.collection.concurrent.TrieMap
 
 import org.opalj.br.Method
 import org.opalj.br.analyses.DeclaredMethods
@@ -36,7 +36,7 @@ abstract class JavaBaseICFG(project: SomeProject) extends JavaICFG {
     protected implicit val contextProvider: ContextProvider = project.get(ContextProviderKey)
     protected val declaredMethods: DeclaredMethods = project.get(DeclaredMethodsKey)
 
-    private val tacProviderCache = MutableMap.empty[Method, AITACode[TACMethodParameter, ValueInformation]]
+    private val tacProviderCache = TrieMap.empty[Method, AITACode[TACMethodParameter, ValueInformation]]
 
     def tacProvider(callable: Method): AITACode[TACMethodParameter, ValueInformation] = {
         tacProviderCache.getOrElseUpdate(callable, { lazyTacProvider(callable) })
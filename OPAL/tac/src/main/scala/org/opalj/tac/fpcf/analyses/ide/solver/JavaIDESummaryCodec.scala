@@ -0,0 +1,36 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package fpcf
+package analyses
+package ide
+package solver
+
+import java.io.DataInput
+import java.io.DataOutput
+
+import org.opalj.br.Method
+import org.opalj.ide.problem.IDEFact
+import org.opalj.ide.problem.IDEValue
+import org.opalj.ide.solver.IDESummaryCodec
+
+/**
+ * Base codec for the summaries of Java IDE problems. Summaries are only persisted and reused for library methods; see
+ * [[JavaSummaryScope]] for the encoding of methods and statements.
+ */
+abstract class JavaIDESummaryCodec[Fact <: IDEFact, Value <: IDEValue](val scope: JavaSummaryScope)
+    extends IDESummaryCodec[Fact, Value, JavaStatement, Method] {
+
+    override def callableKey(callable: Method): Option[String] = {
+        if (callable.body.isDefined && scope.isLibraryMethod(callable)) Some(scope.methodHash(callable))
+        else None
+    }
+
+    override def isPersistable(callable: Method): Boolean = scope.isPersistable(callable)
+
+    override def writeStatement(statement: JavaStatement, out: DataOutput): Unit =
+        scope.writeStatement(statement, out)
+
+    override def readStatement(callable: Method, in: DataInput): JavaStatement =
+        scope.readStatement(callable, in)
+}
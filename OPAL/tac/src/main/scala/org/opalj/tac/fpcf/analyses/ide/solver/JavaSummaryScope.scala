@@ -0,0 +1,142 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package fpcf
+package analyses
+package ide
+package solver
+
+import java.io.DataInput
+import java.io.DataOutput
+import scala.collection.concurrent.TrieMap
+import scala.collection.mutable
+
+import org.opalj.br.ClassType
+import org.opalj.br.Method
+import org.opalj.br.MethodDescriptor
+import org.opalj.br.analyses.ClassFileHashes
+import org.opalj.br.analyses.SomeProject
+
+/**
+ * Determines the Java methods whose summaries can be persisted (see [[org.opalj.ide.solver.IDESummaryStore]] and
+ * [[org.opalj.ifds.IFDSPropertySnapshotCodec]]) and encodes methods and statements for persisted summaries.
+ *
+ * The summaries of a method can be persisted if the method belongs to a library and all methods it (transitively)
+ * calls according to the call graph belong to a library, too; i.e., the summaries do not depend on the analyzed
+ * application. As a library method may call methods that are overridden by the application classes of other runs,
+ * persisted summaries of a method are only used if the method is persistable in the current run, too.
+ *
+ * Methods are encoded together with a hash of their bytecode (see [[org.opalj.br.analyses.ClassFileHashes]]) and are
+ * not read if their bytecode changed. Statements are encoded using their index in the three-address code of their
+ * method; hence, the three-address code has to be computed using the same configuration in all runs.
+ */
+class JavaSummaryScope(val project: SomeProject) {
+
+    /**
+     * The ICFG used to get the three-address code and the callees of methods; it is created lazily as it requires the
+     * call graph
+     */
+    private lazy val icfg: JavaBaseICFG = new JavaForwardICFG(project)
+
+    private val methodHashes = TrieMap.empty[Method, String]
+
+    private val persistableMethods = TrieMap.empty[Method, Boolean]
+
+    def isLibraryMethod(method: Method): Boolean = project.isLibraryType(method.classFile)
+
+    /**
+     * The hash of the method's bytecode as hex string
+     */
+    def methodHash(method: Method): String = {
+        methodHashes.getOrElseUpdate(
+            method,
+            ClassFileHashes.hash(method).map(b => f"${b & 0xff}%02x").mkString
+        )
+    }
+
+    /**
+     * Whether the summaries of the given method can be persisted, i.e., whether the method and all methods it
+     * (transitively) calls are library methods. The call graph has to be computed.
+     */
+    def isPersistable(method: Method): Boolean = {
+        persistableMethods.get(method) match {
+            case Some(isPersistable) => isPersistable
+            case None                =>
+                val reachableMethods = mutable.Set(method)
+                val worklist = mutable.Stack(method)
+                var isPersistable = method.body.isDefined
+                while (isPersistable && worklist.nonEmpty) {
+                    val m = worklist.pop()
+                    if (!isLibraryMethod(m) || persistableMethods.get(m).contains(false)) {
+                        isPersistable = false
+                    } else if (m.body.isDefined && !persistableMethods.contains(m)) {
+                        val tac = icfg.tacProvider(m)
+                        tac.stmts.indices.foreach { tacIndex =>
+                            val statement = JavaStatement(m, tacIndex, isReturnNode = false, tac.stmts, tac.cfg)
+                            if (icfg.isCallStatement(statement)) {
+                                icfg.getCallees(statement).foreach { callee =>
+                                    if (reachableMethods.add(callee)) worklist.push(callee)
+                                }
+                            }
+                        }
+                    }
+                }
+                // the methods reachable from a persistable method are persistable, too
+                if (isPersistable) reachableMethods.foreach(persistableMethods.put(_, true))
+                else persistableMethods.put(method, false)
+                isPersistable
+        }
+    }
+
+    /**
+     * Writes a reference to a method (without the hash of its bytecode)
+     */
+    def writeMethodReference(method: Method, out: DataOutput): Unit = {
+        out.writeUTF(method.classFile.thisType.fqn)
+        out.writeUTF(method.name)
+        out.writeUTF(method.descriptor.toJVMDescriptor)
+    }
+
+    /**
+     * Reads a reference to a method; returns `null` if the method is not available in the current run
+     */
+    def readMethodReference(in: DataInput): Method = {
+        val classType = ClassType(in.readUTF())
+        val name = in.readUTF()
+        val descriptor = MethodDescriptor(in.readUTF())
+        project.classFile(classType).flatMap(_.findMethod(name, descriptor)).orNull
+    }
+
+    def writeMethod(method: Method, out: DataOutput): Unit = {
+        writeMethodReference(method, out)
+        out.writeUTF(methodHash(method))
+    }
+
+    /**
+     * Reads a method; returns `null` if the method is not available in the current run or if its bytecode changed
+     */
+    def readMethod(in: DataInput): Method = {
+        val method = readMethodReference(in)
+        val hash = in.readUTF()
+        if (method != null && methodHash(method) == hash) method else null
+    }
+
+    def writeStatement(statement: JavaStatement, out: DataOutput): Unit = {
+        out.writeInt(statement.tacIndex)
+        out.writeBoolean(statement.isReturnNode)
+    }
+
+    /**
+     * Reads a statement of the given method; returns `null` if the method is `null`
+     */
+    def readStatement(method: Method, in: DataInput): JavaStatement = {
+        val tacIndex = in.readInt()
+        val isReturnNode = in.readBoolean()
+        if (method == null) {
+            null
+        } else {
+            val tac = icfg.tacProvider(method)
+            JavaStatement(method, tacIndex, isReturnNode, tac.stmts, tac.cfg)
+        }
+    }
+}
@@ -21,11 +21,21 @@ import org.opalj.tac.fpcf.analyses.ide.solver.JavaICFG
 import org.opalj.tac.fpcf.analyses.ide.solver.JavaStatement
 import org.opalj.value.ValueInformation
 
-abstract class JavaForwardIFDSProblem[Fact <: AbstractIFDSFact](project: SomeProject)
-    extends JavaIFDSProblem[Fact](new JavaForwardICFG(project))
+/**
+ * @param icfg Either a [[JavaForwardICFG]] or a [[org.opalj.tac.fpcf.analyses.ide.solver.FrozenJavaICFG]] in
+ *             forward direction.
+ */
+abstract class JavaForwardIFDSProblem[Fact <: AbstractIFDSFact](icfg: JavaICFG) extends JavaIFDSProblem[Fact](icfg) {
+    def this(project: SomeProject) = this(new JavaForwardICFG(project))
+}
 
-abstract class JavaBackwardIFDSProblem[Fact <: AbstractIFDSFact](project: SomeProject)
-    extends JavaIFDSProblem[Fact](new JavaBackwardICFG(project))
+/**
+ * @param icfg Either a [[JavaBackwardICFG]] or a [[org.opalj.tac.fpcf.analyses.ide.solver.FrozenJavaICFG]] in
+ *             backward direction.
+ */
+abstract class JavaBackwardIFDSProblem[Fact <: AbstractIFDSFact](icfg: JavaICFG) extends JavaIFDSProblem[Fact](icfg) {
+    def this(project: SomeProject) = this(new JavaBackwardICFG(project))
+}
 
 abstract class JavaIFDSProblem[Fact <: AbstractIFDSFact](icfg: JavaICFG)
     extends IFDSProblem[Fact, Method, JavaStatement, JavaICFG](icfg) {
@@ -0,0 +1,38 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package fpcf
+package analyses
+package ifds
+
+import java.io.DataInput
+import java.io.DataOutput
+
+import org.opalj.br.Method
+import org.opalj.ifds.AbstractIFDSFact
+import org.opalj.ifds.IFDSPropertyMetaInformation
+import org.opalj.ifds.IFDSPropertySnapshotCodec
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaStatement
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaSummaryScope
+
+/**
+ * Base codec for the summaries of Java IFDS problems. Summaries are only persisted for library methods; see
+ * [[org.opalj.tac.fpcf.analyses.ide.solver.JavaSummaryScope]] for the encoding of methods and statements.
+ */
+abstract class JavaIFDSPropertySnapshotCodec[Fact <: AbstractIFDSFact](
+    val scope:               JavaSummaryScope,
+    propertyMetaInformation: IFDSPropertyMetaInformation[JavaStatement, Fact]
+) extends IFDSPropertySnapshotCodec[Fact, Method, JavaStatement](propertyMetaInformation) {
+
+    override def isPersistable(callable: Method): Boolean = scope.isPersistable(callable)
+
+    override def writeCallable(callable: Method, out: DataOutput): Unit = scope.writeMethod(callable, out)
+
+    override def readCallable(in: DataInput): Method = scope.readMethod(in)
+
+    override def writeStatement(statement: JavaStatement, out: DataOutput): Unit =
+        scope.writeStatement(statement, out)
+
+    override def readStatement(callable: Method, in: DataInput): JavaStatement =
+        scope.readStatement(callable, in)
+}
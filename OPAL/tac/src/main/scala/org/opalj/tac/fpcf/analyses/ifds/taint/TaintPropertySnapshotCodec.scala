@@ -0,0 +1,69 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package fpcf
+package analyses
+package ifds
+package taint
+
+import java.io.DataInput
+import java.io.DataOutput
+
+import org.opalj.br.ClassType
+import org.opalj.br.Method
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaSummaryScope
+import org.opalj.tac.fpcf.properties.Taint
+
+/**
+ * Codec to persist the summaries of IFDS based taint analyses (see [[org.opalj.fpcf.PropertySnapshot]]).
+ *
+ * @example
+ * {{{
+ * val codec = new TaintPropertySnapshotCodec(new JavaSummaryScope(project))
+ * PropertySnapshot.load(propertyStore, file, fingerprint, Seq(codec))
+ * // ... run the analysis ...
+ * PropertySnapshot.write(propertyStore, file, fingerprint, Seq(codec))
+ * }}}
+ */
+class TaintPropertySnapshotCodec(scope: JavaSummaryScope)
+    extends JavaIFDSPropertySnapshotCodec[TaintFact](scope, Taint) {
+
+    override def writeFact(fact: TaintFact, out: DataOutput): Unit = fact match {
+        case TaintNullFact =>
+            out.writeByte(0)
+        case Variable(index) =>
+            out.writeByte(1)
+            out.writeInt(index)
+        case ArrayElement(index, element) =>
+            out.writeByte(2)
+            out.writeInt(index)
+            out.writeInt(element)
+        case StaticField(classType, fieldName) =>
+            out.writeByte(3)
+            out.writeUTF(classType.fqn)
+            out.writeUTF(fieldName)
+        case InstanceField(index, classType, fieldName) =>
+            out.writeByte(4)
+            out.writeInt(index)
+            out.writeUTF(classType.fqn)
+            out.writeUTF(fieldName)
+        case FlowFact(flow) =>
+            out.writeByte(5)
+            out.writeInt(flow.size)
+            flow.foreach(scope.writeMethodReference(_, out))
+        case _ =>
+            throw new IllegalArgumentException(s"unsupported fact: $fact")
+    }
+
+    override def readFact(callable: Method, in: DataInput): TaintFact = in.readByte() match {
+        case 0 => TaintNullFact
+        case 1 => Variable(in.readInt())
+        case 2 => ArrayElement(in.readInt(), in.readInt())
+        case 3 => StaticField(ClassType(in.readUTF()), in.readUTF())
+        case 4 => InstanceField(in.readInt(), ClassType(in.readUTF()), in.readUTF())
+        case 5 =>
+            val flow = Seq.fill(in.readInt())(scope.readMethodReference(in))
+            if (flow.contains(null)) null else FlowFact(flow)
+        case b => throw new IllegalArgumentException(s"unknown fact: $b")
+    }
+}
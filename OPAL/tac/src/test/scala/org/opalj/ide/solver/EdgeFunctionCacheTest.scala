@@ -0,0 +1,146 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package ide
+package solver
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.ide.problem.EdgeFunction
+import org.opalj.ide.problem.IdentityEdgeFunction
+import org.opalj.ide.problem.IDEValue
+
+/**
+ * Tests the interning and the memoization of the [[EdgeFunctionCache]].
+ */
+@RunWith(classOf[JUnitRunner])
+class EdgeFunctionCacheTest extends AnyFlatSpec with Matchers {
+
+    case class IntValue(value: Int) extends IDEValue
+
+    /** Counts the calls of `composeWith` and `meet` of the test edge functions. */
+    var computations = 0
+
+    /** An edge function adding a constant; as it is a product, it is interned. */
+    case class AddEdgeFunction(n: Int) extends EdgeFunction[IntValue] {
+        override def compute[V >: IntValue](sourceValue: V): V = sourceValue match {
+            case IntValue(value) => IntValue(value + n)
+            case _               => sourceValue
+        }
+
+        override def composeWith[V >: IntValue <: IDEValue](secondEdgeFunction: EdgeFunction[V]): EdgeFunction[V] = {
+            computations += 1
+            secondEdgeFunction match {
+                case AddEdgeFunction(m) => AddEdgeFunction(n + m)
+                case _                  => secondEdgeFunction
+            }
+        }
+
+        override def meet[V >: IntValue <: IDEValue](otherEdgeFunction: EdgeFunction[V]): EdgeFunction[V] = {
+            computations += 1
+            otherEdgeFunction match {
+                case AddEdgeFunction(m) => AddEdgeFunction(Math.max(n, m))
+                case _                  => this
+            }
+        }
+
+        override def equals[V >: IntValue <: IDEValue](otherEdgeFunction: EdgeFunction[V]): Boolean =
+            otherEdgeFunction == this
+    }
+
+    /** An edge function which is not a product and, hence, is never interned. */
+    class ConstantEdgeFunction(val c: Int) extends EdgeFunction[IntValue] {
+        override def compute[V >: IntValue](sourceValue: V): V = IntValue(c)
+
+        override def composeWith[V >: IntValue <: IDEValue](secondEdgeFunction: EdgeFunction[V]): EdgeFunction[V] =
+            new ConstantEdgeFunction(secondEdgeFunction.compute(IntValue(c)).asInstanceOf[IntValue].value)
+
+        override def meet[V >: IntValue <: IDEValue](otherEdgeFunction: EdgeFunction[V]): EdgeFunction[V] = this
+
+        override def equals[V >: IntValue <: IDEValue](otherEdgeFunction: EdgeFunction[V]): Boolean =
+            otherEdgeFunction match {
+                case that: ConstantEdgeFunction => that.c == c
+                case _                          => false
+            }
+    }
+
+    behavior of "the edge function cache"
+
+    it should "intern equal edge functions which are products to the same instance" in {
+        val cache = new EdgeFunctionCache[IntValue](EdgeFunctionCache.DefaultMemoSize)
+        val add1 = cache.intern(AddEdgeFunction(1))
+        cache.intern(AddEdgeFunction(1)) should be theSameInstanceAs add1
+        cache.intern(AddEdgeFunction(2)) should not be theSameInstanceAs(add1)
+        cache.intern(IdentityEdgeFunction) should be theSameInstanceAs IdentityEdgeFunction
+        cache.internedCount should be(3)
+    }
+
+    it should "not intern edge functions which are no products" in {
+        val cache = new EdgeFunctionCache[IntValue](EdgeFunctionCache.DefaultMemoSize)
+        val constant = new ConstantEdgeFunction(1)
+        cache.intern(constant) should be theSameInstanceAs constant
+        cache.intern(new ConstantEdgeFunction(1)) should not be theSameInstanceAs(constant)
+        cache.internedCount should be(0)
+    }
+
+    it should "compare edge functions of the same class which are products by reference" in {
+        val cache = new EdgeFunctionCache[IntValue](EdgeFunctionCache.DefaultMemoSize)
+        val add1 = cache.intern(AddEdgeFunction(1))
+        cache.equal(add1, cache.intern(AddEdgeFunction(1))) should be(true)
+        cache.equal(add1, cache.intern(AddEdgeFunction(2))) should be(false)
+        // an equal edge function which is not interned is not considered equal
+        cache.equal(add1, AddEdgeFunction(1)) should be(false)
+    }
+
+    it should "compare other edge functions using their equals method" in {
+        val cache = new EdgeFunctionCache[IntValue](EdgeFunctionCache.DefaultMemoSize)
+        cache.equal(new ConstantEdgeFunction(1), new ConstantEdgeFunction(1)) should be(true)
+        cache.equal(new ConstantEdgeFunction(1), new ConstantEdgeFunction(2)) should be(false)
+        cache.equal(cache.intern(AddEdgeFunction(0)), IdentityEdgeFunction) should be(false)
+        cache.equal(IdentityEdgeFunction, IdentityEdgeFunction) should be(true)
+    }
+
+    it should "memoize the results of composing and meeting interned edge functions" in {
+        val cache = new EdgeFunctionCache[IntValue](EdgeFunctionCache.DefaultMemoSize)
+        val add1 = cache.intern(AddEdgeFunction(1))
+        val add2 = cache.intern(AddEdgeFunction(2))
+        computations = 0
+        val add3 = cache.compose(add1, add2)
+        add3 should be(AddEdgeFunction(3))
+        cache.compose(add1, add2) should be theSameInstanceAs add3
+        cache.meet(add1, add2) should be theSameInstanceAs add2
+        cache.meet(add1, add2) should be theSameInstanceAs add2
+        computations should be(2)
+        // the result of composing is interned
+        cache.compose(add2, add1) should be theSameInstanceAs add3
+        computations should be(3)
+    }
+
+    it should "replace the memoized result if another pair of edge functions is mapped to the same slot" in {
+        // a memo table with a single slot
+        val cache = new EdgeFunctionCache[IntValue](1)
+        val add1 = cache.intern(AddEdgeFunction(1))
+        val add2 = cache.intern(AddEdgeFunction(2))
+        computations = 0
+        cache.compose(add1, add2)
+        cache.compose(add1, add2)
+        computations should be(1)
+        cache.compose(add2, add1)
+        cache.compose(add1, add2)
+        computations should be(3)
+    }
+
+    it should "not memoize any results if the memo size is zero" in {
+        val cache = new EdgeFunctionCache[IntValue](0)
+        val add1 = cache.intern(AddEdgeFunction(1))
+        val add2 = cache.intern(AddEdgeFunction(2))
+        computations = 0
+        val add3 = cache.compose(add1, add2)
+        cache.compose(add1, add2) should be theSameInstanceAs add3
+        cache.meet(add1, add2) should be theSameInstanceAs add2
+        cache.meet(add1, add2) should be theSameInstanceAs add2
+        computations should be(4)
+    }
+}
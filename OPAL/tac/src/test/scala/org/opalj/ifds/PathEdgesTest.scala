@@ -0,0 +1,169 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package ifds
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.br.analyses.SomeProject
+
+/**
+ * Tests the [[PathEdges]] and the [[Worklist]] of the [[IFDSAnalysis]].
+ */
+@RunWith(classOf[JUnitRunner])
+class PathEdgesTest extends AnyFlatSpec with Matchers {
+
+    /** A fact that subsumes all facts whose value is a multiple of its value. */
+    case class TestFact(value: Int) extends AbstractIFDSFact {
+        override def subsumes(other: AbstractIFDSFact, project: SomeProject): Boolean = other match {
+            case TestFact(otherValue) => otherValue % value == 0
+            case _                    => false
+        }
+    }
+
+    class TestPathEdges(subsumeFacts: Boolean) {
+        var subsumesCalls = 0
+        val pathEdges = new PathEdges[TestFact, String, AnyRef](
+            (existingFacts, newFact) => {
+                subsumesCalls += 1
+                existingFacts.exists(_.subsumes(newFact, null))
+            },
+            subsumeFacts
+        )
+    }
+
+    behavior of "the path edges"
+
+    it should "add each edge only once" in {
+        val pathEdges = new TestPathEdges(subsumeFacts = false).pathEdges
+        pathEdges.add("s", TestFact(1)) should be(true)
+        pathEdges.add("s", TestFact(2)) should be(true)
+        pathEdges.add("s", TestFact(1)) should be(false)
+        pathEdges.get("s") should be(Some(Left(Set(TestFact(1), TestFact(2)))))
+        pathEdges.get("t") should be(None)
+    }
+
+    it should "keep the facts reaching a statement from different predecessors separately" in {
+        val pathEdges = new TestPathEdges(subsumeFacts = false).pathEdges
+        pathEdges.add("s", TestFact(1), Some("p1")) should be(true)
+        pathEdges.add("s", TestFact(2), Some("p1")) should be(true)
+        pathEdges.add("s", TestFact(1), Some("p2")) should be(true)
+        pathEdges.get("s") should be(Some(Right(Map(
+            "p1" -> Set(TestFact(1), TestFact(2)),
+            "p2" -> Set(TestFact(1))
+        ))))
+    }
+
+    it should "look up the known facts of a predecessor by the predecessor" in {
+        // Previously, the facts of a predecessor were looked up using the statement itself;
+        // hence, each edge was considered new and replaced the predecessor's facts.
+        val pathEdges = new TestPathEdges(subsumeFacts = false).pathEdges
+        pathEdges.add("s", TestFact(1), Some("p")) should be(true)
+        pathEdges.add("s", TestFact(2), Some("p")) should be(true)
+        pathEdges.add("s", TestFact(1), Some("p")) should be(false)
+        pathEdges.add("s", TestFact(2), Some("p")) should be(false)
+        pathEdges.get("s") should be(Some(Right(Map("p" -> Set(TestFact(1), TestFact(2))))))
+    }
+
+    it should "reject edges with a predecessor iff the statement does not mind about predecessors" in {
+        val pathEdges = new TestPathEdges(subsumeFacts = false).pathEdges
+        pathEdges.add("s", TestFact(1))
+        pathEdges.add("t", TestFact(1), Some("p"))
+        an[IllegalArgumentException] should be thrownBy pathEdges.add("s", TestFact(2), Some("p"))
+        an[IllegalArgumentException] should be thrownBy pathEdges.add("t", TestFact(2))
+    }
+
+    it should "number the statements and facts consecutively" in {
+        val pathEdges = new TestPathEdges(subsumeFacts = false).pathEdges
+        (0 until 200) foreach { i =>
+            pathEdges.factId(TestFact(i)) should be(i)
+            pathEdges.statementId(s"s$i") should be(i)
+        }
+        pathEdges.factId(TestFact(100)) should be(100)
+        pathEdges.fact(150) should be(TestFact(150))
+        pathEdges.statement(150) should be("s150")
+        pathEdges.someStatement(150) should be theSameInstanceAs pathEdges.someStatement(150)
+    }
+
+    it should "store arbitrarily many facts and predecessors per statement" in {
+        val pathEdges = new TestPathEdges(subsumeFacts = false).pathEdges
+        for { predecessor <- 0 until 100; fact <- 0 until 200 by (predecessor + 1) } {
+            pathEdges.add("s", TestFact(fact), Some(s"p$predecessor")) should be(true)
+        }
+        for { predecessor <- 0 until 100; fact <- 0 until 200 by (predecessor + 1) } {
+            pathEdges.add("s", TestFact(fact), Some(s"p$predecessor")) should be(false)
+        }
+        val Some(Right(facts)) = pathEdges.get("s"): @unchecked
+        facts.size should be(100)
+        (0 until 100) foreach { predecessor =>
+            facts(s"p$predecessor") should be((0 until 200 by (predecessor + 1)).map(TestFact(_)).toSet)
+        }
+        pathEdges.debugData should be(Map("s" -> (0 until 200).map(TestFact(_)).toSet))
+    }
+
+    it should "not add facts which are subsumed by the facts reaching the statement" in {
+        val testPathEdges = new TestPathEdges(subsumeFacts = true)
+        val pathEdges = testPathEdges.pathEdges
+        pathEdges.add("s", TestFact(2)) should be(true)
+        pathEdges.add("s", TestFact(3)) should be(true)
+        pathEdges.add("s", TestFact(4)) should be(false)
+        pathEdges.add("s", TestFact(9)) should be(false)
+        pathEdges.add("s", TestFact(5)) should be(true)
+        pathEdges.add("s", TestFact(5), None) should be(false)
+        pathEdges.get("s") should be(Some(Left(Set(TestFact(2), TestFact(3), TestFact(5)))))
+        // subsumption is only checked if the fact does not reach the statement yet
+        testPathEdges.subsumesCalls should be(4)
+    }
+
+    it should "check subsumption per predecessor" in {
+        val pathEdges = new TestPathEdges(subsumeFacts = true).pathEdges
+        pathEdges.add("s", TestFact(2), Some("p1")) should be(true)
+        pathEdges.add("s", TestFact(4), Some("p1")) should be(false)
+        pathEdges.add("s", TestFact(4), Some("p2")) should be(true)
+        pathEdges.get("s") should be(Some(Right(Map("p1" -> Set(TestFact(2)), "p2" -> Set(TestFact(4))))))
+    }
+
+    it should "never call the subsuming function if facts are not subsumed" in {
+        val testPathEdges = new TestPathEdges(subsumeFacts = false)
+        val pathEdges = testPathEdges.pathEdges
+        pathEdges.add("s", TestFact(2)) should be(true)
+        pathEdges.add("s", TestFact(4)) should be(true)
+        testPathEdges.subsumesCalls should be(0)
+    }
+
+    behavior of "the worklist"
+
+    def enqueue(worklist: Worklist, item: Int): Unit = worklist.enqueue(item, item + 1, item - 1)
+
+    def dequeue(worklist: Worklist): Int = {
+        val item = worklist.statementId
+        worklist.factId should be(item + 1)
+        worklist.predecessorId should be(item - 1)
+        worklist.dequeue()
+        item
+    }
+
+    it should "be a FIFO queue of (statement, fact, predecessor) ids" in {
+        val worklist = new Worklist
+        worklist.isEmpty should be(true)
+        (0 until 1000) foreach { enqueue(worklist, _) }
+        worklist.nonEmpty should be(true)
+        (0 until 1000) foreach { dequeue(worklist) should be(_) }
+        worklist.isEmpty should be(true)
+    }
+
+    it should "keep the order when it grows or compacts its items" in {
+        val worklist = new Worklist
+        var next = 0
+        var expected = 0
+        // the queue alternately grows and - because most items are removed - is compacted
+        (1 to 100) foreach { round =>
+            (1 to round * 3) foreach { _ => enqueue(worklist, next); next += 1 }
+            (1 to round * 3 - 1) foreach { _ => dequeue(worklist) should be(expected); expected += 1 }
+        }
+        while (worklist.nonEmpty) { dequeue(worklist) should be(expected); expected += 1 }
+        expected should be(next)
+    }
+}
@@ -0,0 +1,64 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+
+import java.util.concurrent.ConcurrentHashMap
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import com.typesafe.config.ConfigValueFactory
+
+import org.opalj.bi.TestResources.locateTestResources
+import org.opalj.br.BaseConfig
+import org.opalj.br.Method
+import org.opalj.br.analyses.Project
+
+/**
+ * Tests the [[BatchTACAI]].
+ */
+@RunWith(classOf[JUnitRunner])
+class BatchTACAITest extends AnyFlatSpec with Matchers {
+
+    val projectJAR = locateTestResources("methods.jar", "bi")
+
+    def computeAll(batch: BatchTACAI): (ConcurrentHashMap[Method, BatchTACAI.Result], BatchTACAI.Statistics) = {
+        val results = new ConcurrentHashMap[Method, BatchTACAI.Result]()
+        val statistics = batch.run(batch.project.allMethodsWithBody) { r => results.put(r.method, r) }
+        (results, statistics)
+    }
+
+    behavior of "the BatchTACAI"
+
+    it should "compute the TAC of all methods using the configured domain" in {
+        val project = Project(projectJAR)
+        val (results, statistics) = computeAll(new BatchTACAI(project))
+        results.size should be(project.allMethodsWithBody.size)
+        statistics.methodsCount should be(results.size)
+        statistics.configuredDomainCount should be(results.size)
+        statistics.slowestMethods.size should be(Math.min(results.size, BatchTACAI.SlowestMethodsCount))
+        results.values.forEach { r =>
+            r.strategy should be(BatchTACAI.ConfiguredDomain)
+            r.code shouldBe a[AITACode[?, ?]]
+        }
+    }
+
+    it should "fall back to a cheaper domain for methods exceeding the size budget" in {
+        val config = BaseConfig.withValue(BatchTACAI.MaxInstructionsConfigKey, ConfigValueFactory.fromAnyRef(0))
+        val project = Project(projectJAR, config)
+        val (results, statistics) = computeAll(new BatchTACAI(project))
+        results.size should be(project.allMethodsWithBody.size)
+        statistics.configuredDomainCount should be(0)
+        statistics.fallbackDomainCount + statistics.naiveTACCount should be(results.size)
+    }
+
+    it should "process the most expensive methods first" in {
+        val project = Project(projectJAR)
+        val batch = new BatchTACAI(project, m => new ai.domain.l1.DefaultDomainWithCFGAndDefUse(project, m), 1)
+        val costs = scala.collection.mutable.ArrayBuffer.empty[Double]
+        batch.run(project.allMethodsWithBody) { r => costs += batch.estimatedCost(r.method) }
+        costs.toList should be(costs.sortBy(-_).toList)
+    }
+}
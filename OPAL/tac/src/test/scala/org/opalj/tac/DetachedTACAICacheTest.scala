@@ -0,0 +1,90 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import com.typesafe.config.ConfigFactory
+
+import org.opalj.ai.BaseAI
+import org.opalj.ai.domain.l1.DefaultDomainWithCFGAndDefUse
+import org.opalj.br.Method
+import org.opalj.br.TestSupport.biProject
+import org.opalj.value.ValueInformation
+
+/**
+ * Tests the caching policies of the [[DetachedTACAICache]].
+ */
+@RunWith(classOf[JUnitRunner])
+class DetachedTACAICacheTest extends AnyFlatSpec with Matchers {
+
+    val project = biProject("methods.jar")
+    val methods = project.allMethodsWithBody.toIndexedSeq.sortBy(_.toJava).take(10)
+
+    def computeTAC(m: Method): AITACode[TACMethodParameter, ValueInformation] = {
+        val aiResult = BaseAI(m, new DefaultDomainWithCFGAndDefUse(project, m))
+        val taCode = TACAI(project, m, aiResult).asInstanceOf[AITACode[TACMethodParameter, ValueInformation]]
+        taCode.detach()
+        taCode
+    }
+
+    def cache(policy: String, capacity: Int = 3): DetachedTACAICache = {
+        val config = ConfigFactory.parseString(
+            s"""org.opalj.tacai.detachedTACAICache {
+               |  policy = "$policy", capacity = $capacity, weighByStatements = false
+               |}""".stripMargin
+        )
+        DetachedTACAICache(config)(computeTAC)
+    }
+
+    behavior of "the DetachedTACAICache"
+
+    it should "compute the TAC of each method at most once if it is unbounded" in {
+        val taCodes = cache("unbounded")
+        methods foreach { m => taCodes(m) should be theSameInstanceAs taCodes(m) }
+        taCodes.statistics should be(DetachedTACAICache.Statistics(methods.size.toLong, methods.size.toLong, 0L, methods.size))
+    }
+
+    it should "evict the least recently used TAC if the capacity is exceeded" in {
+        val taCodes = cache("lru")
+        methods foreach { m => taCodes(m) }
+        taCodes.size should be(3)
+        taCodes.statistics.evictions should be(methods.size - 3L)
+        taCodes(methods.last)
+        taCodes(methods.head)
+        taCodes.statistics.hits should be(1L)
+        taCodes.statistics.misses should be(methods.size + 1L)
+    }
+
+    it should "never exceed its capacity if it uses W-TinyLFU" in {
+        val taCodes = cache("tinylfu", capacity = 4)
+        for { _ <- 1 to 3; m <- methods } { taCodes(m) }
+        taCodes.size should be <= 4
+        taCodes.statistics.hits + taCodes.statistics.misses should be(3L * methods.size)
+    }
+
+    it should "count each request exactly once if accessed concurrently" in {
+        val allMethods = project.allMethodsWithBody.toIndexedSeq
+        for (policy <- List("lru", "tinylfu")) {
+            val taCodes = cache(policy, capacity = 1024)
+            val threads = (1 to 4).map { _ =>
+                new Thread(() => for { _ <- 1 to 3; m <- allMethods } { taCodes(m) })
+            }
+            threads.foreach(_.start())
+            threads.foreach(_.join())
+            taCodes.size should be <= 1024
+            taCodes.statistics.hits + taCodes.statistics.misses should be(12L * allMethods.size)
+        }
+    }
+
+    it should "not cache anything if caching is disabled" in {
+        val taCodes = cache("none")
+        methods foreach { m => taCodes(m); taCodes(m) }
+        taCodes.size should be(0)
+        taCodes.statistics.hits should be(0L)
+        taCodes.statistics.misses should be(2L * methods.size)
+    }
+}
@@ -0,0 +1,60 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package cg
+
+import java.io.File
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.bi.TestResources.locateTestResources
+import org.opalj.br.analyses.DeclaredMethods
+import org.opalj.br.analyses.DeclaredMethodsKey
+import org.opalj.br.analyses.Project
+import org.opalj.br.analyses.SomeProject
+import org.opalj.br.reader.Java8Framework.ClassFiles
+
+/**
+ * Tests that a call graph written by the [[BinaryCallGraphSerializer]] and loaded as a
+ * [[BinaryCallGraph]] has the same (context-insensitive) edges as the original call graph.
+ */
+@RunWith(classOf[JUnitRunner])
+class BinaryCallGraphTest extends AnyFlatSpec with Matchers {
+
+    val project: SomeProject = Project(ClassFiles(locateTestResources("classhierarchy.jar", "bi")))
+    val cg: CallGraph = project.get(CHACallGraphKey)
+    implicit val declaredMethods: DeclaredMethods = project.get(DeclaredMethodsKey)
+
+    val cgFile: File = File.createTempFile("BinaryCallGraphTest", ".cg")
+    cgFile.deleteOnExit()
+    BinaryCallGraphSerializer.writeCG(cg, cgFile)
+    val loadedCG: BinaryCallGraph = BinaryCallGraph(cgFile)
+
+    behavior of "the binary call graph"
+
+    it should "contain the reachable methods" in {
+        loadedCG.reachableMethods().toSet should be(cg.reachableMethods().map(_.method).toSet)
+        loadedCG.numEdges should be > 0
+    }
+
+    it should "contain the callees of all reachable methods" in {
+        cg.reachableMethods().map(_.method) foreach { m =>
+            val expectedCallees = cg.calleesOf(m).flatMap { case (pc, tgts) => tgts.map(pc -> _.method) }.toSet
+            val callees = loadedCG.calleesOf(m).flatMap { case (pc, tgts) => tgts.map(pc -> _) }.toSet
+            callees should be(expectedCallees)
+            expectedCallees.groupMap(_._1)(_._2) foreach { case (pc, tgts) =>
+                loadedCG.calleesOf(m, pc).toSet should be(tgts)
+            }
+            loadedCG.calleesOf(m, BinaryCallGraph.MaxPC + 1).isEmpty should be(true)
+        }
+    }
+
+    it should "contain the callers of all reachable methods" in {
+        cg.reachableMethods().map(_.method) foreach { m =>
+            loadedCG.callersOf(m).toSet should be(cg.callersOf(m).iterator.toSet)
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package cg
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.bi.TestResources.locateTestResources
+import org.opalj.br.analyses.Project
+import org.opalj.br.analyses.SomeProject
+import org.opalj.br.reader.Java8Framework.ClassFiles
+
+/**
+ * Tests that a [[FrozenCallGraph]] is equivalent to the [[CallGraph]] it was created from.
+ */
+@RunWith(classOf[JUnitRunner])
+class FrozenCallGraphTest extends AnyFlatSpec with Matchers {
+
+    val project: SomeProject = Project(ClassFiles(locateTestResources("classhierarchy.jar", "bi")))
+    val cg: CallGraph = project.get(CHACallGraphKey)
+    val frozenCG: FrozenCallGraph = cg.freeze()
+
+    behavior of "the frozen call graph"
+
+    it should "contain all reachable contexts" in {
+        val reachableContexts = cg.reachableMethods().toSet
+        frozenCG.nodesCount should be(reachableContexts.size)
+        reachableContexts foreach { context =>
+            val node = frozenCG.node(context)
+            node should be >= 0
+            frozenCG.context(node) should be(context)
+            var found = false
+            frozenCG.foreachNode(context.method) { n => found ||= n == node }
+            found should be(true)
+        }
+    }
+
+    it should "contain the callees and callers of all reachable methods" in {
+        cg.reachableMethods() foreach { context =>
+            val node = frozenCG.node(context)
+            val expectedCallees = cg.calleesOf(context.method).flatMap { case (pc, callees) =>
+                callees.map(callee => (pc, callee.method))
+            }.toSet
+            var callees = Set.empty[(Int, br.DeclaredMethod)]
+            var e = frozenCG.calleeEdgesStart(node)
+            while (e < frozenCG.calleeEdgesEnd(node)) {
+                callees += ((frozenCG.calleeEdgePC(e), frozenCG.method(frozenCG.calleeEdgeTarget(e))))
+                e += 1
+            }
+            callees should be(expectedCallees)
+
+            var callers = Set.empty[(br.DeclaredMethod, Int, Boolean)]
+            e = frozenCG.callerEdgesStart(node)
+            while (e < frozenCG.callerEdgesEnd(node)) {
+                val caller = frozenCG.method(frozenCG.callerEdgeSource(e))
+                callers += ((caller, frozenCG.callerEdgePC(e), frozenCG.isDirectCallerEdge(e)))
+                e += 1
+            }
+            callers should be(cg.callersOf(context.method).iterator.toSet)
+        }
+    }
+
+    it should "compute the same reachable nodes sequentially and in parallel" in {
+        val roots = (0 until frozenCG.nodesCount by 7).toArray
+        frozenCG.reachableNodes(roots, parallel = true) should be(frozenCG.reachableNodes(roots, parallel = false))
+        frozenCG.reachableNodes(roots, backwards = true, parallel = true) should be(
+            frozenCG.reachableNodes(roots, backwards = true, parallel = false)
+        )
+    }
+
+    it should "compute the strongly connected components" in {
+        val sccs = frozenCG.stronglyConnectedComponents(parallel = true)
+        val componentOf = sccs.componentOf
+        componentOf.forall(c => c >= 0 && c < sccs.componentsCount) should be(true)
+        componentOf.distinct.length should be(sccs.componentsCount)
+        // two nodes are in the same component iff they are mutually reachable
+        val reachable = (0 until frozenCG.nodesCount).map(n => frozenCG.reachableNodes(Array(n), parallel = false))
+        for {
+            n1 <- 0 until frozenCG.nodesCount
+            n2 <- 0 until frozenCG.nodesCount
+        } {
+            val mutuallyReachable = reachable(n1).get(n2) && reachable(n2).get(n1)
+            (componentOf(n1) == componentOf(n2)) should be(mutuallyReachable)
+        }
+        frozenCG.stronglyConnectedComponents(parallel = false).componentsCount should be(sccs.componentsCount)
+    }
+}
@@ -0,0 +1,68 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package fpcf
+package analyses
+package ide
+package solver
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.bi.TestResources.locateTestResources
+import org.opalj.br.analyses.Project
+import org.opalj.br.analyses.SomeProject
+import org.opalj.br.reader.Java8Framework.ClassFiles
+import org.opalj.tac.cg.CHACallGraphKey
+
+/**
+ * Tests that a [[FrozenJavaICFG]] is equivalent to the ICFG it was created from.
+ */
+@RunWith(classOf[JUnitRunner])
+class FrozenJavaICFGTest extends AnyFlatSpec with Matchers {
+
+    val project: SomeProject = Project(ClassFiles(locateTestResources("classhierarchy.jar", "bi")))
+    val cg = project.get(CHACallGraphKey)
+    val reachableMethods = cg.reachableMethods().map(_.method).collect {
+        case dm if dm.hasSingleDefinedMethod && dm.definedMethod.body.isDefined => dm.definedMethod
+    }.toSet
+
+    def checkEquivalence(baseICFG: JavaBaseICFG): Unit = {
+        val frozenICFG = new FrozenJavaICFG(project, baseICFG)
+        reachableMethods foreach { m =>
+            frozenICFG.getStartStatements(m) should be(baseICFG.getStartStatements(m))
+            frozenICFG.getCallers(m) should be(baseICFG.getCallers(m))
+            val tac = baseICFG.tacProvider(m)
+            tac.stmts.indices foreach { tacIndex =>
+                val stmt = JavaStatement(m, tacIndex, isReturnNode = false, tac.stmts, tac.cfg)
+                val stmts =
+                    if (baseICFG.isCallStatement(stmt)) Seq(stmt, stmt.copy(isReturnNode = true))
+                    else Seq(stmt)
+                stmts foreach { stmt =>
+                    val id = frozenICFG.statementId(stmt)
+                    id should be >= 0
+                    frozenICFG.statement(id) should be(stmt)
+                    frozenICFG.getNextStatements(stmt) should be(baseICFG.getNextStatements(stmt))
+                    frozenICFG.isCallStatement(stmt) should be(baseICFG.isCallStatement(stmt))
+                    frozenICFG.isNormalExitStatement(stmt) should be(baseICFG.isNormalExitStatement(stmt))
+                    frozenICFG.isAbnormalExitStatement(stmt) should be(baseICFG.isAbnormalExitStatement(stmt))
+                    if (baseICFG.isCallStatement(stmt))
+                        frozenICFG.getCallees(stmt) should be(baseICFG.getCallees(stmt))
+                }
+            }
+        }
+    }
+
+    behavior of "the frozen ICFG"
+
+    it should "be equivalent to the forward ICFG" in {
+        reachableMethods should not be empty
+        checkEquivalence(new JavaForwardICFG(project))
+    }
+
+    it should "be equivalent to the backward ICFG" in {
+        checkEquivalence(new JavaBackwardICFG(project))
+    }
+}
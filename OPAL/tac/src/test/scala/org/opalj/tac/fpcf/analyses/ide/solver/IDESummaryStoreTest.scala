@@ -0,0 +1,144 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package fpcf
+package analyses
+package ide
+package solver
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.bi.TestResources.locateTestResources
+import org.opalj.br.Field
+import org.opalj.br.FieldTemplate
+import org.opalj.br.IntegerType
+import org.opalj.br.Method
+import org.opalj.br.analyses.ClassFileHashes
+import org.opalj.br.analyses.Project
+import org.opalj.br.analyses.SomeProject
+import org.opalj.br.reader.Java8Framework.ClassFiles
+import org.opalj.ide.problem.IdentityEdgeFunction
+import org.opalj.ide.solver.IDESummaryStore
+import org.opalj.log.GlobalLogContext
+import org.opalj.log.LogContext
+import org.opalj.tac.cg.CHACallGraphKey
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.LinearConstantPropagationSummaryCodec
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.ConstantValue
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.LinearCombinationEdgeFunction
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.LinearConstantPropagationFact
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.LinearConstantPropagationValue
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.NullFact
+import org.opalj.tac.fpcf.analyses.ide.instances.linear_constant_propagation.problem.VariableFact
+
+/**
+ * Tests persisting and reading the summaries of Java methods using an [[IDESummaryStore]].
+ */
+@RunWith(classOf[JUnitRunner])
+class IDESummaryStoreTest extends AnyFlatSpec with Matchers {
+
+    implicit val logContext: LogContext = GlobalLogContext
+
+    val jar = locateTestResources("classhierarchy.jar", "bi")
+
+    val project: SomeProject = Project(ClassFiles(jar))
+    project.get(CHACallGraphKey)
+    val method: Method = project.allMethodsWithBody.maxBy(_.body.get.instructions.length)
+
+    val otherProject: SomeProject = Project(ClassFiles(jar))
+    otherProject.get(CHACallGraphKey)
+    val otherMethod: Method = otherProject.allMethodsWithBody.find(_.toJava == method.toJava).get
+
+    /**
+     * The methods of the test project are not library methods; hence, all methods are treated as persistable
+     */
+    def newStore(project: SomeProject): IDESummaryStore[
+        LinearConstantPropagationFact,
+        LinearConstantPropagationValue,
+        JavaStatement,
+        Method
+    ] = {
+        val scope = new JavaSummaryScope(project)
+        new IDESummaryStore(new LinearConstantPropagationSummaryCodec(scope) {
+            override def callableKey(callable: Method): Option[String] = Some(scope.methodHash(callable))
+            override def isPersistable(callable: Method): Boolean = true
+        })
+    }
+
+    def statements(project: SomeProject, method: Method): IndexedSeq[JavaStatement] = {
+        val tac = new JavaForwardICFG(project).tacProvider(method)
+        tac.stmts.indices.map(JavaStatement(method, _, isReturnNode = false, tac.stmts, tac.cfg))
+    }
+
+    def withStoreFile(f: Path => Unit): Unit = {
+        val file = Files.createTempFile("IDESummaryStoreTest", ".summaries")
+        try f(file) finally Files.deleteIfExists(file)
+    }
+
+    behavior of "the Java summary scope"
+
+    it should "compute stable method hashes" in {
+        val scope = new JavaSummaryScope(project)
+        new JavaSummaryScope(otherProject).methodHash(otherMethod) should be(scope.methodHash(method))
+        project.allMethodsWithBody.map(scope.methodHash).toSet.size should be(project.allMethodsWithBody.size)
+    }
+
+    it should "compute method hashes that are independent of the other members of the class" in {
+        val classFile = method.classFile
+        val addedField = Field(name = "addedField", fieldType = IntegerType)
+        val changedClassFile = classFile.copy(fields = classFile.fields.map[FieldTemplate](_.copy()) :+ addedField)
+        val changedMethod = changedClassFile.findMethod(method.name, method.descriptor).get
+        changedMethod should not be theSameInstanceAs(method)
+        ClassFileHashes.hash(changedMethod) should be(ClassFileHashes.hash(method))
+    }
+
+    it should "not persist the summaries of application methods" in {
+        new JavaSummaryScope(project).isPersistable(method) should be(false)
+    }
+
+    behavior of "the IDE summary store"
+
+    it should "not write callables without final summaries" in {
+        withStoreFile { file =>
+            val store = newStore(project)
+            store.recordStart(method, (statements(project, method)(0), NullFact))
+            store.write(file, Array[Byte](1)) should be(0)
+        }
+    }
+
+    it should "read the summaries it has written" in {
+        withStoreFile { file =>
+            val stmts = statements(project, method)
+            val store = newStore(project)
+            val start = (stmts(0), NullFact)
+            val end = (stmts(1), VariableFact("lv1", 1))
+            store.recordStart(method, start)
+            store.recordStart(method, (stmts(0), VariableFact("param1", -2)))
+            // the end summaries of this start node are never final; hence, they are not persisted
+            store.recordStart(method, (stmts(0), VariableFact("param2", -3)))
+            store.record(method, start, Set((end, IdentityEdgeFunction)))
+            store.record(method, start, Set((end, LinearCombinationEdgeFunction(2, 3, ConstantValue(7)))))
+            store.record(method, (stmts(0), VariableFact("param1", -2)), Set.empty)
+            // the start node was not recorded; hence, the end summaries are ignored
+            store.record(method, (stmts(1), NullFact), Set((end, IdentityEdgeFunction)))
+            store.write(file, Array[Byte](1)) should be(1)
+
+            val otherStmts = statements(otherProject, otherMethod)
+            val otherStore = newStore(otherProject)
+            otherStore.read(file, Array[Byte](2)) should be(0)
+            otherStore.read(file, Array[Byte](1)) should be(1)
+            val Some(endSummaries) = otherStore.lookup(otherMethod, (otherStmts(0), NullFact)): @unchecked
+            endSummaries should be(
+                Set(((otherStmts(1), VariableFact("lv1", 1)), LinearCombinationEdgeFunction(2, 3, ConstantValue(7))))
+            )
+            otherStore.lookup(otherMethod, (otherStmts(0), VariableFact("param1", -2))) should be(Some(Set.empty))
+            otherStore.lookup(otherMethod, (otherStmts(0), VariableFact("param2", -3))) should be(None)
+            otherStore.lookup(otherMethod, (otherStmts(1), NullFact)) should be(None)
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/* BSD 2-Clause License - see OPAL/LICENSE for details. */
+package org.opalj
+package tac
+package fpcf
+package analyses
+package ifds
+package taint
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+
+import org.junit.runner.RunWith
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import org.scalatestplus.junit.JUnitRunner
+
+import org.opalj.bi.TestResources.locateTestResources
+import org.opalj.br.Method
+import org.opalj.br.TestSupport.biProject
+import org.opalj.br.analyses.Project
+import org.opalj.br.analyses.SomeProject
+import org.opalj.br.reader.Java8Framework.ClassFiles
+import org.opalj.ifds.IFDSFact
+import org.opalj.ifds.IFDSProperty
+import org.opalj.tac.cg.CHACallGraphKey
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaForwardICFG
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaStatement
+import org.opalj.tac.fpcf.analyses.ide.solver.JavaSummaryScope
+import org.opalj.tac.fpcf.properties.Taint
+
+/**
+ * Tests encoding and decoding the summaries of taint analyses using a [[TaintPropertySnapshotCodec]].
+ */
+@RunWith(classOf[JUnitRunner])
+class TaintPropertySnapshotCodecTest extends AnyFlatSpec with Matchers {
+
+    type SummaryEntity = (Method, IFDSFact[TaintFact, Method, JavaStatement])
+
+    val project: SomeProject = Project(ClassFiles(locateTestResources("classhierarchy.jar", "bi")))
+    project.get(CHACallGraphKey)
+    val method: Method = project.allMethodsWithBody.maxBy(_.body.get.instructions.length)
+
+    /** A method that is not available in the test project. */
+    val otherMethod: Method = biProject("methods.jar").allMethodsWithBody.head
+
+    val stmts: IndexedSeq[JavaStatement] = {
+        val tac = new JavaForwardICFG(project).tacProvider(method)
+        tac.stmts.indices.map(JavaStatement(method, _, isReturnNode = false, tac.stmts, tac.cfg))
+    }
+
+    /**
+     * The methods of the test project are not library methods; hence, their persistability is set explicitly
+     */
+    def codec(persistable: Boolean): TaintPropertySnapshotCodec = {
+        new TaintPropertySnapshotCodec(new JavaSummaryScope(project)) {
+            override def isPersistable(callable: Method): Boolean = persistable
+        }
+    }
+
+    def encode(e: SummaryEntity, p: IFDSProperty[JavaStatement, TaintFact]): Array[Byte] = {
+        val data = new ByteArrayOutputStream()
+        val out = new DataOutputStream(data)
+        val theCodec = codec(persistable = true)
+        theCodec.writeEntity(e, out)
+        theCodec.writeProperty(p, out)
+        out.flush()
+        data.toByteArray
+    }
+
+    def decode(
+        data:        Array[Byte],
+        persistable: Boolean = true
+    ): (SummaryEntity, IFDSProperty[JavaStatement, TaintFact]) = {
+        val in = new DataInputStream(new ByteArrayInputStream(data))
+        val theCodec = codec(persistable)
+        val e = theCodec.readEntity(in)
+        val p = theCodec.readProperty(e, in)
+        in.available() should be(0)
+        (e, p)
+    }
+
+    val entity: SummaryEntity = (method, new IFDSFact(Variable(-2)))
+
+    val property: IFDSProperty[JavaStatement, TaintFact] = Taint(Map(
+        stmts(0) -> Set(TaintNullFact, Variable(-2)),
+        stmts(1) -> Set(
+            ArrayElement(1, 3),
+            StaticField(method.classFile.thisType, "f"),
+            InstanceField(1, method.classFile.thisType, "g"),
+            FlowFact(Seq(method))
+        )
+    ))
+
+    behavior of "the taint property snapshot codec"
+
+    it should "read the entities and properties it has written" in {
+        decode(encode(entity, property)) should be((entity, property))
+    }
+
+    it should "not read the summaries of callables that are not persistable in the current run" in {
+        decode(encode(entity, property), persistable = false) should be((null, null))
+    }
+
+    it should "not read entities with facts that refer to unavailable methods" in {
+        val unavailableEntity: SummaryEntity = (method, new IFDSFact(FlowFact(Seq(method, otherMethod))))
+        decode(encode(unavailableEntity, property)) should be((null, null))
+    }
+
+    it should "not read properties with facts that refer to unavailable methods" in {
+        val unavailableProperty = Taint(Map(stmts(1) -> Set(Variable(1), FlowFact(Seq(otherMethod)))))
+        decode(encode(entity, unavailableProperty)) should be((entity, null))
+    }
+}